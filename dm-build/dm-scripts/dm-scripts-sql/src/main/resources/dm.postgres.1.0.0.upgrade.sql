@@ -0,0 +1,115 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+--
+-- Upgrades a DM 1.0.0 database. Run this script once against a database created by the 1.0.0 version of dm.postgres.create.sql.
+--
+
+SET client_min_messages = warning;
+
+
+--
+-- Add the latest status version flag to business object data and the latest version flags to storage units.
+--
+
+ALTER TABLE bus_objct_data ADD COLUMN ltst_stts_vrsn_fl character(1) DEFAULT 'N'::bpchar NOT NULL;
+ALTER TABLE bus_objct_data ADD CONSTRAINT bus_objct_data_ck2 CHECK ((ltst_stts_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar])));
+
+ALTER TABLE strge_unit ADD COLUMN ltst_vrsn_fl character(1) DEFAULT 'N'::bpchar NOT NULL;
+ALTER TABLE strge_unit ADD COLUMN ltst_stts_vrsn_fl character(1) DEFAULT 'N'::bpchar NOT NULL;
+ALTER TABLE strge_unit ADD CONSTRAINT strge_unit_ck1 CHECK ((ltst_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar])));
+ALTER TABLE strge_unit ADD CONSTRAINT strge_unit_ck2 CHECK ((ltst_stts_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar])));
+
+
+--
+-- Flag the latest version of each business object data among the versions that have the same status.
+--
+
+UPDATE bus_objct_data d SET ltst_stts_vrsn_fl = 'Y'
+WHERE d.vrsn_nb = (SELECT MAX(o.vrsn_nb) FROM bus_objct_data o
+                   WHERE o.bus_objct_frmt_id = d.bus_objct_frmt_id
+                     AND o.prtn_value_tx = d.prtn_value_tx
+                     AND o.prtn_value_2_tx IS NOT DISTINCT FROM d.prtn_value_2_tx
+                     AND o.prtn_value_3_tx IS NOT DISTINCT FROM d.prtn_value_3_tx
+                     AND o.prtn_value_4_tx IS NOT DISTINCT FROM d.prtn_value_4_tx
+                     AND o.prtn_value_5_tx IS NOT DISTINCT FROM d.prtn_value_5_tx
+                     AND o.bus_objct_data_stts_cd = d.bus_objct_data_stts_cd);
+
+
+--
+-- Flag the storage units of the latest business object data version in each storage, overall and per status.
+--
+
+UPDATE strge_unit su SET ltst_vrsn_fl = 'Y'
+FROM bus_objct_data d
+WHERE su.bus_objct_data_id = d.bus_objct_data_id
+  AND d.vrsn_nb = (SELECT MAX(o.vrsn_nb) FROM bus_objct_data o JOIN strge_unit osu ON osu.bus_objct_data_id = o.bus_objct_data_id
+                   WHERE osu.strge_cd = su.strge_cd
+                     AND o.bus_objct_frmt_id = d.bus_objct_frmt_id
+                     AND o.prtn_value_tx = d.prtn_value_tx
+                     AND o.prtn_value_2_tx IS NOT DISTINCT FROM d.prtn_value_2_tx
+                     AND o.prtn_value_3_tx IS NOT DISTINCT FROM d.prtn_value_3_tx
+                     AND o.prtn_value_4_tx IS NOT DISTINCT FROM d.prtn_value_4_tx
+                     AND o.prtn_value_5_tx IS NOT DISTINCT FROM d.prtn_value_5_tx);
+
+UPDATE strge_unit su SET ltst_stts_vrsn_fl = 'Y'
+FROM bus_objct_data d
+WHERE su.bus_objct_data_id = d.bus_objct_data_id
+  AND d.vrsn_nb = (SELECT MAX(o.vrsn_nb) FROM bus_objct_data o JOIN strge_unit osu ON osu.bus_objct_data_id = o.bus_objct_data_id
+                   WHERE osu.strge_cd = su.strge_cd
+                     AND o.bus_objct_frmt_id = d.bus_objct_frmt_id
+                     AND o.prtn_value_tx = d.prtn_value_tx
+                     AND o.prtn_value_2_tx IS NOT DISTINCT FROM d.prtn_value_2_tx
+                     AND o.prtn_value_3_tx IS NOT DISTINCT FROM d.prtn_value_3_tx
+                     AND o.prtn_value_4_tx IS NOT DISTINCT FROM d.prtn_value_4_tx
+                     AND o.prtn_value_5_tx IS NOT DISTINCT FROM d.prtn_value_5_tx
+                     AND o.bus_objct_data_stts_cd = d.bus_objct_data_stts_cd);
+
+
+--
+-- Name: bus_objct_data_ix3; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX bus_objct_data_ix3 ON bus_objct_data USING btree (bus_objct_frmt_id, prtn_value_tx, prtn_value_2_tx, prtn_value_3_tx, prtn_value_4_tx, prtn_value_5_tx, bus_objct_data_stts_cd) WHERE (ltst_stts_vrsn_fl = 'Y'::bpchar);
+
+
+--
+-- Name: bus_objct_data_ix4; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX bus_objct_data_ix4 ON bus_objct_data USING btree (bus_objct_frmt_id, prtn_value_tx, prtn_value_2_tx, prtn_value_3_tx, prtn_value_4_tx, prtn_value_5_tx) WHERE (ltst_vrsn_fl = 'Y'::bpchar);
+
+
+--
+-- Add the lease columns to JMS messages, so several publishing workers can claim disjoint batches of messages.
+--
+
+ALTER TABLE jms_msg ADD COLUMN lease_owner_tx character varying(100);
+ALTER TABLE jms_msg ADD COLUMN lease_exprn_ts timestamp without time zone;
+
+
+--
+-- Name: jms_msg_ix1; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX jms_msg_ix1 ON jms_msg USING btree (jms_queue_nm, lease_exprn_ts);
+
+
+--
+-- Add the MD5 digest to storage files, so downloads can verify the files they get.
+--
+
+ALTER TABLE strge_file ADD COLUMN md5_hash_tx character varying(32);
@@ -77,7 +77,9 @@ CREATE TABLE bus_objct_data (
     prtn_value_4_tx character varying(30),
     prtn_value_5_tx character varying(30),
     bus_objct_data_stts_cd character varying(20) NOT NULL,
-    CONSTRAINT bus_objct_data_ck1 CHECK ((ltst_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar])))
+    ltst_stts_vrsn_fl character(1) DEFAULT 'N'::bpchar NOT NULL,
+    CONSTRAINT bus_objct_data_ck1 CHECK ((ltst_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar]))),
+    CONSTRAINT bus_objct_data_ck2 CHECK ((ltst_stts_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar])))
 );
 
 
@@ -137,7 +139,8 @@ CREATE TABLE strge_file (
     creat_user_id character varying(100) NOT NULL,
     updt_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
     updt_user_id character varying(100),
-    row_ct bigint
+    row_ct bigint,
+    md5_hash_tx character varying(32)
 );
 
 
@@ -153,7 +156,11 @@ CREATE TABLE strge_unit (
     updt_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
     updt_user_id character varying(100),
     strge_cd character varying(25) NOT NULL,
-    drcty_path_tx character varying(1024)
+    drcty_path_tx character varying(1024),
+    ltst_vrsn_fl character(1) DEFAULT 'N'::bpchar NOT NULL,
+    ltst_stts_vrsn_fl character(1) DEFAULT 'N'::bpchar NOT NULL,
+    CONSTRAINT strge_unit_ck1 CHECK ((ltst_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar]))),
+    CONSTRAINT strge_unit_ck2 CHECK ((ltst_stts_vrsn_fl = ANY (ARRAY['Y'::bpchar, 'N'::bpchar])))
 );
 
 
@@ -545,6 +552,8 @@ CREATE TABLE jms_msg (
     jms_msg_id bigint NOT NULL,
     jms_queue_nm character varying(100) NOT NULL,
     msg_tx text NOT NULL,
+    lease_owner_tx character varying(100),
+    lease_exprn_ts timestamp without time zone,
     creat_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
     creat_user_id character varying(100) NOT NULL,
     updt_ts timestamp without time zone DEFAULT ('now'::text)::timestamp without time zone NOT NULL,
@@ -1298,6 +1307,20 @@ CREATE INDEX bus_objct_data_ix1 ON bus_objct_data USING btree (bus_objct_frmt_id
 CREATE INDEX bus_objct_data_ix2 ON bus_objct_data USING btree (bus_objct_data_stts_cd);
 
 
+--
+-- Name: bus_objct_data_ix3; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX bus_objct_data_ix3 ON bus_objct_data USING btree (bus_objct_frmt_id, prtn_value_tx, prtn_value_2_tx, prtn_value_3_tx, prtn_value_4_tx, prtn_value_5_tx, bus_objct_data_stts_cd) WHERE (ltst_stts_vrsn_fl = 'Y'::bpchar);
+
+
+--
+-- Name: bus_objct_data_ix4; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX bus_objct_data_ix4 ON bus_objct_data USING btree (bus_objct_frmt_id, prtn_value_tx, prtn_value_2_tx, prtn_value_3_tx, prtn_value_4_tx, prtn_value_5_tx) WHERE (ltst_vrsn_fl = 'Y'::bpchar);
+
+
 --
 -- Name: bus_objct_data_prnt_ix1; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
 --
@@ -1438,6 +1461,13 @@ CREATE UNIQUE INDEX emr_clstr_dfntn_ak ON emr_clstr_dfntn USING btree (name_spac
 CREATE INDEX emr_clstr_dfntn_ix1 ON emr_clstr_dfntn USING btree (name_space_cd);
 
 
+--
+-- Name: jms_msg_ix1; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
+--
+
+CREATE INDEX jms_msg_ix1 ON jms_msg USING btree (jms_queue_nm, lease_exprn_ts);
+
+
 --
 -- Name: job_dfntn_ak; Type: INDEX; Schema: dmrowner; Owner: -; Tablespace: 
 --
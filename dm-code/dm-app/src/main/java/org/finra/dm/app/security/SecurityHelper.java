@@ -16,12 +16,24 @@
 package org.finra.dm.app.security;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
@@ -46,9 +58,15 @@ public class SecurityHelper
 {
     private static ExpressionParser expressionParser = new SpelExpressionParser();
 
+    private static final Logger LOGGER = Logger.getLogger(SecurityHelper.class);
+
     @Autowired
     private ConfigurationHelper configurationHelper;
 
+    private volatile AuthoritySnapshot authoritySnapshot;
+
+    private ScheduledExecutorService refreshExecutor;
+
     /**
      * Checks whether the user was generated by.
      *
@@ -73,38 +91,144 @@ public class SecurityHelper
     }
 
     /**
-     * Maps the given collection of roles to functional points.
+     * Maps the given collection of roles to functional points. The authorities come from an immutable snapshot of the role to function mappings, so the same
+     * set of roles always maps to the same shared set of authorities and no database or cache lookups are made once the snapshot is loaded.
      *
      * @param roles - the collection of roles to map to functions.
      *
      * @return set of {@link GrantedAuthority} representing functional points.
      */
     public Set<GrantedAuthority> mapRolesToFunctions(Collection<String> roles)
+    {
+        return getAuthoritySnapshot().getAuthorities(roles);
+    }
+
+    /**
+     * Reloads the role to function mappings and replaces the current authority snapshot if the mappings have changed. This method is called periodically by
+     * a background thread, but it can also be called directly to pick up the changes right away.
+     */
+    public void refreshAuthoritySnapshot()
     {
         // TODO Getting DmDao from applicationContext statically because if we try to wire DmDao here it does not get constructed with proxy class that is
         // needed for @Cacheable methods to work.
         DmDao dmDao = ApplicationContextHolder.getApplicationContext().getBean(DmDao.class);
 
-        Set<GrantedAuthority> authorities = new HashSet<>();
-        for (String role : roles)
+        // Read both the mappings and the functions straight from the database, since the snapshot already takes the place of the caches and going through
+        // the cached lookups would delay the changes by up to the cache time to live.
+        Map<String, List<String>> securityFunctionsByRole = dmDao.getSecurityFunctionsByRole();
+        List<String> securityFunctions = dmDao.getUncachedSecurityFunctions();
+
+        synchronized (this)
+        {
+            AuthoritySnapshot currentSnapshot = authoritySnapshot;
+            if (currentSnapshot == null || !currentSnapshot.hasSameMappings(securityFunctionsByRole, securityFunctions))
+            {
+                long version = currentSnapshot == null ? 1 : currentSnapshot.getVersion() + 1;
+                authoritySnapshot = new AuthoritySnapshot(version, securityFunctionsByRole, securityFunctions);
+                LOGGER.info(String.format("Loaded security authority snapshot version %d with %d roles and %d functions.", version,
+                    securityFunctionsByRole.size(), securityFunctions.size()));
+            }
+        }
+    }
+
+    /**
+     * Gets the version of the current authority snapshot.
+     *
+     * @return the snapshot version or 0 if the snapshot is not loaded yet
+     */
+    public long getAuthoritySnapshotVersion()
+    {
+        AuthoritySnapshot currentSnapshot = authoritySnapshot;
+        return currentSnapshot == null ? 0 : currentSnapshot.getVersion();
+    }
+
+    /**
+     * Stops the background refresh of the authority snapshot.
+     */
+    @PreDestroy
+    public void shutdown()
+    {
+        synchronized (this)
+        {
+            if (refreshExecutor != null)
+            {
+                refreshExecutor.shutdownNow();
+                refreshExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Stops the background refresh and discards the current authority snapshot, so the next lookup loads a new snapshot from the database.
+     */
+    public void resetAuthoritySnapshot()
+    {
+        synchronized (this)
         {
-            if (role.equalsIgnoreCase(TrustedApplicationUserBuilder.TRUSTED_USER_ROLE))
+            shutdown();
+            authoritySnapshot = null;
+        }
+    }
+
+    /**
+     * Gets the current authority snapshot. The first call loads the snapshot and starts its background refresh.
+     *
+     * @return the authority snapshot
+     */
+    private AuthoritySnapshot getAuthoritySnapshot()
+    {
+        AuthoritySnapshot currentSnapshot = authoritySnapshot;
+
+        if (currentSnapshot == null)
+        {
+            synchronized (this)
             {
-                // Add all functional points.
-                for (String function : dmDao.getSecurityFunctions())
+                if (authoritySnapshot == null)
                 {
-                    authorities.add(new SimpleGrantedAuthority(function));
+                    refreshAuthoritySnapshot();
+                    startBackgroundRefresh();
                 }
+                currentSnapshot = authoritySnapshot;
+            }
+        }
+
+        return currentSnapshot;
+    }
+
+    /**
+     * Starts a daemon thread that periodically refreshes the authority snapshot.
+     */
+    private void startBackgroundRefresh()
+    {
+        long refreshIntervalSecs = configurationHelper.getProperty(ConfigurationValue.SECURITY_FUNCTIONS_REFRESH_INTERVAL_SECS, Integer.class);
+
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "securityAuthoritySnapshotRefresh");
+                thread.setDaemon(true);
+                return thread;
             }
-            else
+        });
+
+        refreshExecutor.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
             {
-                for (String function : dmDao.getSecurityFunctionsForRole(role))
+                try
+                {
+                    refreshAuthoritySnapshot();
+                }
+                catch (Exception e)
                 {
-                    authorities.add(new SimpleGrantedAuthority(function));
+                    // Keep using the current snapshot and try again on the next run.
+                    LOGGER.error("Failed to refresh the security authority snapshot.", e);
                 }
             }
-        }
-        return authorities;
+        }, refreshIntervalSecs, refreshIntervalSecs, TimeUnit.SECONDS);
     }
 
     /**
@@ -131,4 +255,102 @@ public class SecurityHelper
 
         return isSecurityEnabled;
     }
+
+    /**
+     * An immutable snapshot of the role to function mappings. All the authorities are shared, and the authority sets computed for each distinct set of roles
+     * are memoized, so mapping the roles of a request is a single hash lookup.
+     */
+    private static final class AuthoritySnapshot
+    {
+        /**
+         * The maximum number of distinct role sets to memoize, so arbitrary roles in the request headers can't grow the snapshot without bounds.
+         */
+        private static final int MAX_MEMOIZED_ROLE_SETS = 10000;
+
+        private final long version;
+
+        private final Map<String, List<String>> securityFunctionsByRole;
+
+        private final List<String> securityFunctions;
+
+        private final Map<String, Set<GrantedAuthority>> authoritiesByRole = new HashMap<>();
+
+        private final Set<GrantedAuthority> allAuthorities;
+
+        private final ConcurrentMap<Set<String>, Set<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+
+        AuthoritySnapshot(long version, Map<String, List<String>> securityFunctionsByRole, List<String> securityFunctions)
+        {
+            this.version = version;
+            this.securityFunctionsByRole = securityFunctionsByRole;
+            this.securityFunctions = securityFunctions;
+
+            // Create a single authority instance per function and share it between the roles.
+            Map<String, GrantedAuthority> authorities = new HashMap<>();
+            for (String function : securityFunctions)
+            {
+                authorities.put(function, new SimpleGrantedAuthority(function));
+            }
+
+            for (Map.Entry<String, List<String>> entry : securityFunctionsByRole.entrySet())
+            {
+                Set<GrantedAuthority> roleAuthorities = new HashSet<>();
+                for (String function : entry.getValue())
+                {
+                    GrantedAuthority authority = authorities.get(function);
+                    roleAuthorities.add(authority != null ? authority : new SimpleGrantedAuthority(function));
+                }
+                authoritiesByRole.put(entry.getKey(), Collections.unmodifiableSet(roleAuthorities));
+            }
+
+            allAuthorities = Collections.unmodifiableSet(new HashSet<>(authorities.values()));
+        }
+
+        long getVersion()
+        {
+            return version;
+        }
+
+        boolean hasSameMappings(Map<String, List<String>> securityFunctionsByRole, List<String> securityFunctions)
+        {
+            return this.securityFunctionsByRole.equals(securityFunctionsByRole) && this.securityFunctions.equals(securityFunctions);
+        }
+
+        Set<GrantedAuthority> getAuthorities(Collection<String> roles)
+        {
+            Set<String> roleSet = roles instanceof Set ? (Set<String>) roles : new HashSet<>(roles);
+
+            Set<GrantedAuthority> authorities = authoritiesByRoles.get(roleSet);
+
+            if (authorities == null)
+            {
+                Set<GrantedAuthority> mergedAuthorities = new HashSet<>();
+                for (String role : roleSet)
+                {
+                    if (role.equalsIgnoreCase(TrustedApplicationUserBuilder.TRUSTED_USER_ROLE))
+                    {
+                        // Add all functional points.
+                        mergedAuthorities.addAll(allAuthorities);
+                    }
+                    else
+                    {
+                        Set<GrantedAuthority> roleAuthorities = authoritiesByRole.get(role.toUpperCase());
+                        if (roleAuthorities != null)
+                        {
+                            mergedAuthorities.addAll(roleAuthorities);
+                        }
+                    }
+                }
+                authorities = Collections.unmodifiableSet(mergedAuthorities);
+
+                // Memoize a copy of the role set, since the caller's set might get modified later.
+                if (authoritiesByRoles.size() < MAX_MEMOIZED_ROLE_SETS)
+                {
+                    authoritiesByRoles.putIfAbsent(new HashSet<>(roleSet), authorities);
+                }
+            }
+
+            return authorities;
+        }
+    }
 }
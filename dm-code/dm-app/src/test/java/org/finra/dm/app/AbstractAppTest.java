@@ -30,6 +30,7 @@ import javax.servlet.http.HttpSession;
 
 import org.apache.commons.lang.time.DateUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
@@ -41,6 +42,7 @@ import org.springframework.test.context.web.WebAppConfiguration;
 import org.finra.dm.app.config.AppTestSpringModuleConfig;
 import org.finra.dm.app.security.HttpHeaderApplicationUserBuilder;
 import org.finra.dm.app.security.HttpHeaderAuthenticationFilter;
+import org.finra.dm.app.security.SecurityHelper;
 import org.finra.dm.app.security.SecurityUserWrapper;
 import org.finra.dm.app.security.TrustedApplicationUserBuilder;
 import org.finra.dm.app.security.TrustedUserAuthenticationFilter;
@@ -61,6 +63,19 @@ public abstract class AbstractAppTest extends AbstractRestTest
     @Autowired
     protected HttpHeaderAuthenticationFilter httpHeaderAuthenticationFilter;
 
+    @Autowired
+    protected SecurityHelper securityHelper;
+
+    /**
+     * Discards the authority snapshot after each test, since the snapshot is shared by the whole application context and would otherwise keep the role to
+     * function mappings of the rolled back test data.
+     */
+    @After
+    public void resetAuthoritySnapshot()
+    {
+        securityHelper.resetAuthoritySnapshot();
+    }
+
     /**
      * Invalidated the user in session and also clears the spring security context.
      */
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockFilterConfig;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -283,5 +284,8 @@ public class HttpHeaderAuthenticationFilterTest extends AbstractAppTest
             
             dmDao.saveAndRefresh(securityRoleFunctionEntity);
         }
+
+        // Pick up the new role functions without waiting for the background refresh.
+        securityHelper.refreshAuthoritySnapshot();
     }
 }
@@ -17,20 +17,29 @@ package org.finra.dm.app.security;
 
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import org.finra.dm.app.AbstractAppTest;
+import org.finra.dm.model.jpa.SecurityFunctionEntity;
+import org.finra.dm.model.jpa.SecurityRoleEntity;
+import org.finra.dm.model.jpa.SecurityRoleFunctionEntity;
 
 /**
  * This class tests the security helper class.
  */
 public class SecurityHelperTest extends AbstractAppTest
 {
-     @Autowired
-     private SecurityHelper securityHelper;
-
      @Test
      public void testIsGeneratedBy() throws Exception
      {
@@ -39,4 +48,47 @@ public class SecurityHelperTest extends AbstractAppTest
          PreAuthenticatedAuthenticationToken authRequest = new PreAuthenticatedAuthenticationToken(null, null);
          assertFalse(securityHelper.isUserGeneratedByClass(authRequest, null));
      }
+
+     @Test
+     public void testMapRolesToFunctions() throws Exception
+     {
+         // Make sure the snapshot is loaded before the mappings get changed.
+         securityHelper.mapRolesToFunctions(new HashSet<String>());
+         long version = securityHelper.getAuthoritySnapshotVersion();
+
+         // Populate the security functions cache, so we can validate that the snapshot does not pick up the stale cached functions.
+         dmDao.getSecurityFunctions();
+
+         // Create a role with a function.
+         SecurityRoleEntity securityRoleEntity = new SecurityRoleEntity();
+         securityRoleEntity.setCode("UT_SECURITY_HELPER_ROLE");
+         dmDao.saveAndRefresh(securityRoleEntity);
+
+         SecurityFunctionEntity securityFunctionEntity = new SecurityFunctionEntity();
+         securityFunctionEntity.setCode("UT_SECURITY_HELPER_FUNCTION");
+         dmDao.saveAndRefresh(securityFunctionEntity);
+
+         SecurityRoleFunctionEntity securityRoleFunctionEntity = new SecurityRoleFunctionEntity();
+         securityRoleFunctionEntity.setSecurityRole(securityRoleEntity);
+         securityRoleFunctionEntity.setSecurityFunction(securityFunctionEntity);
+         dmDao.saveAndRefresh(securityRoleFunctionEntity);
+
+         // Refresh the snapshot and validate that its version got incremented since the mappings have changed.
+         securityHelper.refreshAuthoritySnapshot();
+         assertEquals(version + 1, securityHelper.getAuthoritySnapshotVersion());
+
+         // Validate that the role is mapped case insensitively and that the same roles map to the same shared set of authorities.
+         Set<GrantedAuthority> authorities = securityHelper.mapRolesToFunctions(new HashSet<>(Arrays.asList("ut_security_helper_role", "UT_UNKNOWN_ROLE")));
+         assertEquals(new HashSet<GrantedAuthority>(Arrays.asList(new SimpleGrantedAuthority("UT_SECURITY_HELPER_FUNCTION"))), authorities);
+         assertSame(authorities, securityHelper.mapRolesToFunctions(Arrays.asList("UT_UNKNOWN_ROLE", "ut_security_helper_role")));
+
+         // Validate that the trusted user role gets the new function right away.
+         assertTrue(securityHelper.mapRolesToFunctions(Arrays.asList(TrustedApplicationUserBuilder.TRUSTED_USER_ROLE))
+             .contains(new SimpleGrantedAuthority("UT_SECURITY_HELPER_FUNCTION")));
+
+         // Validate that the snapshot is kept when nothing has changed.
+         securityHelper.refreshAuthoritySnapshot();
+         assertEquals(version + 1, securityHelper.getAuthoritySnapshotVersion());
+         assertTrue(securityHelper.mapRolesToFunctions(new HashSet<String>()).isEmpty());
+     }
 }
@@ -0,0 +1,74 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+/**
+ * A rejection policy that hands a task submitted while both the queue and the threads of an executor are full over to the queue once it has room. The
+ * submitting thread waits up to the maximum wait time, which slows down the producers, but the task still runs on a thread of the executor and never on the
+ * submitting thread (e.g. within its transaction). A task that can't be queued in time, or that is submitted after the executor was shut down, is rejected
+ * with a RejectedExecutionException.
+ */
+public class BlockingRejectedExecutionHandler implements RejectedExecutionHandler
+{
+    private static final Logger LOGGER = Logger.getLogger(BlockingRejectedExecutionHandler.class);
+
+    private final long maxWaitMillis;
+
+    /**
+     * Creates a rejection policy that waits up to the specified time for room in the queue.
+     *
+     * @param maxWaitMillis the maximum time in milliseconds to wait for room in the queue
+     */
+    public BlockingRejectedExecutionHandler(long maxWaitMillis)
+    {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor)
+    {
+        if (executor.isShutdown())
+        {
+            throw new RejectedExecutionException("The executor has been shut down.");
+        }
+
+        boolean queued;
+        try
+        {
+            queued = executor.getQueue().offer(runnable, maxWaitMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the executor queue.", e);
+        }
+
+        if (!queued)
+        {
+            String message = String.format("The executor queue stayed full for %d ms. activeCount=%d queueDepth=%d", maxWaitMillis, executor.getActiveCount(),
+                executor.getQueue().size());
+            LOGGER.error(message);
+            throw new RejectedExecutionException(message);
+        }
+    }
+}
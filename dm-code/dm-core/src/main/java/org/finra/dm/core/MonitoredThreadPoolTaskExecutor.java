@@ -0,0 +1,254 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+
+/**
+ * A thread pool task executor that keeps track of how long tasks wait in its queue before they start running and how many tasks it rejected. The statistics
+ * are logged at most once per logging interval, after a task completes, together with the current queue depth and number of active threads. This lets a
+ * bounded executor show when its workload is outgrowing it before the queue fills up.
+ */
+public class MonitoredThreadPoolTaskExecutor extends ThreadPoolTaskExecutor
+{
+    private static final Logger LOGGER = Logger.getLogger(MonitoredThreadPoolTaskExecutor.class);
+
+    private static final long serialVersionUID = 1L;
+
+    private long statisticsLoggingIntervalMillis = 60000L;
+
+    private final AtomicLong lastStatisticsLoggingTime = new AtomicLong(System.currentTimeMillis());
+
+    private final AtomicLong executedTaskCount = new AtomicLong();
+
+    private final AtomicLong totalQueueWaitMillis = new AtomicLong();
+
+    private final AtomicLong maxQueueWaitMillis = new AtomicLong();
+
+    private final AtomicLong rejectedTaskCount = new AtomicLong();
+
+    /**
+     * Sets the minimum number of milliseconds between two log entries with the statistics of this executor. The default is one minute.
+     *
+     * @param statisticsLoggingIntervalMillis the statistics logging interval in milliseconds
+     */
+    public void setStatisticsLoggingIntervalMillis(long statisticsLoggingIntervalMillis)
+    {
+        this.statisticsLoggingIntervalMillis = statisticsLoggingIntervalMillis;
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, final RejectedExecutionHandler rejectedExecutionHandler)
+    {
+        // Count the rejected tasks before the configured rejection policy decides what happens to them.
+        return super.initializeExecutor(threadFactory, new RejectedExecutionHandler()
+        {
+            @Override
+            public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor)
+            {
+                rejectedTaskCount.incrementAndGet();
+                rejectedExecutionHandler.rejectedExecution(runnable, executor);
+            }
+        });
+    }
+
+    @Override
+    public void execute(Runnable task)
+    {
+        super.execute(monitor(task));
+    }
+
+    @Override
+    public Future<?> submit(Runnable task)
+    {
+        return super.submit(monitor(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task)
+    {
+        return super.submit(monitor(task));
+    }
+
+    @Override
+    public ListenableFuture<?> submitListenable(Runnable task)
+    {
+        return super.submitListenable(monitor(task));
+    }
+
+    @Override
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task)
+    {
+        return super.submitListenable(monitor(task));
+    }
+
+    /**
+     * Gets the number of tasks waiting in the queue of this executor.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth()
+    {
+        return getThreadPoolExecutor().getQueue().size();
+    }
+
+    /**
+     * Gets the number of tasks that started running since the statistics were last logged.
+     *
+     * @return the executed task count
+     */
+    public long getExecutedTaskCount()
+    {
+        return executedTaskCount.get();
+    }
+
+    /**
+     * Gets the average number of milliseconds the tasks that started running since the statistics were last logged waited in the queue.
+     *
+     * @return the average queue wait time in milliseconds
+     */
+    public long getAverageQueueWaitMillis()
+    {
+        long count = executedTaskCount.get();
+        return count == 0 ? 0 : totalQueueWaitMillis.get() / count;
+    }
+
+    /**
+     * Gets the maximum number of milliseconds a task that started running since the statistics were last logged waited in the queue.
+     *
+     * @return the maximum queue wait time in milliseconds
+     */
+    public long getMaxQueueWaitMillis()
+    {
+        return maxQueueWaitMillis.get();
+    }
+
+    /**
+     * Gets the number of tasks rejected by this executor since it was started.
+     *
+     * @return the rejected task count
+     */
+    public long getRejectedTaskCount()
+    {
+        return rejectedTaskCount.get();
+    }
+
+    /**
+     * Wraps a task so that the time it waits in the queue is recorded when it starts running.
+     *
+     * @param task the task
+     *
+     * @return the wrapped task
+     */
+    private Runnable monitor(final Runnable task)
+    {
+        final long submittedTime = System.currentTimeMillis();
+        return new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                recordQueueWait(submittedTime);
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    logStatisticsIfDue();
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps a task so that the time it waits in the queue is recorded when it starts running.
+     *
+     * @param task the task
+     *
+     * @return the wrapped task
+     */
+    private <T> Callable<T> monitor(final Callable<T> task)
+    {
+        final long submittedTime = System.currentTimeMillis();
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception
+            {
+                recordQueueWait(submittedTime);
+                try
+                {
+                    return task.call();
+                }
+                finally
+                {
+                    logStatisticsIfDue();
+                }
+            }
+        };
+    }
+
+    /**
+     * Records the time a task waited in the queue.
+     *
+     * @param submittedTime the time the task was submitted
+     */
+    private void recordQueueWait(long submittedTime)
+    {
+        long queueWaitMillis = Math.max(0, System.currentTimeMillis() - submittedTime);
+        executedTaskCount.incrementAndGet();
+        totalQueueWaitMillis.addAndGet(queueWaitMillis);
+        long currentMaxQueueWaitMillis;
+        while ((currentMaxQueueWaitMillis = maxQueueWaitMillis.get()) < queueWaitMillis &&
+            !maxQueueWaitMillis.compareAndSet(currentMaxQueueWaitMillis, queueWaitMillis))
+        {
+            // Retry until the maximum is at least the queue wait time of this task.
+        }
+    }
+
+    /**
+     * Logs the statistics of this executor and starts a new logging interval when the current one has elapsed. Only one thread logs per interval.
+     */
+    private void logStatisticsIfDue()
+    {
+        long lastLoggingTime = lastStatisticsLoggingTime.get();
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastLoggingTime >= statisticsLoggingIntervalMillis && lastStatisticsLoggingTime.compareAndSet(lastLoggingTime, currentTime))
+        {
+            ThreadPoolExecutor threadPoolExecutor = getThreadPoolExecutor();
+            LOGGER.info(String.format("Executor statistics: threadNamePrefix=\"%s\" poolSize=%d activeCount=%d queueDepth=%d remainingQueueCapacity=%d " +
+                "executedTaskCount=%d averageQueueWaitMillis=%d maxQueueWaitMillis=%d rejectedTaskCount=%d", getThreadNamePrefix(),
+                threadPoolExecutor.getPoolSize(), threadPoolExecutor.getActiveCount(), threadPoolExecutor.getQueue().size(),
+                threadPoolExecutor.getQueue().remainingCapacity(), getExecutedTaskCount(), getAverageQueueWaitMillis(), getMaxQueueWaitMillis(),
+                getRejectedTaskCount()));
+
+            executedTaskCount.set(0);
+            totalQueueWaitMillis.set(0);
+            maxQueueWaitMillis.set(0);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * This class tests functionality within the BlockingRejectedExecutionHandler class.
+ */
+public class BlockingRejectedExecutionHandlerTest
+{
+    @Test
+    public void testRejectedTaskRunsOnExecutorThread() throws Exception
+    {
+        // Release the blocked thread once the next task is rejected, so the queue gets room while that task is being handed off.
+        final CountDownLatch rejectedLatch = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final RejectedExecutionHandler blockingRejectedExecutionHandler = new BlockingRejectedExecutionHandler(10000);
+        MonitoredThreadPoolTaskExecutor executor = createExecutor(new RejectedExecutionHandler()
+        {
+            @Override
+            public void rejectedExecution(Runnable runnable, ThreadPoolExecutor threadPoolExecutor)
+            {
+                rejectedLatch.countDown();
+                blockingRejectedExecutionHandler.rejectedExecution(runnable, threadPoolExecutor);
+            }
+        });
+        Thread releaser = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    rejectedLatch.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                latch.countDown();
+            }
+        });
+        releaser.start();
+        try
+        {
+            // Block the only thread and fill the queue.
+            executor.submit(new Callable<Object>()
+            {
+                @Override
+                public Object call() throws Exception
+                {
+                    latch.await();
+                    return null;
+                }
+            });
+            executor.submit(new Callable<Object>()
+            {
+                @Override
+                public Object call()
+                {
+                    return null;
+                }
+            });
+
+            Future<String> handedOffTask = executor.submit(new Callable<String>()
+            {
+                @Override
+                public String call()
+                {
+                    return Thread.currentThread().getName();
+                }
+            });
+            assertFalse(Thread.currentThread().getName().equals(handedOffTask.get()));
+            assertEquals(1, executor.getRejectedTaskCount());
+        }
+        finally
+        {
+            rejectedLatch.countDown();
+            releaser.join();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectedTaskQueueStaysFull() throws Exception
+    {
+        MonitoredThreadPoolTaskExecutor executor = createExecutor(new BlockingRejectedExecutionHandler(10));
+        final CountDownLatch latch = new CountDownLatch(1);
+        try
+        {
+            // Block the only thread and fill the queue.
+            executor.submit(new Callable<Object>()
+            {
+                @Override
+                public Object call() throws Exception
+                {
+                    latch.await();
+                    return null;
+                }
+            });
+            executor.submit(new Callable<Object>()
+            {
+                @Override
+                public Object call()
+                {
+                    return null;
+                }
+            });
+
+            try
+            {
+                executor.submit(new Callable<Object>()
+                {
+                    @Override
+                    public Object call()
+                    {
+                        return null;
+                    }
+                });
+                fail("Should throw a TaskRejectedException.");
+            }
+            catch (TaskRejectedException e)
+            {
+                assertEquals(1, executor.getRejectedTaskCount());
+            }
+        }
+        finally
+        {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Creates an executor with a single thread and a single queue slot.
+     *
+     * @param rejectedExecutionHandler the handler of the rejected tasks
+     *
+     * @return the initialized executor
+     */
+    private MonitoredThreadPoolTaskExecutor createExecutor(RejectedExecutionHandler rejectedExecutionHandler)
+    {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setStatisticsLoggingIntervalMillis(Long.MAX_VALUE);
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler);
+        executor.initialize();
+        return executor;
+    }
+}
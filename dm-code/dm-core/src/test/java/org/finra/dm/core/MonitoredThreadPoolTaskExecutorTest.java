@@ -0,0 +1,92 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * This class tests functionality within the MonitoredThreadPoolTaskExecutor class.
+ */
+public class MonitoredThreadPoolTaskExecutorTest
+{
+    @Test
+    public void testQueueStatistics() throws Exception
+    {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setStatisticsLoggingIntervalMillis(Long.MAX_VALUE);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        try
+        {
+            // Block the only thread, so the next task waits in the queue and the one after that is rejected.
+            final CountDownLatch latch = new CountDownLatch(1);
+            Future<?> blockingTask = executor.submit(new Callable<Object>()
+            {
+                @Override
+                public Object call() throws Exception
+                {
+                    latch.await();
+                    return null;
+                }
+            });
+            Future<String> queuedTask = executor.submit(new ThreadNameCallable());
+            assertEquals(1, executor.getQueueDepth());
+
+            final String callingThreadName = Thread.currentThread().getName();
+            Future<String> rejectedTask = executor.submit(new ThreadNameCallable());
+            assertEquals(callingThreadName, rejectedTask.get());
+            assertEquals(1, executor.getRejectedTaskCount());
+
+            Thread.sleep(50);
+            latch.countDown();
+            blockingTask.get(10, TimeUnit.SECONDS);
+            assertTrue(queuedTask.get(10, TimeUnit.SECONDS).startsWith(executor.getThreadNamePrefix()));
+
+            assertEquals(0, executor.getQueueDepth());
+            assertEquals(3, executor.getExecutedTaskCount());
+            assertTrue(executor.getMaxQueueWaitMillis() >= 50);
+            assertTrue(executor.getAverageQueueWaitMillis() <= executor.getMaxQueueWaitMillis());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A task that returns the name of the thread it runs on.
+     */
+    private static class ThreadNameCallable implements Callable<String>
+    {
+        @Override
+        public String call()
+        {
+            return Thread.currentThread().getName();
+        }
+    }
+}
@@ -15,6 +15,7 @@
 */
 package org.finra.dm.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -138,6 +139,14 @@ public interface BaseJpaDao
      */
     public <T> T save(T entity);
 
+    /**
+     * Saves and flushes a collection of entities. The entities are not refreshed, so the inserts can be sent to the database in JDBC batches.
+     *
+     * @param entities the entities to save.
+     * @param <T> the type of entity.
+     */
+    public <T> void saveAll(Collection<T> entities);
+
     /**
      * Saves, flushes, and refreshes an entity.
      *
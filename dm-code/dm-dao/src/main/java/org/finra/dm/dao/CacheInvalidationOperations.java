@@ -0,0 +1,30 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+/**
+ * Cache invalidation broadcast operations. A message broadcast by one node gets delivered to all the other nodes of the cluster.
+ */
+public interface CacheInvalidationOperations
+{
+    /**
+     * Broadcasts a cache invalidation message to all the other nodes. Implementations may send the message asynchronously, in which case this method returns
+     * before the message is delivered.
+     *
+     * @param messageText the cache invalidation message text
+     */
+    public void broadcastCacheInvalidationMessage(String messageText);
+}
@@ -15,10 +15,9 @@
 */
 package org.finra.dm.dao;
 
+import java.io.Serializable;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 
 import org.springframework.cache.interceptor.KeyGenerator;
 
@@ -30,10 +29,67 @@ public class CacheKeyGenerator implements KeyGenerator
     @Override
     public Object generate(final Object target, final Method method, final Object... params)
     {
-        final List<Object> keys = new ArrayList<>();
-        keys.add(method.getDeclaringClass().getName());
-        keys.add(method.getName());
-        Collections.addAll(keys, params);
-        return keys;
+        return new CacheKey(method.getDeclaringClass().getName(), method.getName(), params);
+    }
+
+    /**
+     * An immutable cache key made of the class name, the method name and the method parameters. The hash code is computed once when the key is created, so
+     * cache lookups don't need to walk the parameters again.
+     */
+    public static final class CacheKey implements Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private static final Object[] NO_PARAMS = new Object[0];
+
+        private final String className;
+
+        private final String methodName;
+
+        private final Object[] params;
+
+        private final int hashCode;
+
+        public CacheKey(String className, String methodName, Object... params)
+        {
+            this.className = className;
+            this.methodName = methodName;
+            this.params = (params == null || params.length == 0) ? NO_PARAMS : params.clone();
+
+            int result = className.hashCode();
+            result = 31 * result + methodName.hashCode();
+            result = 31 * result + Arrays.deepHashCode(this.params);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (!(object instanceof CacheKey))
+            {
+                return false;
+            }
+
+            CacheKey other = (CacheKey) object;
+
+            return hashCode == other.hashCode && className.equals(other.className) && methodName.equals(other.methodName) &&
+                Arrays.deepEquals(params, other.params);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public String toString()
+        {
+            return className + "." + methodName + Arrays.deepToString(params);
+        }
     }
 }
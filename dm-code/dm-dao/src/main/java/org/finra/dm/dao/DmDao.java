@@ -15,9 +15,13 @@
 */
 package org.finra.dm.dao;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.finra.dm.model.dto.DateRangeDto;
+import org.finra.dm.model.dto.JmsMessageQueueStatisticsDto;
 import org.finra.dm.model.dto.StorageAlternateKeyDto;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataNotificationRegistrationEntity;
@@ -409,6 +413,16 @@ public interface DmDao extends BaseJpaDao
     public List<BusinessObjectDataEntity> getBusinessObjectDataFromStorageOlderThan(String storageName, int thresholdMinutes,
         List<String> businessObjectDataStatusesToIgnore);
 
+    /**
+     * Updates the latest status version flags of all business object data versions that share the business object format and the partition values of the
+     * specified business object data, and the latest version flags of their storage units. This needs to be called whenever a business object data version
+     * or a storage unit is created or deleted, or when the status of a business object data version changes. The versions are locked until the end of the
+     * transaction, so concurrent updates of the versions of the same partition are serialized.
+     *
+     * @param businessObjectDataEntity the business object data entity that identifies the business object format and the partition values
+     */
+    public void updateBusinessObjectDataLatestVersionFlags(BusinessObjectDataEntity businessObjectDataEntity);
+
     // StoragePlatform
 
     /**
@@ -483,6 +497,16 @@ public interface DmDao extends BaseJpaDao
      */
     public StorageFileEntity getStorageFileByStorageNameAndFilePath(String storageName, String filePath);
 
+    /**
+     * Retrieves a list of storage files registered in the specified storage that match any of the specified file paths.
+     *
+     * @param storageName the storage name (case-insensitive)
+     * @param filePaths the list of file paths
+     *
+     * @return the list of storage files
+     */
+    public List<StorageFileEntity> getStorageFilesByStorageNameAndFilePaths(String storageName, List<String> filePaths);
+
     /**
      * Counts all storage files matching the file path prefix in the specified storage.
      *
@@ -630,6 +654,22 @@ public interface DmDao extends BaseJpaDao
      */
     public List<String> getSecurityFunctions();
 
+    /**
+     * Gets a list of security functions straight from the database. Unlike {@link #getSecurityFunctions()}, this method is not cached, so the result is never
+     * older than the current transaction.
+     *
+     * @return the list of functions
+     */
+    public List<String> getUncachedSecurityFunctions();
+
+    /**
+     * Gets the security functions of all the security roles. Unlike the per role lookup, this method is not cached, since it is meant to build a complete
+     * snapshot of the role to function mappings.
+     *
+     * @return the map of upper case role codes to their sorted lists of functions
+     */
+    public Map<String, List<String>> getSecurityFunctionsByRole();
+
     // JmsMessage
 
     /**
@@ -639,6 +679,44 @@ public interface DmDao extends BaseJpaDao
      */
     public JmsMessageEntity getOldestJmsMessage();
 
+    /**
+     * Claims the oldest JMS messages that are not leased by a publishing worker, or whose lease has expired, by leasing them to the specified owner. Messages
+     * that are leased to another owner at the same time are skipped, so concurrent callers claim disjoint sets of messages. The messages of an ordered queue
+     * are only claimed when no other owner holds a lease on a message of the same queue, and only together with all the older unleased messages of the queue
+     * that were selected, so the messages of an ordered queue are never published by two owners at once. An empty list means that
+     * there are no unleased messages left to claim, unless the claim kept losing the race to other owners.
+     *
+     * @param leaseOwner the lease owner that uniquely identifies the publishing worker
+     * @param currentTime the current time, used to tell expired leases apart
+     * @param leaseExpiration the expiration time of the new leases
+     * @param maxMessages the maximum number of messages to claim
+     * @param orderedJmsQueueNames the names of the queues whose messages must be published in order
+     *
+     * @return the claimed JMS messages ordered from the oldest to the newest
+     */
+    public List<JmsMessageEntity> claimOldestJmsMessages(String leaseOwner, Timestamp currentTime, Timestamp leaseExpiration, int maxMessages,
+        Collection<String> orderedJmsQueueNames);
+
+    /**
+     * Deletes the specified JMS messages from the queue, as long as they are still leased to the specified owner. A message whose lease expired and that got
+     * claimed by another owner in the meantime is left for that owner to delete.
+     *
+     * @param leaseOwner the lease owner
+     * @param jmsMessageIds the ids of the JMS messages to delete
+     *
+     * @return the number of deleted JMS messages
+     */
+    public int deleteClaimedJmsMessages(String leaseOwner, Collection<Integer> jmsMessageIds);
+
+    /**
+     * Gets the statistics of the queue of JMS messages that are waiting to be published.
+     *
+     * @param currentTime the current time, used to tell expired leases apart
+     *
+     * @return the JMS message queue statistics
+     */
+    public JmsMessageQueueStatisticsDto getJmsMessageQueueStatistics(Timestamp currentTime);
+
     // OnDemandPricing
 
     /**
@@ -15,8 +15,15 @@
 */
 package org.finra.dm.dao;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationConverter;
@@ -25,8 +32,9 @@ import org.springframework.core.env.MapPropertySource;
 import org.springframework.util.StringUtils;
 
 /**
- * A property source that will possibly re-load itself each time a property is requested. A reload will take place if the configured refresh interval has
- * elapsed. A refresh interval of 0 will cause the properties to refresh every time a property is requested.
+ * A property source that re-loads itself once the configured refresh interval has elapsed. The properties are re-loaded by a background thread which swaps in
+ * an immutable snapshot, so reading a property is a lock-free map lookup that never waits for the configuration store. A refresh interval of 0 will cause the
+ * properties to refresh every time a property is requested on the calling thread.
  * <p/>
  * If a property is loaded with the key org.finra.dm.dao.ReloadablePropertiesSource.refreshIntervalSecs, it will be used as a way to override the previously
  * configured refresh interval.
@@ -39,10 +47,31 @@ public class ReloadablePropertySource extends MapPropertySource
     protected Configuration configuration;
 
     // The last time the properties were refreshed.
-    protected long lastRefreshTime;
+    protected volatile long lastRefreshTime;
 
     // The interval in milliseconds to wait before refreshing the properties. Defaults to 0 (i.e. always refresh).
-    protected long refreshIntervalMillis = 0;
+    protected volatile long refreshIntervalMillis = 0;
+
+    // The immutable snapshot of the properties that all the reads go against.
+    private volatile Map<String, Object> properties;
+
+    // The executor that refreshes the properties in the background. It is only created when the refresh interval is greater than 0.
+    private ScheduledExecutorService refreshExecutor;
+
+    // Whether a background refresh is currently scheduled.
+    private boolean refreshScheduled;
+
+    // Whether the background refresh has been stopped.
+    private boolean shutdown;
+
+    // The refresh metrics.
+    private final AtomicLong refreshCount = new AtomicLong();
+
+    private final AtomicLong refreshFailureCount = new AtomicLong();
+
+    private final AtomicLong totalRefreshDurationMillis = new AtomicLong();
+
+    private volatile long lastRefreshDurationMillis;
 
     // The number of milliseconds in a second.
     private static final int MILLISECONDS_IN_A_SECOND = 1000;
@@ -70,7 +99,7 @@ public class ReloadablePropertySource extends MapPropertySource
      * @param name the name of the property source.
      * @param source the properties.
      * @param configuration the configuration that knows how to read properties.
-     * @param refreshIntervalSecs the refresh interval in seconds to wait before refreshing the properties when a property is requested.
+     * @param refreshIntervalSecs the refresh interval in seconds to wait before refreshing the properties.
      */
     @SuppressWarnings("unchecked")
     public ReloadablePropertySource(String name, Properties source, Configuration configuration, long refreshIntervalSecs)
@@ -78,13 +107,15 @@ public class ReloadablePropertySource extends MapPropertySource
         super(name, (Map) source);
         this.configuration = configuration;
         this.refreshIntervalMillis = refreshIntervalSecs * MILLISECONDS_IN_A_SECOND;
+        this.properties = Collections.unmodifiableMap(new HashMap<String, Object>((Map) source));
         updateLastRefreshTime();
         updateRefreshInterval();
         LOGGER.info("A refresh interval of " + refreshIntervalSecs + " seconds has been configured.");
+        scheduleRefresh();
     }
 
     /**
-     * Gets a property by name while possibly refreshing the properties if needed.
+     * Gets a property by name from the current snapshot. The properties are only refreshed on the calling thread when the refresh interval is 0.
      *
      * @param name the property name.
      *
@@ -93,18 +124,99 @@ public class ReloadablePropertySource extends MapPropertySource
     @Override
     public Object getProperty(String name)
     {
-        // Refresh the properties before returning the value.
-        refreshPropertiesIfNeeded();
-        return this.source.get(name);
+        if (refreshIntervalMillis <= 0)
+        {
+            // Refresh the properties before returning the value.
+            refreshPropertiesIfNeeded();
+        }
+        return properties.get(name);
+    }
+
+    @Override
+    public boolean containsProperty(String name)
+    {
+        return properties.containsKey(name);
+    }
+
+    @Override
+    public String[] getPropertyNames()
+    {
+        return properties.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Gets the current immutable snapshot of the properties.
+     *
+     * @return the properties.
+     */
+    @Override
+    public Map<String, Object> getSource()
+    {
+        return properties;
+    }
+
+    /**
+     * Stops the background refresh of the properties. The current snapshot remains readable.
+     */
+    public void shutdown()
+    {
+        synchronized (this)
+        {
+            shutdown = true;
+            if (refreshExecutor != null)
+            {
+                refreshExecutor.shutdownNow();
+                refreshExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of successful refreshes.
+     *
+     * @return the refresh count.
+     */
+    public long getRefreshCount()
+    {
+        return refreshCount.get();
+    }
+
+    /**
+     * Gets the number of refreshes that failed. The previous snapshot is kept when a refresh fails.
+     *
+     * @return the refresh failure count.
+     */
+    public long getRefreshFailureCount()
+    {
+        return refreshFailureCount.get();
+    }
+
+    /**
+     * Gets the duration in milliseconds of the last successful refresh.
+     *
+     * @return the last refresh duration in milliseconds.
+     */
+    public long getLastRefreshDurationMillis()
+    {
+        return lastRefreshDurationMillis;
+    }
+
+    /**
+     * Gets the total duration in milliseconds of all the successful refreshes.
+     *
+     * @return the total refresh duration in milliseconds.
+     */
+    public long getTotalRefreshDurationMillis()
+    {
+        return totalRefreshDurationMillis.get();
     }
 
     /**
      * Refreshes the properties from the configuration if it's time to.
      */
-    @SuppressWarnings("unchecked")
     protected void refreshPropertiesIfNeeded()
     {
-        // Ensure we update the properties in a synchronized fashion to avoid possibly corrupting the properties.
+        // Ensure only one thread refreshes the properties at a time.
         synchronized (this)
         {
             // See if it's time to refresh the properties (i.e. the elapsed time is greater than the configured refresh interval).
@@ -114,42 +226,107 @@ public class ReloadablePropertySource extends MapPropertySource
 
             if (System.currentTimeMillis() - lastRefreshTime >= refreshIntervalMillis)
             {
-                // Enough time has passed so refresh the properties.
-                LOGGER.debug("Refreshing properties.");
+                refreshProperties();
+
+                // The refresh interval might have been overridden to a positive value in which case the background refresh takes over.
+                if (!refreshScheduled)
+                {
+                    scheduleRefresh();
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-loads the properties from the configuration and swaps in a new snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    private void refreshProperties()
+    {
+        // Enough time has passed so refresh the properties.
+        LOGGER.debug("Refreshing properties.");
+        long startTime = System.currentTimeMillis();
+
+        // Get the latest properties from the configuration.
+        Properties newProperties = ConfigurationConverter.getProperties(configuration);
+
+        // Log the properties we just retrieved from the configuration.
+        if (LOGGER.isDebugEnabled())
+        {
+            LOGGER.debug("New properties just retrieved.");
+            for (Map.Entry<Object, Object> entry : newProperties.entrySet())
+            {
+                LOGGER.debug("Key [" + entry.getKey() + "] = " + entry.getValue());
+            }
+        }
 
-                // Get the latest properties from the configuration.
-                Properties properties = ConfigurationConverter.getProperties(configuration);
+        // Swap in the new snapshot so the readers never see a partially updated set of properties.
+        properties = Collections.unmodifiableMap(new HashMap<String, Object>((Map) newProperties));
 
-                // Log the properties we just retrieved from the configuration.
-                if (LOGGER.isDebugEnabled())
+        // Update the last refresh time, refresh interval and the metrics.
+        updateLastRefreshTime();
+        updateRefreshInterval();
+        lastRefreshDurationMillis = System.currentTimeMillis() - startTime;
+        totalRefreshDurationMillis.addAndGet(lastRefreshDurationMillis);
+        refreshCount.incrementAndGet();
+
+        LOGGER.debug("The properties have been refreshed from the configuration in " + lastRefreshDurationMillis + " milliseconds. " +
+            "refreshCount=" + refreshCount.get() + " refreshFailureCount=" + refreshFailureCount.get());
+    }
+
+    /**
+     * Schedules the next background refresh of the properties using the current refresh interval. Nothing gets scheduled when the refresh interval is 0, since
+     * the properties are then refreshed on every read.
+     */
+    private void scheduleRefresh()
+    {
+        synchronized (this)
+        {
+            if (refreshIntervalMillis <= 0 || shutdown)
+            {
+                return;
+            }
+
+            if (refreshExecutor == null)
+            {
+                refreshExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
                 {
-                    LOGGER.debug("New properties just retrieved.");
-                    for (Map.Entry<Object, Object> entry : properties.entrySet())
+                    @Override
+                    public Thread newThread(Runnable runnable)
                     {
-                        LOGGER.debug("Key [" + entry.getKey() + "] = " + entry.getValue());
+                        Thread thread = new Thread(runnable, "reloadablePropertySourceRefresh");
+                        thread.setDaemon(true);
+                        return thread;
                     }
-                }
-
-                // Update our property sources properties with the ones just read by clearing and adding in the new ones since the "source" is final.
-                this.source.clear();
-                this.source.putAll((Map) properties);
+                });
+            }
 
-                // Log the properties we have in our property source.
-                if (LOGGER.isDebugEnabled())
+            refreshExecutor.schedule(new Runnable()
+            {
+                @Override
+                public void run()
                 {
-                    LOGGER.debug("Updated reloadable properties.");
-                    for (Object key : source.keySet())
+                    try
+                    {
+                        synchronized (ReloadablePropertySource.this)
+                        {
+                            refreshScheduled = false;
+                            refreshProperties();
+                        }
+                    }
+                    catch (Exception e)
+                    {
+                        // Keep the current snapshot and try again after the next interval.
+                        LOGGER.warn("Failed to refresh the properties from the configuration. The previously loaded properties will continue to be used. " +
+                            "refreshCount=" + refreshCount.get() + " refreshFailureCount=" + refreshFailureCount.incrementAndGet(), e);
+                    }
+                    finally
                     {
-                        LOGGER.debug("Key [" + key + "] = " + properties.get(key));
+                        scheduleRefresh();
                     }
                 }
-
-                // Update the last refresh time and refresh interval.
-                updateLastRefreshTime();
-                updateRefreshInterval();
-
-                LOGGER.debug("The properties have been refreshed from the configuration.");
-            }
+            }, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+            refreshScheduled = true;
         }
     }
 
@@ -169,7 +346,7 @@ public class ReloadablePropertySource extends MapPropertySource
     private void updateRefreshInterval()
     {
         // Get the property based on the override key.
-        String refreshIntervalSecsString = (String) this.source.get(REFRESH_INTERVAL_SECS_OVERRIDE_KEY);
+        String refreshIntervalSecsString = (String) this.properties.get(REFRESH_INTERVAL_SECS_OVERRIDE_KEY);
 
         // If a value was found, try to update the refresh interval.
         if (StringUtils.hasText(refreshIntervalSecsString))
@@ -16,6 +16,7 @@
 package org.finra.dm.dao;
 
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
@@ -27,6 +28,7 @@ import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferMetrics;
 import org.finra.dm.model.api.xml.StorageFile;
 
 /**
@@ -83,6 +85,19 @@ public interface S3Dao
      */
     public List<StorageFile> listDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto, boolean ignoreZeroByteDirectoryMarkers);
 
+    /**
+     * Iterates over all S3 objects matching the S3 key prefix in the given bucket (S3 bucket name). Unlike {@link #listDirectory}, the listing pages are
+     * requested lazily as the iterator advances, so only one page of storage files is held in memory at a time and a caller that stops iterating early does
+     * not pay for listing the rest of the key prefix. The returned iterator does not support removal.
+     *
+     * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to get
+     * listed.
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories.
+     *
+     * @return the iterator over all S3 objects represented as storage files that match the prefix in the given bucket, in key order.
+     */
+    public Iterator<StorageFile> iterateDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto, boolean ignoreZeroByteDirectoryMarkers);
+
     /**
      * Uploads a local file into S3.
      *
@@ -140,16 +155,20 @@ public interface S3Dao
      *
      * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name and the file list identify the S3 objects to be
      * deleted.
+     *
+     * @return the results with the number of deleted keys/objects and the duration of the delete.
      */
-    public void deleteFileList(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
+    public S3FileTransferResultsDto deleteFileList(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
 
     /**
      * Deletes keys/objects from specified bucket with matching prefix.
      *
      * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to be
      * deleted.
+     *
+     * @return the results with the number of deleted keys/objects and the duration of the delete.
      */
-    public void deleteDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
+    public S3FileTransferResultsDto deleteDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
 
     /**
      * Downloads a file from S3 to the local file system.
@@ -177,7 +196,7 @@ public interface S3Dao
      * Aborts any multipart uploads that were initiated in the specified S3 storage older than threshold date.
      *
      * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name specifies the name of the bucket containing the
-     * multipart uploads to abort.
+     * multipart uploads to abort. The optional S3 key prefix limits the multipart uploads to abort to the ones of the keys that start with the prefix.
      * @param thresholdDate the date indicating which multipart uploads should be aborted
      *
      * @return the total number of aborted multipart uploads
@@ -204,4 +223,11 @@ public interface S3Dao
      * @return {@link Properties}
      */
     public Properties getProperties(String bucketName, String key, S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
+
+    /**
+     * Gets the metrics of the S3 transfers (uploads, downloads and copies) performed so far.
+     *
+     * @return the S3 transfer metrics.
+     */
+    public S3TransferMetrics getTransferMetrics();
 }
@@ -15,6 +15,9 @@
 */
 package org.finra.dm.dao;
 
+import java.util.List;
+import java.util.Map;
+
 import org.finra.dm.model.dto.AwsParamsDto;
 
 /**
@@ -23,4 +26,16 @@ import org.finra.dm.model.dto.AwsParamsDto;
 public interface SqsDao
 {
     public void sendSqsTextMessage(AwsParamsDto awsParamsDto, String queueName, String messageText);
+
+    /**
+     * Sends text messages to the specified AWS SQS queue using batch sends. A message that fails to be sent does not prevent the other messages from being
+     * sent.
+     *
+     * @param awsParamsDto the AWS related parameters
+     * @param queueName the queue name
+     * @param messageTexts the message texts
+     *
+     * @return the error messages of the messages that failed to be sent, keyed by the index of the message in the list of message texts
+     */
+    public Map<Integer, String> sendSqsTextMessages(AwsParamsDto awsParamsDto, String queueName, List<String> messageTexts);
 }
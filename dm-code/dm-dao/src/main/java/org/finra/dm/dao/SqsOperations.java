@@ -15,7 +15,10 @@
 */
 package org.finra.dm.dao;
 
+import java.util.List;
+
 import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
 
 /**
  * AWS SQS Operations Service.
@@ -26,4 +29,12 @@ public interface SqsOperations
      * Sends a text message to the specified AWS SQS queue.
      */
     public void sendSqsTextMessage(ClientConfiguration client, String queueName, String messageText);
+
+    /**
+     * Sends text messages to the specified AWS SQS queue using batch sends. The queue URL is looked up once and the messages are sent in as few batches as
+     * the SQS batch limits allow.
+     *
+     * @return the entries that failed to be sent. The id of an entry is the index of the message in the list of message texts.
+     */
+    public List<BatchResultErrorEntry> sendSqsTextMessages(ClientConfiguration client, String queueName, List<String> messageTexts);
 }
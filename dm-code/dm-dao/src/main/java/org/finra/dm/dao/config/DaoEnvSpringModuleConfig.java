@@ -21,6 +21,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.datasource.lookup.JndiDataSourceLookup;
 
+import org.finra.dm.dao.CacheInvalidationOperations;
 import org.finra.dm.dao.Ec2Operations;
 import org.finra.dm.dao.EmrOperations;
 import org.finra.dm.dao.HttpClientOperations;
@@ -30,6 +31,7 @@ import org.finra.dm.dao.OozieOperations;
 import org.finra.dm.dao.S3Operations;
 import org.finra.dm.dao.SqsOperations;
 import org.finra.dm.dao.StsOperations;
+import org.finra.dm.dao.impl.CacheInvalidationOperationsImpl;
 import org.finra.dm.dao.impl.Ec2OperationsImpl;
 import org.finra.dm.dao.impl.EmrOperationsImpl;
 import org.finra.dm.dao.impl.HttpClientOperationsImpl;
@@ -126,4 +128,10 @@ public class DaoEnvSpringModuleConfig
     {
         return new HttpClientOperationsImpl();
     }
+
+    @Bean
+    public CacheInvalidationOperations cacheInvalidationOperations()
+    {
+        return new CacheInvalidationOperationsImpl();
+    }
 }
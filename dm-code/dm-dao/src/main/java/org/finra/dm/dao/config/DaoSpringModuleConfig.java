@@ -15,6 +15,9 @@
 */
 package org.finra.dm.dao.config;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import javax.sql.DataSource;
@@ -24,6 +27,8 @@ import org.apache.commons.configuration.ConfigurationConverter;
 import org.apache.commons.configuration.DatabaseConfiguration;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
@@ -41,6 +46,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.RegistrationPolicy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
@@ -52,7 +59,9 @@ import org.finra.dm.core.ApplicationContextHolder;
 import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.CacheKeyGenerator;
 import org.finra.dm.dao.ReloadablePropertySource;
+import org.finra.dm.dao.S3Dao;
 import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.dto.S3TransferMetrics;
 import org.finra.dm.model.jpa.ConfigurationEntity;
 
 /**
@@ -96,6 +105,31 @@ public class DaoSpringModuleConfig implements CachingConfigurer
      */
     public static final String DM_CACHE_NAME = "dm_cache";
 
+    /**
+     * The name of the cache that holds the security functions for each security role.
+     */
+    public static final String SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME = "dm_security_functions_for_role_cache";
+
+    /**
+     * The name of the cache that holds the list of all security functions.
+     */
+    public static final String SECURITY_FUNCTIONS_CACHE_NAME = "dm_security_functions_cache";
+
+    /**
+     * The name of the cache that holds the in-memory index of the business object data notification registrations.
+     */
+    public static final String NOTIFICATION_REGISTRATION_INDEX_CACHE_NAME = "dm_notification_registration_index_cache";
+
+    /**
+     * The JMX object name of the Hibernate statistics MBean.
+     */
+    public static final String HIBERNATE_STATISTICS_MBEAN_NAME = "org.finra.dm:type=HibernateStatistics";
+
+    /**
+     * The JMX object name of the S3 transfer metrics MBeans. Each transfer type has its own MBean, named with an additional "transferType" key.
+     */
+    public static final String S3_TRANSFER_METRICS_MBEAN_NAME = "org.finra.dm:type=S3TransferMetrics";
+
     /**
      * The JPA entity manager factory.
      *
@@ -164,6 +198,20 @@ public class DaoSpringModuleConfig implements CachingConfigurer
         properties.setProperty("hibernate.cache.region.factory_class", "org.hibernate.cache.ehcache.EhCacheRegionFactory");
         properties.setProperty("hibernate.cache.use_query_cache", "true");
         properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        // Set the "generate statistics" flag, so the second level cache hits and misses can be monitored.
+        properties.setProperty(ConfigurationValue.HIBERNATE_GENERATE_STATISTICS.getKey(),
+            configurationHelper.getProperty(ConfigurationValue.HIBERNATE_GENERATE_STATISTICS));
+        LOGGER.info("Hibernate Generate Statistics: " + properties.getProperty(ConfigurationValue.HIBERNATE_GENERATE_STATISTICS.getKey()));
+        // Set the batch fetch size, so lazy collections (e.g. storage units, storage files and attributes) are initialized in bounded batches.
+        properties.setProperty(ConfigurationValue.HIBERNATE_DEFAULT_BATCH_FETCH_SIZE.getKey(),
+            configurationHelper.getProperty(ConfigurationValue.HIBERNATE_DEFAULT_BATCH_FETCH_SIZE, Integer.class).toString());
+        LOGGER.info("Hibernate Default Batch Fetch Size: " + properties.getProperty(ConfigurationValue.HIBERNATE_DEFAULT_BATCH_FETCH_SIZE.getKey()));
+        // Set the JDBC batch size and order the inserts and updates by entity, so they can be sent to the database in batches.
+        properties.setProperty(ConfigurationValue.HIBERNATE_JDBC_BATCH_SIZE.getKey(),
+            configurationHelper.getProperty(ConfigurationValue.HIBERNATE_JDBC_BATCH_SIZE, Integer.class).toString());
+        LOGGER.info("Hibernate JDBC Batch Size: " + properties.getProperty(ConfigurationValue.HIBERNATE_JDBC_BATCH_SIZE.getKey()));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
         // Set the "show sql" flag.
         properties.setProperty(ConfigurationValue.SHOW_SQL.getKey(), configurationHelper.getProperty(ConfigurationValue.SHOW_SQL));
         LOGGER.info("Show SQL: " + properties.getProperty(ConfigurationValue.SHOW_SQL.getKey()));
@@ -193,6 +241,68 @@ public class DaoSpringModuleConfig implements CachingConfigurer
         return transactionManager;
     }
 
+    /**
+     * The Hibernate statistics of the JPA entity manager factory. The statistics (e.g. the second level cache and query cache hit and miss counts per cache
+     * region) are collected when the "hibernate.generate_statistics" configuration value is set, but they can also be turned on at runtime through JMX.
+     *
+     * @return the Hibernate statistics.
+     */
+    @Bean
+    public Statistics hibernateStatistics()
+    {
+        return entityManagerFactory().getObject().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * The MBean exporter that exposes the Hibernate statistics over JMX.
+     *
+     * @return the MBean exporter.
+     */
+    @Bean
+    public MBeanExporter hibernateStatisticsMBeanExporter()
+    {
+        MBeanExporter mBeanExporter = new MBeanExporter();
+        mBeanExporter.setBeans(Collections.<String, Object>singletonMap(HIBERNATE_STATISTICS_MBEAN_NAME, hibernateStatistics()));
+        // More than one application context can share the platform MBean server (e.g. when running the tests), so replace any previously registered MBean.
+        mBeanExporter.setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+        return mBeanExporter;
+    }
+
+    /**
+     * The MBean exporter that exposes the metrics of the S3 transfers (uploads, downloads and copies) performed by the S3 DAO over JMX.
+     *
+     * @param s3Dao the S3 DAO.
+     *
+     * @return the MBean exporter.
+     */
+    @Bean
+    public MBeanExporter s3TransferMetricsMBeanExporter(S3Dao s3Dao)
+    {
+        return createS3TransferMetricsMBeanExporter(s3Dao.getTransferMetrics());
+    }
+
+    /**
+     * Creates an MBean exporter that exposes the counters of each transfer type of the specified S3 transfer metrics over JMX.
+     *
+     * @param s3TransferMetrics the S3 transfer metrics.
+     *
+     * @return the MBean exporter.
+     */
+    public static MBeanExporter createS3TransferMetricsMBeanExporter(S3TransferMetrics s3TransferMetrics)
+    {
+        Map<String, Object> beans = new LinkedHashMap<>();
+        for (S3TransferMetrics.TransferType transferType : S3TransferMetrics.TransferType.values())
+        {
+            beans.put(S3_TRANSFER_METRICS_MBEAN_NAME + ",transferType=" + transferType, s3TransferMetrics.getTransferTypeMetrics(transferType));
+        }
+
+        MBeanExporter mBeanExporter = new MBeanExporter();
+        mBeanExporter.setBeans(beans);
+        // More than one application context can share the platform MBean server (e.g. when running the tests), so replace any previously registered MBean.
+        mBeanExporter.setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+        return mBeanExporter;
+    }
+
     /**
      * The database supplied property sources placeholder configurer that allows access to externalized properties from a database. This method also adds a new
      * property source that contains the database properties to the environment.
@@ -220,6 +330,23 @@ public class DaoSpringModuleConfig implements CachingConfigurer
         return new PropertySourcesPlaceholderConfigurer();
     }
 
+    /**
+     * Returns the database property source that was added to the environment by the database property sources placeholder configurer. It is registered as a
+     * bean, so that its background refresh thread is stopped when the application context is closed.
+     *
+     * @return the reloadable property source or null if the environment has no database property source.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ReloadablePropertySource reloadablePropertySource()
+    {
+        Environment environment = ApplicationContextHolder.getApplicationContext().getEnvironment();
+        if (environment instanceof ConfigurableEnvironment)
+        {
+            return (ReloadablePropertySource) ((ConfigurableEnvironment) environment).getPropertySources().get(ReloadablePropertySource.class.getName());
+        }
+        return null;
+    }
+
     /**
      * Gets a database configuration that can be used to read database properties.
      *
@@ -259,19 +386,45 @@ public class DaoSpringModuleConfig implements CachingConfigurer
     @Bean(destroyMethod = "shutdown")
     public net.sf.ehcache.CacheManager ehCacheManager()
     {
-        CacheConfiguration cacheConfiguration = new CacheConfiguration();
-        cacheConfiguration.setName(DM_CACHE_NAME);
-        cacheConfiguration.setTimeToLiveSeconds(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_TIME_TO_LIVE_SECONDS, Long.class));
-        cacheConfiguration.setTimeToIdleSeconds(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_TIME_TO_IDLE_SECONDS, Long.class));
-        cacheConfiguration.setMaxElementsInMemory(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_MAX_ELEMENTS_IN_MEMORY, Integer.class));
-        cacheConfiguration.setMemoryStoreEvictionPolicy(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_MEMORY_STORE_EVICTION_POLICY));
-
         net.sf.ehcache.config.Configuration config = new net.sf.ehcache.config.Configuration();
-        config.addCache(cacheConfiguration);
+
+        // The general purpose cache.
+        config.addCache(getCacheConfiguration(DM_CACHE_NAME, ConfigurationValue.DM_CACHE_TIME_TO_LIVE_SECONDS,
+            ConfigurationValue.DM_CACHE_MAX_ELEMENTS_IN_MEMORY));
+
+        // The per-method caches, each with its own size and time to live.
+        config.addCache(getCacheConfiguration(SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME,
+            ConfigurationValue.DM_CACHE_SECURITY_FUNCTIONS_FOR_ROLE_TIME_TO_LIVE_SECONDS,
+            ConfigurationValue.DM_CACHE_SECURITY_FUNCTIONS_FOR_ROLE_MAX_ELEMENTS_IN_MEMORY));
+        config.addCache(getCacheConfiguration(SECURITY_FUNCTIONS_CACHE_NAME, ConfigurationValue.DM_CACHE_SECURITY_FUNCTIONS_TIME_TO_LIVE_SECONDS,
+            ConfigurationValue.DM_CACHE_SECURITY_FUNCTIONS_MAX_ELEMENTS_IN_MEMORY));
+        config.addCache(getCacheConfiguration(NOTIFICATION_REGISTRATION_INDEX_CACHE_NAME,
+            ConfigurationValue.DM_CACHE_NOTIFICATION_REGISTRATION_INDEX_TIME_TO_LIVE_SECONDS,
+            ConfigurationValue.DM_CACHE_NOTIFICATION_REGISTRATION_INDEX_MAX_ELEMENTS_IN_MEMORY));
 
         return net.sf.ehcache.CacheManager.create(config);
     }
 
+    /**
+     * Gets an EH Cache configuration for the specified cache. The time to idle and the eviction policy are shared by all the caches.
+     *
+     * @param cacheName the cache name
+     * @param timeToLiveSeconds the configuration value that holds the cache time to live in seconds
+     * @param maxElementsInMemory the configuration value that holds the maximum number of elements in the cache memory
+     *
+     * @return the EH Cache configuration
+     */
+    private CacheConfiguration getCacheConfiguration(String cacheName, ConfigurationValue timeToLiveSeconds, ConfigurationValue maxElementsInMemory)
+    {
+        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        cacheConfiguration.setName(cacheName);
+        cacheConfiguration.setTimeToLiveSeconds(configurationHelper.getProperty(timeToLiveSeconds, Long.class));
+        cacheConfiguration.setTimeToIdleSeconds(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_TIME_TO_IDLE_SECONDS, Long.class));
+        cacheConfiguration.setMaxElementsInMemory(configurationHelper.getProperty(maxElementsInMemory, Integer.class));
+        cacheConfiguration.setMemoryStoreEvictionPolicy(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_MEMORY_STORE_EVICTION_POLICY));
+        return cacheConfiguration;
+    }
+
     @Bean
     @Override
     public CacheManager cacheManager()
@@ -0,0 +1,447 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.dao.CacheInvalidationOperations;
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
+import org.finra.dm.dao.impl.DmDaoImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
+import org.finra.dm.model.jpa.BusinessObjectDefinitionEntity;
+import org.finra.dm.model.jpa.BusinessObjectFormatEntity;
+import org.finra.dm.model.jpa.FileTypeEntity;
+import org.finra.dm.model.jpa.NamespaceEntity;
+import org.finra.dm.model.jpa.NotificationEventTypeEntity;
+import org.finra.dm.model.jpa.SecurityFunctionEntity;
+import org.finra.dm.model.jpa.SecurityRoleEntity;
+import org.finra.dm.model.jpa.SecurityRoleFunctionEntity;
+import org.finra.dm.model.jpa.StorageEntity;
+import org.finra.dm.model.jpa.StoragePlatformEntity;
+
+/**
+ * A helper that keeps the local caches of the nodes of a clustered deployment consistent. The writes of second level cached entities are collected per
+ * transaction and, once the transaction commits, the names of the modified entities are broadcast to the other nodes which evict the affected cache regions.
+ * <p/>
+ * The message format is "dm.cache.invalidation:&lt;type&gt;:&lt;comma separated names&gt;" where the type is either ENTITY for Hibernate entity names or
+ * CACHE for Spring cache names.
+ * <p/>
+ * The writes of the entities backing a Spring cache (e.g. the security functions and roles) clear that cache on this node and on all the other nodes once the
+ * transaction commits.
+ */
+@Component
+public class CacheInvalidationHelper implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger(CacheInvalidationHelper.class);
+
+    /**
+     * The prefix of all the cache invalidation messages.
+     */
+    public static final String MESSAGE_PREFIX = "dm.cache.invalidation:";
+
+    /**
+     * The message type for the Hibernate entity names.
+     */
+    public static final String MESSAGE_TYPE_ENTITY = "ENTITY";
+
+    /**
+     * The message type for the Spring cache names.
+     */
+    public static final String MESSAGE_TYPE_CACHE = "CACHE";
+
+    /**
+     * The query cache regions that hold the results of the queries that select from each of the second level cached entities. A modification of an entity that
+     * is not listed here evicts all the query cache regions.
+     */
+    private static final Map<String, List<String>> QUERY_CACHE_REGIONS_BY_ENTITY_NAME = new HashMap<>();
+
+    /**
+     * The Spring caches that hold data read from each of the entities.
+     */
+    private static final Map<String, List<String>> SPRING_CACHE_NAMES_BY_ENTITY_NAME = new HashMap<>();
+
+    static
+    {
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(NamespaceEntity.class.getName(), Arrays
+            .asList(DmDaoImpl.REFERENCE_DATA_QUERY_CACHE_REGION, DmDaoImpl.BUSINESS_OBJECT_DEFINITION_BY_KEY_QUERY_CACHE_REGION,
+                DmDaoImpl.BUSINESS_OBJECT_FORMAT_BY_ALT_KEY_QUERY_CACHE_REGION));
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(BusinessObjectDefinitionEntity.class.getName(),
+            Arrays.asList(DmDaoImpl.BUSINESS_OBJECT_DEFINITION_BY_KEY_QUERY_CACHE_REGION, DmDaoImpl.BUSINESS_OBJECT_FORMAT_BY_ALT_KEY_QUERY_CACHE_REGION));
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(BusinessObjectFormatEntity.class.getName(),
+            Arrays.asList(DmDaoImpl.BUSINESS_OBJECT_FORMAT_BY_ALT_KEY_QUERY_CACHE_REGION));
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(FileTypeEntity.class.getName(),
+            Arrays.asList(DmDaoImpl.REFERENCE_DATA_QUERY_CACHE_REGION, DmDaoImpl.BUSINESS_OBJECT_FORMAT_BY_ALT_KEY_QUERY_CACHE_REGION));
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(BusinessObjectDataStatusEntity.class.getName(), Arrays.asList(DmDaoImpl.REFERENCE_DATA_QUERY_CACHE_REGION));
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(NotificationEventTypeEntity.class.getName(), Arrays.asList(DmDaoImpl.REFERENCE_DATA_QUERY_CACHE_REGION));
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(StoragePlatformEntity.class.getName(), Arrays.asList(DmDaoImpl.REFERENCE_DATA_QUERY_CACHE_REGION));
+        QUERY_CACHE_REGIONS_BY_ENTITY_NAME.put(StorageEntity.class.getName(), Arrays.asList(DmDaoImpl.STORAGE_BY_NAME_QUERY_CACHE_REGION));
+
+        SPRING_CACHE_NAMES_BY_ENTITY_NAME.put(SecurityFunctionEntity.class.getName(),
+            Arrays.asList(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME, DaoSpringModuleConfig.SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME));
+        SPRING_CACHE_NAMES_BY_ENTITY_NAME.put(SecurityRoleEntity.class.getName(), Arrays.asList(DaoSpringModuleConfig.SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME));
+        SPRING_CACHE_NAMES_BY_ENTITY_NAME.put(SecurityRoleFunctionEntity.class.getName(),
+            Arrays.asList(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME, DaoSpringModuleConfig.SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME));
+    }
+
+    @Autowired
+    private transient ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private transient CacheInvalidationOperations cacheInvalidationOperations;
+
+    @Autowired
+    private transient CacheManager cacheManager;
+
+    @PersistenceUnit
+    private transient EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Registers this helper as a Hibernate listener of the entity insert, update and delete events.
+     */
+    @PostConstruct
+    public void registerEventListeners()
+    {
+        EventListenerRegistry eventListenerRegistry = getSessionFactory().getServiceRegistry().getService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.POST_INSERT, this);
+        eventListenerRegistry.appendListeners(EventType.POST_UPDATE, this);
+        eventListenerRegistry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event)
+    {
+        onEntityModified(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event)
+    {
+        onEntityModified(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event)
+    {
+        onEntityModified(event.getPersister());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister)
+    {
+        return false;
+    }
+
+    /**
+     * Returns whether the cache invalidation messages are broadcast to and received from the other nodes.
+     *
+     * @return true if the cache invalidation is enabled
+     */
+    public boolean isCacheInvalidationEnabled()
+    {
+        return Boolean.valueOf(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_INVALIDATION_ENABLED));
+    }
+
+    /**
+     * Clears the specified Spring cache on this node and on all the other nodes.
+     *
+     * @param cacheName the Spring cache name
+     */
+    public void invalidateCache(String cacheName)
+    {
+        clearCache(cacheName);
+        broadcast(MESSAGE_TYPE_CACHE, Collections.singleton(cacheName));
+    }
+
+    /**
+     * Clears the specified Spring cache on all the other nodes, but not on this node. This is meant for caches that this node has already updated in place.
+     *
+     * @param cacheName the Spring cache name
+     */
+    public void invalidateRemoteCache(String cacheName)
+    {
+        broadcast(MESSAGE_TYPE_CACHE, Collections.singleton(cacheName));
+    }
+
+    /**
+     * Returns whether the specified message is a cache invalidation message. This check is cheap, so it can be used to classify the incoming messages.
+     *
+     * @param messageText the message text
+     *
+     * @return true if this is a cache invalidation message
+     */
+    public boolean isCacheInvalidationMessage(String messageText)
+    {
+        return messageText != null && messageText.startsWith(MESSAGE_PREFIX);
+    }
+
+    /**
+     * Builds a cache invalidation message.
+     *
+     * @param type the message type, either {@link #MESSAGE_TYPE_ENTITY} or {@link #MESSAGE_TYPE_CACHE}
+     * @param names the entity or cache names
+     *
+     * @return the message text
+     */
+    public String buildCacheInvalidationMessage(String type, Collection<String> names)
+    {
+        return MESSAGE_PREFIX + type + ":" + StringUtils.join(names, ',');
+    }
+
+    /**
+     * Processes a cache invalidation message received from another node by evicting the affected local caches.
+     *
+     * @param messageText the message text
+     *
+     * @throws IllegalArgumentException if the message is not a valid cache invalidation message
+     */
+    public void processCacheInvalidationMessage(String messageText)
+    {
+        String[] tokens = isCacheInvalidationMessage(messageText) ? messageText.substring(MESSAGE_PREFIX.length()).split(":", 2) : new String[0];
+
+        if (tokens.length != 2 || !(MESSAGE_TYPE_ENTITY.equals(tokens[0]) || MESSAGE_TYPE_CACHE.equals(tokens[0])))
+        {
+            throw new IllegalArgumentException(String.format("Invalid cache invalidation message: \"%s\".", messageText));
+        }
+
+        for (String name : StringUtils.split(tokens[1], ','))
+        {
+            if (MESSAGE_TYPE_ENTITY.equals(tokens[0]))
+            {
+                evictEntityRegion(name);
+            }
+            else
+            {
+                clearCache(name);
+            }
+        }
+    }
+
+    /**
+     * Records a modification of the specified entity. Only the second level cached entities and the entities backing a Spring cache are of interest. When there
+     * is a transaction in progress, the entity and cache names are collected and invalidated once after the transaction commits, otherwise they are
+     * invalidated right away.
+     *
+     * @param persister the entity persister
+     */
+    private void onEntityModified(EntityPersister persister)
+    {
+        List<String> cacheNames = SPRING_CACHE_NAMES_BY_ENTITY_NAME.get(persister.getEntityName());
+        boolean broadcastEntityName = persister.hasCache() && isCacheInvalidationEnabled();
+
+        if (!broadcastEntityName && cacheNames == null)
+        {
+            return;
+        }
+
+        ModifiedNames modifiedNames = new ModifiedNames();
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            ModifiedNames transactionModifiedNames = (ModifiedNames) TransactionSynchronizationManager.getResource(this);
+
+            if (transactionModifiedNames == null)
+            {
+                final ModifiedNames newTransactionModifiedNames = new ModifiedNames();
+                transactionModifiedNames = newTransactionModifiedNames;
+                TransactionSynchronizationManager.bindResource(this, newTransactionModifiedNames);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+                {
+                    @Override
+                    public void afterCommit()
+                    {
+                        invalidate(newTransactionModifiedNames);
+                    }
+
+                    @Override
+                    public void afterCompletion(int status)
+                    {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationHelper.this);
+                    }
+                });
+            }
+
+            modifiedNames = transactionModifiedNames;
+        }
+
+        if (broadcastEntityName)
+        {
+            modifiedNames.entityNames.add(persister.getEntityName());
+        }
+        if (cacheNames != null)
+        {
+            modifiedNames.cacheNames.addAll(cacheNames);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            invalidate(modifiedNames);
+        }
+    }
+
+    /**
+     * Broadcasts the modified entity names to the other nodes and clears the modified Spring caches on this node and on all the other nodes. All the entity
+     * names go in one message and all the cache names go in another one, so a transaction sends at most two messages.
+     *
+     * @param modifiedNames the modified entity and cache names
+     */
+    private void invalidate(ModifiedNames modifiedNames)
+    {
+        for (String cacheName : modifiedNames.cacheNames)
+        {
+            clearCache(cacheName);
+        }
+
+        broadcast(MESSAGE_TYPE_ENTITY, modifiedNames.entityNames);
+        broadcast(MESSAGE_TYPE_CACHE, modifiedNames.cacheNames);
+    }
+
+    /**
+     * Broadcasts a cache invalidation message to the other nodes. The message is sent asynchronously by the cache invalidation operations, so the committing
+     * thread does not wait for the queues. A failure is logged, but not propagated, since the data changes are already committed and the other nodes would
+     * eventually refresh their caches when they expire.
+     *
+     * @param type the message type
+     * @param names the entity or cache names
+     */
+    private void broadcast(String type, Collection<String> names)
+    {
+        if (names.isEmpty() || !isCacheInvalidationEnabled())
+        {
+            return;
+        }
+
+        String messageText = buildCacheInvalidationMessage(type, names);
+
+        try
+        {
+            cacheInvalidationOperations.broadcastCacheInvalidationMessage(messageText);
+        }
+        catch (Exception e)
+        {
+            LOGGER.error(String.format("Failed to broadcast the cache invalidation message: \"%s\".", messageText), e);
+        }
+    }
+
+    /**
+     * Evicts the second level cache region of the specified entity along with its cached collections. The query cache regions that select from the entity are
+     * evicted as well, since the query results cached on this node might be stale.
+     *
+     * @param entityName the entity name
+     */
+    private void evictEntityRegion(String entityName)
+    {
+        SessionFactoryImplementor sessionFactory = getSessionFactory();
+        org.hibernate.Cache cache = sessionFactory.getCache();
+
+        LOGGER.debug(String.format("Evicting \"%s\" entity cache region.", entityName));
+        cache.evictEntityRegion(entityName);
+
+        for (String collectionRole : sessionFactory.getAllCollectionMetadata().keySet())
+        {
+            if (collectionRole.startsWith(entityName + ".") && sessionFactory.getCollectionPersister(collectionRole).hasCache())
+            {
+                cache.evictCollectionRegion(collectionRole);
+            }
+        }
+
+        List<String> queryCacheRegions = QUERY_CACHE_REGIONS_BY_ENTITY_NAME.get(entityName);
+        if (queryCacheRegions != null)
+        {
+            for (String queryCacheRegion : queryCacheRegions)
+            {
+                cache.evictQueryRegion(queryCacheRegion);
+            }
+        }
+        else
+        {
+            cache.evictDefaultQueryRegion();
+            cache.evictQueryRegions();
+        }
+    }
+
+    /**
+     * Clears the specified Spring cache on this node.
+     *
+     * @param cacheName the Spring cache name
+     */
+    private void clearCache(String cacheName)
+    {
+        Cache cache = cacheManager.getCache(cacheName);
+
+        if (cache != null)
+        {
+            LOGGER.debug(String.format("Clearing \"%s\" cache.", cacheName));
+            cache.clear();
+        }
+        else
+        {
+            LOGGER.warn(String.format("Cache \"%s\" not found.", cacheName));
+        }
+    }
+
+    /**
+     * Gets the Hibernate session factory behind the JPA entity manager factory.
+     *
+     * @return the session factory
+     */
+    private SessionFactoryImplementor getSessionFactory()
+    {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * The names of the entities and Spring caches modified by a transaction.
+     */
+    private static class ModifiedNames
+    {
+        private final Set<String> entityNames = new LinkedHashSet<>();
+
+        private final Set<String> cacheNames = new LinkedHashSet<>();
+    }
+}
@@ -15,6 +15,7 @@
 */
 package org.finra.dm.dao.impl;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -148,6 +149,20 @@ public class BaseJpaDaoImpl implements BaseJpaDao
         return entity;
     }
 
+    @Override
+    public <T> void saveAll(Collection<T> entities)
+    {
+        Validate.notNull(entities);
+
+        // Persist all the entities first, so the flush can send the inserts to the database in JDBC batches.
+        for (T entity : entities)
+        {
+            save(entity);
+        }
+
+        entityManager.flush();
+    }
+
     @Override
     public <T> T saveAndRefresh(T entity)
     {
@@ -0,0 +1,66 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.impl;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+
+import org.finra.dm.core.helper.ConfigurationHelper;
+import org.finra.dm.dao.CacheInvalidationOperations;
+import org.finra.dm.dao.SqsDao;
+import org.finra.dm.dao.helper.AwsHelper;
+import org.finra.dm.model.dto.AwsParamsDto;
+import org.finra.dm.model.dto.ConfigurationValue;
+
+/**
+ * Cache invalidation operations that broadcast the messages over AWS SQS. Each node listens on its own queue, so a message gets sent to every configured
+ * queue except the one of the current node. The messages are sent on the "@Async" task executor, so the transactions that trigger them do not wait for SQS.
+ */
+public class CacheInvalidationOperationsImpl implements CacheInvalidationOperations
+{
+    private static final Logger LOGGER = Logger.getLogger(CacheInvalidationOperationsImpl.class);
+
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    @Autowired
+    private AwsHelper awsHelper;
+
+    @Autowired
+    private SqsDao sqsDao;
+
+    @Override
+    @Async
+    public void broadcastCacheInvalidationMessage(String messageText)
+    {
+        String incomingQueueName = configurationHelper.getProperty(ConfigurationValue.DM_CACHE_INVALIDATION_SQS_INCOMING_QUEUE_NAME);
+        AwsParamsDto awsParamsDto = awsHelper.getAwsParamsDto();
+
+        for (String queueName : StringUtils.split(StringUtils.defaultString(configurationHelper.getProperty(ConfigurationValue
+            .DM_CACHE_INVALIDATION_SQS_QUEUE_NAMES)), ','))
+        {
+            queueName = queueName.trim();
+
+            if (StringUtils.isNotEmpty(queueName) && !queueName.equals(incomingQueueName))
+            {
+                LOGGER.debug(String.format("Broadcasting cache invalidation message to \"%s\" queue. Message: \"%s\"", queueName, messageText));
+                sqsDao.sendSqsTextMessage(awsParamsDto, queueName, messageText);
+            }
+        }
+    }
+}
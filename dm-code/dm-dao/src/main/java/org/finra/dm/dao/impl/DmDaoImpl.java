@@ -21,16 +21,24 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.CascadeType;
+import javax.persistence.LockModeType;
 import javax.persistence.OneToMany;
 import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
@@ -44,6 +52,7 @@ import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.orm.jpa.vendor.Database;
@@ -57,6 +66,7 @@ import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.dao.helper.DmDaoSecurityHelper;
 import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.dto.DateRangeDto;
+import org.finra.dm.model.dto.JmsMessageQueueStatisticsDto;
 import org.finra.dm.model.dto.StorageAlternateKeyDto;
 import org.finra.dm.model.jpa.AuditableEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
@@ -135,6 +145,26 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 {
     public static final int MAX_PARTITION_FILTERS_PER_REQUEST = 100;
 
+    /**
+     * The query cache region used by the reference entity lookups.
+     */
+    public static final String REFERENCE_DATA_QUERY_CACHE_REGION = AuditableEntity.REFERENCE_DATA_QUERY_CACHE_REGION;
+
+    /**
+     * The query cache region used by the business object definition lookups by key.
+     */
+    public static final String BUSINESS_OBJECT_DEFINITION_BY_KEY_QUERY_CACHE_REGION = "dm.businessObjectDefinitionByKeyQueries";
+
+    /**
+     * The query cache region used by the business object format lookups by alternate key.
+     */
+    public static final String BUSINESS_OBJECT_FORMAT_BY_ALT_KEY_QUERY_CACHE_REGION = "dm.businessObjectFormatByAltKeyQueries";
+
+    /**
+     * The query cache region used by the storage lookups by name.
+     */
+    public static final String STORAGE_BY_NAME_QUERY_CACHE_REGION = "dm.storageByNameQueries";
+
     private static final List<SingularAttribute<BusinessObjectDataEntity, String>> BUSINESS_OBJECT_DATA_PARTITIONS = Arrays
         .asList(BusinessObjectDataEntity_.partitionValue, BusinessObjectDataEntity_.partitionValue2, BusinessObjectDataEntity_.partitionValue3,
             BusinessObjectDataEntity_.partitionValue4, BusinessObjectDataEntity_.partitionValue5);
@@ -142,6 +172,11 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
     private static final List<SingularAttribute<BusinessObjectDataEntity, String>> BUSINESS_OBJECT_DATA_SUBPARTITIONS =
         BUSINESS_OBJECT_DATA_PARTITIONS.subList(1, 1 + BusinessObjectDataEntity.MAX_SUBPARTITIONS);
 
+    /**
+     * The maximum number of times a JMS message claim selects new messages after losing the race for all of the previously selected messages.
+     */
+    private static final int MAX_JMS_MESSAGE_CLAIM_ATTEMPTS = 10;
+
     /**
      * Represents aggregate function.
      */
@@ -199,7 +234,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
         criteria.select(namespaceEntity).where(queryRestriction);
 
-        return executeSingleResultQuery(criteria, String.format("Found more than one namespace with namespaceCode=\"%s\".", namespaceCode));
+        return executeSingleResultCacheableQuery(criteria, REFERENCE_DATA_QUERY_CACHE_REGION,
+            String.format("Found more than one namespace with namespaceCode=\"%s\".", namespaceCode));
     }
 
     /**
@@ -276,7 +312,7 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
         criteria.select(businessObjectDefinitionEntity).where(queryRestriction);
 
-        return executeSingleResultQuery(criteria, String
+        return executeSingleResultCacheableQuery(criteria, BUSINESS_OBJECT_DEFINITION_BY_KEY_QUERY_CACHE_REGION, String
             .format("Found more than one business object definition with parameters {namespace=\"%s\", businessObjectDefinitionName=\"%s\"}.",
                 businessObjectDefinitionKey.getNamespace(), businessObjectDefinitionKey.getBusinessObjectDefinitionName()));
     }
@@ -390,7 +426,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
         criteria.select(fileType).where(fileTypeCodeRestriction);
 
-        return executeSingleResultQuery(criteria, String.format("Found more than one file type with code \"%s\".", code));
+        return executeSingleResultCacheableQuery(criteria, REFERENCE_DATA_QUERY_CACHE_REGION,
+            String.format("Found more than one file type with code \"%s\".", code));
     }
 
     /**
@@ -461,7 +498,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
         criteria.select(businessObjectFormatEntity).where(queryRestriction);
 
-        return executeSingleResultQuery(criteria, String.format("Found more than one business object format instance with parameters " +
+        return executeSingleResultCacheableQuery(criteria, BUSINESS_OBJECT_FORMAT_BY_ALT_KEY_QUERY_CACHE_REGION,
+            String.format("Found more than one business object format instance with parameters " +
             "{namespace=\"%s\", businessObjectDefinitionName=\"%s\", businessObjectFormatUsage=\"%s\", businessObjectFormatFileType=\"%s\", " +
             "businessObjectFormatVersion=\"%d\"}.", businessObjectFormatKey.getNamespace(), businessObjectFormatKey.getBusinessObjectDefinitionName(),
             businessObjectFormatKey.getBusinessObjectFormatUsage(), businessObjectFormatKey.getBusinessObjectFormatFileType(),
@@ -974,7 +1012,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
         criteria.select(businessObjectDataStatus).where(businessObjectDataStatusCodeRestriction);
 
-        return executeSingleResultQuery(criteria, String.format("Found more than one business object data status with code \"%s\".", code));
+        return executeSingleResultCacheableQuery(criteria, REFERENCE_DATA_QUERY_CACHE_REGION,
+            String.format("Found more than one business object data status with code \"%s\".", code));
     }
 
     // BusinessObjectData
@@ -1057,46 +1096,12 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
                 .and(mainQueryRestriction, builder.in(businessObjectFormatEntity.get(BusinessObjectFormatEntity_.businessObjectFormatVersion)).value(subQuery));
         }
 
-        // If a data version was not specified, use the latest one as per specified business object data status.
+        // If a data version was not specified, use the latest one as per specified business object data status. When business object data status is not
+        // specified either, just use the latest business object data version.
         if (businessObjectDataKey.getBusinessObjectDataVersion() == null)
         {
-            // Since business object data version is not specified, just use the latest one as per specified business object data status.
-            if (businessObjectDataStatus != null)
-            {
-                // Business object data version is not specified, so get the latest one as per specified business object data status.
-                Subquery<Integer> subQuery = criteria.subquery(Integer.class);
-
-                // The criteria root is the business object data.
-                Root<BusinessObjectDataEntity> subBusinessObjectDataEntity = subQuery.from(BusinessObjectDataEntity.class);
-
-                // Join to the other tables we can filter on.
-                Join<BusinessObjectDataEntity, BusinessObjectDataStatusEntity> subBusinessObjectDataStatusEntity =
-                    subBusinessObjectDataEntity.join(BusinessObjectDataEntity_.status);
-                Join<BusinessObjectDataEntity, BusinessObjectFormatEntity> subBusinessObjectFormatEntity =
-                    subBusinessObjectDataEntity.join(BusinessObjectDataEntity_.businessObjectFormat);
-
-                // Create the standard restrictions (i.e. the standard where clauses).
-                Predicate subQueryRestriction = builder.equal(subBusinessObjectFormatEntity, businessObjectFormatEntity);
-
-                // Create and add standard restrictions on primary and sub-partition values.
-                subQueryRestriction =
-                    builder.and(subQueryRestriction, getQueryRestrictionOnPartitionValues(builder, subBusinessObjectDataEntity, businessObjectDataEntity));
-
-                // Create and add standard restrictions on business object data status.
-                subQueryRestriction = builder.and(subQueryRestriction, builder
-                    .equal(builder.upper(subBusinessObjectDataStatusEntity.get(BusinessObjectDataStatusEntity_.code)), businessObjectDataStatus.toUpperCase()));
-
-                subQuery.select(builder.max(subBusinessObjectDataEntity.get(BusinessObjectDataEntity_.version))).where(subQueryRestriction);
-
-                mainQueryRestriction =
-                    builder.and(mainQueryRestriction, builder.in(businessObjectDataEntity.get(BusinessObjectDataEntity_.version)).value(subQuery));
-            }
-            else
-            {
-                // Both business object data version and business object data status are not specified, so just use the latest business object data version.
-                mainQueryRestriction =
-                    builder.and(mainQueryRestriction, builder.equal(businessObjectDataEntity.get(BusinessObjectDataEntity_.latestVersion), true));
-            }
+            mainQueryRestriction = builder.and(mainQueryRestriction,
+                getQueryRestrictionOnLatestBusinessObjectDataVersion(builder, businessObjectDataEntity, null, businessObjectDataStatus));
         }
 
         criteria.select(businessObjectDataEntity).where(mainQueryRestriction);
@@ -1264,11 +1269,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         else
         {
             // Business object data version is not specified, so get the latest one regardless of the business object data status in the specified storage.
-            Subquery<Integer> subQuery =
-                getMaximumBusinessObjectDataVersionSubQuery(builder, criteria, businessObjectDataEntity, businessObjectFormatEntity, null, storageEntity);
-
-            mainQueryRestriction =
-                builder.and(mainQueryRestriction, builder.in(businessObjectDataEntity.get(BusinessObjectDataEntity_.version)).value(subQuery));
+            mainQueryRestriction = builder.and(mainQueryRestriction,
+                getQueryRestrictionOnLatestBusinessObjectDataVersion(builder, businessObjectDataEntity, storageUnitEntity, null));
         }
 
         // Add an inclusive upper bound partition value restriction if specified.
@@ -1377,6 +1379,13 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
     public List<BusinessObjectDataEntity> getBusinessObjectDataEntities(BusinessObjectFormatKey businessObjectFormatKey, List<List<String>> partitionFilters,
         Integer businessObjectDataVersion, String businessObjectDataStatus, String storageName)
     {
+        // When there are more partition filters than fit in a single request, try to resolve all of them with a single bulk query.
+        if (partitionFilters.size() > MAX_PARTITION_FILTERS_PER_REQUEST && isBulkPartitionFiltersLookupApplicable(partitionFilters))
+        {
+            return getBusinessObjectDataEntitiesBulk(businessObjectFormatKey, partitionFilters, businessObjectDataVersion, businessObjectDataStatus,
+                storageName);
+        }
+
         List<BusinessObjectDataEntity> resultBusinessObjectDataEntities = new ArrayList<>();
 
         // Loop through each chunk of partition filters until we have reached the end of the list.
@@ -1394,6 +1403,212 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         return resultBusinessObjectDataEntities;
     }
 
+    /**
+     * Checks whether the specified partition filters can be resolved by a bulk lookup. A bulk lookup is applicable when it is enabled in the configuration and
+     * every partition filter specifies a primary partition value.
+     *
+     * @param partitionFilters the list of partition filters
+     *
+     * @return true if the bulk lookup is applicable, false otherwise
+     */
+    private boolean isBulkPartitionFiltersLookupApplicable(List<List<String>> partitionFilters)
+    {
+        if (!Boolean.valueOf(configurationHelper.getProperty(ConfigurationValue.BUSINESS_OBJECT_DATA_PARTITION_FILTERS_BULK_LOOKUP_ENABLED)))
+        {
+            return false;
+        }
+
+        for (List<String> partitionFilter : partitionFilters)
+        {
+            if (StringUtils.isBlank(partitionFilter.get(0)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Retrieves a list of business object data entities per specified parameters without correlated sub-queries. The partition filters are matched by the
+     * database, one query per chunk of up to the in clause chunk size of partition filters, since that is the most values a database in clause accepts. Unless
+     * a business object data version is specified, the database only returns the latest data version of each business object format version by the latest
+     * version flags, and the latest format version for each set of partition values is then kept in memory. Every partition filter is expected to have a
+     * primary partition value specified.
+     *
+     * @param businessObjectFormatKey the business object format key (case-insensitive). If a business object format version isn't specified, the latest
+     * available format version for each partition value will be used.
+     * @param partitionFilters the list of partition filter to be used to select business object data instances. Each partition filter contains a list of
+     * primary and sub-partition values in the right order up to the maximum partition levels allowed by business object data registration - with partition
+     * values for the relative partitions not to be used for selection passed as nulls.
+     * @param businessObjectDataVersion the business object data version. If a business object data version isn't specified, the latest data version based on
+     * the specified business object data status is returned.
+     * @param businessObjectDataStatus the business object data status. This parameter is ignored when the business object data version is specified. When
+     * business object data version and business object data status both are not specified, the latest data version for each set of partition values will be
+     * used regardless of the status.
+     * @param storageName the name of the storage where the business object data storage unit is located (case-insensitive)
+     *
+     * @return the list of business object data entities sorted by partition values within each chunk of partition filters
+     */
+    private List<BusinessObjectDataEntity> getBusinessObjectDataEntitiesBulk(BusinessObjectFormatKey businessObjectFormatKey,
+        List<List<String>> partitionFilters, Integer businessObjectDataVersion, String businessObjectDataStatus, String storageName)
+    {
+        int inClauseChunkSize = configurationHelper.getProperty(ConfigurationValue.DB_IN_CLAUSE_CHUNK_SIZE, Integer.class);
+
+        // Select the latest format and data version for each set of partition values. The linked hash map preserves the order by partitions returned by the
+        // database.
+        Map<List<String>, BusinessObjectDataEntity> latestBusinessObjectDataEntities = new LinkedHashMap<>();
+        for (int i = 0; i < partitionFilters.size(); i += inClauseChunkSize)
+        {
+            for (BusinessObjectDataEntity candidateBusinessObjectDataEntity : getBusinessObjectDataEntitiesBulkChunk(businessObjectFormatKey,
+                partitionFilters.subList(i, Math.min(partitionFilters.size(), i + inClauseChunkSize)), businessObjectDataVersion, businessObjectDataStatus,
+                storageName))
+            {
+                List<String> partitionValues = getPartitionValues(candidateBusinessObjectDataEntity);
+                BusinessObjectDataEntity latestBusinessObjectDataEntity = latestBusinessObjectDataEntities.get(partitionValues);
+
+                if (latestBusinessObjectDataEntity == null || isLaterVersion(candidateBusinessObjectDataEntity, latestBusinessObjectDataEntity))
+                {
+                    latestBusinessObjectDataEntities.put(partitionValues, candidateBusinessObjectDataEntity);
+                }
+            }
+        }
+
+        return new ArrayList<>(latestBusinessObjectDataEntities.values());
+    }
+
+    /**
+     * Retrieves the business object data that match a chunk of partition filters using a single query. The partition filters that only specify a primary
+     * partition value are matched with a single "in" clause, and the other partition filters are matched the same way as by the chunked lookup. Unless a
+     * business object data version is specified, only the latest data version in the storage is returned for each business object format version.
+     *
+     * @param businessObjectFormatKey the business object format key (case-insensitive)
+     * @param partitionFilters the chunk of partition filters
+     * @param businessObjectDataVersion the business object data version
+     * @param businessObjectDataStatus the business object data status
+     * @param storageName the name of the storage where the business object data storage unit is located (case-insensitive)
+     *
+     * @return the list of business object data entities sorted by partition values
+     */
+    private List<BusinessObjectDataEntity> getBusinessObjectDataEntitiesBulkChunk(BusinessObjectFormatKey businessObjectFormatKey,
+        List<List<String>> partitionFilters, Integer businessObjectDataVersion, String businessObjectDataStatus, String storageName)
+    {
+        // Create the criteria builder and the criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BusinessObjectDataEntity> criteria = builder.createQuery(BusinessObjectDataEntity.class);
+
+        // The criteria root is the business object data.
+        Root<BusinessObjectDataEntity> businessObjectDataEntity = criteria.from(BusinessObjectDataEntity.class);
+
+        // Join to the other tables we can filter on.
+        Join<BusinessObjectDataEntity, StorageUnitEntity> storageUnitEntity = businessObjectDataEntity.join(BusinessObjectDataEntity_.storageUnits);
+        Join<StorageUnitEntity, StorageEntity> storageEntity = storageUnitEntity.join(StorageUnitEntity_.storage);
+        Join<BusinessObjectDataEntity, BusinessObjectFormatEntity> businessObjectFormatEntity =
+            businessObjectDataEntity.join(BusinessObjectDataEntity_.businessObjectFormat);
+        Join<BusinessObjectFormatEntity, FileTypeEntity> fileTypeEntity = businessObjectFormatEntity.join(BusinessObjectFormatEntity_.fileType);
+        Join<BusinessObjectFormatEntity, BusinessObjectDefinitionEntity> businessObjectDefinitionEntity =
+            businessObjectFormatEntity.join(BusinessObjectFormatEntity_.businessObjectDefinition);
+        Join<BusinessObjectDataEntity, BusinessObjectDataStatusEntity> businessObjectDataStatusEntity =
+            businessObjectDataEntity.join(BusinessObjectDataEntity_.status);
+
+        // Create a standard restriction based on the business object format key values.
+        // Please note that we specify not to ignore the business object format version.
+        Predicate queryRestriction =
+            getQueryRestriction(builder, businessObjectFormatEntity, fileTypeEntity, businessObjectDefinitionEntity, businessObjectFormatKey, false);
+
+        // Add a restriction as per specified primary and/or sub-partition values.
+        List<String> primaryPartitionValues = new ArrayList<>();
+        List<List<String>> subPartitionFilters = new ArrayList<>();
+        for (List<String> partitionFilter : partitionFilters)
+        {
+            boolean hasSubPartitionValues = false;
+            for (int partitionLevel = 1; partitionLevel < BusinessObjectDataEntity.MAX_SUBPARTITIONS + 1; partitionLevel++)
+            {
+                hasSubPartitionValues = hasSubPartitionValues || StringUtils.isNotBlank(partitionFilter.get(partitionLevel));
+            }
+
+            if (hasSubPartitionValues)
+            {
+                subPartitionFilters.add(partitionFilter);
+            }
+            else
+            {
+                primaryPartitionValues.add(partitionFilter.get(0));
+            }
+        }
+        Predicate partitionRestriction = getQueryRestrictionOnPartitionValues(builder, businessObjectDataEntity, subPartitionFilters);
+        if (!primaryPartitionValues.isEmpty())
+        {
+            Predicate primaryPartitionRestriction = businessObjectDataEntity.get(BusinessObjectDataEntity_.partitionValue).in(primaryPartitionValues);
+            partitionRestriction = (partitionRestriction == null ? primaryPartitionRestriction : builder.or(partitionRestriction, primaryPartitionRestriction));
+        }
+        queryRestriction = builder.and(queryRestriction, partitionRestriction);
+
+        // Add restrictions on business object data version and business object data status. These are the same restrictions that the correlated
+        // sub-queries of the chunked lookup apply when selecting the latest business object format and data versions.
+        Predicate queryRestrictionOnBusinessObjectDataVersionAndStatus =
+            getQueryRestrictionOnBusinessObjectDataVersionAndStatus(builder, businessObjectDataEntity, businessObjectDataStatusEntity,
+                businessObjectDataVersion, businessObjectDataStatus);
+        if (queryRestrictionOnBusinessObjectDataVersionAndStatus != null)
+        {
+            queryRestriction = builder.and(queryRestriction, queryRestrictionOnBusinessObjectDataVersionAndStatus);
+        }
+
+        // If a data version was not specified, only select the latest data version in the storage as per specified business object data status, if any.
+        if (businessObjectDataVersion == null)
+        {
+            queryRestriction = builder.and(queryRestriction, builder.isTrue(storageUnitEntity
+                .get(businessObjectDataStatus == null ? StorageUnitEntity_.latestVersion : StorageUnitEntity_.latestStatusVersion)));
+        }
+
+        // Add a storage name restriction.
+        queryRestriction = builder.and(queryRestriction, builder.equal(builder.upper(storageEntity.get(StorageEntity_.name)), storageName.toUpperCase()));
+
+        // Add the clauses for the query.
+        criteria.select(businessObjectDataEntity).where(queryRestriction);
+
+        // Order by partitions.
+        List<Order> orderBy = new ArrayList<>();
+        for (SingularAttribute<BusinessObjectDataEntity, String> businessObjectDataPartition : BUSINESS_OBJECT_DATA_PARTITIONS)
+        {
+            orderBy.add(builder.asc(businessObjectDataEntity.get(businessObjectDataPartition)));
+        }
+        criteria.orderBy(orderBy);
+
+        return entityManager.createQuery(criteria).getResultList();
+    }
+
+    /**
+     * Gets the primary and sub-partition values of the specified business object data entity.
+     *
+     * @param businessObjectDataEntity the business object data entity
+     *
+     * @return the list of partition values, with null values for the partition levels that are not used
+     */
+    private List<String> getPartitionValues(BusinessObjectDataEntity businessObjectDataEntity)
+    {
+        return Arrays.asList(businessObjectDataEntity.getPartitionValue(), businessObjectDataEntity.getPartitionValue2(),
+            businessObjectDataEntity.getPartitionValue3(), businessObjectDataEntity.getPartitionValue4(), businessObjectDataEntity.getPartitionValue5());
+    }
+
+    /**
+     * Checks whether the first business object data has a later business object format version or, for the same format version, a later business object data
+     * version than the second business object data.
+     *
+     * @param businessObjectDataEntity the business object data entity to check
+     * @param otherBusinessObjectDataEntity the business object data entity to compare against
+     *
+     * @return true if the first business object data is the later version, false otherwise
+     */
+    private boolean isLaterVersion(BusinessObjectDataEntity businessObjectDataEntity, BusinessObjectDataEntity otherBusinessObjectDataEntity)
+    {
+        int formatVersionComparison = businessObjectDataEntity.getBusinessObjectFormat().getBusinessObjectFormatVersion()
+            .compareTo(otherBusinessObjectDataEntity.getBusinessObjectFormat().getBusinessObjectFormatVersion());
+
+        return formatVersionComparison > 0 ||
+            (formatVersionComparison == 0 && businessObjectDataEntity.getVersion().compareTo(otherBusinessObjectDataEntity.getVersion()) > 0);
+    }
+
     /**
      * Retrieves a list of business object data entities per specified parameters. This method processes a sublist of partition filters specified by
      * partitionFilterSubListFromIndex and partitionFilterSubListSize parameters.
@@ -1505,12 +1720,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
             // Business object data version is not specified, so get the latest one as per specified business object data status, if any.
             // Meaning, when both business object data version and business object data status are not specified, we just return
             // the latest business object data version in the specified storage.
-            Subquery<Integer> subQuery =
-                getMaximumBusinessObjectDataVersionSubQuery(builder, criteria, businessObjectDataEntity, businessObjectFormatEntity, businessObjectDataStatus,
-                    storageEntity);
-
-            mainQueryRestriction =
-                builder.and(mainQueryRestriction, builder.in(businessObjectDataEntity.get(BusinessObjectDataEntity_.version)).value(subQuery));
+            mainQueryRestriction = builder.and(mainQueryRestriction,
+                getQueryRestrictionOnLatestBusinessObjectDataVersion(builder, businessObjectDataEntity, storageUnitEntity, businessObjectDataStatus));
         }
 
         // Add a storage name restriction to the main query where clause.
@@ -1571,55 +1782,117 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
     }
 
     /**
-     * Builds a sub-query to select the maximum business object data version.
-     *
-     * @param builder the criteria builder
-     * @param criteria the criteria query
-     * @param businessObjectDataEntity the business object data entity that appears in the from clause of the main query
-     * @param businessObjectFormatEntity the business object format entity that appears in the from clause of the main query
-     * @param businessObjectDataStatus the business object data status
-     *
-     * @return the sub-query to select the maximum business object data version
+     * {@inheritDoc}
      */
-    private Subquery<Integer> getMaximumBusinessObjectDataVersionSubQuery(CriteriaBuilder builder, CriteriaQuery<?> criteria,
-        From<?, BusinessObjectDataEntity> businessObjectDataEntity, From<?, BusinessObjectFormatEntity> businessObjectFormatEntity,
-        String businessObjectDataStatus, From<?, StorageEntity> storageEntity)
+    @Override
+    public void updateBusinessObjectDataLatestVersionFlags(BusinessObjectDataEntity businessObjectDataEntity)
     {
-        // Business object data version is not specified, so get the latest one in the specified storage.
-        Subquery<Integer> subQuery = criteria.subquery(Integer.class);
+        // Create the criteria builder and the criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BusinessObjectDataEntity> criteria = builder.createQuery(BusinessObjectDataEntity.class);
 
         // The criteria root is the business object data.
-        Root<BusinessObjectDataEntity> subBusinessObjectDataEntity = subQuery.from(BusinessObjectDataEntity.class);
+        Root<BusinessObjectDataEntity> versionBusinessObjectDataEntity = criteria.from(BusinessObjectDataEntity.class);
 
-        // Join to the other tables we can filter on.
-        Join<BusinessObjectDataEntity, StorageUnitEntity> subStorageUnitEntity = subBusinessObjectDataEntity.join(BusinessObjectDataEntity_.storageUnits);
-        Join<StorageUnitEntity, StorageEntity> subStorageEntity = subStorageUnitEntity.join(StorageUnitEntity_.storage);
-        Join<BusinessObjectDataEntity, BusinessObjectFormatEntity> subBusinessObjectFormatEntity =
-            subBusinessObjectDataEntity.join(BusinessObjectDataEntity_.businessObjectFormat);
+        // Create the restrictions on the business object format and the primary and sub-partition values.
+        Predicate queryRestriction = builder
+            .equal(versionBusinessObjectDataEntity.get(BusinessObjectDataEntity_.businessObjectFormat), businessObjectDataEntity.getBusinessObjectFormat());
+        List<String> partitionValues = getPartitionValues(businessObjectDataEntity);
+        for (int i = 0; i < BUSINESS_OBJECT_DATA_PARTITIONS.size(); i++)
+        {
+            Path<String> partitionValue = versionBusinessObjectDataEntity.get(BUSINESS_OBJECT_DATA_PARTITIONS.get(i));
+            queryRestriction = builder.and(queryRestriction,
+                partitionValues.get(i) == null ? builder.isNull(partitionValue) : builder.equal(partitionValue, partitionValues.get(i)));
+        }
 
-        // Add a standard restriction on business object format.
-        Predicate subQueryRestriction = builder.equal(subBusinessObjectFormatEntity, businessObjectFormatEntity);
+        // Select and lock all versions of the business object data starting with the latest one. The lock makes concurrent updates of the versions of the same
+        // partition wait for each other, so each of them sees the versions committed by the previous one and they don't leave zero or two latest versions.
+        // Pending changes are flushed first, so the query sees the version or the status that triggered this update.
+        entityManager.flush();
+        criteria.select(versionBusinessObjectDataEntity).where(queryRestriction)
+            .orderBy(builder.desc(versionBusinessObjectDataEntity.get(BusinessObjectDataEntity_.version)));
+        List<BusinessObjectDataEntity> businessObjectDataEntities =
+            entityManager.createQuery(criteria).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+
+        // Nothing to update when the last version was deleted.
+        if (businessObjectDataEntities.isEmpty())
+        {
+            return;
+        }
 
-        // Create and add standard restrictions on primary and sub-partition values.
-        subQueryRestriction =
-            builder.and(subQueryRestriction, getQueryRestrictionOnPartitionValues(builder, subBusinessObjectDataEntity, businessObjectDataEntity));
+        // Select the storage units of all the versions. They are selected by a query rather than read from the business object data entities, since a storage
+        // unit that was just persisted is not necessarily added to the collection of its business object data.
+        CriteriaQuery<StorageUnitEntity> storageUnitCriteria = builder.createQuery(StorageUnitEntity.class);
+        Root<StorageUnitEntity> storageUnitEntity = storageUnitCriteria.from(StorageUnitEntity.class);
+        storageUnitCriteria.select(storageUnitEntity).where(storageUnitEntity.get(StorageUnitEntity_.businessObjectData).in(businessObjectDataEntities));
+        Map<Integer, List<StorageUnitEntity>> storageUnitEntitiesByBusinessObjectDataId = new HashMap<>();
+        for (StorageUnitEntity versionStorageUnitEntity : entityManager.createQuery(storageUnitCriteria).getResultList())
+        {
+            Integer businessObjectDataId = versionStorageUnitEntity.getBusinessObjectData().getId();
+            List<StorageUnitEntity> storageUnitEntities = storageUnitEntitiesByBusinessObjectDataId.get(businessObjectDataId);
+            if (storageUnitEntities == null)
+            {
+                storageUnitEntities = new ArrayList<>();
+                storageUnitEntitiesByBusinessObjectDataId.put(businessObjectDataId, storageUnitEntities);
+            }
+            storageUnitEntities.add(versionStorageUnitEntity);
+        }
 
-        // If specified, create and add a standard restriction on business object data status.
-        if (businessObjectDataStatus != null)
+        // Walk the versions from the latest one and flag the first version seen for each status, storage, and storage and status combination.
+        Set<String> statuses = new HashSet<>();
+        Set<String> storages = new HashSet<>();
+        Set<List<String>> storageStatuses = new HashSet<>();
+        for (BusinessObjectDataEntity versionBusinessObjectData : businessObjectDataEntities)
         {
-            Join<BusinessObjectDataEntity, BusinessObjectDataStatusEntity> subBusinessObjectDataStatusEntity =
-                subBusinessObjectDataEntity.join(BusinessObjectDataEntity_.status);
+            String status = versionBusinessObjectData.getStatus().getCode();
+            versionBusinessObjectData.setLatestStatusVersion(statuses.add(status));
 
-            subQueryRestriction = builder.and(subQueryRestriction, builder
-                .equal(builder.upper(subBusinessObjectDataStatusEntity.get(BusinessObjectDataStatusEntity_.code)), businessObjectDataStatus.toUpperCase()));
+            List<StorageUnitEntity> storageUnitEntities = storageUnitEntitiesByBusinessObjectDataId.get(versionBusinessObjectData.getId());
+            if (storageUnitEntities != null)
+            {
+                for (StorageUnitEntity versionStorageUnitEntity : storageUnitEntities)
+                {
+                    String storage = versionStorageUnitEntity.getStorage().getName();
+                    versionStorageUnitEntity.setLatestVersion(storages.add(storage));
+                    versionStorageUnitEntity.setLatestStatusVersion(storageStatuses.add(Arrays.asList(storage, status)));
+                }
+            }
         }
+    }
 
-        // Create and add a standard restriction on storage.
-        subQueryRestriction = builder.and(subQueryRestriction, builder.equal(subStorageEntity, storageEntity));
+    /**
+     * Builds a query restriction predicate to select the latest business object data version. The latest version is matched by the latest version flags that
+     * are maintained on writes by {@link #updateBusinessObjectDataLatestVersionFlags(BusinessObjectDataEntity)}, so the database can use an indexed equality
+     * lookup instead of a maximum business object data version sub-query. When a storage unit is specified, the latest version is selected among the
+     * business object data versions located in the storage of that storage unit.
+     *
+     * @param builder the criteria builder
+     * @param businessObjectDataEntity the business object data entity that appears in the from clause of the main query
+     * @param storageUnitEntity the storage unit entity that appears in the from clause of the main query, may be null
+     * @param businessObjectDataStatus the business object data status, may be null
+     *
+     * @return the query restriction predicate
+     */
+    private Predicate getQueryRestrictionOnLatestBusinessObjectDataVersion(CriteriaBuilder builder, From<?, BusinessObjectDataEntity> businessObjectDataEntity,
+        From<?, StorageUnitEntity> storageUnitEntity, String businessObjectDataStatus)
+    {
+        // If business object data status is not specified, use the latest version flag.
+        if (businessObjectDataStatus == null)
+        {
+            return storageUnitEntity == null ? builder.isTrue(businessObjectDataEntity.get(BusinessObjectDataEntity_.latestVersion)) :
+                builder.isTrue(storageUnitEntity.get(StorageUnitEntity_.latestVersion));
+        }
+
+        // Otherwise, use the latest status version flag along with a restriction on the business object data status.
+        Join<BusinessObjectDataEntity, BusinessObjectDataStatusEntity> businessObjectDataStatusEntity =
+            businessObjectDataEntity.join(BusinessObjectDataEntity_.status);
 
-        subQuery.select(builder.max(subBusinessObjectDataEntity.get(BusinessObjectDataEntity_.version))).where(subQueryRestriction);
+        Predicate latestStatusVersionRestriction =
+            storageUnitEntity == null ? builder.isTrue(businessObjectDataEntity.get(BusinessObjectDataEntity_.latestStatusVersion)) :
+                builder.isTrue(storageUnitEntity.get(StorageUnitEntity_.latestStatusVersion));
 
-        return subQuery;
+        return builder.and(latestStatusVersionRestriction, builder
+            .equal(builder.upper(businessObjectDataStatusEntity.get(BusinessObjectDataStatusEntity_.code)), businessObjectDataStatus.toUpperCase()));
     }
 
     /**
@@ -1838,7 +2111,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
         criteria.select(storageEntity).where(queryRestriction);
 
-        return executeSingleResultQuery(criteria, String.format("Found more than one storage with \"%s\" name.", storageName));
+        return executeSingleResultCacheableQuery(criteria, STORAGE_BY_NAME_QUERY_CACHE_REGION,
+            String.format("Found more than one storage with \"%s\" name.", storageName));
     }
 
     /**
@@ -1987,6 +2261,55 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
             String.format("Found more than one storage file with parameters {storageName=\"%s\"," + " filePath=\"%s\"}.", storageName, filePath));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StorageFileEntity> getStorageFilesByStorageNameAndFilePaths(String storageName, List<String> filePaths)
+    {
+        // Run one query per chunk of file paths, so the number of bind parameters of a query never exceeds the in clause chunk size no matter how many
+        // files are being registered.
+        int inClauseChunkSize = configurationHelper.getProperty(ConfigurationValue.DB_IN_CLAUSE_CHUNK_SIZE, Integer.class);
+        List<StorageFileEntity> storageFileEntities = new ArrayList<>();
+        for (int i = 0; i < filePaths.size(); i += inClauseChunkSize)
+        {
+            storageFileEntities.addAll(getStorageFilesByStorageNameAndFilePathsChunk(storageName,
+                filePaths.subList(i, Math.min(filePaths.size(), i + inClauseChunkSize))));
+        }
+
+        return storageFileEntities;
+    }
+
+    /**
+     * Retrieves a list of storage files registered in the specified storage that match any of the specified file paths using a single query.
+     *
+     * @param storageName the storage name (case-insensitive)
+     * @param filePaths the chunk of file paths, which must not exceed the in clause chunk size
+     *
+     * @return the list of storage files
+     */
+    private List<StorageFileEntity> getStorageFilesByStorageNameAndFilePathsChunk(String storageName, List<String> filePaths)
+    {
+        // Create the criteria builder and the criteria.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StorageFileEntity> criteria = builder.createQuery(StorageFileEntity.class);
+
+        // The criteria root is the storage files.
+        Root<StorageFileEntity> storageFileEntity = criteria.from(StorageFileEntity.class);
+
+        // Join to the other tables we can filter on.
+        Join<StorageFileEntity, StorageUnitEntity> storageUnitEntity = storageFileEntity.join(StorageFileEntity_.storageUnit);
+        Join<StorageUnitEntity, StorageEntity> storageEntity = storageUnitEntity.join(StorageUnitEntity_.storage);
+
+        // Create the standard restrictions (i.e. the standard where clauses).
+        Predicate filePathRestriction = storageFileEntity.get(StorageFileEntity_.path).in(filePaths);
+        Predicate storageNameRestriction = builder.equal(builder.upper(storageEntity.get(StorageEntity_.name)), storageName.toUpperCase());
+
+        criteria.select(storageFileEntity).where(builder.and(filePathRestriction, storageNameRestriction));
+
+        return entityManager.createQuery(criteria).getResultList();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -2453,7 +2776,8 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
 
         criteria.select(notificationEventTypeEntity).where(queryRestriction);
 
-        return executeSingleResultQuery(criteria, String.format("Found more than one notification event type with code \"%s\".", code));
+        return executeSingleResultCacheableQuery(criteria, REFERENCE_DATA_QUERY_CACHE_REGION,
+            String.format("Found more than one notification event type with code \"%s\".", code));
     }
 
     // BusinessObjectDataNotification
@@ -2603,7 +2927,7 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(DaoSpringModuleConfig.DM_CACHE_NAME)
+    @Cacheable(DaoSpringModuleConfig.SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME)
     public List<String> getSecurityFunctionsForRole(String roleCd)
     {
         // Create the criteria builder and a tuple style criteria query.
@@ -2638,8 +2962,17 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
      * {@inheritDoc}
      */
     @Override
-    @Cacheable(DaoSpringModuleConfig.DM_CACHE_NAME)
+    @Cacheable(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME)
     public List<String> getSecurityFunctions()
+    {
+        return getUncachedSecurityFunctions();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getUncachedSecurityFunctions()
     {
         // Create the criteria builder and a tuple style criteria query.
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
@@ -2661,6 +2994,51 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         return entityManager.createQuery(criteria).getResultList();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, List<String>> getSecurityFunctionsByRole()
+    {
+        // Create the criteria builder and a tuple style criteria query.
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+
+        // The criteria root is the security role function.
+        Root<SecurityRoleFunctionEntity> securityRoleFunctionEntity = criteria.from(SecurityRoleFunctionEntity.class);
+
+        // Join to the other tables we can filter on.
+        Join<SecurityRoleFunctionEntity, SecurityRoleEntity> securityRoleEntity = securityRoleFunctionEntity.join(SecurityRoleFunctionEntity_.securityRole);
+        Join<SecurityRoleFunctionEntity, SecurityFunctionEntity> securityFunctionEntity =
+            securityRoleFunctionEntity.join(SecurityRoleFunctionEntity_.securityFunction);
+
+        // Get the columns.
+        Path<String> roleCodeColumn = securityRoleEntity.get(SecurityRoleEntity_.code);
+        Path<String> functionCodeColumn = securityFunctionEntity.get(SecurityFunctionEntity_.code);
+
+        // Add the select clause.
+        criteria.multiselect(roleCodeColumn, functionCodeColumn);
+
+        // Add the order by clause.
+        criteria.orderBy(builder.asc(roleCodeColumn), builder.asc(functionCodeColumn));
+
+        // Run the query to get a list of tuples back and group the functions by the upper case role code.
+        Map<String, List<String>> securityFunctionsByRole = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(criteria).getResultList())
+        {
+            String roleCode = tuple.get(roleCodeColumn).toUpperCase();
+            List<String> functions = securityFunctionsByRole.get(roleCode);
+            if (functions == null)
+            {
+                functions = new ArrayList<>();
+                securityFunctionsByRole.put(roleCode, functions);
+            }
+            functions.add(tuple.get(functionCodeColumn));
+        }
+
+        return securityFunctionsByRole;
+    }
+
     // JmsMessage
 
     /**
@@ -2689,6 +3067,255 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         return resultList.size() > 0 ? resultList.get(0) : null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation leases the messages with a conditional update rather than locking them with "SELECT ... FOR UPDATE SKIP LOCKED", so it works on
+     * every supported database. A message is only leased by the update when it is still unleased, so when two owners select the same messages, the owner
+     * whose update commits first gets them and the other owner's update skips them. An owner that loses the race for all of its selected messages selects the
+     * next oldest unleased messages and tries again, so it only gets no messages when there are no unleased messages left to select.
+     */
+    @Override
+    public List<JmsMessageEntity> claimOldestJmsMessages(String leaseOwner, Timestamp currentTime, Timestamp leaseExpiration, int maxMessages,
+        Collection<String> orderedJmsQueueNames)
+    {
+        for (int attempt = 1; ; attempt++)
+        {
+            List<JmsMessageEntity> claimedJmsMessageEntities =
+                tryClaimOldestJmsMessages(leaseOwner, currentTime, leaseExpiration, maxMessages, orderedJmsQueueNames);
+
+            // Stop when there was nothing to select, when some of the selected messages got claimed, or when the claims of ordered queues keep getting
+            // released because of other owners.
+            if (claimedJmsMessageEntities == null)
+            {
+                return new ArrayList<>();
+            }
+            if (!claimedJmsMessageEntities.isEmpty() || attempt >= MAX_JMS_MESSAGE_CLAIM_ATTEMPTS)
+            {
+                return claimedJmsMessageEntities;
+            }
+        }
+    }
+
+    /**
+     * Selects the oldest unleased JMS messages and leases the ones that are still unleased to the specified owner.
+     *
+     * @param leaseOwner the lease owner that uniquely identifies the publishing worker
+     * @param currentTime the current time, used to tell expired leases apart
+     * @param leaseExpiration the expiration time of the new leases
+     * @param maxMessages the maximum number of messages to claim
+     * @param orderedJmsQueueNames the names of the queues whose messages must be published in order
+     *
+     * @return the claimed JMS messages ordered from the oldest to the newest, which is empty when all the selected messages got claimed by other owners, or
+     * null when there were no unleased messages to select
+     */
+    private List<JmsMessageEntity> tryClaimOldestJmsMessages(String leaseOwner, Timestamp currentTime, Timestamp leaseExpiration, int maxMessages,
+        Collection<String> orderedJmsQueueNames)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        // Find the ordered queues with a leased message, since no other message of these queues can be published until the leased message is.
+        List<String> leasedOrderedJmsQueueNames = new ArrayList<>();
+        if (!CollectionUtils.isEmpty(orderedJmsQueueNames))
+        {
+            CriteriaQuery<String> criteria = builder.createQuery(String.class);
+            Root<JmsMessageEntity> jmsMessageEntity = criteria.from(JmsMessageEntity.class);
+            Path<String> jmsQueueName = jmsMessageEntity.get(JmsMessageEntity_.jmsQueueName);
+            criteria.select(jmsQueueName).distinct(true)
+                .where(jmsQueueName.in(orderedJmsQueueNames), builder.greaterThan(jmsMessageEntity.get(JmsMessageEntity_.leaseExpiration), currentTime));
+            leasedOrderedJmsQueueNames = entityManager.createQuery(criteria).getResultList();
+        }
+
+        // Select the oldest messages that are not leased, skipping the ordered queues found above.
+        CriteriaQuery<Tuple> candidateCriteria = builder.createTupleQuery();
+        Root<JmsMessageEntity> candidateJmsMessageEntity = candidateCriteria.from(JmsMessageEntity.class);
+        Path<Integer> candidateId = candidateJmsMessageEntity.get(JmsMessageEntity_.id);
+        Path<String> candidateJmsQueueName = candidateJmsMessageEntity.get(JmsMessageEntity_.jmsQueueName);
+        Predicate candidateRestriction = getJmsMessageNotLeasedPredicate(builder, candidateJmsMessageEntity, currentTime);
+        if (!leasedOrderedJmsQueueNames.isEmpty())
+        {
+            candidateRestriction = builder.and(candidateRestriction, builder.not(candidateJmsQueueName.in(leasedOrderedJmsQueueNames)));
+        }
+        candidateCriteria.multiselect(candidateId, candidateJmsQueueName).where(candidateRestriction).orderBy(builder.asc(candidateId));
+
+        Map<Integer, String> candidateJmsQueueNames = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(candidateCriteria).setMaxResults(maxMessages).getResultList())
+        {
+            candidateJmsQueueNames.put(tuple.get(candidateId), tuple.get(candidateJmsQueueName));
+        }
+
+        if (candidateJmsQueueNames.isEmpty())
+        {
+            return null;
+        }
+
+        // Lease the selected messages that are still not leased.
+        CriteriaUpdate<JmsMessageEntity> update = builder.createCriteriaUpdate(JmsMessageEntity.class);
+        Root<JmsMessageEntity> updatedJmsMessageEntity = update.from(JmsMessageEntity.class);
+        update.set(updatedJmsMessageEntity.get(JmsMessageEntity_.leaseOwner), leaseOwner)
+            .set(updatedJmsMessageEntity.get(JmsMessageEntity_.leaseExpiration), leaseExpiration)
+            .where(updatedJmsMessageEntity.get(JmsMessageEntity_.id).in(candidateJmsQueueNames.keySet()),
+                getJmsMessageNotLeasedPredicate(builder, updatedJmsMessageEntity, currentTime));
+        entityManager.createQuery(update).executeUpdate();
+
+        // Select the messages that got leased. Restricting the selection to the selected messages leaves out the messages that were leased to this owner by an
+        // earlier call and failed to be published.
+        CriteriaQuery<JmsMessageEntity> claimedCriteria = builder.createQuery(JmsMessageEntity.class);
+        Root<JmsMessageEntity> claimedJmsMessageEntity = claimedCriteria.from(JmsMessageEntity.class);
+        Path<Integer> claimedId = claimedJmsMessageEntity.get(JmsMessageEntity_.id);
+        claimedCriteria.select(claimedJmsMessageEntity)
+            .where(claimedId.in(candidateJmsQueueNames.keySet()), builder.equal(claimedJmsMessageEntity.get(JmsMessageEntity_.leaseOwner), leaseOwner))
+            .orderBy(builder.asc(claimedId));
+        List<JmsMessageEntity> claimedJmsMessageEntities = entityManager.createQuery(claimedCriteria).getResultList();
+
+        if (!CollectionUtils.isEmpty(orderedJmsQueueNames))
+        {
+            releaseOutOfOrderJmsMessageClaims(leaseOwner, currentTime, orderedJmsQueueNames, candidateJmsQueueNames, claimedJmsMessageEntities);
+        }
+
+        return claimedJmsMessageEntities;
+    }
+
+    /**
+     * Releases the messages of an ordered queue that were claimed while another owner claimed messages of the same queue. The claimed messages of an ordered
+     * queue are released when some of the selected messages of the queue got leased to another owner, or when another owner holds a lease on an older
+     * message of the queue. Released messages are removed from the list of claimed messages.
+     *
+     * @param leaseOwner the lease owner
+     * @param currentTime the current time
+     * @param orderedJmsQueueNames the names of the queues whose messages must be published in order
+     * @param candidateJmsQueueNames the queue names of the selected messages keyed by message id
+     * @param claimedJmsMessageEntities the claimed messages
+     */
+    private void releaseOutOfOrderJmsMessageClaims(String leaseOwner, Timestamp currentTime, Collection<String> orderedJmsQueueNames,
+        Map<Integer, String> candidateJmsQueueNames, List<JmsMessageEntity> claimedJmsMessageEntities)
+    {
+        // Group the ids of the claimed messages of the ordered queues by queue.
+        Map<String, List<Integer>> claimedIdsByJmsQueueName = new LinkedHashMap<>();
+        for (JmsMessageEntity jmsMessageEntity : claimedJmsMessageEntities)
+        {
+            if (orderedJmsQueueNames.contains(jmsMessageEntity.getJmsQueueName()))
+            {
+                List<Integer> claimedIds = claimedIdsByJmsQueueName.get(jmsMessageEntity.getJmsQueueName());
+                if (claimedIds == null)
+                {
+                    claimedIds = new ArrayList<>();
+                    claimedIdsByJmsQueueName.put(jmsMessageEntity.getJmsQueueName(), claimedIds);
+                }
+                claimedIds.add(jmsMessageEntity.getId());
+            }
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        List<Integer> releasedIds = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entry : claimedIdsByJmsQueueName.entrySet())
+        {
+            String jmsQueueName = entry.getKey();
+            List<Integer> claimedIds = entry.getValue();
+
+            boolean release = Collections.frequency(candidateJmsQueueNames.values(), jmsQueueName) != claimedIds.size();
+            if (!release)
+            {
+                // Check whether another owner holds a lease on an older message of this queue.
+                CriteriaQuery<Long> criteria = builder.createQuery(Long.class);
+                Root<JmsMessageEntity> jmsMessageEntity = criteria.from(JmsMessageEntity.class);
+                criteria.select(builder.count(jmsMessageEntity)).where(builder.equal(jmsMessageEntity.get(JmsMessageEntity_.jmsQueueName), jmsQueueName),
+                    builder.lessThan(jmsMessageEntity.get(JmsMessageEntity_.id), claimedIds.get(0)),
+                    builder.notEqual(jmsMessageEntity.get(JmsMessageEntity_.leaseOwner), leaseOwner),
+                    builder.greaterThan(jmsMessageEntity.get(JmsMessageEntity_.leaseExpiration), currentTime));
+                release = entityManager.createQuery(criteria).getSingleResult() > 0;
+            }
+
+            if (release)
+            {
+                releasedIds.addAll(claimedIds);
+            }
+        }
+
+        if (!releasedIds.isEmpty())
+        {
+            CriteriaUpdate<JmsMessageEntity> update = builder.createCriteriaUpdate(JmsMessageEntity.class);
+            Root<JmsMessageEntity> jmsMessageEntity = update.from(JmsMessageEntity.class);
+            update.set(jmsMessageEntity.get(JmsMessageEntity_.leaseOwner), builder.nullLiteral(String.class))
+                .set(jmsMessageEntity.get(JmsMessageEntity_.leaseExpiration), builder.nullLiteral(Timestamp.class))
+                .where(jmsMessageEntity.get(JmsMessageEntity_.id).in(releasedIds),
+                    builder.equal(jmsMessageEntity.get(JmsMessageEntity_.leaseOwner), leaseOwner));
+            entityManager.createQuery(update).executeUpdate();
+
+            Iterator<JmsMessageEntity> iterator = claimedJmsMessageEntities.iterator();
+            while (iterator.hasNext())
+            {
+                if (releasedIds.contains(iterator.next().getId()))
+                {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a predicate that restricts the JMS messages to the messages that are not leased or whose lease has expired.
+     *
+     * @param builder the criteria builder
+     * @param jmsMessageEntity the JMS message root
+     * @param currentTime the current time
+     *
+     * @return the predicate
+     */
+    private Predicate getJmsMessageNotLeasedPredicate(CriteriaBuilder builder, Root<JmsMessageEntity> jmsMessageEntity, Timestamp currentTime)
+    {
+        Path<Timestamp> leaseExpiration = jmsMessageEntity.get(JmsMessageEntity_.leaseExpiration);
+        return builder.or(builder.isNull(leaseExpiration), builder.lessThanOrEqualTo(leaseExpiration, currentTime));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int deleteClaimedJmsMessages(String leaseOwner, Collection<Integer> jmsMessageIds)
+    {
+        if (jmsMessageIds.isEmpty())
+        {
+            return 0;
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<JmsMessageEntity> delete = builder.createCriteriaDelete(JmsMessageEntity.class);
+        Root<JmsMessageEntity> jmsMessageEntity = delete.from(JmsMessageEntity.class);
+        delete.where(jmsMessageEntity.get(JmsMessageEntity_.id).in(jmsMessageIds),
+            builder.equal(jmsMessageEntity.get(JmsMessageEntity_.leaseOwner), leaseOwner));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JmsMessageQueueStatisticsDto getJmsMessageQueueStatistics(Timestamp currentTime)
+    {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        // Count the messages and find the creation time of the oldest one.
+        CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        Root<JmsMessageEntity> jmsMessageEntity = criteria.from(JmsMessageEntity.class);
+        Expression<Long> messageCountExpression = builder.count(jmsMessageEntity);
+        Expression<Timestamp> oldestMessageCreatedOnExpression = builder.least(jmsMessageEntity.get(JmsMessageEntity_.createdOn));
+        criteria.multiselect(messageCountExpression, oldestMessageCreatedOnExpression);
+        Tuple tuple = entityManager.createQuery(criteria).getSingleResult();
+
+        // Count the messages with a lease that has not expired.
+        CriteriaQuery<Long> leasedCriteria = builder.createQuery(Long.class);
+        Root<JmsMessageEntity> leasedJmsMessageEntity = leasedCriteria.from(JmsMessageEntity.class);
+        leasedCriteria.select(builder.count(leasedJmsMessageEntity))
+            .where(builder.greaterThan(leasedJmsMessageEntity.get(JmsMessageEntity_.leaseExpiration), currentTime));
+
+        JmsMessageQueueStatisticsDto statistics = new JmsMessageQueueStatisticsDto();
+        statistics.setMessageCount(tuple.get(messageCountExpression));
+        statistics.setOldestMessageCreatedOn(tuple.get(oldestMessageCreatedOnExpression));
+        statistics.setLeasedMessageCount(entityManager.createQuery(leasedCriteria).getSingleResult());
+        return statistics;
+    }
+
     // OnDemandPricing
 
     /**
@@ -2829,6 +3456,28 @@ public class DmDaoImpl extends BaseJpaDaoImpl implements DmDao
         return resultList.size() == 1 ? resultList.get(0) : null;
     }
 
+    /**
+     * Executes a cacheable query that returns a single result, if any, and validates that it returns no more than one record. The query results are stored in
+     * the specified query cache region and are invalidated by Hibernate whenever any of the queried tables get modified.
+     *
+     * @param criteria the criteria select query to be executed
+     * @param cacheRegion the query cache region
+     * @param message the exception message to use if the query returns more than one record
+     * @param <T> the type of the query result
+     *
+     * @return the query result or null if 0 records were selected
+     */
+    private <T> T executeSingleResultCacheableQuery(CriteriaQuery<T> criteria, String cacheRegion, String message)
+    {
+        List<T> resultList =
+            entityManager.createQuery(criteria).setHint(QueryHints.HINT_CACHEABLE, true).setHint(QueryHints.HINT_CACHE_REGION, cacheRegion).getResultList();
+
+        // Validate that the query returned no more than one record.
+        Validate.isTrue(resultList.size() < 2, message);
+
+        return resultList.size() == 1 ? resultList.get(0) : null;
+    }
+
     /**
      * Gets a business object format key from the specified business object data key.
      *
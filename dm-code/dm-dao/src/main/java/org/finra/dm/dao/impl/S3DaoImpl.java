@@ -17,13 +17,37 @@ package org.finra.dm.dao.impl;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
@@ -31,6 +55,8 @@ import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressListener;
 import com.amazonaws.internal.StaticCredentialsProvider;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.Headers;
@@ -38,9 +64,12 @@ import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
 import com.amazonaws.services.s3.model.MultipartUpload;
 import com.amazonaws.services.s3.model.MultipartUploadListing;
 import com.amazonaws.services.s3.model.ObjectListing;
@@ -52,18 +81,23 @@ import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.SSEAwsKeyManagementParams;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.transfer.Copy;
+import com.amazonaws.services.s3.transfer.Download;
 import com.amazonaws.services.s3.transfer.MultipleFileDownload;
 import com.amazonaws.services.s3.transfer.MultipleFileUpload;
 import com.amazonaws.services.s3.transfer.ObjectMetadataProvider;
 import com.amazonaws.services.s3.transfer.Transfer;
 import com.amazonaws.services.s3.transfer.Transfer.TransferState;
 import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
 import com.amazonaws.services.s3.transfer.TransferProgress;
+import com.amazonaws.services.s3.transfer.Upload;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.http.HttpStatus;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
@@ -75,6 +109,7 @@ import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferMetrics;
 import org.finra.dm.model.api.xml.StorageFile;
 
 /**
@@ -90,10 +125,113 @@ public class S3DaoImpl implements S3Dao
 
     private static final int MAX_KEYS_PER_DELETE_REQUEST = 1000;
 
-    private static final long SLEEP_INTERVAL_MILLIS = 100;
+    /**
+     * The interval at which the progress of a running transfer is logged.
+     */
+    private static final long PROGRESS_LOG_INTERVAL_MILLIS = 30000;
 
     private static final int BITS_PER_BYTE = 8;
 
+    /**
+     * The maximum number of S3 clients kept in the client registry. The least recently used client is dropped from the registry when the limit is exceeded.
+     */
+    public static final int MAX_S3_CLIENTS = 50;
+
+    /**
+     * The maximum number of transfer managers kept per S3 client. The transfer planner adapts the threads and part sizes between batches, so the least
+     * recently used transfer manager is retired when the limit is exceeded and shut down once its transfers in progress are done.
+     */
+    public static final int MAX_TRANSFER_MANAGERS_PER_S3_CLIENT = 4;
+
+    /**
+     * The number of seconds an idle transfer manager thread is kept alive.
+     */
+    private static final long TRANSFER_THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * The number of transfer threads used by a transfer manager when the max threads are not specified.
+     */
+    private static final int DEFAULT_TRANSFER_MANAGER_THREADS = 10;
+
+    /**
+     * The number of threads used to list sub-prefixes of a large key prefix in parallel.
+     */
+    private static final int LISTING_THREADS = 10;
+
+    /**
+     * The number of threads used to execute Multi-Object Delete requests concurrently.
+     */
+    private static final int DELETE_THREADS = 10;
+
+    /**
+     * The number of threads used to calculate the MD5 digests of the uploaded files.
+     */
+    private static final int DIGEST_THREADS = 4;
+
+    /**
+     * The maximum number of Multi-Object Delete requests that are queued or running for a single delete operation.
+     */
+    private static final int MAX_PENDING_DELETE_REQUESTS = DELETE_THREADS * 2;
+
+    /**
+     * The maximum number of attempts to delete a key that fails with a throttling or internal error.
+     */
+    private static final int MAX_DELETE_ATTEMPTS = 5;
+
+    /**
+     * The delay before the first retry of a throttled delete. The delay doubles with every subsequent attempt.
+     */
+    private static final long DELETE_RETRY_BASE_DELAY_MILLIS = 200;
+
+    /**
+     * The maximum number of key errors reported in the exception thrown when keys/objects could not be deleted.
+     */
+    private static final int MAX_REPORTED_DELETE_ERRORS = 10;
+
+    private static final String ERROR_CODE_SLOW_DOWN = "SlowDown";
+
+    private static final String ERROR_CODE_SERVICE_UNAVAILABLE = "ServiceUnavailable";
+
+    /**
+     * The delimiter used to discover the sub-prefixes of a key prefix.
+     */
+    private static final String S3_KEY_DELIMITER = "/";
+
+    /**
+     * The executor shared by all parallel listings. It bounds the total number of concurrent listing requests made by this DAO.
+     */
+    private final ExecutorService listingExecutor = Executors.newFixedThreadPool(LISTING_THREADS, new DaemonThreadFactory("s3-listing-worker-"));
+
+    /**
+     * The executor shared by all deletes. It bounds the total number of concurrent Multi-Object Delete requests made by this DAO.
+     */
+    private final ExecutorService deleteExecutor = Executors.newFixedThreadPool(DELETE_THREADS, new DaemonThreadFactory("s3-delete-worker-"));
+
+    /**
+     * The executor shared by all uploads to calculate the MD5 digests of the uploaded files while they are uploaded. It bounds the total number of files
+     * read for their digests at the same time.
+     */
+    private final ExecutorService digestExecutor = Executors.newFixedThreadPool(DIGEST_THREADS, new DaemonThreadFactory("s3-digest-worker-"));
+
+    /**
+     * The metrics of all transfers performed by this DAO.
+     */
+    private final S3TransferMetrics transferMetrics = new S3TransferMetrics();
+
+    /**
+     * The registry of shared S3 clients keyed by endpoint, proxy and credentials. Access must be synchronized on the map itself. An evicted client may still be
+     * used by a transfer or a listing in progress, so it is only dropped from the registry and not shut down. The threads of its transfer managers time out
+     * once idle, after which the client and its transfer managers are garbage collected and the AWS SDK releases their connection pools.
+     */
+    private final Map<S3ClientKey, S3ClientHolder> s3ClientHolders = new LinkedHashMap<S3ClientKey, S3ClientHolder>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<S3ClientKey, S3ClientHolder> eldest)
+        {
+            return size() > MAX_S3_CLIENTS;
+        }
+    };
+
     @Autowired
     private JavaPropertiesHelper javaPropertiesHelper;
 
@@ -119,14 +257,6 @@ public class S3DaoImpl implements S3Dao
                 .format("Failed to get S3 metadata for object key \"%s\" from bucket \"%s\". Reason: %s", params.getS3KeyPrefix(), params.getS3BucketName(),
                     e.getMessage()), e);
         }
-        finally
-        {
-            // Shutdown the AmazonS3Client instance to release resources.
-            if (s3Client != null)
-            {
-                s3Client.shutdown();
-            }
-        }
     }
 
     @Override
@@ -172,14 +302,6 @@ public class S3DaoImpl implements S3Dao
                 .format("Failed to create 0 byte S3 object with \"%s\" key in bucket \"%s\". Reason: %s", directoryName, params.getS3BucketName(),
                     e.getMessage()), e);
         }
-        finally
-        {
-            // Shutdown the AmazonS3Client instance to release resources.
-            if (s3Client != null)
-            {
-                s3Client.shutdown();
-            }
-        }
     }
 
     @Override
@@ -195,6 +317,18 @@ public class S3DaoImpl implements S3Dao
         return listObjectsMatchingKeyPrefix(params, ignoreZeroByteDirectoryMarkers);
     }
 
+    @Override
+    public S3TransferMetrics getTransferMetrics()
+    {
+        return transferMetrics;
+    }
+
+    @Override
+    public Iterator<StorageFile> iterateDirectory(final S3FileTransferRequestParamsDto params, boolean ignoreZeroByteDirectoryMarkers)
+    {
+        return new StorageFileIterator(params, ignoreZeroByteDirectoryMarkers);
+    }
+
     @Override
     public S3FileTransferResultsDto uploadFile(final S3FileTransferRequestParamsDto params) throws InterruptedException
     {
@@ -247,23 +381,17 @@ public class S3DaoImpl implements S3Dao
             }
         }
 
-        // Perform the transfer.
-        S3FileTransferResultsDto results = performTransfer(params, new Transferer()
+        // Get the shared transfer manager and hold on to it until the uploads are done, so it doesn't get shut down while in use.
+        S3FileTransferResultsDto results;
+        TransferManagerHolder transferManagerHolder = acquireTransferManager(params);
+        try
         {
-            @Override
-            public Transfer performTransfer(TransferManager transferManager)
-            {
-                return s3Operations.uploadFileList(params.getS3BucketName(), params.getS3KeyPrefix(), new File(params.getLocalPath()), params.getFiles(),
-                    new ObjectMetadataProvider()
-                    {
-                        @Override
-                        public void provideObjectMetadata(File file, ObjectMetadata metadata)
-                        {
-                            prepareMetadata(params, metadata);
-                        }
-                    }, transferManager);
-            }
-        });
+            results = uploadFileList(params, transferManagerHolder.transferManager);
+        }
+        finally
+        {
+            transferManagerHolder.release();
+        }
 
         LOGGER.info(
             "List of files relative to the common local parent directory \"" + params.getLocalPath() + "\" contains " + results.getTotalFilesTransferred() +
@@ -279,6 +407,182 @@ public class S3DaoImpl implements S3Dao
         return results;
     }
 
+    /**
+     * Uploads a list of files using the specified transfer manager. The files are uploaded in parallel, and the parts of a file at or above the multipart
+     * threshold are uploaded in parallel as well. The MD5 digest of each file is calculated on the digest executor while the file is uploaded, so reading the
+     * file for its digest doesn't delay the upload.
+     *
+     * @param params the parameters.
+     * @param transferManager the transfer manager.
+     *
+     * @return the results, including the MD5 digests of the uploaded files keyed by S3 key.
+     * @throws InterruptedException if a problem is encountered.
+     */
+    private S3FileTransferResultsDto uploadFileList(S3FileTransferRequestParamsDto params, TransferManager transferManager) throws InterruptedException
+    {
+        // Start a stop watch to keep track of how long the transfer takes.
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        // Build the S3 keys the same way the transfer manager builds them for a list of files.
+        String s3KeyPrefix = StringUtils.defaultString(params.getS3KeyPrefix());
+        if (!s3KeyPrefix.isEmpty() && !s3KeyPrefix.endsWith("/"))
+        {
+            s3KeyPrefix += "/";
+        }
+        String localPath = new File(params.getLocalPath()).getAbsolutePath();
+        int relativePathStartIndex = localPath.endsWith(File.separator) ? localPath.length() : localPath.length() + 1;
+
+        TransferProgressListener progressListener = new TransferProgressListener(params.getFiles().size());
+        Map<String, Future<String>> md5Futures = new LinkedHashMap<>();
+        List<Upload> uploads = new ArrayList<>();
+        long totalBytesToTransfer = 0;
+        try
+        {
+            // Start the uploads. The progress listener is set on the requests before the uploads start, so it doesn't miss any progress event.
+            for (final File file : params.getFiles())
+            {
+                String s3Key = s3KeyPrefix + file.getAbsolutePath().substring(relativePathStartIndex).replaceAll("\\\\", "/");
+                long fileLength = file.length();
+
+                ObjectMetadata metadata = new ObjectMetadata();
+                prepareMetadata(params, metadata);
+
+                PutObjectRequest putObjectRequest = new PutObjectRequest(params.getS3BucketName(), s3Key, file).withMetadata(metadata);
+                putObjectRequest.setGeneralProgressListener(progressListener);
+
+                uploads.add(s3Operations.upload(putObjectRequest, transferManager));
+                totalBytesToTransfer += fileLength;
+
+                // Calculate the digest of the file while it is uploaded.
+                md5Futures.put(s3Key, digestExecutor.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call() throws IOException
+                    {
+                        try (InputStream inputStream = new FileInputStream(file))
+                        {
+                            return DigestUtils.md5Hex(inputStream);
+                        }
+                    }
+                }));
+            }
+
+            LOGGER.info(String.format("%d bytes transferred out of %d", getBytesTransferred(uploads), totalBytesToTransfer));
+
+            // Wait until all the uploads are complete, logging the progress status every 30 seconds.
+            while (!isDone(uploads))
+            {
+                if (progressListener.awaitCompletion(PROGRESS_LOG_INTERVAL_MILLIS))
+                {
+                    // A completion progress event can be published just before the upload state is updated, so wait for the uploads themselves to
+                    // finish. Any upload error is handled below based on the upload state.
+                    for (Upload upload : uploads)
+                    {
+                        upload.waitForException();
+                    }
+                    break;
+                }
+
+                LOGGER.info(String.format("%d bytes transferred out of %d", getBytesTransferred(uploads), totalBytesToTransfer));
+            }
+
+            long bytesTransferred = getBytesTransferred(uploads);
+            LOGGER.info(String.format("%d bytes transferred out of %d", bytesTransferred, totalBytesToTransfer));
+
+            // Stop the stop watch and record the transfer metrics whether the uploads succeeded or not.
+            stopWatch.stop();
+            boolean completed = true;
+            for (Upload upload : uploads)
+            {
+                completed &= upload.getState() == TransferState.Completed;
+            }
+            transferMetrics
+                .recordTransfer(S3TransferMetrics.TransferType.UPLOAD, completed, bytesTransferred, stopWatch.getTime(), progressListener.getRetries());
+
+            // Ensure all the uploads completed.
+            for (Upload upload : uploads)
+            {
+                validateTransferCompleted(upload);
+            }
+
+            // Sanity check for the number of bytes transferred.
+            Assert.isTrue(bytesTransferred >= totalBytesToTransfer, String
+                .format("Actual number of bytes transferred is less than expected (actual: %d bytes; expected: %d bytes).", bytesTransferred,
+                    totalBytesToTransfer));
+
+            // Collect the digests of the files, which are usually calculated by the time the uploads complete.
+            Map<String, String> md5s = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<String>> entry : md5Futures.entrySet())
+            {
+                try
+                {
+                    md5s.put(entry.getKey(), entry.getValue().get());
+                }
+                catch (ExecutionException e)
+                {
+                    throw new IllegalStateException(
+                        String.format("Failed to calculate the MD5 digest of the file uploaded to \"%s\" S3 key. Reason: %s", entry.getKey(),
+                            e.getCause().getMessage()), e.getCause());
+                }
+            }
+
+            // Create the results object.
+            S3FileTransferResultsDto results = new S3FileTransferResultsDto();
+            results.setDurationMillis(stopWatch.getTime());
+            results.setTotalBytesTransferred(bytesTransferred);
+            results.setTotalFilesTransferred((long) uploads.size());
+            results.setMaxPartsInFlight(progressListener.getMaxPartsInFlight());
+            results.setTotalRetries(progressListener.getRetries());
+            results.setMd5s(md5s);
+            return results;
+        }
+        finally
+        {
+            // Stop calculating the digests that are still pending if the uploads failed.
+            for (Future<String> md5Future : md5Futures.values())
+            {
+                md5Future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Checks whether all the specified transfers are done.
+     *
+     * @param transfers the transfers.
+     *
+     * @return true if all the transfers are done, false otherwise.
+     */
+    private boolean isDone(List<? extends Transfer> transfers)
+    {
+        for (Transfer transfer : transfers)
+        {
+            if (!transfer.isDone())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the total number of bytes transferred by the specified transfers.
+     *
+     * @param transfers the transfers.
+     *
+     * @return the number of bytes transferred.
+     */
+    private long getBytesTransferred(List<? extends Transfer> transfers)
+    {
+        long bytesTransferred = 0;
+        for (Transfer transfer : transfers)
+        {
+            bytesTransferred += transfer.getProgress().getBytesTransferred();
+        }
+        return bytesTransferred;
+    }
+
     @Override
     public S3FileTransferResultsDto copyFile(final S3FileCopyRequestParamsDto params) throws InterruptedException
     {
@@ -303,7 +607,8 @@ public class S3DaoImpl implements S3Dao
 
         LOGGER.info("File \"" + params.getS3KeyPrefix() + "\" contains " + results.getTotalBytesTransferred() +
             " byte(s) which was successfully copied from source bucket:\"" + params.getSourceBucketName() + "\" to target bucket:\"" +
-            params.getTargetBucketName() + "\" in " + DmDateUtils.formatDuration(results.getDurationMillis(), true));
+            params.getTargetBucketName() + "\" in " + DmDateUtils.formatDuration(results.getDurationMillis(), true) + " using up to " +
+            results.getMaxPartsInFlight() + " parallel part copies");
 
         LOGGER.info(String.format("Overall transfer rate: %.2f kBytes/s (%.2f Mbits/s)",
             getTransferRateInKilobytesPerSecond(results.getTotalBytesTransferred(), results.getDurationMillis()),
@@ -356,105 +661,61 @@ public class S3DaoImpl implements S3Dao
     }
 
     @Override
-    public void deleteFileList(final S3FileTransferRequestParamsDto params)
+    public S3FileTransferResultsDto deleteFileList(final S3FileTransferRequestParamsDto params)
     {
-        AmazonS3Client s3Client = null;
-
         LOGGER.info(String.format("Deleting %d keys/objects from s3://%s ...", params.getFiles().size(), params.getS3BucketName()));
 
         try
         {
-            // In order to avoid a MalformedXML AWS exception, we send delete request only when we have any keys to delete.
-            if (!params.getFiles().isEmpty())
+            // Build a list of keys to be deleted.
+            List<String> keys = new ArrayList<>();
+            for (File file : params.getFiles())
             {
-                // Build a list of keys to be deleted.
-                List<DeleteObjectsRequest.KeyVersion> keys = new ArrayList<>();
-                for (File file : params.getFiles())
-                {
-                    keys.add(new DeleteObjectsRequest.KeyVersion(file.getPath().replaceAll("\\\\", "/")));
-                }
-
-                DeleteObjectsRequest multiObjectDeleteRequest = new DeleteObjectsRequest(params.getS3BucketName());
-                s3Client = getAmazonS3(params);
-
-                // The Multi-Object Delete request can contain a list of up to 1000 keys.
-                for (int i = 0; i < keys.size() / MAX_KEYS_PER_DELETE_REQUEST + 1; i++)
-                {
-                    List<DeleteObjectsRequest.KeyVersion> keysSubList =
-                        keys.subList(i * MAX_KEYS_PER_DELETE_REQUEST, Math.min(keys.size(), (i + 1) * MAX_KEYS_PER_DELETE_REQUEST));
-                    multiObjectDeleteRequest.setKeys(keysSubList);
-                    s3Operations.deleteObjects(multiObjectDeleteRequest, s3Client);
-
-                    LOGGER.info(String.format("Successfully requested the deletion of the following %d keys/objects from bucket \"%s\":", keysSubList.size(),
-                        params.getS3BucketName()));
-
-                    for (DeleteObjectsRequest.KeyVersion keyVersion : keysSubList)
-                    {
-                        LOGGER.info(String.format("    s3://%s/%s", params.getS3BucketName(), keyVersion.getKey()));
-                    }
-                }
+                keys.add(file.getPath().replaceAll("\\\\", "/"));
             }
+
+            return deleteKeys(params, keys.iterator());
         }
         catch (Exception e)
         {
             throw new IllegalStateException(
                 String.format("Failed to delete a list of keys/objects from bucket \"%s\". Reason: %s", params.getS3BucketName(), e.getMessage()), e);
         }
-        finally
-        {
-            // Shutdown the AmazonS3Client instance to release resources.
-            if (s3Client != null)
-            {
-                s3Client.shutdown();
-            }
-        }
     }
 
     @Override
-    public void deleteDirectory(final S3FileTransferRequestParamsDto params)
+    public S3FileTransferResultsDto deleteDirectory(final S3FileTransferRequestParamsDto params)
     {
-        AmazonS3Client s3Client = null;
-
         LOGGER.info(String.format("Deleting keys/objects from s3://%s/%s ...", params.getS3BucketName(), params.getS3KeyPrefix()));
 
         Assert.hasText(params.getS3KeyPrefix(), "Deleting from root directory is not allowed.");
 
         try
         {
-            // List S3 object including any 0 byte objects that represent S3 directories.
-            List<StorageFile> storageFiles = listObjectsMatchingKeyPrefix(params, false);
-            LOGGER.info(String.format("Found %d keys/objects in s3://%s/%s ...", storageFiles.size(), params.getS3BucketName(), params.getS3KeyPrefix()));
+            // List S3 objects including any 0 byte objects that represent S3 directories. The listing pages are requested as the delete batches get
+            // submitted, so listing and deleting overlap.
+            final Iterator<StorageFile> storageFiles = iterateDirectory(params, false);
 
-            // In order to avoid a MalformedXML AWS exception, we send delete request only when we have any keys to delete.
-            if (!storageFiles.isEmpty())
+            return deleteKeys(params, new Iterator<String>()
             {
-                DeleteObjectsRequest multiObjectDeleteRequest = new DeleteObjectsRequest(params.getS3BucketName());
-                s3Client = getAmazonS3(params);
-
-                // The Multi-Object Delete request can contain a list of up to 1000 keys.
-                for (int i = 0; i < storageFiles.size() / MAX_KEYS_PER_DELETE_REQUEST + 1; i++)
+                @Override
+                public boolean hasNext()
                 {
-                    // Prepare a list of S3 object keys to be deleted.
-                    List<DeleteObjectsRequest.KeyVersion> keys = new ArrayList<>();
-                    for (StorageFile storageFile : storageFiles
-                        .subList(i * MAX_KEYS_PER_DELETE_REQUEST, Math.min(storageFiles.size(), (i + 1) * MAX_KEYS_PER_DELETE_REQUEST)))
-                    {
-                        keys.add(new DeleteObjectsRequest.KeyVersion(storageFile.getFilePath()));
-                    }
-
-                    // Delete the S3 objects.
-                    multiObjectDeleteRequest.setKeys(keys);
-                    s3Operations.deleteObjects(multiObjectDeleteRequest, s3Client);
+                    return storageFiles.hasNext();
+                }
 
-                    LOGGER.info(String.format("Successfully deleted the following %d keys/objects with prefix \"%s\" from bucket \"%s\":", keys.size(),
-                        params.getS3KeyPrefix(), params.getS3BucketName()));
+                @Override
+                public String next()
+                {
+                    return storageFiles.next().getFilePath();
+                }
 
-                    for (DeleteObjectsRequest.KeyVersion keyVersion : keys)
-                    {
-                        LOGGER.info(String.format("    s3://%s/%s", params.getS3BucketName(), keyVersion.getKey()));
-                    }
+                @Override
+                public void remove()
+                {
+                    throw new UnsupportedOperationException();
                 }
-            }
+            });
         }
         catch (AmazonClientException e)
         {
@@ -462,52 +723,254 @@ public class S3DaoImpl implements S3Dao
                 .format("Failed to delete keys/objects with prefix \"%s\" from bucket \"%s\". Reason: %s", params.getS3KeyPrefix(), params.getS3BucketName(),
                     e.getMessage()), e);
         }
-        finally
-        {
-            // Shutdown the AmazonS3Client instance to release resources.
-            if (s3Client != null)
-            {
-                s3Client.shutdown();
-            }
-        }
     }
 
-    @Override
-    public S3FileTransferResultsDto downloadFile(final S3FileTransferRequestParamsDto params) throws InterruptedException
+    /**
+     * Deletes the specified keys/objects from the bucket. The keys are grouped into Multi-Object Delete requests of up to 1000 keys that are executed
+     * concurrently on the shared delete executor. The number of batches waiting to be executed is bounded, so a lazy key source is never read far ahead of
+     * the deletes. Keys that fail with a throttling or internal error are retried. All other key errors are aggregated and reported once every batch is done.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param keys the keys to delete
+     *
+     * @return the results with the number of deleted keys/objects and the duration of the delete
+     * @throws AmazonClientException if a Multi-Object Delete request failed as a whole
+     * @throws IllegalStateException if any of the keys could not be deleted
+     */
+    private S3FileTransferResultsDto deleteKeys(final S3FileTransferRequestParamsDto params, Iterator<String> keys)
     {
-        // Perform the transfer.
-        S3FileTransferResultsDto results = performTransfer(params, new Transferer()
-        {
-            @Override
-            public Transfer performTransfer(TransferManager transferManager)
-            {
-                return s3Operations.download(params.getS3BucketName(), params.getS3KeyPrefix(), new File(params.getLocalPath()), transferManager);
-            }
-        });
-
-        LOGGER
-            .info("S3 file \"" + params.getS3KeyPrefix() + "\" in bucket \"" + params.getS3BucketName() + "\" contains " + results.getTotalBytesTransferred() +
-                " byte(s) which was successfully transferred to local file \"" + params.getLocalPath() + "\" in " +
-                DmDateUtils.formatDuration(results.getDurationMillis(), true));
+        final AmazonS3Client s3Client = getAmazonS3(params);
 
-        LOGGER.info(String.format("Overall transfer rate: %.2f kBytes/s (%.2f Mbits/s)",
-            getTransferRateInKilobytesPerSecond(results.getTotalBytesTransferred(), results.getDurationMillis()),
-            getTransferRateInMegabitsPerSecond(results.getTotalBytesTransferred(), results.getDurationMillis())));
-
-        return results;
-    }
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
 
-    @Override
-    public S3FileTransferResultsDto downloadDirectory(final S3FileTransferRequestParamsDto params) throws InterruptedException
-    {
-        // Note that the directory download always recursively copies sub-directories.
-        // To not recurse, we would have to list the files on S3 (AmazonS3Client.html#listObjects) and manually copy them one at a time.
+        long totalKeys = 0;
+        List<DeleteError> deleteErrors = new ArrayList<>();
+        LinkedList<Future<List<DeleteError>>> futures = new LinkedList<>();
 
-        // Perform the transfer.
-        S3FileTransferResultsDto results = performTransfer(params, new Transferer()
+        try
         {
-            @Override
-            public Transfer performTransfer(TransferManager transferManager)
+            // In order to avoid a MalformedXML AWS exception, we only send delete requests that have keys to delete.
+            while (keys.hasNext())
+            {
+                // The Multi-Object Delete request can contain a list of up to 1000 keys.
+                final List<KeyVersion> keyVersions = new ArrayList<>();
+                while (keys.hasNext() && keyVersions.size() < MAX_KEYS_PER_DELETE_REQUEST)
+                {
+                    keyVersions.add(new KeyVersion(keys.next()));
+                }
+                totalKeys += keyVersions.size();
+
+                // Wait for the oldest batch when too many batches are queued.
+                if (futures.size() >= MAX_PENDING_DELETE_REQUESTS)
+                {
+                    deleteErrors.addAll(futures.removeFirst().get());
+                }
+
+                futures.add(deleteExecutor.submit(new Callable<List<DeleteError>>()
+                {
+                    @Override
+                    public List<DeleteError> call() throws InterruptedException
+                    {
+                        return deleteKeyVersions(params, keyVersions, s3Client);
+                    }
+                }));
+            }
+
+            while (!futures.isEmpty())
+            {
+                deleteErrors.addAll(futures.removeFirst().get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while deleting keys/objects from bucket \"%s\".", params.getS3BucketName()), e);
+        }
+        catch (ExecutionException e)
+        {
+            // Rethrow the AWS exception as is, so it gets handled by the caller the same way as for a single request.
+            if (e.getCause() instanceof AmazonClientException)
+            {
+                throw (AmazonClientException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+        finally
+        {
+            // Stop any delete requests that are still pending if we failed.
+            for (Future<List<DeleteError>> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+
+        stopWatch.stop();
+
+        if (!deleteErrors.isEmpty())
+        {
+            List<String> errorDescriptions = new ArrayList<>();
+            for (DeleteError deleteError : deleteErrors.subList(0, Math.min(deleteErrors.size(), MAX_REPORTED_DELETE_ERRORS)))
+            {
+                errorDescriptions.add(String.format("%s (%s: %s)", deleteError.getKey(), deleteError.getCode(), deleteError.getMessage()));
+            }
+            throw new IllegalStateException(String
+                .format("Failed to delete %d out of %d keys/objects from bucket \"%s\": %s", deleteErrors.size(), totalKeys, params.getS3BucketName(),
+                    StringUtils.join(errorDescriptions, ", ")));
+        }
+
+        LOGGER.info(String.format("Deleted %d keys/objects from bucket \"%s\" in %d ms (%.1f keys/objects per second).", totalKeys, params.getS3BucketName(),
+            stopWatch.getTime(), stopWatch.getTime() > 0 ? totalKeys * 1000.0 / stopWatch.getTime() : (double) totalKeys));
+
+        S3FileTransferResultsDto results = new S3FileTransferResultsDto();
+        results.setTotalFilesTransferred(totalKeys);
+        results.setDurationMillis(stopWatch.getTime());
+        return results;
+    }
+
+    /**
+     * Deletes a batch of keys/objects using a single Multi-Object Delete request. Keys that fail with a throttling or internal error, as well as the whole
+     * request when it gets throttled, are retried with an exponential backoff.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param keyVersions the keys to delete, up to 1000
+     * @param s3Client the S3 client
+     *
+     * @return the errors for the keys that could not be deleted
+     * @throws InterruptedException if interrupted while backing off before a retry
+     */
+    private List<DeleteError> deleteKeyVersions(S3FileTransferRequestParamsDto params, List<KeyVersion> keyVersions, AmazonS3Client s3Client)
+        throws InterruptedException
+    {
+        List<DeleteError> deleteErrors = new ArrayList<>();
+        List<KeyVersion> remainingKeyVersions = keyVersions;
+
+        for (int attempt = 1; ; attempt++)
+        {
+            // Only request errors in the response since we already know which keys we asked to delete.
+            DeleteObjectsRequest deleteObjectsRequest = new DeleteObjectsRequest(params.getS3BucketName()).withKeys(remainingKeyVersions).withQuiet(true);
+
+            try
+            {
+                s3Operations.deleteObjects(deleteObjectsRequest, s3Client);
+                logDeletedKeys(params, remainingKeyVersions, Collections.<String>emptySet());
+                return deleteErrors;
+            }
+            catch (MultiObjectDeleteException e)
+            {
+                // Split the key errors into the ones worth retrying and the ones that are final.
+                Set<String> failedKeys = new HashSet<>();
+                List<KeyVersion> retryKeyVersions = new ArrayList<>();
+                for (DeleteError deleteError : e.getErrors())
+                {
+                    failedKeys.add(deleteError.getKey());
+                    if (isRetryableS3ErrorCode(deleteError.getCode()) && attempt < MAX_DELETE_ATTEMPTS)
+                    {
+                        retryKeyVersions.add(new KeyVersion(deleteError.getKey()));
+                    }
+                    else
+                    {
+                        deleteErrors.add(deleteError);
+                    }
+                }
+
+                logDeletedKeys(params, remainingKeyVersions, failedKeys);
+
+                if (retryKeyVersions.isEmpty())
+                {
+                    return deleteErrors;
+                }
+
+                remainingKeyVersions = retryKeyVersions;
+                LOGGER.warn(String.format("Retrying the deletion of %d keys/objects from bucket \"%s\" (attempt %d).", retryKeyVersions.size(),
+                    params.getS3BucketName(), attempt + 1));
+            }
+            catch (AmazonServiceException e)
+            {
+                // Retry the whole request when S3 throttles us.
+                if (!isRetryableS3ErrorCode(e.getErrorCode()) || attempt >= MAX_DELETE_ATTEMPTS)
+                {
+                    throw e;
+                }
+
+                LOGGER.warn(String.format("Retrying the deletion of %d keys/objects from bucket \"%s\" (attempt %d). Reason: %s", remainingKeyVersions.size(),
+                    params.getS3BucketName(), attempt + 1, e.getMessage()));
+            }
+
+            Thread.sleep(DELETE_RETRY_BASE_DELAY_MILLIS << (attempt - 1));
+        }
+    }
+
+    /**
+     * Returns whether the specified S3 error code reports a transient condition worth retrying.
+     *
+     * @param errorCode the S3 error code
+     *
+     * @return true if the request should be retried
+     */
+    private boolean isRetryableS3ErrorCode(String errorCode)
+    {
+        return ERROR_CODE_SLOW_DOWN.equals(errorCode) || S3Operations.ERROR_CODE_INTERNAL_ERROR.equals(errorCode) ||
+            ERROR_CODE_SERVICE_UNAVAILABLE.equals(errorCode);
+    }
+
+    /**
+     * Logs the keys/objects of a Multi-Object Delete request that got deleted.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param keyVersions the keys that were requested to be deleted
+     * @param failedKeys the keys that failed to get deleted
+     */
+    private void logDeletedKeys(S3FileTransferRequestParamsDto params, List<KeyVersion> keyVersions, Set<String> failedKeys)
+    {
+        LOGGER.info(String.format("Successfully deleted the following %d keys/objects from bucket \"%s\":", keyVersions.size() - failedKeys.size(),
+            params.getS3BucketName()));
+
+        for (KeyVersion keyVersion : keyVersions)
+        {
+            if (!failedKeys.contains(keyVersion.getKey()))
+            {
+                LOGGER.info(String.format("    s3://%s/%s", params.getS3BucketName(), keyVersion.getKey()));
+            }
+        }
+    }
+
+    @Override
+    public S3FileTransferResultsDto downloadFile(final S3FileTransferRequestParamsDto params) throws InterruptedException
+    {
+        // Perform the transfer.
+        S3FileTransferResultsDto results = performTransfer(params, new Transferer()
+        {
+            @Override
+            public Transfer performTransfer(TransferManager transferManager)
+            {
+                return s3Operations.download(params.getS3BucketName(), params.getS3KeyPrefix(), new File(params.getLocalPath()), transferManager);
+            }
+        });
+
+        LOGGER
+            .info("S3 file \"" + params.getS3KeyPrefix() + "\" in bucket \"" + params.getS3BucketName() + "\" contains " + results.getTotalBytesTransferred() +
+                " byte(s) which was successfully transferred to local file \"" + params.getLocalPath() + "\" in " +
+                DmDateUtils.formatDuration(results.getDurationMillis(), true));
+
+        LOGGER.info(String.format("Overall transfer rate: %.2f kBytes/s (%.2f Mbits/s)",
+            getTransferRateInKilobytesPerSecond(results.getTotalBytesTransferred(), results.getDurationMillis()),
+            getTransferRateInMegabitsPerSecond(results.getTotalBytesTransferred(), results.getDurationMillis())));
+
+        return results;
+    }
+
+    @Override
+    public S3FileTransferResultsDto downloadDirectory(final S3FileTransferRequestParamsDto params) throws InterruptedException
+    {
+        // Note that the directory download always recursively copies sub-directories.
+        // To not recurse, we would have to list the files on S3 (AmazonS3Client.html#listObjects) and manually copy them one at a time.
+
+        // Perform the transfer.
+        S3FileTransferResultsDto results = performTransfer(params, new Transferer()
+        {
+            @Override
+            public Transfer performTransfer(TransferManager transferManager)
             {
                 return s3Operations.downloadDirectory(params.getS3BucketName(), params.getS3KeyPrefix(), new File(params.getLocalPath()), transferManager);
             }
@@ -531,66 +994,55 @@ public class S3DaoImpl implements S3Dao
     @Override
     public int abortMultipartUploads(S3FileTransferRequestParamsDto params, Date thresholdDate)
     {
-        AmazonS3Client s3Client = null;
         int abortedMultipartUploadsCount = 0;
 
-        try
-        {
-            // Create an Amazon S3 client.
-            s3Client = getAmazonS3(params);
+        // Get an Amazon S3 client.
+        AmazonS3Client s3Client = getAmazonS3(params);
 
-            // List upload markers. Null implies initial list request.
-            String uploadIdMarker = null;
-            String keyMarker = null;
+        // List upload markers. Null implies initial list request.
+        String uploadIdMarker = null;
+        String keyMarker = null;
 
-            boolean truncated;
-            do
-            {
-                // Create the list multipart request, optionally using the last markers.
-                ListMultipartUploadsRequest request = new ListMultipartUploadsRequest(params.getS3BucketName());
-                request.setUploadIdMarker(uploadIdMarker);
-                request.setKeyMarker(keyMarker);
+        boolean truncated;
+        do
+        {
+            // Create the list multipart request, optionally using the last markers.
+            ListMultipartUploadsRequest request = new ListMultipartUploadsRequest(params.getS3BucketName());
+            request.setUploadIdMarker(uploadIdMarker);
+            request.setKeyMarker(keyMarker);
+            request.setPrefix(params.getS3KeyPrefix());
 
-                // Request the multipart upload listing.
-                MultipartUploadListing uploadListing = s3Operations.listMultipartUploads(TransferManager.appendSingleObjectUserAgent(request), s3Client);
+            // Request the multipart upload listing.
+            MultipartUploadListing uploadListing = s3Operations.listMultipartUploads(TransferManager.appendSingleObjectUserAgent(request), s3Client);
 
-                for (MultipartUpload upload : uploadListing.getMultipartUploads())
+            for (MultipartUpload upload : uploadListing.getMultipartUploads())
+            {
+                if (upload.getInitiated().compareTo(thresholdDate) < 0)
                 {
-                    if (upload.getInitiated().compareTo(thresholdDate) < 0)
-                    {
-                        // Abort the upload.
-                        s3Operations.abortMultipartUpload(TransferManager
-                            .appendSingleObjectUserAgent(new AbortMultipartUploadRequest(params.getS3BucketName(), upload.getKey(), upload.getUploadId())),
-                            s3Client);
+                    // Abort the upload.
+                    s3Operations.abortMultipartUpload(TransferManager
+                        .appendSingleObjectUserAgent(new AbortMultipartUploadRequest(params.getS3BucketName(), upload.getKey(), upload.getUploadId())),
+                        s3Client);
 
-                        // Log the information about the aborted multipart upload.
-                        LOGGER.info(String.format("Aborted S3 multipart upload for \"%s\" object key initiated at [%s] in \"%s\" S3 bucket.", upload.getKey(),
-                            upload.getInitiated(), params.getS3BucketName()));
+                    // Log the information about the aborted multipart upload.
+                    LOGGER.info(String.format("Aborted S3 multipart upload for \"%s\" object key initiated at [%s] in \"%s\" S3 bucket.", upload.getKey(),
+                        upload.getInitiated(), params.getS3BucketName()));
 
-                        // Increment the counter.
-                        abortedMultipartUploadsCount++;
-                    }
-                }
-
-                // Determine whether there are more uploads to list.
-                truncated = uploadListing.isTruncated();
-                if (truncated)
-                {
-                    // Record the list markers.
-                    uploadIdMarker = uploadListing.getUploadIdMarker();
-                    keyMarker = uploadListing.getKeyMarker();
+                    // Increment the counter.
+                    abortedMultipartUploadsCount++;
                 }
             }
-            while (truncated);
-        }
-        finally
-        {
-            // Shutdown the Amazon S3 client instance to release resources.
-            if (s3Client != null)
+
+            // Determine whether there are more uploads to list.
+            truncated = uploadListing.isTruncated();
+            if (truncated)
             {
-                s3Client.shutdown();
+                // Record the list markers.
+                uploadIdMarker = uploadListing.getUploadIdMarker();
+                keyMarker = uploadListing.getKeyMarker();
             }
         }
+        while (truncated);
 
         return abortedMultipartUploadsCount;
     }
@@ -616,38 +1068,122 @@ public class S3DaoImpl implements S3Dao
     }
 
     /**
-     * Gets a transfer manager with the specified parameters including proxy host, proxy port, S3 access key, S3 secret key, and max threads.
+     * Acquires a transfer manager with the specified parameters including proxy host, proxy port, S3 access key, S3 secret key, and max threads. Transfer
+     * managers are shared across calls per S3 client, max threads and multipart settings, so the underlying connection pool and transfer thread pool are
+     * reused instead of being created and torn down for every transfer. The acquired transfer manager must be released once the transfer is done.
      *
      * @param params the parameters.
      *
-     * @return a newly created transfer manager.
+     * @return the holder of the shared transfer manager.
      */
-    private TransferManager getTransferManager(final S3FileTransferRequestParamsDto params)
+    private TransferManagerHolder acquireTransferManager(final S3FileTransferRequestParamsDto params)
     {
-        // We are returning a new transfer manager each time it is called. Although the Javadocs of TransferManager say to share a single instance
-        // if possible, this could potentially be a problem if TransferManager.shutdown(true) is called and underlying resources are not present when needed
-        // for subsequent transfers.
-        if (params.getMaxThreads() == null)
+        S3ClientHolder s3ClientHolder = getS3ClientHolder(params);
+        int maxThreads = params.getMaxThreads() == null ? DEFAULT_TRANSFER_MANAGER_THREADS : params.getMaxThreads();
+
+        // Get the optional multipart copy settings.
+        Long multipartCopyThreshold = null;
+        Long multipartCopyPartSize = null;
+        if (params instanceof S3FileCopyRequestParamsDto)
         {
-            // Create a transfer manager that will internally use an appropriate number of threads.
-            return new TransferManager(getAmazonS3(params));
+            multipartCopyThreshold = ((S3FileCopyRequestParamsDto) params).getMultipartCopyThreshold();
+            multipartCopyPartSize = ((S3FileCopyRequestParamsDto) params).getMultipartCopyPartSize();
         }
-        else
+        List<Long> transferManagerKey = Arrays.asList((long) maxThreads, params.getMultipartUploadThreshold(), params.getMultipartUploadPartSize(),
+            multipartCopyThreshold, multipartCopyPartSize);
+
+        synchronized (s3ClientHolder)
         {
-            // Create a transfer manager with our own executor configured with the specified total threads.
-            LOGGER.info("Creating a transfer manager with max threads: " + params.getMaxThreads());
-            return new TransferManager(getAmazonS3(params), Executors.newFixedThreadPool(params.getMaxThreads()));
+            TransferManagerHolder transferManagerHolder = s3ClientHolder.transferManagerHolders.get(transferManagerKey);
+            if (transferManagerHolder == null)
+            {
+                // Create a transfer manager with our own executor configured with the specified total threads. The executor uses daemon threads that time
+                // out when idle, so a shared transfer manager never keeps the JVM from exiting and an unused one holds no threads.
+                LOGGER.info("Creating a transfer manager with max threads: " + maxThreads);
+                ThreadPoolExecutor transferExecutor =
+                    new ThreadPoolExecutor(maxThreads, maxThreads, TRANSFER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                        new DaemonThreadFactory("s3-transfer-manager-worker-"));
+                transferExecutor.allowCoreThreadTimeOut(true);
+                TransferManager transferManager = new TransferManager(s3ClientHolder.amazonS3Client, transferExecutor);
+
+                // Files and objects at or above the multipart upload and copy thresholds are transferred in parts of the part size, which the transfer
+                // manager runs in parallel on its executor.
+                TransferManagerConfiguration transferManagerConfiguration = transferManager.getConfiguration();
+                if (params.getMultipartUploadThreshold() != null)
+                {
+                    LOGGER.info("Configured multipart upload threshold: " + params.getMultipartUploadThreshold() + " bytes");
+                    transferManagerConfiguration.setMultipartUploadThreshold(params.getMultipartUploadThreshold());
+                }
+                if (params.getMultipartUploadPartSize() != null)
+                {
+                    LOGGER.info("Configured multipart upload part size: " + params.getMultipartUploadPartSize() + " bytes");
+                    transferManagerConfiguration.setMinimumUploadPartSize(params.getMultipartUploadPartSize());
+                }
+                if (multipartCopyThreshold != null)
+                {
+                    LOGGER.info("Configured multipart copy threshold: " + multipartCopyThreshold + " bytes");
+                    transferManagerConfiguration.setMultipartCopyThreshold(multipartCopyThreshold);
+                }
+                if (multipartCopyPartSize != null)
+                {
+                    LOGGER.info("Configured multipart copy part size: " + multipartCopyPartSize + " bytes");
+                    transferManagerConfiguration.setMultipartCopyPartSize(multipartCopyPartSize);
+                }
+                transferManager.setConfiguration(transferManagerConfiguration);
+
+                transferManagerHolder = new TransferManagerHolder(transferManager);
+                s3ClientHolder.transferManagerHolders.put(transferManagerKey, transferManagerHolder);
+            }
+            transferManagerHolder.acquire();
+            return transferManagerHolder;
         }
     }
 
     /**
-     * Gets a new S3 client based on the specified parameters. The HTTP proxy information will be added if the host and port are specified in the parameters.
+     * Gets an S3 client based on the specified parameters. The HTTP proxy information will be added if the host and port are specified in the parameters.
+     * Clients are shared across calls per endpoint, proxy and credentials, so repeated calls reuse the same connection pool.
      *
      * @param params the parameters.
      *
      * @return the Amazon S3 client.
      */
     private AmazonS3Client getAmazonS3(S3FileTransferRequestParamsDto params)
+    {
+        return getS3ClientHolder(params).amazonS3Client;
+    }
+
+    /**
+     * Gets the registry entry for the S3 client identified by the endpoint, proxy and credentials in the specified parameters, creating it when needed.
+     *
+     * @param params the parameters.
+     *
+     * @return the S3 client holder.
+     */
+    private S3ClientHolder getS3ClientHolder(S3FileTransferRequestParamsDto params)
+    {
+        S3ClientKey s3ClientKey = new S3ClientKey(params);
+
+        synchronized (s3ClientHolders)
+        {
+            S3ClientHolder s3ClientHolder = s3ClientHolders.get(s3ClientKey);
+            if (s3ClientHolder == null)
+            {
+                s3ClientHolder = new S3ClientHolder(createAmazonS3(params));
+                s3ClientHolders.put(s3ClientKey, s3ClientHolder);
+            }
+            return s3ClientHolder;
+        }
+    }
+
+    /**
+     * Creates a new S3 client based on the specified parameters. The HTTP proxy information will be added if the host and port are specified in the
+     * parameters.
+     *
+     * @param params the parameters.
+     *
+     * @return the newly created Amazon S3 client.
+     */
+    private AmazonS3Client createAmazonS3(S3FileTransferRequestParamsDto params)
     {
         AmazonS3Client amazonS3Client;
 
@@ -675,6 +1211,55 @@ public class S3DaoImpl implements S3Dao
         return amazonS3Client;
     }
 
+    /**
+     * Releases all shared S3 clients and transfer managers along with the listing and delete executors.
+     */
+    @PreDestroy
+    public void shutdown()
+    {
+        synchronized (s3ClientHolders)
+        {
+            for (S3ClientHolder s3ClientHolder : s3ClientHolders.values())
+            {
+                s3ClientHolder.shutdown();
+            }
+            s3ClientHolders.clear();
+        }
+        listingExecutor.shutdownNow();
+        deleteExecutor.shutdownNow();
+    }
+
+    /**
+     * Gets the number of transfer managers currently held for all the S3 clients in the client registry.
+     *
+     * @return the number of shared transfer managers.
+     */
+    public int getTransferManagerCount()
+    {
+        int transferManagerCount = 0;
+        synchronized (s3ClientHolders)
+        {
+            for (S3ClientHolder s3ClientHolder : s3ClientHolders.values())
+            {
+                transferManagerCount += s3ClientHolder.getTransferManagerCount();
+            }
+        }
+        return transferManagerCount;
+    }
+
+    /**
+     * Gets the number of S3 clients currently held in the client registry.
+     *
+     * @return the number of shared S3 clients.
+     */
+    public int getS3ClientCount()
+    {
+        synchronized (s3ClientHolders)
+        {
+            return s3ClientHolders.size();
+        }
+    }
+
     /**
      * <p> Gets the {@link AWSCredentialsProvider} based on the credentials in the given parameters. </p> <p> Returns {@link DefaultAWSCredentialsProviderChain}
      * if either access or secret key is {@code null}. Otherwise returns a {@link StaticCredentialsProvider} with the credentials. </p>
@@ -706,112 +1291,400 @@ public class S3DaoImpl implements S3Dao
      */
     private S3FileTransferResultsDto performTransfer(final S3FileTransferRequestParamsDto params, Transferer transferer) throws InterruptedException
     {
-        // Create a transfer manager.
-        TransferManager transferManager = null;
-
+        // Get the shared transfer manager and hold on to it until the transfer is done, so it doesn't get shut down while in use.
+        TransferManagerHolder transferManagerHolder = acquireTransferManager(params);
         try
         {
-            // Create a transfer manager.
-            transferManager = getTransferManager(params);
+            return performTransfer(params, transferer, transferManagerHolder.transferManager);
+        }
+        finally
+        {
+            transferManagerHolder.release();
+        }
+    }
 
-            // Start a stop watch to keep track of how long the transfer takes.
-            StopWatch stopWatch = new StopWatch();
-            stopWatch.start();
+    /**
+     * Performs a file/directory transfer using the specified transfer manager.
+     *
+     * @param params the parameters.
+     * @param transferer a transferer that knows how to perform the transfer.
+     * @param transferManager the transfer manager.
+     *
+     * @return the results.
+     * @throws InterruptedException if a problem is encountered.
+     */
+    private S3FileTransferResultsDto performTransfer(final S3FileTransferRequestParamsDto params, Transferer transferer, TransferManager transferManager)
+        throws InterruptedException
+    {
+        // Start a stop watch to keep track of how long the transfer takes.
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
 
-            // Perform the transfer.
-            Transfer transfer = transferer.performTransfer(transferManager);
-            TransferProgress transferProgress = transfer.getProgress();
+        // Perform the transfer.
+        Transfer transfer = transferer.performTransfer(transferManager);
+        TransferProgress transferProgress = transfer.getProgress();
 
-            LOGGER.info(String
-                .format("%d bytes transferred out of %d (%.1f%%)", transferProgress.getBytesTransferred(), transferProgress.getTotalBytesToTransfer(),
-                    transferProgress.getPercentTransferred()));
+        LOGGER.info(String
+            .format("%d bytes transferred out of %d (%.1f%%)", transferProgress.getBytesTransferred(), transferProgress.getTotalBytesToTransfer(),
+                transferProgress.getPercentTransferred()));
 
-            long stepCount = 0;
+        // Track the completion and the multipart activity of the transfer through listeners instead of polling its state.
+        TransferProgressListener progressListener = new TransferProgressListener(1);
+        transfer.addProgressListener(progressListener);
 
-            // Loop until the transfer is complete.
-            do
+        // Wait until the transfer is complete, logging the progress status every 30 seconds.
+        while (!transfer.isDone())
+        {
+            if (progressListener.awaitCompletion(PROGRESS_LOG_INTERVAL_MILLIS))
             {
-                Thread.sleep(SLEEP_INTERVAL_MILLIS);
-                stepCount++;
-
-                // Log progress status every 30 seconds and when transfer is complete.
-                if (transfer.isDone() || stepCount % 300 == 0)
-                {
-                    LOGGER.info(String
-                        .format("%d bytes transferred out of %d (%.1f%%)", transferProgress.getBytesTransferred(), transferProgress.getTotalBytesToTransfer(),
-                            transferProgress.getPercentTransferred()));
-                }
+                // A completion progress event can be published just before the transfer state is updated, so wait for the transfer itself to finish. Since
+                // the transfer is already finishing, this does not block for long. Any transfer error is handled below based on the transfer state.
+                transfer.waitForException();
+                break;
             }
-            while (!transfer.isDone());
 
-            // Stop the stop watch and create a results object.
-            stopWatch.stop();
+            LOGGER.info(String
+                .format("%d bytes transferred out of %d (%.1f%%)", transferProgress.getBytesTransferred(), transferProgress.getTotalBytesToTransfer(),
+                    transferProgress.getPercentTransferred()));
+        }
 
-            // If the transfer failed, throw the underlying AWS exception if we can determine one. Otherwise, throw our own exception.
-            TransferState transferState = transfer.getState();
-            if (transferState == TransferState.Failed)
-            {
-                // The waitForException method should return the underlying AWS exception since the state is "Failed". It should not block since the
-                // transfer is already "done" per previous code checking "isDone".
-                AmazonClientException amazonClientException = transfer.waitForException();
+        LOGGER.info(String
+            .format("%d bytes transferred out of %d (%.1f%%)", transferProgress.getBytesTransferred(), transferProgress.getTotalBytesToTransfer(),
+                transferProgress.getPercentTransferred()));
 
-                // If the returned exception is null, we weren't able to get the underlying AWS exception so just throw our own exception.
-                // This is unlikely since the transfer failed, but it's better to handle the possibility just in case.
-                if (amazonClientException == null)
-                {
-                    throw new IllegalStateException("The transfer operation \"" + transfer.getDescription() + "\" failed for an unknown reason.");
-                }
+        // Stop the stop watch and create a results object.
+        stopWatch.stop();
 
-                // Throw the Amazon underlying exception.
-                throw amazonClientException;
-            }
-            // Ensure the transfer completed. If not, throw an exception.
-            else if (transferState != TransferState.Completed)
-            {
-                throw new IllegalStateException(
-                    "The transfer operation \"" + transfer.getDescription() + "\" did not complete successfully. Current state: \"" + transferState +
-                        "\".");
-            }
+        // Record the transfer metrics whether the transfer succeeded or not.
+        TransferState transferState = transfer.getState();
+        transferMetrics.recordTransfer(getTransferType(transfer), transferState == TransferState.Completed, transferProgress.getBytesTransferred(),
+            stopWatch.getTime(), progressListener.getRetries());
 
-            // TransferProgress.getBytesTransferred() are not populated for S3 Copy objects.
-            if (!(transfer instanceof Copy))
-            {
-                // Sanity check for the number of bytes transferred.
-                Assert.isTrue(transferProgress.getBytesTransferred() >= transferProgress.getTotalBytesToTransfer(), String
-                    .format("Actual number of bytes transferred is less than expected (actual: %d bytes; expected: %d bytes).",
-                        transferProgress.getBytesTransferred(), transferProgress.getTotalBytesToTransfer()));
-            }
+        // Ensure the transfer completed.
+        validateTransferCompleted(transfer);
 
-            // Create the results object and populate it with the standard data.
-            S3FileTransferResultsDto results = new S3FileTransferResultsDto();
-            results.setDurationMillis(stopWatch.getTime());
-            results.setTotalBytesTransferred(transfer.getProgress().getBytesTransferred());
-            results.setTotalFilesTransferred(1L);
+        // TransferProgress.getBytesTransferred() are not populated for S3 Copy objects.
+        if (!(transfer instanceof Copy))
+        {
+            // Sanity check for the number of bytes transferred.
+            Assert.isTrue(transferProgress.getBytesTransferred() >= transferProgress.getTotalBytesToTransfer(), String
+                .format("Actual number of bytes transferred is less than expected (actual: %d bytes; expected: %d bytes).",
+                    transferProgress.getBytesTransferred(), transferProgress.getTotalBytesToTransfer()));
+        }
 
-            if (transfer instanceof MultipleFileUpload)
-            {
-                // For upload directory, we need to calculate the total number of files transferred differently.
-                results.setTotalFilesTransferred((long) ((MultipleFileUpload) transfer).getSubTransfers().size());
-            }
-            else if (transfer instanceof MultipleFileDownload)
-            {
-                // For download directory, we need to calculate the total number of files differently.
-                results.setTotalFilesTransferred((long) listDirectory(params).size());
-            }
+        // Create the results object and populate it with the standard data.
+        S3FileTransferResultsDto results = new S3FileTransferResultsDto();
+        results.setDurationMillis(stopWatch.getTime());
+        results.setTotalBytesTransferred(transfer.getProgress().getBytesTransferred());
+        results.setTotalFilesTransferred(1L);
+        results.setMaxPartsInFlight(progressListener.getMaxPartsInFlight());
+        results.setTotalRetries(progressListener.getRetries());
 
-            // Return the results.
-            return results;
+        if (transfer instanceof MultipleFileUpload)
+        {
+            // For upload directory, we need to calculate the total number of files transferred differently.
+            results.setTotalFilesTransferred((long) ((MultipleFileUpload) transfer).getSubTransfers().size());
         }
-        finally
+        else if (transfer instanceof MultipleFileDownload)
         {
-            // Shutdown the transfer manager to release resources. If this isn't done, the JVM may delay upon exiting.
-            if (transferManager != null)
-            {
-                transferManager.shutdownNow();
+            // For download directory, we need to calculate the total number of files differently.
+            results.setTotalFilesTransferred((long) listDirectory(params).size());
+        }
+
+        // Return the results.
+        return results;
+    }
+
+    /**
+     * Validates that a transfer that is done completed successfully.
+     *
+     * @param transfer the transfer.
+     *
+     * @throws AmazonClientException if the transfer failed with an underlying AWS exception.
+     * @throws IllegalStateException if the transfer failed for an unknown reason or did not complete.
+     */
+    private void validateTransferCompleted(Transfer transfer)
+    {
+        TransferState transferState = transfer.getState();
+
+        // If the transfer failed, throw the underlying AWS exception if we can determine one. Otherwise, throw our own exception.
+        if (transferState == TransferState.Failed)
+        {
+            // The waitForException method should return the underlying AWS exception since the state is "Failed". It should not block since the
+            // transfer is already "done" per previous code checking "isDone".
+            AmazonClientException amazonClientException = transfer.waitForException();
+
+            // If the returned exception is null, we weren't able to get the underlying AWS exception so just throw our own exception.
+            // This is unlikely since the transfer failed, but it's better to handle the possibility just in case.
+            if (amazonClientException == null)
+            {
+                throw new IllegalStateException("The transfer operation \"" + transfer.getDescription() + "\" failed for an unknown reason.");
             }
+
+            // Throw the Amazon underlying exception.
+            throw amazonClientException;
+        }
+        // Ensure the transfer completed. If not, throw an exception.
+        else if (transferState != TransferState.Completed)
+        {
+            throw new IllegalStateException(
+                "The transfer operation \"" + transfer.getDescription() + "\" did not complete successfully. Current state: \"" + transferState +
+                    "\".");
         }
     }
 
+    /**
+     * The key of a shared S3 client. Clients are shared per endpoint, proxy and credentials, so requests using different credentials never share a client.
+     * Requests without explicit credentials share a client backed by the default credentials provider chain, which refreshes expiring credentials itself.
+     */
+    private static final class S3ClientKey
+    {
+        private final String s3Endpoint;
+
+        private final String httpProxyHost;
+
+        private final Integer httpProxyPort;
+
+        private final String s3AccessKey;
+
+        private final String s3SecretKey;
+
+        private S3ClientKey(S3FileTransferRequestParamsDto params)
+        {
+            s3Endpoint = params.getS3Endpoint();
+            httpProxyHost = params.getHttpProxyHost();
+            httpProxyPort = params.getHttpProxyPort();
+            s3AccessKey = params.getS3AccessKey();
+            s3SecretKey = params.getS3SecretKey();
+        }
+
+        @Override
+        public boolean equals(Object object)
+        {
+            if (this == object)
+            {
+                return true;
+            }
+            if (!(object instanceof S3ClientKey))
+            {
+                return false;
+            }
+
+            S3ClientKey other = (S3ClientKey) object;
+            return Objects.equals(s3Endpoint, other.s3Endpoint) && Objects.equals(httpProxyHost, other.httpProxyHost) &&
+                Objects.equals(httpProxyPort, other.httpProxyPort) && Objects.equals(s3AccessKey, other.s3AccessKey) &&
+                Objects.equals(s3SecretKey, other.s3SecretKey);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(s3Endpoint, httpProxyHost, httpProxyPort, s3AccessKey, s3SecretKey);
+        }
+    }
+
+    /**
+     * A shared S3 client along with the transfer managers built on top of it, keyed by max threads and multipart upload and copy settings. Access to the
+     * transfer managers must be synchronized on the holder.
+     */
+    private static final class S3ClientHolder
+    {
+        private final AmazonS3Client amazonS3Client;
+
+        private final Map<List<Long>, TransferManagerHolder> transferManagerHolders = new LinkedHashMap<List<Long>, TransferManagerHolder>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Long>, TransferManagerHolder> eldest)
+            {
+                if (size() > MAX_TRANSFER_MANAGERS_PER_S3_CLIENT)
+                {
+                    eldest.getValue().retire();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        private S3ClientHolder(AmazonS3Client amazonS3Client)
+        {
+            this.amazonS3Client = amazonS3Client;
+        }
+
+        /**
+         * Shuts down the transfer managers and the S3 client to release their thread and connection pools.
+         */
+        private synchronized void shutdown()
+        {
+            for (TransferManagerHolder transferManagerHolder : transferManagerHolders.values())
+            {
+                transferManagerHolder.transferManager.shutdownNow(false);
+            }
+            transferManagerHolders.clear();
+            amazonS3Client.shutdown();
+        }
+
+        /**
+         * Gets the number of transfer managers held for this S3 client.
+         *
+         * @return the number of transfer managers
+         */
+        private synchronized int getTransferManagerCount()
+        {
+            return transferManagerHolders.size();
+        }
+    }
+
+    /**
+     * A shared transfer manager along with the number of transfers in progress on it. A retired transfer manager is shut down as soon as it has no transfers
+     * in progress. Only the transfer manager is shut down, since the S3 client is shared with the other transfer managers.
+     */
+    private static final class TransferManagerHolder
+    {
+        private final TransferManager transferManager;
+
+        private int transfersInProgress;
+
+        private boolean retired;
+
+        private TransferManagerHolder(TransferManager transferManager)
+        {
+            this.transferManager = transferManager;
+        }
+
+        private synchronized void acquire()
+        {
+            transfersInProgress++;
+        }
+
+        private synchronized void release()
+        {
+            transfersInProgress--;
+            shutdownIfRetiredAndUnused();
+        }
+
+        private synchronized void retire()
+        {
+            retired = true;
+            shutdownIfRetiredAndUnused();
+        }
+
+        private void shutdownIfRetiredAndUnused()
+        {
+            if (retired && transfersInProgress == 0)
+            {
+                transferManager.shutdownNow(false);
+            }
+        }
+    }
+
+    /**
+     * An iterator over the S3 objects matching an S3 key prefix that requests the next listing page only when the current page is exhausted.
+     */
+    private class StorageFileIterator implements Iterator<StorageFile>
+    {
+        private final S3FileTransferRequestParamsDto params;
+
+        private final boolean ignoreZeroByteDirectoryMarkers;
+
+        private final ListObjectsRequest listObjectsRequest;
+
+        private Iterator<StorageFile> pageIterator = Collections.emptyIterator();
+
+        private boolean morePages = true;
+
+        private StorageFileIterator(S3FileTransferRequestParamsDto params, boolean ignoreZeroByteDirectoryMarkers)
+        {
+            this.params = params;
+            this.ignoreZeroByteDirectoryMarkers = ignoreZeroByteDirectoryMarkers;
+            listObjectsRequest = new ListObjectsRequest().withBucketName(params.getS3BucketName()).withPrefix(params.getS3KeyPrefix());
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            // Keep requesting pages until we find a storage file or run out of pages, since a page may contain nothing but ignored directory markers.
+            while (!pageIterator.hasNext() && morePages)
+            {
+                try
+                {
+                    ObjectListing objectListing = s3Operations.listObjects(listObjectsRequest, getAmazonS3(params));
+
+                    List<StorageFile> storageFiles = new ArrayList<>();
+                    addStorageFiles(objectListing, ignoreZeroByteDirectoryMarkers, storageFiles);
+                    pageIterator = storageFiles.iterator();
+
+                    morePages = objectListing.isTruncated();
+                    listObjectsRequest.setMarker(objectListing.getNextMarker());
+                }
+                catch (AmazonClientException e)
+                {
+                    throw getListObjectsException(params, e);
+                }
+            }
+
+            return pageIterator.hasNext();
+        }
+
+        @Override
+        public StorageFile next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return pageIterator.next();
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException("Removing S3 objects through the storage file iterator is not supported.");
+        }
+    }
+
+    /**
+     * A thread factory that creates named daemon threads, so the shared thread pools never keep the JVM from exiting.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory
+    {
+        private final String threadNamePrefix;
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private DaemonThreadFactory(String threadNamePrefix)
+        {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Gets the transfer metrics type of the specified transfer.
+     *
+     * @param transfer the transfer
+     *
+     * @return the transfer type
+     */
+    private S3TransferMetrics.TransferType getTransferType(Transfer transfer)
+    {
+        if (transfer instanceof Copy)
+        {
+            return S3TransferMetrics.TransferType.COPY;
+        }
+        else if (transfer instanceof Download || transfer instanceof MultipleFileDownload)
+        {
+            return S3TransferMetrics.TransferType.DOWNLOAD;
+        }
+        return S3TransferMetrics.TransferType.UPLOAD;
+    }
+
     /**
      * An object that can perform a transfer using a transform manager.
      */
@@ -827,6 +1700,82 @@ public class S3DaoImpl implements S3Dao
         public Transfer performTransfer(TransferManager transferManager);
     }
 
+    /**
+     * A progress listener that tracks the multipart activity and the request retries of one or more transfers, and counts down a latch as each transfer
+     * completes, fails or is canceled.
+     */
+    private class TransferProgressListener implements ProgressListener
+    {
+        private final CountDownLatch completionLatch;
+
+        private final AtomicInteger partsInFlight = new AtomicInteger();
+
+        private final AtomicInteger maxPartsInFlight = new AtomicInteger();
+
+        private final AtomicLong retries = new AtomicLong();
+
+        private TransferProgressListener(int transferCount)
+        {
+            completionLatch = new CountDownLatch(transferCount);
+        }
+
+        @Override
+        public void progressChanged(ProgressEvent progressEvent)
+        {
+            switch (progressEvent.getEventType())
+            {
+                case TRANSFER_PART_STARTED_EVENT:
+                    transferMetrics.partStarted();
+                    int currentPartsInFlight = partsInFlight.incrementAndGet();
+                    int currentMaxPartsInFlight;
+                    while ((currentMaxPartsInFlight = maxPartsInFlight.get()) < currentPartsInFlight &&
+                        !maxPartsInFlight.compareAndSet(currentMaxPartsInFlight, currentPartsInFlight))
+                    {
+                        // Retry until the maximum is updated or another part raised it further.
+                    }
+                    break;
+                case TRANSFER_PART_COMPLETED_EVENT:
+                case TRANSFER_PART_FAILED_EVENT:
+                    transferMetrics.partFinished();
+                    partsInFlight.decrementAndGet();
+                    break;
+                case CLIENT_REQUEST_RETRY_EVENT:
+                    retries.incrementAndGet();
+                    break;
+                case TRANSFER_COMPLETED_EVENT:
+                case TRANSFER_FAILED_EVENT:
+                case TRANSFER_CANCELED_EVENT:
+                    completionLatch.countDown();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Waits until all the transfers are done or the timeout elapses.
+         *
+         * @param timeoutMillis the maximum time to wait in milliseconds.
+         *
+         * @return true if all the transfers are done, false if the timeout elapsed first.
+         * @throws InterruptedException if the waiting thread was interrupted.
+         */
+        private boolean awaitCompletion(long timeoutMillis) throws InterruptedException
+        {
+            return completionLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private int getMaxPartsInFlight()
+        {
+            return maxPartsInFlight.get();
+        }
+
+        private long getRetries()
+        {
+            return retries.get();
+        }
+    }
+
     /**
      * Returns transfer rate in kBytes/s.  Please note that bytes->kBytes and ms->seconds conversions cancel each other (both use conversion factor of 1000).
      *
@@ -855,67 +1804,276 @@ public class S3DaoImpl implements S3Dao
 
     /**
      * Lists all S3 objects matching the S3 key prefix in the given bucket (S3 bucket name). The S3 bucket name and S3 key prefix that identify the S3 objects
-     * to get listed are taken from the S3 file transfer request parameters DTO.
+     * to get listed are taken from the S3 file transfer request parameters DTO. When the prefix does not fit into a single listing page, the objects after the
+     * first page are listed in parallel per sub-prefix.
      *
      * @param params the S3 file transfer request parameters
      * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories
      *
-     * @return the list of all S3 objects represented as storage files that match the prefix in the given bucket
+     * @return the list of all S3 objects represented as storage files that match the prefix in the given bucket, in key order
      */
     private List<StorageFile> listObjectsMatchingKeyPrefix(final S3FileTransferRequestParamsDto params, boolean ignoreZeroByteDirectoryMarkers)
     {
-        AmazonS3Client s3Client = null;
-        List<StorageFile> storageFiles = new ArrayList<>();
-
         try
         {
-            s3Client = getAmazonS3(params);
+            AmazonS3Client s3Client = getAmazonS3(params);
             ListObjectsRequest listObjectsRequest = new ListObjectsRequest().withBucketName(params.getS3BucketName()).withPrefix(params.getS3KeyPrefix());
-            ObjectListing objectListing;
 
-            do
+            // Request the first page. If there is more than one page to list, list the objects after the first page in parallel.
+            ObjectListing objectListing = s3Operations.listObjects(listObjectsRequest, s3Client);
+            List<StorageFile> storageFiles = new ArrayList<>();
+            addStorageFiles(objectListing, ignoreZeroByteDirectoryMarkers, storageFiles);
+            if (objectListing.isTruncated())
             {
-                objectListing = s3Operations.listObjects(listObjectsRequest, s3Client);
+                storageFiles.addAll(listObjectsMatchingKeyPrefixInParallel(params, objectListing.getNextMarker(), ignoreZeroByteDirectoryMarkers, s3Client));
+            }
+            return storageFiles;
+        }
+        catch (AmazonClientException e)
+        {
+            throw getListObjectsException(params, e);
+        }
+    }
+
+    /**
+     * Gets the exception to throw when listing the S3 objects matching the S3 key prefix fails.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param e the AWS exception
+     *
+     * @return the exception to throw
+     */
+    private RuntimeException getListObjectsException(S3FileTransferRequestParamsDto params, AmazonClientException e)
+    {
+        if (e instanceof AmazonS3Exception)
+        {
+            if (S3Operations.ERROR_CODE_NO_SUCH_BUCKET.equals(((AmazonS3Exception) e).getErrorCode()))
+            {
+                return new IllegalArgumentException("The specified bucket '" + params.getS3BucketName() + "' does not exist.", e);
+            }
+            return new IllegalStateException("Error accessing S3", e);
+        }
+        return new IllegalStateException(String
+            .format("Failed to list keys/objects with prefix \"%s\" from bucket \"%s\". Reason: %s", params.getS3KeyPrefix(), params.getS3BucketName(),
+                e.getMessage()), e);
+    }
+
+    /**
+     * Lists all S3 objects matching the S3 key prefix after the specified marker by discovering the sub-prefixes of the key prefix using a "/" delimiter and
+     * listing every sub-prefix concurrently on the shared listing executor. The objects located directly under the key prefix are collected during the
+     * discovery. When the discovery finds no sub-prefix, the objects are listed one page at a time instead. The results are merged in key order.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param marker the key after which to list the objects
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories
+     * @param s3Client the S3 client
+     *
+     * @return the list of the S3 objects after the marker represented as storage files that match the prefix in the given bucket, in key order
+     */
+    private List<StorageFile> listObjectsMatchingKeyPrefixInParallel(final S3FileTransferRequestParamsDto params, final String marker,
+        final boolean ignoreZeroByteDirectoryMarkers, final AmazonS3Client s3Client)
+    {
+        // The listings of the consecutive key ranges in key order. Each range is either a sub-prefix or a run of objects located directly under the key prefix.
+        List<Future<List<StorageFile>>> futures = new ArrayList<>();
+
+        try
+        {
+            // Discover the sub-prefixes while collecting the objects located directly under the key prefix.
+            ListObjectsRequest listObjectsRequest =
+                new ListObjectsRequest().withBucketName(params.getS3BucketName()).withPrefix(params.getS3KeyPrefix()).withDelimiter(S3_KEY_DELIMITER)
+                    .withMarker(marker);
+            ObjectListing objectListing = s3Operations.listObjects(listObjectsRequest, s3Client);
+
+            // Without sub-prefixes there is nothing to list in parallel, so keep listing the objects one page at a time.
+            if (objectListing.getCommonPrefixes().isEmpty())
+            {
+                List<StorageFile> storageFiles = new ArrayList<>();
+                addStorageFiles(objectListing, ignoreZeroByteDirectoryMarkers, storageFiles);
+                if (objectListing.isTruncated())
+                {
+                    storageFiles.addAll(
+                        listObjectsMatchingKeyPrefixSequentially(params.getS3BucketName(), params.getS3KeyPrefix(), objectListing.getNextMarker(),
+                            ignoreZeroByteDirectoryMarkers, s3Client));
+                }
+                return storageFiles;
+            }
 
+            while (true)
+            {
+                // Merge the objects and the sub-prefixes of the page in key order, and start listing each sub-prefix right away. The keys of a sub-prefix all
+                // sort right after the sub-prefix itself, and before any object located directly under the key prefix that sorts after the sub-prefix.
+                Iterator<String> commonPrefixes = objectListing.getCommonPrefixes().iterator();
+                String commonPrefix = commonPrefixes.hasNext() ? commonPrefixes.next() : null;
+                List<StorageFile> storageFiles = new ArrayList<>();
                 for (S3ObjectSummary objectSummary : objectListing.getObjectSummaries())
                 {
-                    // Ignore 0 byte objects that represent S3 directories.
-                    if (!(ignoreZeroByteDirectoryMarkers && objectSummary.getKey().endsWith("/") && objectSummary.getSize() == 0L))
+                    while (commonPrefix != null && commonPrefix.compareTo(objectSummary.getKey()) < 0)
                     {
-                        storageFiles.add(new StorageFile(objectSummary.getKey(), objectSummary.getSize(), null));
+                        storageFiles = addListing(futures, storageFiles);
+                        futures.add(submitListing(params.getS3BucketName(), commonPrefix, marker, ignoreZeroByteDirectoryMarkers, s3Client));
+                        commonPrefix = commonPrefixes.hasNext() ? commonPrefixes.next() : null;
                     }
+                    addStorageFile(objectSummary, ignoreZeroByteDirectoryMarkers, storageFiles);
+                }
+                addListing(futures, storageFiles);
+                while (commonPrefix != null)
+                {
+                    futures.add(submitListing(params.getS3BucketName(), commonPrefix, marker, ignoreZeroByteDirectoryMarkers, s3Client));
+                    commonPrefix = commonPrefixes.hasNext() ? commonPrefixes.next() : null;
                 }
 
+                if (!objectListing.isTruncated())
+                {
+                    break;
+                }
                 listObjectsRequest.setMarker(objectListing.getNextMarker());
+                objectListing = s3Operations.listObjects(listObjectsRequest, s3Client);
             }
-            while (objectListing.isTruncated());
-        }
-        catch (AmazonS3Exception amazonS3Exception)
-        {
-            if (S3Operations.ERROR_CODE_NO_SUCH_BUCKET.equals(amazonS3Exception.getErrorCode()))
+
+            if (LOGGER.isDebugEnabled())
             {
-                throw new IllegalArgumentException("The specified bucket '" + params.getS3BucketName() + "' does not exist.", amazonS3Exception);
+                LOGGER.debug(
+                    String.format("Listing %d key ranges of s3://%s/%s in parallel.", futures.size(), params.getS3BucketName(), params.getS3KeyPrefix()));
             }
-            throw new IllegalStateException("Error accessing S3", amazonS3Exception);
+
+            // Collect the listings of the key ranges in key order.
+            List<StorageFile> storageFiles = new ArrayList<>();
+            for (Future<List<StorageFile>> future : futures)
+            {
+                storageFiles.addAll(future.get());
+            }
+            return storageFiles;
         }
-        catch (AmazonClientException e)
+        catch (InterruptedException e)
         {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String
+                .format("Interrupted while listing keys/objects with prefix \"%s\" from bucket \"%s\".", params.getS3KeyPrefix(), params.getS3BucketName()),
+                e);
+        }
+        catch (ExecutionException e)
+        {
+            // Rethrow the AWS exception as is, so it gets handled the same way as for the sequential listing.
+            if (e.getCause() instanceof AmazonClientException)
+            {
+                throw (AmazonClientException) e.getCause();
+            }
             throw new IllegalStateException(String
                 .format("Failed to list keys/objects with prefix \"%s\" from bucket \"%s\". Reason: %s", params.getS3KeyPrefix(), params.getS3BucketName(),
-                    e.getMessage()), e);
+                    e.getCause().getMessage()), e.getCause());
         }
         finally
         {
-            // Shutdown the AmazonS3Client instance to release resources.
-            if (s3Client != null)
+            // Stop any sub-prefix listings that are still pending if we failed.
+            for (Future<List<StorageFile>> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Adds the specified run of objects located directly under the key prefix to the listings of the key ranges, unless the run is empty.
+     *
+     * @param futures the listings of the key ranges in key order
+     * @param storageFiles the run of objects
+     *
+     * @return a new list for the next run of objects
+     */
+    private List<StorageFile> addListing(List<Future<List<StorageFile>>> futures, List<StorageFile> storageFiles)
+    {
+        if (storageFiles.isEmpty())
+        {
+            return storageFiles;
+        }
+        futures.add(new AsyncResult<>(storageFiles));
+        return new ArrayList<>();
+    }
+
+    /**
+     * Starts listing all S3 objects matching the S3 sub-prefix after the specified marker on the shared listing executor.
+     *
+     * @param s3BucketName the S3 bucket name
+     * @param s3KeyPrefix the S3 sub-prefix
+     * @param marker the key after which to list the objects
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories
+     * @param s3Client the S3 client
+     *
+     * @return the listing of the sub-prefix
+     */
+    private Future<List<StorageFile>> submitListing(final String s3BucketName, final String s3KeyPrefix, final String marker,
+        final boolean ignoreZeroByteDirectoryMarkers, final AmazonS3Client s3Client)
+    {
+        return listingExecutor.submit(new Callable<List<StorageFile>>()
+        {
+            @Override
+            public List<StorageFile> call()
             {
-                s3Client.shutdown();
+                return listObjectsMatchingKeyPrefixSequentially(s3BucketName, s3KeyPrefix, marker, ignoreZeroByteDirectoryMarkers, s3Client);
             }
+        });
+    }
+
+    /**
+     * Lists all S3 objects matching the S3 key prefix after the specified marker in the given bucket one page at a time.
+     *
+     * @param s3BucketName the S3 bucket name
+     * @param s3KeyPrefix the S3 key prefix
+     * @param marker the key after which to list the objects
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories
+     * @param s3Client the S3 client
+     *
+     * @return the list of the S3 objects after the marker represented as storage files that match the prefix in the given bucket
+     */
+    private List<StorageFile> listObjectsMatchingKeyPrefixSequentially(String s3BucketName, String s3KeyPrefix, String marker,
+        boolean ignoreZeroByteDirectoryMarkers, AmazonS3Client s3Client)
+    {
+        List<StorageFile> storageFiles = new ArrayList<>();
+        ListObjectsRequest listObjectsRequest = new ListObjectsRequest().withBucketName(s3BucketName).withPrefix(s3KeyPrefix).withMarker(marker);
+        ObjectListing objectListing;
+
+        do
+        {
+            objectListing = s3Operations.listObjects(listObjectsRequest, s3Client);
+            addStorageFiles(objectListing, ignoreZeroByteDirectoryMarkers, storageFiles);
+            listObjectsRequest.setMarker(objectListing.getNextMarker());
         }
+        while (objectListing.isTruncated());
 
         return storageFiles;
     }
 
+    /**
+     * Adds the objects from the specified object listing to the list of storage files.
+     *
+     * @param objectListing the object listing
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories
+     * @param storageFiles the list of storage files to add to
+     */
+    private void addStorageFiles(ObjectListing objectListing, boolean ignoreZeroByteDirectoryMarkers, List<StorageFile> storageFiles)
+    {
+        for (S3ObjectSummary objectSummary : objectListing.getObjectSummaries())
+        {
+            addStorageFile(objectSummary, ignoreZeroByteDirectoryMarkers, storageFiles);
+        }
+    }
+
+    /**
+     * Adds the specified object to the list of storage files.
+     *
+     * @param objectSummary the object summary
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories
+     * @param storageFiles the list of storage files to add to
+     */
+    private void addStorageFile(S3ObjectSummary objectSummary, boolean ignoreZeroByteDirectoryMarkers, List<StorageFile> storageFiles)
+    {
+        // Ignore 0 byte objects that represent S3 directories.
+        if (!(ignoreZeroByteDirectoryMarkers && objectSummary.getKey().endsWith("/") && objectSummary.getSize() == 0L))
+        {
+            storageFiles.add(new StorageFile(objectSummary.getKey(), objectSummary.getSize(), null, null));
+        }
+    }
+
     @Override
     public S3Object getS3Object(GetObjectRequest getObjectRequest, S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto)
     {
@@ -15,7 +15,12 @@
 */
 package org.finra.dm.dao.impl;
 
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -38,6 +43,33 @@ public class SqsDaoImpl implements SqsDao
      */
     @Override
     public void sendSqsTextMessage(AwsParamsDto awsParamsDto, String queueName, String messageText)
+    {
+        // Send the message.
+        sqsOperations.sendSqsTextMessage(getClientConfiguration(awsParamsDto), queueName, messageText);
+    }
+
+    /**
+     * Sends text messages to the specified AWS SQS queue using batch sends.
+     */
+    @Override
+    public Map<Integer, String> sendSqsTextMessages(AwsParamsDto awsParamsDto, String queueName, List<String> messageTexts)
+    {
+        Map<Integer, String> failedMessages = new TreeMap<>();
+        for (BatchResultErrorEntry failedEntry : sqsOperations.sendSqsTextMessages(getClientConfiguration(awsParamsDto), queueName, messageTexts))
+        {
+            failedMessages.put(Integer.valueOf(failedEntry.getId()), String.format("%s: %s", failedEntry.getCode(), failedEntry.getMessage()));
+        }
+        return failedMessages;
+    }
+
+    /**
+     * Creates the client configuration based on the specified proxy configuration.
+     *
+     * @param awsParamsDto the AWS related parameters
+     *
+     * @return the client configuration
+     */
+    private ClientConfiguration getClientConfiguration(AwsParamsDto awsParamsDto)
     {
         // Create the connection factory based on the specified proxy configuration.
         ClientConfiguration clientConfiguration = new ClientConfiguration();
@@ -52,7 +84,6 @@ public class SqsDaoImpl implements SqsDao
             clientConfiguration.setProxyPort(awsParamsDto.getHttpProxyPort());
         }
 
-        // Send the message.
-        sqsOperations.sendSqsTextMessage(clientConfiguration, queueName, messageText);
+        return clientConfiguration;
     }
 }
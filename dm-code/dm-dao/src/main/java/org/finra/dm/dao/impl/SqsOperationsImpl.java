@@ -15,15 +15,33 @@
 */
 package org.finra.dm.dao.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.services.sqs.AmazonSQSClient;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
 import com.amazonaws.services.sqs.model.GetQueueUrlResult;
 import com.amazonaws.services.sqs.model.QueueDoesNotExistException;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
 
 import org.finra.dm.dao.SqsOperations;
 
 public class SqsOperationsImpl implements SqsOperations
 {
+    /**
+     * The maximum number of messages in a SQS batch send.
+     */
+    private static final int MAX_MESSAGES_PER_BATCH = 10;
+
+    /**
+     * The maximum total size in bytes of the messages in a SQS batch send.
+     */
+    private static final int MAX_BYTES_PER_BATCH = 256 * 1024;
+
     @Override
     public void sendSqsTextMessage(ClientConfiguration clientConfiguration, String queueName, String messageText)
     {
@@ -38,4 +56,69 @@ public class SqsOperationsImpl implements SqsOperations
             throw new IllegalStateException(String.format("AWS SQS queue with \"%s\" name not found.", queueName), ex);
         }
     }
+
+    @Override
+    public List<BatchResultErrorEntry> sendSqsTextMessages(ClientConfiguration clientConfiguration, String queueName, List<String> messageTexts)
+    {
+        try
+        {
+            AmazonSQSClient amazonSQSClient = new AmazonSQSClient(clientConfiguration);
+            String queueUrl = amazonSQSClient.getQueueUrl(queueName).getQueueUrl();
+
+            List<BatchResultErrorEntry> failedEntries = new ArrayList<>();
+            List<SendMessageBatchRequestEntry> entries = new ArrayList<>();
+            int batchBytes = 0;
+            for (int i = 0; i < messageTexts.size(); i++)
+            {
+                int messageBytes = messageTexts.get(i).getBytes(StandardCharsets.UTF_8).length;
+                if (!entries.isEmpty() && (entries.size() >= MAX_MESSAGES_PER_BATCH || batchBytes + messageBytes > MAX_BYTES_PER_BATCH))
+                {
+                    failedEntries.addAll(sendSqsMessageBatch(amazonSQSClient, queueUrl, entries));
+                    entries = new ArrayList<>();
+                    batchBytes = 0;
+                }
+                entries.add(new SendMessageBatchRequestEntry(String.valueOf(i), messageTexts.get(i)));
+                batchBytes += messageBytes;
+            }
+            if (!entries.isEmpty())
+            {
+                failedEntries.addAll(sendSqsMessageBatch(amazonSQSClient, queueUrl, entries));
+            }
+
+            return failedEntries;
+        }
+        catch (QueueDoesNotExistException ex)
+        {
+            throw new IllegalStateException(String.format("AWS SQS queue with \"%s\" name not found.", queueName), ex);
+        }
+    }
+
+    /**
+     * Sends a batch of messages. When the whole batch is rejected, every entry of the batch is reported as failed, so the messages of the other batches are
+     * not affected.
+     *
+     * @param amazonSQSClient the SQS client
+     * @param queueUrl the queue URL
+     * @param entries the batch entries
+     *
+     * @return the entries that failed to be sent
+     */
+    private List<BatchResultErrorEntry> sendSqsMessageBatch(AmazonSQSClient amazonSQSClient, String queueUrl, List<SendMessageBatchRequestEntry> entries)
+    {
+        try
+        {
+            return amazonSQSClient.sendMessageBatch(new SendMessageBatchRequest(queueUrl, entries)).getFailed();
+        }
+        catch (AmazonServiceException ex)
+        {
+            List<BatchResultErrorEntry> failedEntries = new ArrayList<>();
+            for (SendMessageBatchRequestEntry entry : entries)
+            {
+                failedEntries.add(
+                    new BatchResultErrorEntry().withId(entry.getId()).withSenderFault(ex.getErrorType() == AmazonServiceException.ErrorType.Client)
+                        .withCode(ex.getErrorCode()).withMessage(ex.getErrorMessage()));
+            }
+            return failedEntries;
+        }
+    }
 }
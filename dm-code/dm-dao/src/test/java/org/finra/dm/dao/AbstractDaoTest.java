@@ -1077,7 +1077,9 @@ public abstract class AbstractDaoTest extends AbstractCoreTest
         businessObjectDataEntity.setBusinessObjectFormat(businessObjectFormatEntity);
         businessObjectDataEntity.setLatestVersion(businessObjectDataLatestVersion);
         businessObjectDataEntity.setStatus(businessObjectDataStatusEntity);
-        return dmDao.saveAndRefresh(businessObjectDataEntity);
+        businessObjectDataEntity = dmDao.saveAndRefresh(businessObjectDataEntity);
+        dmDao.updateBusinessObjectDataLatestVersionFlags(businessObjectDataEntity);
+        return businessObjectDataEntity;
     }
 
     /**
@@ -1275,7 +1277,9 @@ public abstract class AbstractDaoTest extends AbstractCoreTest
         storageUnitEntity.setStorage(storageEntity);
         storageUnitEntity.setBusinessObjectData(businessObjectDataEntity);
         storageUnitEntity.setDirectoryPath(directoryPath);
-        return dmDao.saveAndRefresh(storageUnitEntity);
+        storageUnitEntity = dmDao.saveAndRefresh(storageUnitEntity);
+        dmDao.updateBusinessObjectDataLatestVersionFlags(businessObjectDataEntity);
+        return storageUnitEntity;
     }
 
     /**
@@ -0,0 +1,55 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+/**
+ * This class tests the functionality of CacheKeyGenerator.
+ */
+public class CacheKeyGeneratorTest
+{
+    private CacheKeyGenerator cacheKeyGenerator = new CacheKeyGenerator();
+
+    @Test
+    public void testGenerate() throws Exception
+    {
+        Method method = DmDao.class.getMethod("getSecurityFunctionsForRole", String.class);
+
+        // Keys generated for the same method and the same parameters are equal.
+        Object key = cacheKeyGenerator.generate(this, method, "TEST_ROLE");
+        assertEquals(key, cacheKeyGenerator.generate(this, method, "TEST_ROLE"));
+        assertEquals(key.hashCode(), cacheKeyGenerator.generate(this, method, "TEST_ROLE").hashCode());
+
+        // Keys generated for different parameters are not equal.
+        assertNotEquals(key, cacheKeyGenerator.generate(this, method, "TEST_ROLE_2"));
+        assertNotEquals(key, cacheKeyGenerator.generate(this, method, (Object) null));
+    }
+
+    @Test
+    public void testGenerateDifferentMethods() throws Exception
+    {
+        // Keys generated for different methods without parameters are not equal.
+        Object key = cacheKeyGenerator.generate(this, DmDao.class.getMethod("getSecurityFunctions"));
+        assertNotEquals(key, cacheKeyGenerator.generate(this, DmDao.class.getMethod("getNamespaces")));
+        assertEquals(key, cacheKeyGenerator.generate(this, DmDao.class.getMethod("getSecurityFunctions")));
+    }
+}
@@ -16,6 +16,7 @@
 package org.finra.dm.dao;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -27,10 +28,16 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
+import org.hibernate.Hibernate;
+import org.hibernate.stat.Statistics;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +45,8 @@ import org.springframework.cache.CacheManager;
 
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.dao.impl.DmDaoImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.dto.JmsMessageQueueStatisticsDto;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataNotificationRegistrationEntity;
 import org.finra.dm.model.jpa.BusinessObjectDataStatusEntity;
@@ -84,6 +93,9 @@ public class DmDaoTest extends AbstractDaoTest
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private Statistics hibernateStatistics;
+
     @Before
     @Override
     public void setup() throws Exception
@@ -728,6 +740,34 @@ public class DmDaoTest extends AbstractDaoTest
         }
     }
 
+    // BusinessObjectDataStatus
+
+    @Test
+    public void testGetBusinessObjectDataStatusByCodeCached()
+    {
+        // Turn on the Hibernate statistics, since they are not collected by default.
+        boolean statisticsEnabled = hibernateStatistics.isStatisticsEnabled();
+        hibernateStatistics.setStatisticsEnabled(true);
+
+        try
+        {
+            // Retrieve the business object data status entity, so the lookup result gets cached.
+            BusinessObjectDataStatusEntity businessObjectDataStatusEntity = dmDao.getBusinessObjectDataStatusByCode(BusinessObjectDataStatusEntity.VALID);
+            assertNotNull(businessObjectDataStatusEntity);
+
+            // Retrieve the business object data status entity again and validate that the database was not hit.
+            hibernateStatistics.clear();
+            assertEquals(businessObjectDataStatusEntity, dmDao.getBusinessObjectDataStatusByCode(BusinessObjectDataStatusEntity.VALID.toLowerCase()));
+            assertEquals(1, hibernateStatistics.getQueryCacheHitCount());
+            assertEquals(0, hibernateStatistics.getQueryExecutionCount());
+            assertEquals(0, hibernateStatistics.getPrepareStatementCount());
+        }
+        finally
+        {
+            hibernateStatistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
     // BusinessObjectData
 
     @Test
@@ -849,6 +889,70 @@ public class DmDaoTest extends AbstractDaoTest
         assertEquals(INITIAL_DATA_VERSION, resultBusinessObjectDataEntity.getVersion());
     }
 
+    @Test
+    public void testGetBusinessObjectDataByAltKeyAndStatusLatestVersionHasAnotherStatus()
+    {
+        // Create two business object data versions with the latest version having a different status.
+        BusinessObjectDataEntity initialVersionBusinessObjectDataEntity =
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE,
+                SUBPARTITION_VALUES, INITIAL_DATA_VERSION, false, BDATA_STATUS);
+        BusinessObjectDataEntity latestVersionBusinessObjectDataEntity =
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE,
+                SUBPARTITION_VALUES, SECOND_DATA_VERSION, true, BDATA_STATUS_2);
+
+        // Get the business object data by key and each of the business object data statuses without specifying business object data version.
+        BusinessObjectDataKey businessObjectDataKey =
+            new BusinessObjectDataKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE, SUBPARTITION_VALUES,
+                null);
+        assertEquals(initialVersionBusinessObjectDataEntity, dmDao.getBusinessObjectDataByAltKeyAndStatus(businessObjectDataKey, BDATA_STATUS));
+        assertEquals(latestVersionBusinessObjectDataEntity, dmDao.getBusinessObjectDataByAltKeyAndStatus(businessObjectDataKey, BDATA_STATUS_2));
+
+        // Get the business object data by key without specifying business object data version and business object data status.
+        assertEquals(latestVersionBusinessObjectDataEntity, dmDao.getBusinessObjectDataByAltKeyAndStatus(businessObjectDataKey, null));
+    }
+
+    @Test
+    public void testUpdateBusinessObjectDataLatestVersionFlags()
+    {
+        // Create two business object data versions with the same status and storage units for both of them in the test storage.
+        List<BusinessObjectDataEntity> businessObjectDataEntities = Arrays.asList(
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE,
+                SUBPARTITION_VALUES, INITIAL_DATA_VERSION, false, BDATA_STATUS),
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE,
+                SUBPARTITION_VALUES, SECOND_DATA_VERSION, true, BDATA_STATUS));
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        List<StorageUnitEntity> storageUnitEntities = Arrays.asList(createStorageUnitEntity(storageEntity, businessObjectDataEntities.get(0)),
+            createStorageUnitEntity(storageEntity, businessObjectDataEntities.get(1)));
+
+        // Validate that only the second version is flagged as the latest one.
+        assertFalse(businessObjectDataEntities.get(0).getLatestStatusVersion());
+        assertTrue(businessObjectDataEntities.get(1).getLatestStatusVersion());
+        assertFalse(storageUnitEntities.get(0).getLatestVersion());
+        assertFalse(storageUnitEntities.get(0).getLatestStatusVersion());
+        assertTrue(storageUnitEntities.get(1).getLatestVersion());
+        assertTrue(storageUnitEntities.get(1).getLatestStatusVersion());
+
+        // Change the status of the second version and update the latest version flags.
+        businessObjectDataEntities.get(1).setStatus(createBusinessObjectDataStatusEntity(BDATA_STATUS_2));
+        dmDao.saveAndRefresh(businessObjectDataEntities.get(1));
+        dmDao.updateBusinessObjectDataLatestVersionFlags(businessObjectDataEntities.get(1));
+
+        // Validate that both versions are now the latest one for their status, while the second version is still the latest one in the storage.
+        assertTrue(businessObjectDataEntities.get(0).getLatestStatusVersion());
+        assertTrue(businessObjectDataEntities.get(1).getLatestStatusVersion());
+        assertFalse(storageUnitEntities.get(0).getLatestVersion());
+        assertTrue(storageUnitEntities.get(0).getLatestStatusVersion());
+        assertTrue(storageUnitEntities.get(1).getLatestVersion());
+        assertTrue(storageUnitEntities.get(1).getLatestStatusVersion());
+
+        // Validate that the lookups select the versions by the updated flags.
+        BusinessObjectDataKey businessObjectDataKey =
+            new BusinessObjectDataKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE, SUBPARTITION_VALUES,
+                null);
+        assertEquals(businessObjectDataEntities.get(0), dmDao.getBusinessObjectDataByAltKeyAndStatus(businessObjectDataKey, BDATA_STATUS));
+        assertEquals(businessObjectDataEntities.get(1), dmDao.getBusinessObjectDataByAltKeyAndStatus(businessObjectDataKey, BDATA_STATUS_2));
+    }
+
     @Test
     public void testGetBusinessObjectDataMaxVersion()
     {
@@ -1008,6 +1112,53 @@ public class DmDaoTest extends AbstractDaoTest
         }
     }
 
+    @Test
+    public void testGetBusinessObjectDataEntitiesBatchFetchesAssociations()
+    {
+        // Create several business object data entities, each with a storage unit that has storage files.
+        BusinessObjectFormatEntity businessObjectFormatEntity =
+            createBusinessObjectFormatEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, FORMAT_DESCRIPTION, true,
+                PARTITION_KEY);
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        List<List<String>> partitionFilters = new ArrayList<>();
+        for (String partitionValue : Arrays.asList(PARTITION_VALUE, PARTITION_VALUE_2, PARTITION_VALUE_3))
+        {
+            StorageUnitEntity storageUnitEntity = createStorageUnitEntity(storageEntity,
+                createBusinessObjectDataEntity(businessObjectFormatEntity, partitionValue, DATA_VERSION, true, BusinessObjectDataStatusEntity.VALID));
+            for (String filePath : LOCAL_FILES)
+            {
+                createStorageFileEntity(storageUnitEntity, partitionValue + "/" + filePath, FILE_SIZE_1_KB, ROW_COUNT_1000);
+            }
+            partitionFilters.add(Arrays.asList(partitionValue, null, null, null, null));
+        }
+
+        // Clear the persistence context, so the business object data entities are loaded from the database with uninitialized associations.
+        entityManager.flush();
+        entityManager.clear();
+        List<BusinessObjectDataEntity> businessObjectDataEntities = dmDao.getBusinessObjectDataEntities(
+            new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION), partitionFilters, null, null,
+            STORAGE_NAME);
+        assertEquals(partitionFilters.size(), businessObjectDataEntities.size());
+        for (BusinessObjectDataEntity businessObjectDataEntity : businessObjectDataEntities)
+        {
+            assertFalse(Hibernate.isInitialized(businessObjectDataEntity.getStorageUnits()));
+        }
+
+        // Initialize the storage units of the first business object data and validate that the storage units of the others were fetched in the same batch.
+        assertEquals(1, businessObjectDataEntities.get(0).getStorageUnits().size());
+        for (BusinessObjectDataEntity businessObjectDataEntity : businessObjectDataEntities)
+        {
+            assertTrue(Hibernate.isInitialized(businessObjectDataEntity.getStorageUnits()));
+        }
+
+        // Initialize the storage files of the first storage unit and validate that the storage files of the other storage units were fetched in the same batch.
+        assertEquals(LOCAL_FILES.size(), businessObjectDataEntities.get(0).getStorageUnits().iterator().next().getStorageFiles().size());
+        for (BusinessObjectDataEntity businessObjectDataEntity : businessObjectDataEntities)
+        {
+            assertTrue(Hibernate.isInitialized(businessObjectDataEntity.getStorageUnits().iterator().next().getStorageFiles()));
+        }
+    }
+
     @Test
     public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorage()
     {
@@ -1079,6 +1230,256 @@ public class DmDaoTest extends AbstractDaoTest
         assertTrue(resultBusinessObjectDataEntities5.isEmpty());
     }
 
+    @Test
+    public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorageLatestVersionHasAnotherStatus()
+    {
+        // Create a business object format entity.
+        BusinessObjectFormatKey businessObjectFormatKey =
+            new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION);
+        BusinessObjectFormatEntity businessObjectFormatEntity =
+            createBusinessObjectFormatEntity(businessObjectFormatKey, FORMAT_DESCRIPTION, true, PARTITION_KEY);
+
+        // Create two versions of business object data instances with the latest version having a different status.
+        List<BusinessObjectDataEntity> businessObjectDataEntities = Arrays
+            .asList(createBusinessObjectDataEntity(businessObjectFormatEntity, PARTITION_VALUE, INITIAL_DATA_VERSION, false, BDATA_STATUS),
+                createBusinessObjectDataEntity(businessObjectFormatEntity, PARTITION_VALUE, SECOND_DATA_VERSION, true, BDATA_STATUS_2));
+
+        // Create a storage instance and storage units for both business object data versions.
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        for (BusinessObjectDataEntity businessObjectDataEntity : businessObjectDataEntities)
+        {
+            createStorageUnitEntity(storageEntity, businessObjectDataEntity);
+        }
+
+        List<List<String>> partitionFilters = Arrays.asList(Arrays.asList(PARTITION_VALUE, null, null, null, null));
+
+        // Validate that the latest business object data version with the specified status is selected.
+        assertEquals(Arrays.asList(businessObjectDataEntities.get(0)),
+            dmDao.getBusinessObjectDataEntities(businessObjectFormatKey, partitionFilters, null, BDATA_STATUS, STORAGE_NAME));
+        assertEquals(Arrays.asList(businessObjectDataEntities.get(1)),
+            dmDao.getBusinessObjectDataEntities(businessObjectFormatKey, partitionFilters, null, BDATA_STATUS_2, STORAGE_NAME));
+
+        // Validate that the latest business object data version is selected when the status is not specified.
+        assertEquals(Arrays.asList(businessObjectDataEntities.get(1)),
+            dmDao.getBusinessObjectDataEntities(businessObjectFormatKey, partitionFilters, null, null, STORAGE_NAME));
+    }
+
+    @Test
+    public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorageBulkLookupDisabled() throws Exception
+    {
+        // Create database entities required for testing.
+        createDatabaseEntitiesForBusinessObjectDataAvailabilityTesting(null, new ArrayList<SchemaColumn>(), new ArrayList<SchemaColumn>(),
+            BusinessObjectDataEntity.FIRST_PARTITION_COLUMN_POSITION, SUBPARTITION_VALUES);
+
+        // Build a list of partition filters, large enough to cause executing the select queries in chunks.
+        List<List<String>> partitionFilters = new ArrayList<>();
+        for (int i = 0; i < DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST; i++)
+        {
+            partitionFilters.add(Arrays.asList(String.format("%s-%s", PARTITION_VALUE, i), null, null, null, null));
+        }
+        for (String partitionValue : UNSORTED_PARTITION_VALUES)
+        {
+            partitionFilters.add(Arrays.asList(partitionValue, null, null, null, null));
+        }
+
+        // Retrieve the available business object data using the bulk lookup.
+        BusinessObjectFormatKey businessObjectFormatKey = new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, null);
+        List<BusinessObjectDataEntity> bulkLookupBusinessObjectDataEntities =
+            dmDao.getBusinessObjectDataEntities(businessObjectFormatKey, partitionFilters, null, BusinessObjectDataStatusEntity.VALID, STORAGE_NAME);
+
+        // Disable the bulk lookup.
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.BUSINESS_OBJECT_DATA_PARTITION_FILTERS_BULK_LOOKUP_ENABLED.getKey(), "false");
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // Retrieve the available business object data by chunks of partition filters.
+            List<BusinessObjectDataEntity> chunkedLookupBusinessObjectDataEntities =
+                dmDao.getBusinessObjectDataEntities(businessObjectFormatKey, partitionFilters, null, BusinessObjectDataStatusEntity.VALID, STORAGE_NAME);
+
+            // Validate that both lookups return the same results in the same order.
+            assertTrue(chunkedLookupBusinessObjectDataEntities.size() > 0);
+            assertEquals(chunkedLookupBusinessObjectDataEntities, bulkLookupBusinessObjectDataEntities);
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorageBulkLookupSparsePartitionFilters() throws Exception
+    {
+        // Create a format with business object data registered for a contiguous range of partition values.
+        BusinessObjectFormatEntity businessObjectFormatEntity =
+            createBusinessObjectFormatEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, FORMAT_DESCRIPTION,
+                true, PARTITION_KEY);
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        for (int i = 0; i < DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST * 2; i++)
+        {
+            createStorageUnitEntity(storageEntity, createBusinessObjectDataEntity(businessObjectFormatEntity, String.format("%s-%03d", PARTITION_VALUE, i),
+                INITIAL_DATA_VERSION, true, BusinessObjectDataStatusEntity.VALID));
+        }
+
+        // Build a list of partition filters that only selects the first and the last registered partitions, padded with partition values that are not
+        // registered and sort outside of the registered range.
+        List<List<String>> partitionFilters = new ArrayList<>();
+        partitionFilters.add(Arrays.asList(String.format("%s-%03d", PARTITION_VALUE, 0), null, null, null, null));
+        partitionFilters.add(Arrays.asList(String.format("%s-%03d", PARTITION_VALUE, DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST * 2 - 1), null, null, null,
+            null));
+        for (int i = 0; i < DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST; i++)
+        {
+            partitionFilters.add(Arrays.asList(String.format("%s-%03d", PARTITION_VALUE_2, i), null, null, null, null));
+        }
+
+        // Validate that only the selected partitions are returned and that the bulk lookup matches the chunked lookup.
+        List<BusinessObjectDataEntity> businessObjectDataEntities = getBusinessObjectDataEntitiesUsingBulkAndChunkedLookups(
+            new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION), partitionFilters);
+        assertEquals(2, businessObjectDataEntities.size());
+        assertEquals(String.format("%s-%03d", PARTITION_VALUE, 0), businessObjectDataEntities.get(0).getPartitionValue());
+        assertEquals(String.format("%s-%03d", PARTITION_VALUE, DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST * 2 - 1),
+            businessObjectDataEntities.get(1).getPartitionValue());
+    }
+
+    @Test
+    public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorageBulkLookupMultipleDataVersions() throws Exception
+    {
+        // Create a format with business object data registered for a range of partition values, with a second data version for every other partition value.
+        BusinessObjectFormatEntity businessObjectFormatEntity =
+            createBusinessObjectFormatEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, FORMAT_DESCRIPTION,
+                true, PARTITION_KEY);
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        List<List<String>> partitionFilters = new ArrayList<>();
+        for (int i = 0; i < DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST * 2; i++)
+        {
+            String partitionValue = String.format("%s-%03d", PARTITION_VALUE, i);
+            createStorageUnitEntity(storageEntity,
+                createBusinessObjectDataEntity(businessObjectFormatEntity, partitionValue, INITIAL_DATA_VERSION, i % 2 != 0,
+                    BusinessObjectDataStatusEntity.VALID));
+            if (i % 2 == 0)
+            {
+                createStorageUnitEntity(storageEntity, createBusinessObjectDataEntity(businessObjectFormatEntity, partitionValue, SECOND_DATA_VERSION, true,
+                    BusinessObjectDataStatusEntity.VALID));
+            }
+            partitionFilters.add(Arrays.asList(partitionValue, null, null, null, null));
+        }
+
+        // Validate that only the latest data version is returned for each partition value and that the bulk lookup matches the chunked lookup.
+        List<BusinessObjectDataEntity> businessObjectDataEntities = getBusinessObjectDataEntitiesUsingBulkAndChunkedLookups(
+            new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, null), partitionFilters);
+        assertEquals(partitionFilters.size(), businessObjectDataEntities.size());
+        for (BusinessObjectDataEntity businessObjectDataEntity : businessObjectDataEntities)
+        {
+            int partitionIndex = Integer.parseInt(businessObjectDataEntity.getPartitionValue().substring(PARTITION_VALUE.length() + 1));
+            assertEquals(partitionIndex % 2 == 0 ? SECOND_DATA_VERSION : INITIAL_DATA_VERSION, businessObjectDataEntity.getVersion());
+        }
+    }
+
+    @Test
+    public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorageBulkLookupMixedCasePartitionFilters() throws Exception
+    {
+        // Create a format with business object data registered for partition values that differ only in case, so their order depends on the collation.
+        BusinessObjectFormatEntity businessObjectFormatEntity =
+            createBusinessObjectFormatEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, FORMAT_DESCRIPTION,
+                true, PARTITION_KEY);
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        for (String partitionValue : Arrays.asList("a", "A", "B", "b", "c", "C"))
+        {
+            createStorageUnitEntity(storageEntity,
+                createBusinessObjectDataEntity(businessObjectFormatEntity, partitionValue, INITIAL_DATA_VERSION, true, BusinessObjectDataStatusEntity.VALID));
+        }
+
+        // Build a list of partition filters that selects one case of each partition value, padded with partition values that are not registered.
+        List<List<String>> partitionFilters = new ArrayList<>();
+        for (String partitionValue : Arrays.asList("a", "B", "c"))
+        {
+            partitionFilters.add(Arrays.asList(partitionValue, null, null, null, null));
+        }
+        for (int i = 0; i < DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST; i++)
+        {
+            partitionFilters.add(Arrays.asList(String.format("%s-%03d", PARTITION_VALUE, i), null, null, null, null));
+        }
+
+        // Validate that partition values are matched exactly and that the bulk lookup matches the chunked lookup.
+        List<BusinessObjectDataEntity> businessObjectDataEntities = getBusinessObjectDataEntitiesUsingBulkAndChunkedLookups(
+            new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION), partitionFilters);
+        List<String> actualPartitionValues = new ArrayList<>();
+        for (BusinessObjectDataEntity businessObjectDataEntity : businessObjectDataEntities)
+        {
+            actualPartitionValues.add(businessObjectDataEntity.getPartitionValue());
+        }
+        Collections.sort(actualPartitionValues);
+        assertEquals(Arrays.asList("B", "a", "c"), actualPartitionValues);
+    }
+
+    @Test
+    public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorageBulkLookupMixedCaseSubPartitionFilters() throws Exception
+    {
+        // Create a format with business object data registered for sub-partition values that differ only in case.
+        BusinessObjectFormatEntity businessObjectFormatEntity =
+            createBusinessObjectFormatEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, FORMAT_DESCRIPTION,
+                true, PARTITION_KEY);
+        StorageEntity storageEntity = createStorageEntity(STORAGE_NAME);
+        for (List<String> subPartitionValues : Arrays.asList(Arrays.asList("x", "Y", null, null), Arrays.asList("X", "y", null, null)))
+        {
+            createStorageUnitEntity(storageEntity,
+                createBusinessObjectDataEntity(businessObjectFormatEntity, PARTITION_VALUE, subPartitionValues, INITIAL_DATA_VERSION, true,
+                    BusinessObjectDataStatusEntity.VALID));
+        }
+
+        // Build a list of partition filters that selects only one of the registered sub-partitions, padded with partition values that are not registered.
+        List<List<String>> partitionFilters = new ArrayList<>();
+        partitionFilters.add(Arrays.asList(PARTITION_VALUE, "x", "Y", null, null));
+        for (int i = 0; i < DmDaoImpl.MAX_PARTITION_FILTERS_PER_REQUEST; i++)
+        {
+            partitionFilters.add(Arrays.asList(String.format("%s-%03d", PARTITION_VALUE_2, i), null, null, null, null));
+        }
+
+        // Validate that sub-partition values are matched exactly and that the bulk lookup matches the chunked lookup.
+        List<BusinessObjectDataEntity> businessObjectDataEntities = getBusinessObjectDataEntitiesUsingBulkAndChunkedLookups(
+            new BusinessObjectFormatKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION), partitionFilters);
+        assertEquals(1, businessObjectDataEntities.size());
+        assertEquals("x", businessObjectDataEntities.get(0).getPartitionValue2());
+        assertEquals("Y", businessObjectDataEntities.get(0).getPartitionValue3());
+    }
+
+    /**
+     * Retrieves the available business object data using the bulk lookup and validates that the chunked lookup returns the same business object data.
+     *
+     * @param businessObjectFormatKey the business object format key
+     * @param partitionFilters the list of partition filters
+     *
+     * @return the list of business object data entities returned by the bulk lookup
+     * @throws Exception if the environment property source could not be modified
+     */
+    private List<BusinessObjectDataEntity> getBusinessObjectDataEntitiesUsingBulkAndChunkedLookups(BusinessObjectFormatKey businessObjectFormatKey,
+        List<List<String>> partitionFilters) throws Exception
+    {
+        // Retrieve the available business object data using the bulk lookup.
+        List<BusinessObjectDataEntity> bulkLookupBusinessObjectDataEntities =
+            dmDao.getBusinessObjectDataEntities(businessObjectFormatKey, partitionFilters, null, BusinessObjectDataStatusEntity.VALID, STORAGE_NAME);
+
+        // Disable the bulk lookup.
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.BUSINESS_OBJECT_DATA_PARTITION_FILTERS_BULK_LOOKUP_ENABLED.getKey(), "false");
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // Retrieve the available business object data by chunks of partition filters and validate that both lookups return the same results.
+            List<BusinessObjectDataEntity> chunkedLookupBusinessObjectDataEntities =
+                dmDao.getBusinessObjectDataEntities(businessObjectFormatKey, partitionFilters, null, BusinessObjectDataStatusEntity.VALID, STORAGE_NAME);
+            assertEquals(new HashSet<>(chunkedLookupBusinessObjectDataEntities), new HashSet<>(bulkLookupBusinessObjectDataEntities));
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+
+        return bulkLookupBusinessObjectDataEntities;
+    }
+
     @Test
     public void testGetBusinessObjectDataEntitiesByPartitionFiltersAndStorageOlderFormatVersionHasNewerDataVersion()
     {
@@ -1332,6 +1733,68 @@ public class DmDaoTest extends AbstractDaoTest
         assertNull(dmDao.getStorageFileByStorageNameAndFilePath(StorageEntity.MANAGED_STORAGE, "I_DO_NOT_EXIST"));
     }
 
+    @Test
+    public void testGetStorageFilesByStorageNameAndFilePaths()
+    {
+        // Create relative database entities.
+        BusinessObjectDataEntity businessObjectDataEntity =
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, PARTITION_VALUE,
+                SUBPARTITION_VALUES, INITIAL_DATA_VERSION, true, BDATA_STATUS);
+        StorageEntity storageEntity = dmDao.getStorageByName(StorageEntity.MANAGED_STORAGE);
+        StorageUnitEntity storageUnitEntity = createStorageUnitEntity(storageEntity, businessObjectDataEntity);
+
+        for (String file : LOCAL_FILES)
+        {
+            createStorageFileEntity(storageUnitEntity, file, FILE_SIZE_1_KB, ROW_COUNT_1000);
+        }
+
+        // Retrieve the relative storage file entities along with a file path that is not registered and validate the results.
+        List<String> filePaths = new ArrayList<>(LOCAL_FILES);
+        filePaths.add("I_DO_NOT_EXIST");
+        List<StorageFileEntity> storageFileEntities = dmDao.getStorageFilesByStorageNameAndFilePaths(StorageEntity.MANAGED_STORAGE, filePaths);
+        assertEquals(LOCAL_FILES.size(), storageFileEntities.size());
+        for (StorageFileEntity storageFileEntity : storageFileEntities)
+        {
+            assertTrue(LOCAL_FILES.contains(storageFileEntity.getPath()));
+        }
+
+        // Confirm negative results when using wrong input parameters.
+        assertTrue(dmDao.getStorageFilesByStorageNameAndFilePaths("I_DO_NOT_EXIST", LOCAL_FILES).isEmpty());
+        assertTrue(dmDao.getStorageFilesByStorageNameAndFilePaths(StorageEntity.MANAGED_STORAGE, Arrays.asList("I_DO_NOT_EXIST")).isEmpty());
+    }
+
+    @Test
+    public void testGetStorageFilesByStorageNameAndFilePathsMultipleChunks()
+    {
+        // Create relative database entities.
+        BusinessObjectDataEntity businessObjectDataEntity =
+            createBusinessObjectDataEntity(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, INITIAL_FORMAT_VERSION, PARTITION_VALUE,
+                SUBPARTITION_VALUES, INITIAL_DATA_VERSION, true, BDATA_STATUS);
+        StorageEntity storageEntity = dmDao.getStorageByName(StorageEntity.MANAGED_STORAGE);
+        StorageUnitEntity storageUnitEntity = createStorageUnitEntity(storageEntity, businessObjectDataEntity);
+
+        // Request more file paths than fit in a single statement, and register the files at the boundaries of the in clause chunks.
+        List<String> filePaths = new ArrayList<>();
+        for (int i = 0; i <= Short.MAX_VALUE; i++)
+        {
+            filePaths.add(String.format("%s/file%05d.dat", TEST_S3_KEY_PREFIX, i));
+        }
+        List<String> registeredFilePaths = Arrays.asList(filePaths.get(0), filePaths.get(999), filePaths.get(1000), filePaths.get(Short.MAX_VALUE));
+        for (String filePath : registeredFilePaths)
+        {
+            createStorageFileEntity(storageUnitEntity, filePath, FILE_SIZE_1_KB, ROW_COUNT_1000);
+        }
+
+        // Retrieve the storage file entities and validate the results.
+        List<String> resultFilePaths = new ArrayList<>();
+        for (StorageFileEntity storageFileEntity : dmDao.getStorageFilesByStorageNameAndFilePaths(StorageEntity.MANAGED_STORAGE, filePaths))
+        {
+            resultFilePaths.add(storageFileEntity.getPath());
+        }
+        Collections.sort(resultFilePaths);
+        assertEquals(registeredFilePaths, resultFilePaths);
+    }
+
     @Test
     public void testGetStorageFileByStorageNameAndFilePathDuplicateFiles() throws Exception
     {
@@ -1760,7 +2223,7 @@ public class DmDaoTest extends AbstractDaoTest
         assertEquals(functions, functions2);
 
         // Clear the cache and retrieve the functions again.
-        cacheManager.getCache(DaoSpringModuleConfig.DM_CACHE_NAME).clear();
+        cacheManager.getCache(DaoSpringModuleConfig.SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME).clear();
 
         functions2 = dmDao.getSecurityFunctionsForRole("TEST_ROLE");
 
@@ -1784,7 +2247,7 @@ public class DmDaoTest extends AbstractDaoTest
         assertEquals(functions, functions2);
 
         // Clear the cache and retrieve the functions again.
-        cacheManager.getCache(DaoSpringModuleConfig.DM_CACHE_NAME).clear();
+        cacheManager.getCache(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME).clear();
 
         functions2 = dmDao.getSecurityFunctions();
 
@@ -1818,6 +2281,80 @@ public class DmDaoTest extends AbstractDaoTest
         assertNull(oldestJmsMessageEntity);
     }
 
+    @Test
+    public void testClaimOldestJmsMessages() throws Exception
+    {
+        // Prepare database entries required for testing.
+        List<JmsMessageEntity> jmsMessageEntities = Arrays
+            .asList(createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT), createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT_2),
+                createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT_2));
+        Timestamp currentTime = new Timestamp(System.currentTimeMillis());
+        Timestamp leaseExpiration = new Timestamp(currentTime.getTime() + 60000);
+        List<String> orderedJmsQueueNames = new ArrayList<>();
+
+        // Two owners claim disjoint sets of messages.
+        assertEquals(jmsMessageEntities.subList(0, 2), dmDao.claimOldestJmsMessages("owner1", currentTime, leaseExpiration, 2, orderedJmsQueueNames));
+        assertEquals(jmsMessageEntities.subList(2, 3), dmDao.claimOldestJmsMessages("owner2", currentTime, leaseExpiration, 2, orderedJmsQueueNames));
+        assertTrue(dmDao.claimOldestJmsMessages("owner3", currentTime, leaseExpiration, 2, orderedJmsQueueNames).isEmpty());
+
+        // Messages can only be deleted by the owner that claimed them.
+        assertEquals(0, dmDao.deleteClaimedJmsMessages("owner2", Arrays.asList(jmsMessageEntities.get(0).getId())));
+        assertEquals(1, dmDao.deleteClaimedJmsMessages("owner1", Arrays.asList(jmsMessageEntities.get(0).getId())));
+
+        // Once their lease expires, the remaining messages can be claimed by another owner.
+        Timestamp expiredTime = new Timestamp(leaseExpiration.getTime() + 1000);
+        Timestamp newLeaseExpiration = new Timestamp(expiredTime.getTime() + 60000);
+        assertEquals(jmsMessageEntities.subList(1, 3), dmDao.claimOldestJmsMessages("owner3", expiredTime, newLeaseExpiration, 10, orderedJmsQueueNames));
+    }
+
+    @Test
+    public void testClaimOldestJmsMessagesOrderedQueue() throws Exception
+    {
+        // Prepare database entries required for testing.
+        List<JmsMessageEntity> jmsMessageEntities = Arrays
+            .asList(createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT), createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT),
+                createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT_2), createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT_2));
+        Timestamp currentTime = new Timestamp(System.currentTimeMillis());
+        Timestamp leaseExpiration = new Timestamp(currentTime.getTime() + 60000);
+        List<String> orderedJmsQueueNames = Arrays.asList(JMS_QUEUE_NAME);
+
+        // The first owner claims the oldest message of the ordered queue.
+        assertEquals(jmsMessageEntities.subList(0, 1), dmDao.claimOldestJmsMessages("owner1", currentTime, leaseExpiration, 1, orderedJmsQueueNames));
+
+        // The newer message of the ordered queue is not claimed by another owner while the older message is leased.
+        assertEquals(Arrays.asList(jmsMessageEntities.get(1), jmsMessageEntities.get(3)),
+            dmDao.claimOldestJmsMessages("owner2", currentTime, leaseExpiration, 10, orderedJmsQueueNames));
+        assertTrue(dmDao.claimOldestJmsMessages("owner3", currentTime, leaseExpiration, 10, orderedJmsQueueNames).isEmpty());
+
+        // Once the older message is published, the newer message of the ordered queue can be claimed.
+        assertEquals(1, dmDao.deleteClaimedJmsMessages("owner1", Arrays.asList(jmsMessageEntities.get(0).getId())));
+        assertEquals(jmsMessageEntities.subList(2, 3), dmDao.claimOldestJmsMessages("owner3", currentTime, leaseExpiration, 10, orderedJmsQueueNames));
+    }
+
+    @Test
+    public void testGetJmsMessageQueueStatistics() throws Exception
+    {
+        Timestamp currentTime = new Timestamp(System.currentTimeMillis());
+        Timestamp leaseExpiration = new Timestamp(currentTime.getTime() + 60000);
+
+        // Get the statistics of an empty queue.
+        JmsMessageQueueStatisticsDto statistics = dmDao.getJmsMessageQueueStatistics(currentTime);
+        assertEquals(0, statistics.getMessageCount());
+        assertEquals(0, statistics.getLeasedMessageCount());
+        assertNull(statistics.getOldestMessageCreatedOn());
+
+        // Prepare database entries required for testing and lease one message.
+        JmsMessageEntity jmsMessageEntity = createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT_2);
+        dmDao.claimOldestJmsMessages("owner1", currentTime, leaseExpiration, 1, new ArrayList<String>());
+
+        // Get the statistics of the queue.
+        statistics = dmDao.getJmsMessageQueueStatistics(currentTime);
+        assertEquals(2, statistics.getMessageCount());
+        assertEquals(1, statistics.getLeasedMessageCount());
+        assertEquals(jmsMessageEntity.getCreatedOn(), statistics.getOldestMessageCreatedOn());
+    }
+
     // OnDemandPricing
 
     @Test
@@ -16,10 +16,13 @@
 package org.finra.dm.dao;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.commons.configuration.ConfigurationException;
@@ -59,6 +62,9 @@ public class ReloadablePropertySourceTest extends AbstractDaoTest
     // configuration.
     private File propertiesFile;
 
+    // The reloadable property sources created by the test, so their background refresh can be stopped.
+    private List<ReloadablePropertySource> reloadablePropertySources = new ArrayList<>();
+
     @Before
     @Override
     public void setup() throws Exception
@@ -80,6 +86,12 @@ public class ReloadablePropertySourceTest extends AbstractDaoTest
     @After
     public void tearDown() throws Exception
     {
+        // Stop the background refresh of the property sources.
+        for (ReloadablePropertySource reloadablePropertySource : reloadablePropertySources)
+        {
+            reloadablePropertySource.shutdown();
+        }
+
         // Delete the temporary properties file.
         if (propertiesFile != null)
         {
@@ -178,6 +190,55 @@ public class ReloadablePropertySourceTest extends AbstractDaoTest
         verifyPropertySourceValue(reloadablePropertySource, TEST_VALUE_1);
     }
 
+    @Test
+    public void testGetPropertyValueRefreshedInBackground() throws Exception
+    {
+        // Get a reloadable property source that loads properties from the configuration after a configured interval.
+        ReloadablePropertySource reloadablePropertySource = getNewReloadablePropertiesSource(REFRESH_INTERVAL_SECS);
+
+        // Read the value which should be the same as what we placed in initially.
+        verifyPropertySourceValue(reloadablePropertySource, TEST_VALUE_1);
+        assertEquals(0, reloadablePropertySource.getRefreshCount());
+        assertEquals(0, reloadablePropertySource.getLastRefreshDurationMillis());
+        assertEquals(0, reloadablePropertySource.getTotalRefreshDurationMillis());
+
+        // Update the value from value 1 to value 2.
+        updatePropertyToValue2();
+
+        // Wait for the background refresh to pick up the new value without reading the property in the meantime.
+        long timeoutTime = System.currentTimeMillis() + 10 * REFRESH_INTERVAL_SECS * 1000;
+        while (reloadablePropertySource.getRefreshCount() == 0 && System.currentTimeMillis() < timeoutTime)
+        {
+            Thread.sleep(100);
+        }
+
+        // Validate the new value and the refresh metrics.
+        verifyPropertySourceValue(reloadablePropertySource, TEST_VALUE_2);
+        assertTrue(reloadablePropertySource.getRefreshCount() > 0);
+        assertEquals(0, reloadablePropertySource.getRefreshFailureCount());
+        assertTrue(reloadablePropertySource.getLastRefreshDurationMillis() >= 0);
+        assertTrue(reloadablePropertySource.getTotalRefreshDurationMillis() >= reloadablePropertySource.getLastRefreshDurationMillis());
+    }
+
+    @Test
+    public void testGetRefreshDurationMillis() throws Exception
+    {
+        // Get a reloadable property source that loads properties from the configuration every time a property is read.
+        ReloadablePropertySource reloadablePropertySource = getNewReloadablePropertiesSource(0L);
+
+        // Read the value a few times, so the properties get refreshed on every read.
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals(TEST_VALUE_1, reloadablePropertySource.getProperty(TEST_KEY));
+        }
+
+        // Validate that every refresh got counted and that the total duration covers the last one.
+        assertEquals(3, reloadablePropertySource.getRefreshCount());
+        assertEquals(0, reloadablePropertySource.getRefreshFailureCount());
+        assertTrue(reloadablePropertySource.getLastRefreshDurationMillis() >= 0);
+        assertTrue(reloadablePropertySource.getTotalRefreshDurationMillis() >= reloadablePropertySource.getLastRefreshDurationMillis());
+    }
+
     @Test
     public void testGetPropertyOverrideWithInvalidRefreshInterval() throws Exception
     {
@@ -243,10 +304,12 @@ public class ReloadablePropertySourceTest extends AbstractDaoTest
      */
     private ReloadablePropertySource getNewReloadablePropertiesSource(Long refreshIntervalSecs) throws ConfigurationException
     {
-        return (refreshIntervalSecs == null ?
+        ReloadablePropertySource reloadablePropertySource = (refreshIntervalSecs == null ?
             new ReloadablePropertySource(ReloadablePropertySource.class.getName(), cloneProperties(properties), getNewPropertiesConfiguration()) :
             new ReloadablePropertySource(ReloadablePropertySource.class.getName(), cloneProperties(properties), getNewPropertiesConfiguration(),
                 refreshIntervalSecs));
+        reloadablePropertySources.add(reloadablePropertySource);
+        return reloadablePropertySource;
     }
 
     /**
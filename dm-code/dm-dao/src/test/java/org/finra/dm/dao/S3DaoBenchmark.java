@@ -0,0 +1,415 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.finra.dm.dao.impl.S3DaoImpl;
+import org.finra.dm.dao.impl.SimulatedS3OperationsImpl;
+import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
+import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
+import org.finra.dm.model.api.xml.StorageFile;
+
+/**
+ * Measures the listing, upload, copy and delete performance of {@link S3DaoImpl} against the in-process {@link SimulatedS3OperationsImpl}, so S3 path
+ * optimizations can be measured offline. This is not a unit test. Run the main method with the following optional system properties:
+ * <dl>
+ * <dt>benchmark.keyCount</dt>
+ * <dd>The number of keys to upload, list, copy and delete. Defaults to 100000.</dd>
+ * <dt>benchmark.directoryCount</dt>
+ * <dd>The number of sub-directories the keys are spread over. Defaults to 100.</dd>
+ * <dt>benchmark.objectSizeBytes</dt>
+ * <dd>The size of each object. Defaults to 100 bytes.</dd>
+ * <dt>benchmark.threads</dt>
+ * <dd>The number of transfer threads of the DAO and the number of concurrent copies. Defaults to 10.</dd>
+ * <dt>benchmark.requestLatencyMillis, benchmark.bytesPerSecond, benchmark.maxRequestsPerSecond, benchmark.maxKeysPerListing</dt>
+ * <dd>The simulated S3 settings. They default to 5 ms of latency, unlimited bandwidth, no throttling and 1000 keys per listing.</dd>
+ * </dl>
+ */
+public class S3DaoBenchmark
+{
+    private static final Logger LOGGER = Logger.getLogger(S3DaoBenchmark.class);
+
+    public static final String SOURCE_BUCKET_NAME = "dm-benchmark-source-bucket";
+
+    public static final String TARGET_BUCKET_NAME = "dm-benchmark-target-bucket";
+
+    public static final String KEY_PREFIX = "benchmark";
+
+    public static final String KMS_KEY_ID = "dm-benchmark-kms-key-id";
+
+    private final SimulatedS3OperationsImpl s3Operations;
+
+    private final S3DaoImpl s3Dao = new S3DaoImpl();
+
+    private int keyCount = 100000;
+
+    private int directoryCount = 100;
+
+    private int objectSizeBytes = 100;
+
+    private int threads = 10;
+
+    /**
+     * Creates a benchmark that drives a new S3 DAO backed by the specified simulated S3.
+     *
+     * @param s3Operations the simulated S3
+     */
+    public S3DaoBenchmark(SimulatedS3OperationsImpl s3Operations)
+    {
+        this.s3Operations = s3Operations;
+        ReflectionTestUtils.setField(s3Dao, "s3Operations", s3Operations);
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        SimulatedS3OperationsImpl s3Operations = new SimulatedS3OperationsImpl(Integer.getInteger("benchmark.threads", 10));
+        s3Operations.setRequestLatencyMillis(Long.getLong("benchmark.requestLatencyMillis", 5));
+        s3Operations.setBytesPerSecond(Long.getLong("benchmark.bytesPerSecond", 0));
+        s3Operations.setMaxRequestsPerSecond(Integer.getInteger("benchmark.maxRequestsPerSecond", 0));
+        s3Operations.setMaxKeysPerListing(Integer.getInteger("benchmark.maxKeysPerListing", 1000));
+
+        S3DaoBenchmark s3DaoBenchmark = new S3DaoBenchmark(s3Operations);
+        s3DaoBenchmark.setKeyCount(Integer.getInteger("benchmark.keyCount", 100000));
+        s3DaoBenchmark.setDirectoryCount(Integer.getInteger("benchmark.directoryCount", 100));
+        s3DaoBenchmark.setObjectSizeBytes(Integer.getInteger("benchmark.objectSizeBytes", 100));
+        s3DaoBenchmark.setThreads(Integer.getInteger("benchmark.threads", 10));
+
+        // The DAO logs every uploaded file at the info level, which would dominate the measurements.
+        Logger.getLogger(S3DaoImpl.class).setLevel(Level.WARN);
+
+        Path localPath = Files.createTempDirectory("dm-s3-dao-benchmark");
+        try
+        {
+            for (Result result : s3DaoBenchmark.run(localPath))
+            {
+                LOGGER.info(result);
+            }
+            LOGGER.info("S3 transfer metrics: " + s3DaoBenchmark.s3Dao.getTransferMetrics());
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(localPath.toFile());
+            s3DaoBenchmark.shutdown();
+            s3Operations.shutdown();
+        }
+    }
+
+    public void setKeyCount(int keyCount)
+    {
+        this.keyCount = keyCount;
+    }
+
+    public void setDirectoryCount(int directoryCount)
+    {
+        this.directoryCount = directoryCount;
+    }
+
+    public void setObjectSizeBytes(int objectSizeBytes)
+    {
+        this.objectSizeBytes = objectSizeBytes;
+    }
+
+    public void setThreads(int threads)
+    {
+        this.threads = threads;
+    }
+
+    /**
+     * Shuts down the S3 DAO used by this benchmark.
+     */
+    public void shutdown()
+    {
+        s3Dao.shutdown();
+    }
+
+    /**
+     * Runs the benchmark. The keys are uploaded from local files, listed, iterated, copied to the target bucket and finally deleted from both buckets.
+     *
+     * @param localPath the empty local directory to create the files to upload in
+     *
+     * @return the results of the benchmarked operations in the order they ran
+     * @throws Exception if an operation fails
+     * @throws IllegalStateException if an operation did not produce the expected number of keys
+     */
+    public List<Result> run(Path localPath) throws Exception
+    {
+        s3Operations.createBucket(SOURCE_BUCKET_NAME);
+        s3Operations.createBucket(TARGET_BUCKET_NAME);
+
+        final List<File> files = createLocalFiles(localPath);
+        final String localDirectory = localPath.toFile().getAbsolutePath();
+
+        List<Result> results = new ArrayList<>();
+
+        results.add(measure("upload", keyCount, new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                S3FileTransferRequestParamsDto params = createParams(SOURCE_BUCKET_NAME);
+                params.setLocalPath(localDirectory);
+                params.setFiles(files);
+                s3Dao.uploadFileList(params);
+                return null;
+            }
+        }));
+        checkObjectCount(SOURCE_BUCKET_NAME, keyCount);
+
+        results.add(measure("list", keyCount, new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                checkCount("listed", keyCount, s3Dao.listDirectory(createParams(SOURCE_BUCKET_NAME)).size());
+                return null;
+            }
+        }));
+
+        final List<String> keys = new ArrayList<>();
+        results.add(measure("iterate", keyCount, new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                Iterator<StorageFile> storageFiles = s3Dao.iterateDirectory(createParams(SOURCE_BUCKET_NAME), false);
+                while (storageFiles.hasNext())
+                {
+                    keys.add(storageFiles.next().getFilePath());
+                }
+                checkCount("iterated", keyCount, keys.size());
+                return null;
+            }
+        }));
+
+        results.add(measure("copy", keyCount, new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                copyKeys(keys);
+                return null;
+            }
+        }));
+        checkObjectCount(TARGET_BUCKET_NAME, keyCount);
+
+        results.add(measure("delete", keyCount * 2L, new Callable<Void>()
+        {
+            @Override
+            public Void call() throws Exception
+            {
+                s3Dao.deleteDirectory(createParams(SOURCE_BUCKET_NAME));
+                s3Dao.deleteDirectory(createParams(TARGET_BUCKET_NAME));
+                return null;
+            }
+        }));
+        checkObjectCount(SOURCE_BUCKET_NAME, 0);
+        checkObjectCount(TARGET_BUCKET_NAME, 0);
+
+        return results;
+    }
+
+    /**
+     * Creates the local files to upload, spread evenly over the sub-directories.
+     *
+     * @param localPath the local directory
+     *
+     * @return the created files
+     * @throws IOException if a file could not be written
+     */
+    private List<File> createLocalFiles(Path localPath) throws IOException
+    {
+        byte[] data = new byte[objectSizeBytes];
+        Arrays.fill(data, (byte) 'x');
+
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < keyCount; i++)
+        {
+            Path directory = localPath.resolve(String.format("dir_%04d", i % directoryCount));
+            Files.createDirectories(directory);
+            files.add(Files.write(directory.resolve(String.format("file_%07d.dat", i)), data).toFile());
+        }
+        return files;
+    }
+
+    /**
+     * Copies the specified keys from the source to the target bucket, one DAO copy per key with the configured number of copies running concurrently.
+     *
+     * @param keys the keys to copy
+     *
+     * @throws Exception if a copy failed
+     */
+    private void copyKeys(List<String> keys) throws Exception
+    {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (final String key : keys)
+            {
+                futures.add(executorService.submit(new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        S3FileCopyRequestParamsDto params = new S3FileCopyRequestParamsDto();
+                        params.setSourceBucketName(SOURCE_BUCKET_NAME);
+                        params.setTargetBucketName(TARGET_BUCKET_NAME);
+                        params.setS3KeyPrefix(key);
+                        params.setKmsKeyId(KMS_KEY_ID);
+                        params.setMaxThreads(threads);
+                        s3Dao.copyFile(params);
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Measures an operation.
+     *
+     * @param operation the name of the operation
+     * @param operationKeyCount the number of keys processed by the operation
+     * @param callable the operation
+     *
+     * @return the result
+     * @throws Exception if the operation failed
+     */
+    private Result measure(String operation, long operationKeyCount, Callable<?> callable) throws Exception
+    {
+        long requestCount = s3Operations.getRequestCount();
+        long throttledRequestCount = s3Operations.getThrottledRequestCount();
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        callable.call();
+        stopWatch.stop();
+
+        return new Result(operation, operationKeyCount, stopWatch.getTime(), s3Operations.getRequestCount() - requestCount,
+            s3Operations.getThrottledRequestCount() - throttledRequestCount);
+    }
+
+    private S3FileTransferRequestParamsDto createParams(String bucketName)
+    {
+        S3FileTransferRequestParamsDto params = new S3FileTransferRequestParamsDto();
+        params.setS3BucketName(bucketName);
+        params.setS3KeyPrefix(KEY_PREFIX);
+        params.setMaxThreads(threads);
+        return params;
+    }
+
+    private void checkObjectCount(String bucketName, int expectedObjectCount)
+    {
+        checkCount("stored in bucket \"" + bucketName + "\"", expectedObjectCount, s3Operations.getObjectCount(bucketName));
+    }
+
+    private void checkCount(String description, int expectedCount, int actualCount)
+    {
+        if (actualCount != expectedCount)
+        {
+            throw new IllegalStateException(String.format("Expected %d keys to be %s, but found %d.", expectedCount, description, actualCount));
+        }
+    }
+
+    /**
+     * The result of a benchmarked operation.
+     */
+    public static class Result
+    {
+        private final String operation;
+
+        private final long keyCount;
+
+        private final long durationMillis;
+
+        private final long requestCount;
+
+        private final long throttledRequestCount;
+
+        public Result(String operation, long keyCount, long durationMillis, long requestCount, long throttledRequestCount)
+        {
+            this.operation = operation;
+            this.keyCount = keyCount;
+            this.durationMillis = durationMillis;
+            this.requestCount = requestCount;
+            this.throttledRequestCount = throttledRequestCount;
+        }
+
+        public String getOperation()
+        {
+            return operation;
+        }
+
+        public long getKeyCount()
+        {
+            return keyCount;
+        }
+
+        public long getDurationMillis()
+        {
+            return durationMillis;
+        }
+
+        public long getRequestCount()
+        {
+            return requestCount;
+        }
+
+        public long getThrottledRequestCount()
+        {
+            return throttledRequestCount;
+        }
+
+        public double getKeysPerSecond()
+        {
+            return durationMillis == 0 ? 0 : keyCount * 1000.0 / durationMillis;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%-8s %8d keys in %8d ms (%10.1f keys/s), %8d requests (%d throttled)", operation, keyCount, durationMillis,
+                getKeysPerSecond(), requestCount, throttledRequestCount);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import org.finra.dm.dao.impl.SimulatedS3OperationsImpl;
+
+/**
+ * This class runs a small S3 DAO benchmark to make sure the benchmark and the simulated S3 keep working.
+ */
+public class S3DaoBenchmarkTest
+{
+    @Test
+    public void testRun() throws Exception
+    {
+        SimulatedS3OperationsImpl s3Operations = new SimulatedS3OperationsImpl();
+
+        // Use small listing pages, so the listings are truncated and split by sub-directory.
+        s3Operations.setMaxKeysPerListing(100);
+
+        List<S3DaoBenchmark.Result> results = runBenchmark(s3Operations, 500);
+
+        assertEquals(5, results.size());
+        for (S3DaoBenchmark.Result result : results)
+        {
+            assertTrue(result.getRequestCount() > 0);
+            assertEquals(0, result.getThrottledRequestCount());
+        }
+    }
+
+    @Test
+    public void testRunThrottled() throws Exception
+    {
+        SimulatedS3OperationsImpl s3Operations = new SimulatedS3OperationsImpl();
+
+        // Throttle every tenth request, rather than limiting the request rate, so the requests get throttled no matter how fast the test machine is.
+        s3Operations.setThrottledRequestInterval(10);
+
+        // The benchmark validates that all keys got uploaded, copied and deleted despite the throttling.
+        long throttledRequestCount = 0;
+        for (S3DaoBenchmark.Result result : runBenchmark(s3Operations, 200))
+        {
+            throttledRequestCount += result.getThrottledRequestCount();
+        }
+        assertTrue(throttledRequestCount > 0);
+    }
+
+    private List<S3DaoBenchmark.Result> runBenchmark(SimulatedS3OperationsImpl s3Operations, int keyCount) throws Exception
+    {
+        S3DaoBenchmark s3DaoBenchmark = new S3DaoBenchmark(s3Operations);
+        s3DaoBenchmark.setKeyCount(keyCount);
+        s3DaoBenchmark.setDirectoryCount(5);
+
+        Path localPath = Files.createTempDirectory("dm-s3-dao-benchmark-test");
+        try
+        {
+            return s3DaoBenchmark.run(localPath);
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(localPath.toFile());
+            s3DaoBenchmark.shutdown();
+            s3Operations.shutdown();
+        }
+    }
+}
@@ -16,18 +16,27 @@
 package org.finra.dm.dao;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 
+import javax.management.ObjectName;
+
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -35,6 +44,7 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.transfer.Transfer;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Level;
@@ -45,13 +55,16 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.dao.impl.MockS3OperationsImpl;
 import org.finra.dm.dao.impl.S3DaoImpl;
 import org.finra.dm.model.ObjectNotFoundException;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferMetrics;
 import org.finra.dm.model.api.xml.StorageFile;
 
 /**
@@ -110,6 +123,32 @@ public class S3DaoTest extends AbstractDaoTest
         assertEquals(Long.valueOf(1L), resultsDto.getTotalFilesTransferred());
     }
 
+    /**
+     * Test S3 file copy with multipart copy settings.
+     */
+    @Test
+    public void testCopyFileMultipartCopySettings() throws Exception
+    {
+        long copyCount = s3Dao.getTransferMetrics().getTransferCount(S3TransferMetrics.TransferType.COPY);
+
+        S3FileCopyRequestParamsDto transferDto = new S3FileCopyRequestParamsDto();
+        transferDto.setSourceBucketName(getS3LoadingDockBucketName());
+        transferDto.setTargetBucketName(getS3ExternalBucketName());
+        transferDto.setS3KeyPrefix("testKeyPrefix");
+        transferDto.setKmsKeyId(MockS3OperationsImpl.MOCK_KMS_ID);
+        transferDto.setMaxThreads(4);
+        transferDto.setMultipartCopyThreshold(FILE_SIZE_1_KB);
+        transferDto.setMultipartCopyPartSize(FILE_SIZE_1_KB);
+        S3FileTransferResultsDto resultsDto = s3Dao.copyFile(transferDto);
+
+        assertEquals(Long.valueOf(1L), resultsDto.getTotalFilesTransferred());
+        assertEquals(copyCount + 1, s3Dao.getTransferMetrics().getTransferCount(S3TransferMetrics.TransferType.COPY));
+
+        // The copy metrics are also exposed over JMX.
+        assertEquals(copyCount + 1, ManagementFactory.getPlatformMBeanServer()
+            .getAttribute(new ObjectName(DaoSpringModuleConfig.S3_TRANSFER_METRICS_MBEAN_NAME + ",transferType=COPY"), "TransferCount"));
+    }
+
     /**
      * Test S3 file copy with an invalid KMS Id. This should throw an AmazonServiceException.
      */
@@ -269,6 +308,30 @@ public class S3DaoTest extends AbstractDaoTest
         validateS3FileUpload(s3FileTransferRequestParamsDto, Arrays.asList(TARGET_S3_KEY));
     }
 
+    /**
+     * Test that transfers are recorded in the transfer metrics and reported in the results.
+     */
+    @Test
+    public void testUploadFileTransferMetrics() throws IOException, InterruptedException
+    {
+        S3TransferMetrics s3TransferMetrics = s3Dao.getTransferMetrics();
+        long uploadCount = s3TransferMetrics.getTransferCount(S3TransferMetrics.TransferType.UPLOAD);
+        long bytesUploaded = s3TransferMetrics.getBytesTransferred(S3TransferMetrics.TransferType.UPLOAD);
+
+        // Upload a test file.
+        File targetFile = createLocalFile(localTempPath.toString(), LOCAL_FILE, FILE_SIZE_1_KB);
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3KeyPrefix(TARGET_S3_KEY);
+        s3FileTransferRequestParamsDto.setLocalPath(targetFile.getPath());
+        S3FileTransferResultsDto results = s3Dao.uploadFile(s3FileTransferRequestParamsDto);
+
+        // Validate the results and the metrics.
+        assertEquals(Integer.valueOf(0), results.getMaxPartsInFlight());
+        assertEquals(Long.valueOf(0), results.getTotalRetries());
+        assertEquals(uploadCount + 1, s3TransferMetrics.getTransferCount(S3TransferMetrics.TransferType.UPLOAD));
+        assertEquals(bytesUploaded + results.getTotalBytesTransferred(), s3TransferMetrics.getBytesTransferred(S3TransferMetrics.TransferType.UPLOAD));
+    }
+
     /**
      * Test that we are able to upload a zero byte file to S3 using our DAO tier.
      */
@@ -386,6 +449,14 @@ public class S3DaoTest extends AbstractDaoTest
         // Validate results.
         Assert.assertTrue(results.getTotalFilesTransferred() == LOCAL_FILES_SUBSET.size());
 
+        // Validate the MD5 digests calculated while the files were uploaded.
+        String expectedMd5 = DigestUtils.md5Hex(new byte[(int) FILE_SIZE_1_KB]);
+        Assert.assertEquals(expectedKeys.size(), results.getMd5s().size());
+        for (String expectedKey : expectedKeys)
+        {
+            Assert.assertEquals(expectedMd5, results.getMd5s().get(expectedKey));
+        }
+
         // Validate the upload.
         validateS3FileUpload(s3FileTransferRequestParamsDto, expectedKeys);
     }
@@ -564,6 +635,85 @@ public class S3DaoTest extends AbstractDaoTest
         Assert.assertTrue(storageFiles.size() == 0);
     }
 
+    /**
+     * Test that deleteDirectory deletes a key prefix that takes several listing pages and several Multi-Object Delete requests.
+     */
+    @Test
+    public void testDeleteDirectoryMultiplePages()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        List<String> s3Keys = createMultiplePagesOfS3Objects(s3FileTransferRequestParamsDto);
+
+        // Delete the directory and validate the results.
+        S3FileTransferResultsDto results = s3Dao.deleteDirectory(s3FileTransferRequestParamsDto);
+        assertEquals(Long.valueOf(s3Keys.size()), results.getTotalFilesTransferred());
+        assertNotNull(results.getDurationMillis());
+
+        // Validate that S3 directory got deleted.
+        assertTrue(s3Dao.listDirectory(s3FileTransferRequestParamsDto).isEmpty());
+    }
+
+    /**
+     * Test that deleteFileList retries the keys that S3 failed to delete because of throttling.
+     */
+    @Test
+    public void testDeleteFileListRetryThrottledKeys()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        List<String> s3Keys =
+            Arrays.asList(TEST_S3_KEY_PREFIX + "/file_1", TEST_S3_KEY_PREFIX + "/file_2" + MockS3OperationsImpl.MOCK_S3_FILE_NAME_DELETE_SLOW_DOWN);
+        List<File> requestFileList = new ArrayList<>();
+        for (String s3Key : s3Keys)
+        {
+            putTestS3Object(s3FileTransferRequestParamsDto.getS3BucketName(), s3Key);
+            requestFileList.add(new File(s3Key));
+        }
+
+        // Delete the files and validate the results.
+        s3FileTransferRequestParamsDto.setFiles(requestFileList);
+        S3FileTransferResultsDto results = s3Dao.deleteFileList(s3FileTransferRequestParamsDto);
+        assertEquals(Long.valueOf(s3Keys.size()), results.getTotalFilesTransferred());
+
+        // Validate that all files got deleted, including the throttled one.
+        assertTrue(s3Dao.listDirectory(s3FileTransferRequestParamsDto).isEmpty());
+    }
+
+    /**
+     * Test that deleteFileList reports the keys that S3 failed to delete after deleting all other keys.
+     */
+    @Test
+    public void testDeleteFileListAccessDenied()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        String deniedS3Key = TEST_S3_KEY_PREFIX + "/file_2" + MockS3OperationsImpl.MOCK_S3_FILE_NAME_DELETE_ACCESS_DENIED;
+        List<String> s3Keys = Arrays.asList(TEST_S3_KEY_PREFIX + "/file_1", deniedS3Key);
+        List<File> requestFileList = new ArrayList<>();
+        for (String s3Key : s3Keys)
+        {
+            putTestS3Object(s3FileTransferRequestParamsDto.getS3BucketName(), s3Key);
+            requestFileList.add(new File(s3Key));
+        }
+        s3FileTransferRequestParamsDto.setFiles(requestFileList);
+
+        try
+        {
+            s3Dao.deleteFileList(s3FileTransferRequestParamsDto);
+            fail("Suppose to throw an IllegalStateException.");
+        }
+        catch (IllegalStateException e)
+        {
+            assertTrue(e.getMessage().contains(String
+                .format("Failed to delete 1 out of 2 keys/objects from bucket \"%s\": %s (%s", s3FileTransferRequestParamsDto.getS3BucketName(), deniedS3Key,
+                    S3Operations.ERROR_CODE_ACCESS_DENIED)));
+        }
+
+        // Validate that only the denied file is left.
+        assertEquals(Arrays.asList(deniedS3Key), getFilePaths(s3Dao.listDirectory(s3FileTransferRequestParamsDto)));
+
+        // Remove the denied file directly, since it can not be deleted through the DAO.
+        s3Operations.rollback();
+    }
+
     @Test
     public void testDeleteDirectoryNullParamsDto()
     {
@@ -657,6 +807,125 @@ public class S3DaoTest extends AbstractDaoTest
         }
     }
 
+    /**
+     * Test listing of a key prefix that does not fit into a single listing page, which makes the DAO list the sub-prefixes in parallel.
+     */
+    @Test
+    public void testListDirectoryMultiplePages()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        List<String> expectedS3KeysWithDirectoryMarkers = createMultiplePagesOfS3Objects(s3FileTransferRequestParamsDto);
+
+        // List the objects including the directory markers and validate that all keys are returned in key order.
+        assertEquals(expectedS3KeysWithDirectoryMarkers, getFilePaths(s3Dao.listDirectory(s3FileTransferRequestParamsDto)));
+
+        // List the objects ignoring the directory markers.
+        assertEquals(getFilePathsWithoutDirectoryMarkers(expectedS3KeysWithDirectoryMarkers),
+            getFilePaths(s3Dao.listDirectory(s3FileTransferRequestParamsDto, true)));
+    }
+
+    /**
+     * Test listing of a key prefix without sub-prefixes that does not fit into a single listing page, which makes the DAO list the objects one page at a
+     * time.
+     */
+    @Test
+    public void testListDirectoryMultiplePagesNoSubPrefixes()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3KeyPrefix(s3FileTransferRequestParamsDto.getS3KeyPrefix() + "/");
+
+        List<String> expectedS3Keys = new ArrayList<>();
+        for (int i = 0; i < MockS3OperationsImpl.MAX_KEYS_PER_LISTING * 2 + 1; i++)
+        {
+            String s3Key = String.format("%sfile_%04d.txt", s3FileTransferRequestParamsDto.getS3KeyPrefix(), i);
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(s3Key.length());
+            s3Operations.putObject(new PutObjectRequest(s3FileTransferRequestParamsDto.getS3BucketName(), s3Key, new ByteArrayInputStream(s3Key.getBytes()),
+                metadata), null);
+            expectedS3Keys.add(s3Key);
+        }
+
+        // List the objects and validate that all keys are returned in key order.
+        assertEquals(expectedS3Keys, getFilePaths(s3Dao.listDirectory(s3FileTransferRequestParamsDto)));
+    }
+
+    /**
+     * Test iterating over a key prefix that does not fit into a single listing page.
+     */
+    @Test
+    public void testIterateDirectoryMultiplePages()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        List<String> expectedS3KeysWithDirectoryMarkers = createMultiplePagesOfS3Objects(s3FileTransferRequestParamsDto);
+
+        // Iterate over the objects including the directory markers and validate that all keys are returned in key order.
+        List<String> actualS3Keys = new ArrayList<>();
+        Iterator<StorageFile> storageFiles = s3Dao.iterateDirectory(s3FileTransferRequestParamsDto, false);
+        while (storageFiles.hasNext())
+        {
+            actualS3Keys.add(storageFiles.next().getFilePath());
+        }
+        assertEquals(expectedS3KeysWithDirectoryMarkers, actualS3Keys);
+
+        // Iterate over the objects ignoring the directory markers.
+        actualS3Keys.clear();
+        storageFiles = s3Dao.iterateDirectory(s3FileTransferRequestParamsDto, true);
+        while (storageFiles.hasNext())
+        {
+            actualS3Keys.add(storageFiles.next().getFilePath());
+        }
+        assertEquals(getFilePathsWithoutDirectoryMarkers(expectedS3KeysWithDirectoryMarkers), actualS3Keys);
+
+        // Stop after the first object.
+        assertEquals(expectedS3KeysWithDirectoryMarkers.get(0), s3Dao.iterateDirectory(s3FileTransferRequestParamsDto, false).next().getFilePath());
+    }
+
+    /**
+     * Test iterating over an empty key prefix.
+     */
+    @Test
+    public void testIterateDirectoryEmpty()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+        s3Dao.createDirectory(s3FileTransferRequestParamsDto);
+
+        // The iterator has no elements once the only directory marker is ignored.
+        Iterator<StorageFile> storageFiles = s3Dao.iterateDirectory(s3FileTransferRequestParamsDto, true);
+        assertFalse(storageFiles.hasNext());
+
+        try
+        {
+            storageFiles.next();
+            fail("Suppose to throw a NoSuchElementException.");
+        }
+        catch (NoSuchElementException e)
+        {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test iterating over a key prefix in a bucket that does not exist.
+     */
+    @Test
+    public void testIterateDirectoryNoSuchBucket()
+    {
+        S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = new S3FileTransferRequestParamsDto();
+        s3FileTransferRequestParamsDto.setS3BucketName(MockS3OperationsImpl.MOCK_S3_BUCKET_NAME_NO_SUCH_BUCKET_EXCEPTION);
+
+        try
+        {
+            s3Dao.iterateDirectory(s3FileTransferRequestParamsDto, false).hasNext();
+            fail("expected a IllegalArgumentException to be thrown, but no exceptions thrown");
+        }
+        catch (Exception e)
+        {
+            assertEquals("thrown exception type", IllegalArgumentException.class, e.getClass());
+            assertEquals("thrown exception message",
+                "The specified bucket '" + MockS3OperationsImpl.MOCK_S3_BUCKET_NAME_NO_SUCH_BUCKET_EXCEPTION + "' does not exist.", e.getMessage());
+        }
+    }
+
     @Test
     public void testListDirectoryNoSuchBucket()
     {
@@ -790,4 +1059,178 @@ public class S3DaoTest extends AbstractDaoTest
 
         Assert.assertEquals("properties key '" + expectedKey + "'", expectedValue, properties.get(expectedKey));
     }
+
+    @Test
+    public void testS3ClientsSharedAcrossCalls()
+    {
+        S3DaoImpl s3DaoImpl = new S3DaoImpl();
+        ReflectionTestUtils.setField(s3DaoImpl, "s3Operations", s3Operations);
+
+        try
+        {
+            // Calls with the same endpoint, proxy and credentials share a single S3 client.
+            S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+            s3DaoImpl.createDirectory(s3FileTransferRequestParamsDto);
+            s3DaoImpl.getObjectMetadata(s3FileTransferRequestParamsDto);
+            s3DaoImpl.listDirectory(s3FileTransferRequestParamsDto);
+            assertEquals(1, s3DaoImpl.getS3ClientCount());
+
+            // Calls with different credentials get their own S3 client.
+            S3FileTransferRequestParamsDto otherS3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+            otherS3FileTransferRequestParamsDto.setS3AccessKey("test_access_key");
+            otherS3FileTransferRequestParamsDto.setS3SecretKey("test_secret_key");
+            s3DaoImpl.listDirectory(otherS3FileTransferRequestParamsDto);
+            assertEquals(2, s3DaoImpl.getS3ClientCount());
+        }
+        finally
+        {
+            s3DaoImpl.shutdown();
+        }
+
+        assertEquals(0, s3DaoImpl.getS3ClientCount());
+    }
+
+    @Test
+    public void testTransferManagersRetiredWhenLimitExceeded() throws IOException, InterruptedException
+    {
+        S3DaoImpl s3DaoImpl = new S3DaoImpl();
+        ReflectionTestUtils.setField(s3DaoImpl, "s3Operations", s3Operations);
+
+        try
+        {
+            // Upload a file with more different thread counts than the transfer managers kept per S3 client, as the transfer planner would.
+            File targetFile = createLocalFile(localTempPath.toString(), LOCAL_FILE, FILE_SIZE_1_KB);
+            S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+            s3FileTransferRequestParamsDto.setS3KeyPrefix(TARGET_S3_KEY);
+            s3FileTransferRequestParamsDto.setLocalPath(targetFile.getPath());
+            for (int maxThreads = 1; maxThreads <= S3DaoImpl.MAX_TRANSFER_MANAGERS_PER_S3_CLIENT + 2; maxThreads++)
+            {
+                s3FileTransferRequestParamsDto.setMaxThreads(maxThreads);
+                s3DaoImpl.uploadFile(s3FileTransferRequestParamsDto);
+            }
+
+            // Validate that the least recently used transfer managers got retired.
+            assertEquals(S3DaoImpl.MAX_TRANSFER_MANAGERS_PER_S3_CLIENT, s3DaoImpl.getTransferManagerCount());
+        }
+        finally
+        {
+            s3DaoImpl.shutdown();
+        }
+    }
+
+    @Test
+    public void testS3ClientsEvictedWhenLimitExceeded()
+    {
+        S3DaoImpl s3DaoImpl = new S3DaoImpl();
+        ReflectionTestUtils.setField(s3DaoImpl, "s3Operations", s3Operations);
+
+        try
+        {
+            // Use one more set of credentials than the client registry holds.
+            for (int i = 0; i <= S3DaoImpl.MAX_S3_CLIENTS; i++)
+            {
+                S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = getTestS3FileTransferRequestParamsDto();
+                s3FileTransferRequestParamsDto.setS3AccessKey("test_access_key_" + i);
+                s3FileTransferRequestParamsDto.setS3SecretKey("test_secret_key_" + i);
+                s3DaoImpl.listDirectory(s3FileTransferRequestParamsDto);
+            }
+
+            // Validate that the least recently used client got evicted.
+            assertEquals(S3DaoImpl.MAX_S3_CLIENTS, s3DaoImpl.getS3ClientCount());
+        }
+        finally
+        {
+            s3DaoImpl.shutdown();
+        }
+    }
+
+    /**
+     * Gets the file paths of the specified storage files.
+     *
+     * @param storageFiles the storage files
+     *
+     * @return the list of file paths
+     */
+    private List<String> getFilePaths(List<StorageFile> storageFiles)
+    {
+        List<String> filePaths = new ArrayList<>();
+        for (StorageFile storageFile : storageFiles)
+        {
+            filePaths.add(storageFile.getFilePath());
+        }
+        return filePaths;
+    }
+
+    /**
+     * Creates S3 objects located directly under the test key prefix and in several sub-directories along with their 0 byte directory markers, so listing the
+     * test key prefix takes more than a single listing page.
+     *
+     * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters
+     *
+     * @return the sorted list of the created S3 keys including the directory markers
+     */
+    private List<String> createMultiplePagesOfS3Objects(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto)
+    {
+        String s3KeyPrefix = s3FileTransferRequestParamsDto.getS3KeyPrefix() + "/";
+
+        List<String> s3Keys = new ArrayList<>();
+        for (String s3Key : Arrays.asList("dir_2_file.txt", "file_a.txt", "file_z.txt"))
+        {
+            s3Keys.add(s3KeyPrefix + s3Key);
+        }
+        for (String subDirectory : Arrays.asList("dir_1/", "dir_2/", "dir_3/"))
+        {
+            s3Keys.add(s3KeyPrefix + subDirectory);
+            for (int i = 0; i < MockS3OperationsImpl.MAX_KEYS_PER_LISTING / 2; i++)
+            {
+                s3Keys.add(String.format("%s%sfile_%04d.txt", s3KeyPrefix, subDirectory, i));
+            }
+        }
+        Collections.sort(s3Keys);
+
+        for (String s3Key : s3Keys)
+        {
+            byte[] data = s3Key.endsWith("/") ? new byte[0] : s3Key.getBytes();
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(data.length);
+            s3Operations.putObject(new PutObjectRequest(s3FileTransferRequestParamsDto.getS3BucketName(), s3Key, new ByteArrayInputStream(data), metadata),
+                null);
+        }
+
+        return s3Keys;
+    }
+
+    /**
+     * Gets the specified file paths without the ones that represent S3 directories.
+     *
+     * @param filePaths the file paths
+     *
+     * @return the list of file paths without directory markers
+     */
+    private List<String> getFilePathsWithoutDirectoryMarkers(List<String> filePaths)
+    {
+        List<String> result = new ArrayList<>();
+        for (String filePath : filePaths)
+        {
+            if (!filePath.endsWith("/"))
+            {
+                result.add(filePath);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Puts a small test object into the specified S3 bucket.
+     *
+     * @param s3BucketName the S3 bucket name
+     * @param s3Key the S3 key
+     */
+    private void putTestS3Object(String s3BucketName, String s3Key)
+    {
+        byte[] data = s3Key.getBytes();
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(data.length);
+        s3Operations.putObject(new PutObjectRequest(s3BucketName, s3Key, new ByteArrayInputStream(data), metadata), null);
+    }
 }
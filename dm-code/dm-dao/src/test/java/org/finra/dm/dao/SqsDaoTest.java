@@ -15,8 +15,14 @@
 */
 package org.finra.dm.dao;
 
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Map;
+
 import org.junit.Test;
 
+import org.finra.dm.dao.impl.MockSqsOperationsImpl;
 import org.finra.dm.model.dto.AwsParamsDto;
 
 /**
@@ -34,4 +40,16 @@ public class SqsDaoTest extends AbstractDaoTest
         testAwsParamsDto.setHttpProxyPort(HTTP_PROXY_PORT);
         sqsDao.sendSqsTextMessage(testAwsParamsDto, JMS_QUEUE_NAME, MESSAGE_TEXT);
     }
+
+    @Test
+    public void testSendSqsTextMessages() throws Exception
+    {
+        // Send text messages to the specified AWS SQS queue where the second message fails to be sent.
+        Map<Integer, String> failedMessages = sqsDao.sendSqsTextMessages(new AwsParamsDto(), JMS_QUEUE_NAME,
+            Arrays.asList(MESSAGE_TEXT, MockSqsOperationsImpl.MOCK_SQS_MESSAGE_FAILED_TEXT, MESSAGE_TEXT_2));
+
+        // Validate that only the second message is reported as failed.
+        assertEquals(1, failedMessages.size());
+        assertEquals("InternalError: test internal error", failedMessages.get(1));
+    }
 }
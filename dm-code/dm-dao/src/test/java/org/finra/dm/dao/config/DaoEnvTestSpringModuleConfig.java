@@ -25,6 +25,7 @@ import org.springframework.jdbc.datasource.init.DataSourceInitializer;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
+import org.finra.dm.dao.CacheInvalidationOperations;
 import org.finra.dm.dao.Ec2Operations;
 import org.finra.dm.dao.EmrOperations;
 import org.finra.dm.dao.HttpClientOperations;
@@ -35,6 +36,7 @@ import org.finra.dm.dao.OozieOperations;
 import org.finra.dm.dao.S3Operations;
 import org.finra.dm.dao.SqsOperations;
 import org.finra.dm.dao.StsOperations;
+import org.finra.dm.dao.impl.MockCacheInvalidationOperationsImpl;
 import org.finra.dm.dao.impl.MockEc2OperationsImpl;
 import org.finra.dm.dao.impl.MockEmrOperationsImpl;
 import org.finra.dm.dao.impl.MockHttpClientOperationsImpl;
@@ -193,4 +195,10 @@ public class DaoEnvTestSpringModuleConfig
     {
         return new MockHttpClientOperationsImpl();
     }
+
+    @Bean
+    public CacheInvalidationOperations cacheInvalidationOperations()
+    {
+        return new MockCacheInvalidationOperationsImpl();
+    }
 }
@@ -0,0 +1,171 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import org.finra.dm.dao.AbstractDaoTest;
+import org.finra.dm.dao.CacheInvalidationOperations;
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
+import org.finra.dm.dao.impl.MockCacheInvalidationOperationsImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.jpa.SecurityFunctionEntity;
+
+/**
+ * This class tests functionality within the CacheInvalidationHelper class.
+ */
+public class CacheInvalidationHelperTest extends AbstractDaoTest
+{
+    @Autowired
+    private CacheInvalidationHelper cacheInvalidationHelper;
+
+    @Autowired
+    private CacheInvalidationOperations cacheInvalidationOperations;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @After
+    public void after()
+    {
+        ((MockCacheInvalidationOperationsImpl) cacheInvalidationOperations).clearBroadcastMessages();
+    }
+
+    @Test
+    public void testBuildCacheInvalidationMessage()
+    {
+        String messageText = cacheInvalidationHelper.buildCacheInvalidationMessage(CacheInvalidationHelper.MESSAGE_TYPE_ENTITY, Arrays.asList("A", "B"));
+
+        assertEquals("dm.cache.invalidation:ENTITY:A,B", messageText);
+        assertTrue(cacheInvalidationHelper.isCacheInvalidationMessage(messageText));
+        assertFalse(cacheInvalidationHelper.isCacheInvalidationMessage(STRING_VALUE));
+        assertFalse(cacheInvalidationHelper.isCacheInvalidationMessage(null));
+    }
+
+    @Test
+    public void testProcessCacheInvalidationMessageCache()
+    {
+        Cache cache = cacheManager.getCache(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME);
+        cache.put(STRING_VALUE, STRING_VALUE);
+        assertNotNull(cache.get(STRING_VALUE));
+
+        // Process a message as if it was broadcast by another node.
+        cacheInvalidationHelper.processCacheInvalidationMessage(cacheInvalidationHelper
+            .buildCacheInvalidationMessage(CacheInvalidationHelper.MESSAGE_TYPE_CACHE, Arrays.asList(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME)));
+
+        // Validate that the local cache got cleared.
+        assertNull(cache.get(STRING_VALUE));
+    }
+
+    @Test
+    public void testProcessCacheInvalidationMessageInvalidMessage()
+    {
+        for (String messageText : Arrays.asList(STRING_VALUE, "dm.cache.invalidation:", "dm.cache.invalidation:UNKNOWN:A"))
+        {
+            try
+            {
+                cacheInvalidationHelper.processCacheInvalidationMessage(messageText);
+                fail("Should throw an IllegalArgumentException.");
+            }
+            catch (IllegalArgumentException e)
+            {
+                assertEquals(String.format("Invalid cache invalidation message: \"%s\".", messageText), e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidateCache() throws Exception
+    {
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.DM_CACHE_INVALIDATION_ENABLED.getKey(), true);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            cacheInvalidationHelper.invalidateCache(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME);
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+
+        // Validate that the message got broadcast to the other nodes.
+        assertEquals(Arrays.asList("dm.cache.invalidation:CACHE:" + DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME),
+            ((MockCacheInvalidationOperationsImpl) cacheInvalidationOperations).getBroadcastMessages());
+    }
+
+    @Test
+    public void testSecurityFunctionModificationInvalidatesCaches() throws Exception
+    {
+        Cache cache = cacheManager.getCache(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME);
+        cache.put(STRING_VALUE, STRING_VALUE);
+
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.DM_CACHE_INVALIDATION_ENABLED.getKey(), true);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // Create a security function.
+            SecurityFunctionEntity securityFunctionEntity = new SecurityFunctionEntity();
+            securityFunctionEntity.setCode(STRING_VALUE);
+            dmDao.saveAndRefresh(securityFunctionEntity);
+
+            // Validate that nothing gets invalidated before the transaction commits.
+            assertNotNull(cache.get(STRING_VALUE));
+            assertTrue(((MockCacheInvalidationOperationsImpl) cacheInvalidationOperations).getBroadcastMessages().isEmpty());
+
+            // Run the after commit callbacks as if the transaction committed.
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        }
+        finally
+        {
+            restorePropertySourceInEnvironment();
+        }
+
+        // Validate that the security function caches got cleared on this node and the other nodes were told to clear them as well.
+        assertNull(cache.get(STRING_VALUE));
+        assertEquals(Arrays.asList(
+            "dm.cache.invalidation:CACHE:" + DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME + "," + DaoSpringModuleConfig.SECURITY_FUNCTIONS_FOR_ROLE_CACHE_NAME),
+            ((MockCacheInvalidationOperationsImpl) cacheInvalidationOperations).getBroadcastMessages());
+    }
+
+    @Test
+    public void testInvalidateCacheDisabled()
+    {
+        cacheInvalidationHelper.invalidateCache(DaoSpringModuleConfig.SECURITY_FUNCTIONS_CACHE_NAME);
+
+        // Validate that nothing got broadcast since the cache invalidation is disabled by default.
+        assertTrue(((MockCacheInvalidationOperationsImpl) cacheInvalidationOperations).getBroadcastMessages().isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.finra.dm.dao.CacheInvalidationOperations;
+
+/**
+ * Mock implementation of the cache invalidation operations. The broadcast messages are kept in memory, so the unit tests can verify them and deliver them back
+ * to simulate the other nodes of the cluster.
+ */
+public class MockCacheInvalidationOperationsImpl implements CacheInvalidationOperations
+{
+    private final List<String> broadcastMessages = Collections.synchronizedList(new ArrayList<String>());
+
+    @Override
+    public void broadcastCacheInvalidationMessage(String messageText)
+    {
+        broadcastMessages.add(messageText);
+    }
+
+    /**
+     * Gets the messages broadcast so far.
+     *
+     * @return the list of message texts
+     */
+    public List<String> getBroadcastMessages()
+    {
+        synchronized (broadcastMessages)
+        {
+            return new ArrayList<>(broadcastMessages);
+        }
+    }
+
+    /**
+     * Removes all the messages broadcast so far.
+     */
+    public void clearBroadcastMessages()
+    {
+        broadcastMessages.clear();
+    }
+}
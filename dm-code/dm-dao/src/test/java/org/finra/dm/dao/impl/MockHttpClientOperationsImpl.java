@@ -64,6 +64,12 @@ public class MockHttpClientOperationsImpl implements HttpClientOperations
 
     public static final String HOSTNAME_THROW_IO_EXCEPTION_DURING_POST = "testThrowIoExceptionDuringPost";
     public static final String HOSTNAME_THROW_IO_EXCEPTION_DURING_GET_STORAGES = "testThrowIoExceptionDuringGetStorages";
+    public static final String HOSTNAME_RESPOND_WITH_MISMATCHED_MD5 = "testRespondWithMismatchedMd5";
+
+    /**
+     * The MD5 digest returned for the storage files when the hostname asks for a mismatched digest. It doesn't match the digest of any test file.
+     */
+    public static final String MISMATCHED_MD5 = "00000000000000000000000000000000";
 
     @Autowired
     private XmlHelper xmlHelper;
@@ -89,7 +95,8 @@ public class MockHttpClientOperationsImpl implements HttpClientOperations
                 }
                 else
                 {
-                    buildGetBusinessObjectDataResponse(response, uri);
+                    buildGetBusinessObjectDataResponse(response, uri,
+                        uri.getHost() != null && uri.getHost().contains(HOSTNAME_RESPOND_WITH_MISMATCHED_MD5));
                 }
             }
             else if (uri.getPath().startsWith("/dm-app/rest/storages/"))
@@ -178,10 +185,11 @@ public class MockHttpClientOperationsImpl implements HttpClientOperations
      *
      * @param response the response.
      * @param uri the URI of the incoming request.
+     * @param mismatchedMd5 specifies whether the storage files have an MD5 digest that doesn't match the test files.
      *
      * @throws JAXBException if a JAXB error occurred.
      */
-    private void buildGetBusinessObjectDataResponse(MockCloseableHttpResponse response, URI uri) throws JAXBException
+    private void buildGetBusinessObjectDataResponse(MockCloseableHttpResponse response, URI uri, boolean mismatchedMd5) throws JAXBException
     {
         Pattern pattern = Pattern.compile("/dm-app/rest/businessObjectData/namespaces/(.*)/businessObjectDefinitionNames/(.*)/businessObjectFormatUsages/(.*)" +
             "/businessObjectFormatFileTypes/(.*).*");
@@ -225,6 +233,10 @@ public class MockHttpClientOperationsImpl implements HttpClientOperations
                     "=" + businessObjectData.getPartitionValue() + "/" + filename);
                 storageFile.setFileSizeBytes(1024L);
                 storageFile.setRowCount(10L);
+                if (mismatchedMd5)
+                {
+                    storageFile.setMd5(MISMATCHED_MD5);
+                }
             }
 
             businessObjectData.setSubPartitionValues(new ArrayList<String>());
@@ -15,8 +15,8 @@
 */
 package org.finra.dm.dao.impl;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Simulates an actual S3 bucket in-memory.
@@ -29,9 +29,9 @@ public class MockS3Bucket
     private String name;
 
     /**
-     * Objects registered against this bucket.
+     * Objects registered against this bucket. The map is concurrent since the DAO lists and deletes objects from several threads.
      */
-    private Map<String, MockS3Object> objects = new HashMap<>();
+    private Map<String, MockS3Object> objects = new ConcurrentHashMap<>();
 
     public String getName()
     {
@@ -23,15 +23,20 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.config.model.NoSuchBucketException;
+import com.amazonaws.event.ProgressListenerChain;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
@@ -44,6 +49,8 @@ import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
 import com.amazonaws.services.s3.model.MultipartUpload;
 import com.amazonaws.services.s3.model.MultipartUploadListing;
 import com.amazonaws.services.s3.model.ObjectListing;
@@ -103,6 +110,16 @@ public class MockS3OperationsImpl implements S3Operations
      */
     public static final String MOCK_S3_FILE_NAME_0_BYTE_SIZE = "mock_s3_file_name_0_byte_size";
 
+    /**
+     * Suffix to hint the multi-object delete operation to fail the key with a "SlowDown" error the first time it is requested to be deleted.
+     */
+    public static final String MOCK_S3_FILE_NAME_DELETE_SLOW_DOWN = "mock_s3_file_name_delete_slow_down";
+
+    /**
+     * Suffix to hint the multi-object delete operation to fail the key with an "AccessDenied" error.
+     */
+    public static final String MOCK_S3_FILE_NAME_DELETE_ACCESS_DENIED = "mock_s3_file_name_delete_access_denied";
+
     /**
      * A mock KMS ID.
      */
@@ -147,11 +164,21 @@ public class MockS3OperationsImpl implements S3Operations
 
     public static final String MOCK_S3_BUCKET_NAME_INTERNAL_ERROR = "MOCK_S3_BUCKET_NAME_INTERNAL_ERROR";
 
+    /**
+     * The maximum number of keys returned in a single object listing page when the request does not specify one, matching the S3 default.
+     */
+    public static final int MAX_KEYS_PER_LISTING = 1000;
+
     /**
      * The buckets that are available in-memory.
      */
     private Map<String, MockS3Bucket> mockS3Buckets = new HashMap<>();
 
+    /**
+     * The keys that were already failed with a "SlowDown" error by the multi-object delete operation.
+     */
+    private Set<String> slowDownDeleteS3ObjectKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     /**
      * <p>
      * Creates and returns a new {@link ObjectMetadata} with the given parameters. Content length is defaulted to 1 bytes unless a hint is provided.
@@ -282,7 +309,7 @@ public class MockS3OperationsImpl implements S3Operations
         TransferProgress transferProgress = new TransferProgress();
         transferProgress.setTotalBytesToTransfer(AbstractCoreTest.FILE_SIZE_1_KB);
         transferProgress.updateProgress(AbstractCoreTest.FILE_SIZE_1_KB);
-        CopyImpl copy = new CopyImpl(MOCK_TRANSFER_DESCRIPTION, transferProgress, null, null);
+        CopyImpl copy = new CopyImpl(MOCK_TRANSFER_DESCRIPTION, transferProgress, new ProgressListenerChain(), null);
         copy.setState(TransferState.Completed);
 
         // If an invalid KMS Id was passed in, mark the transfer as failed and return an exception via the transfer monitor.
@@ -477,6 +504,7 @@ public class MockS3OperationsImpl implements S3Operations
             deleteObjectRequest.getKeys());
 
         List<DeletedObject> deletedObjects = new ArrayList<>();
+        List<DeleteError> deleteErrors = new ArrayList<>();
 
         MockS3Bucket mockS3Bucket = mockS3Buckets.get(deleteObjectRequest.getBucketName());
 
@@ -484,7 +512,15 @@ public class MockS3OperationsImpl implements S3Operations
         {
             String s3ObjectKey = keyVersion.getKey();
 
-            if (mockS3Bucket.getObjects().remove(s3ObjectKey) != null)
+            if (s3ObjectKey.endsWith(MOCK_S3_FILE_NAME_DELETE_SLOW_DOWN) && slowDownDeleteS3ObjectKeys.add(s3ObjectKey))
+            {
+                deleteErrors.add(createDeleteError(s3ObjectKey, "SlowDown"));
+            }
+            else if (s3ObjectKey.endsWith(MOCK_S3_FILE_NAME_DELETE_ACCESS_DENIED))
+            {
+                deleteErrors.add(createDeleteError(s3ObjectKey, S3Operations.ERROR_CODE_ACCESS_DENIED));
+            }
+            else if (mockS3Bucket.getObjects().remove(s3ObjectKey) != null)
             {
                 DeletedObject deletedObject = new DeletedObject();
                 deletedObject.setKey(s3ObjectKey);
@@ -492,9 +528,32 @@ public class MockS3OperationsImpl implements S3Operations
             }
         }
 
+        // Like S3, report the keys that failed to get deleted in a single exception.
+        if (!deleteErrors.isEmpty())
+        {
+            throw new MultiObjectDeleteException(deleteErrors, deletedObjects);
+        }
+
         return new DeleteObjectsResult(deletedObjects);
     }
 
+    /**
+     * Creates a multi-object delete error for the specified key.
+     *
+     * @param s3ObjectKey the S3 object key
+     * @param errorCode the error code
+     *
+     * @return the delete error
+     */
+    private DeleteError createDeleteError(String s3ObjectKey, String errorCode)
+    {
+        DeleteError deleteError = new DeleteError();
+        deleteError.setKey(s3ObjectKey);
+        deleteError.setCode(errorCode);
+        deleteError.setMessage(errorCode);
+        return deleteError;
+    }
+
     /**
      * Returns a list of objects. If the bucket does not exist, returns a listing with an empty list.
      * If a prefix is specified in listObjectsRequest, only keys starting with the prefix will be returned.
@@ -519,17 +578,49 @@ public class MockS3OperationsImpl implements S3Operations
         MockS3Bucket mockS3Bucket = mockS3Buckets.get(bucketName);
         if (mockS3Bucket != null)
         {
-            for (MockS3Object mockS3Object : mockS3Bucket.getObjects().values())
+            String prefix = listObjectsRequest.getPrefix() == null ? "" : listObjectsRequest.getPrefix();
+            String delimiter = listObjectsRequest.getDelimiter();
+            int maxKeys = listObjectsRequest.getMaxKeys() == null ? MAX_KEYS_PER_LISTING : listObjectsRequest.getMaxKeys();
+            String lastKey = null;
+            int keyCount = 0;
+
+            // Objects are listed in key order starting after the marker, like S3 does.
+            for (MockS3Object mockS3Object : new TreeMap<>(mockS3Bucket.getObjects()).values())
             {
                 String s3ObjectKey = mockS3Object.getKey();
-                if (listObjectsRequest.getPrefix() == null || s3ObjectKey.startsWith(listObjectsRequest.getPrefix()))
+                if (s3ObjectKey.startsWith(prefix) && (listObjectsRequest.getMarker() == null || s3ObjectKey.compareTo(listObjectsRequest.getMarker()) > 0))
                 {
-                    S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
-                    s3ObjectSummary.setBucketName(bucketName);
-                    s3ObjectSummary.setKey(s3ObjectKey);
-                    s3ObjectSummary.setSize(mockS3Object.getData().length);
+                    // Roll up the keys that contain the delimiter after the prefix into a common prefix.
+                    int delimiterIndex = delimiter == null ? -1 : s3ObjectKey.indexOf(delimiter, prefix.length());
+                    String commonPrefix = delimiterIndex < 0 ? null : s3ObjectKey.substring(0, delimiterIndex + delimiter.length());
+                    if (commonPrefix != null && commonPrefix.equals(lastKey))
+                    {
+                        continue;
+                    }
 
-                    objectListing.getObjectSummaries().add(s3ObjectSummary);
+                    if (keyCount == maxKeys)
+                    {
+                        objectListing.setTruncated(true);
+                        objectListing.setNextMarker(lastKey);
+                        break;
+                    }
+
+                    if (commonPrefix != null)
+                    {
+                        objectListing.getCommonPrefixes().add(commonPrefix);
+                        lastKey = commonPrefix;
+                    }
+                    else
+                    {
+                        S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
+                        s3ObjectSummary.setBucketName(bucketName);
+                        s3ObjectSummary.setKey(s3ObjectKey);
+                        s3ObjectSummary.setSize(mockS3Object.getData().length);
+
+                        objectListing.getObjectSummaries().add(s3ObjectSummary);
+                        lastKey = s3ObjectKey;
+                    }
+                    keyCount++;
                 }
             }
         }
@@ -693,7 +784,8 @@ public class MockS3OperationsImpl implements S3Operations
         progress.setTotalBytesToTransfer(totalFileLength);
         progress.updateProgress(totalFileLength);
 
-        MultipleFileUploadImpl multipleFileUpload = new MultipleFileUploadImpl(null, progress, null, virtualDirectoryKeyPrefix, bucketName, subTransfers);
+        MultipleFileUploadImpl multipleFileUpload =
+            new MultipleFileUploadImpl(null, progress, new ProgressListenerChain(), virtualDirectoryKeyPrefix, bucketName, subTransfers);
         multipleFileUpload.setState(TransferState.Completed);
         return multipleFileUpload;
     }
@@ -766,7 +858,8 @@ public class MockS3OperationsImpl implements S3Operations
         progress.setTotalBytesToTransfer(totalBytes);
         progress.updateProgress(totalBytes);
 
-        MultipleFileDownloadImpl multipleFileDownload = new MultipleFileDownloadImpl(null, progress, null, keyPrefix, bucketName, downloads);
+        MultipleFileDownloadImpl multipleFileDownload =
+            new MultipleFileDownloadImpl(null, progress, new ProgressListenerChain(), keyPrefix, bucketName, downloads);
         multipleFileDownload.setState(TransferState.Completed);
         return multipleFileDownload;
     }
@@ -782,12 +875,12 @@ public class MockS3OperationsImpl implements S3Operations
 
         putObject(putObjectRequest, (AmazonS3Client) transferManager.getAmazonS3Client());
 
-        long contentLength = putObjectRequest.getFile().length();
+        long contentLength = putObjectRequest.getFile() != null ? putObjectRequest.getFile().length() : putObjectRequest.getMetadata().getContentLength();
         TransferProgress progress = new TransferProgress();
         progress.setTotalBytesToTransfer(contentLength);
         progress.updateProgress(contentLength);
 
-        UploadImpl upload = new UploadImpl(null, progress, null, null);
+        UploadImpl upload = new UploadImpl(null, progress, new ProgressListenerChain(), null);
         upload.setState(TransferState.Completed);
 
         return upload;
@@ -814,7 +907,7 @@ public class MockS3OperationsImpl implements S3Operations
         progress.setTotalBytesToTransfer(mockS3Object.getData().length);
         progress.updateProgress(mockS3Object.getData().length);
 
-        DownloadImpl download = new DownloadImpl(null, progress, null, null, null, new GetObjectRequest(bucket, key), file);
+        DownloadImpl download = new DownloadImpl(null, progress, new ProgressListenerChain(), null, null, new GetObjectRequest(bucket, key), file);
         download.setState(TransferState.Completed);
 
         return download;
@@ -827,6 +920,7 @@ public class MockS3OperationsImpl implements S3Operations
     public void rollback()
     {
         mockS3Buckets.clear();
+        slowDownDeleteS3ObjectKeys.clear();
     }
 
     @Override
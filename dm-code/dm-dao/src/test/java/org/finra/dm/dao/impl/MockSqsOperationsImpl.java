@@ -15,8 +15,12 @@
 */
 package org.finra.dm.dao.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
 
 import org.finra.dm.dao.SqsOperations;
 
@@ -27,6 +31,8 @@ public class MockSqsOperationsImpl implements SqsOperations
 {
     public static final String MOCK_SQS_QUEUE_NOT_FOUND_NAME = "mock_sqs_queue_not_found_name";
 
+    public static final String MOCK_SQS_MESSAGE_FAILED_TEXT = "mock_sqs_message_failed_text";
+
     @Override
     public void sendSqsTextMessage(ClientConfiguration client, String queueName, String messageText)
     {
@@ -44,6 +50,34 @@ public class MockSqsOperationsImpl implements SqsOperations
             throw new IllegalStateException(String.format("AWS SQS queue with \"%s\" name not found.", queueName));
         }
 
+        // Fail the message with a specific text for testing purposes.
+        if (messageText.equals(MOCK_SQS_MESSAGE_FAILED_TEXT))
+        {
+            throw new AmazonServiceException("test internal error");
+        }
+
         // Nothing else to do in the normal case since our unit tests aren't reading messages once they have been published.
     }
+
+    @Override
+    public List<BatchResultErrorEntry> sendSqsTextMessages(ClientConfiguration client, String queueName, List<String> messageTexts)
+    {
+        // Throw an illegal state exception for a specific queue name for testing purposes.
+        if (queueName.equals(MOCK_SQS_QUEUE_NOT_FOUND_NAME))
+        {
+            throw new IllegalStateException(String.format("AWS SQS queue with \"%s\" name not found.", queueName));
+        }
+
+        // Fail the entries of the messages with a specific text for testing purposes.
+        List<BatchResultErrorEntry> failedEntries = new ArrayList<>();
+        for (int i = 0; i < messageTexts.size(); i++)
+        {
+            if (messageTexts.get(i).equals(MOCK_SQS_MESSAGE_FAILED_TEXT))
+            {
+                failedEntries.add(new BatchResultErrorEntry().withId(String.valueOf(i)).withSenderFault(false).withCode("InternalError")
+                    .withMessage("test internal error"));
+            }
+        }
+        return failedEntries;
+    }
 }
@@ -0,0 +1,1038 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.dao.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListener;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import com.amazonaws.services.s3.model.MultipartUpload;
+import com.amazonaws.services.s3.model.MultipartUploadListing;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.transfer.Copy;
+import com.amazonaws.services.s3.transfer.Download;
+import com.amazonaws.services.s3.transfer.MultipleFileDownload;
+import com.amazonaws.services.s3.transfer.MultipleFileUpload;
+import com.amazonaws.services.s3.transfer.ObjectMetadataProvider;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+import com.amazonaws.services.s3.transfer.Upload;
+import com.amazonaws.services.s3.transfer.internal.CopyImpl;
+import com.amazonaws.services.s3.transfer.internal.DownloadImpl;
+import com.amazonaws.services.s3.transfer.internal.MultipleFileDownloadImpl;
+import com.amazonaws.services.s3.transfer.internal.MultipleFileUploadImpl;
+import com.amazonaws.services.s3.transfer.internal.TransferMonitor;
+import com.amazonaws.services.s3.transfer.internal.UploadImpl;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.http.HttpStatus;
+import org.apache.log4j.Logger;
+
+import org.finra.dm.dao.S3Operations;
+
+/**
+ * In-process stand-in for S3 that is meant for measuring the performance of the S3 DAO offline. Unlike {@link MockS3OperationsImpl}, it takes no hints from
+ * key or bucket names. Instead, it keeps the objects of each bucket sorted in memory and simulates the cost of every request made to S3:
+ * <dl>
+ * <dt>requestLatencyMillis</dt>
+ * <dd>The fixed latency added to every request.</dd>
+ * <dt>bytesPerSecond</dt>
+ * <dd>The bandwidth available to a single request that transfers object data. A value of 0 means unlimited bandwidth.</dd>
+ * <dt>maxRequestsPerSecond</dt>
+ * <dd>The request rate above which S3 throttles requests. Throttled Multi-Object Delete requests fail all their keys with a "SlowDown" error, so the DAO
+ * has to retry them. All other throttled requests are retried after a short delay, like the AWS client does. A value of 0 disables throttling.</dd>
+ * <dt>throttledRequestInterval</dt>
+ * <dd>Throttles every Nth request attempt regardless of the request rate, so tests get a predictable number of throttled requests. The retry of a throttled
+ * request is the next attempt, so it is not throttled again unless other requests are running in parallel. A value of 0 disables it, and the value can't be
+ * 1, since then every request would be throttled.</dd>
+ * <dt>maxKeysPerListing</dt>
+ * <dd>The maximum number of keys returned in a single listing page.</dd>
+ * </dl>
+ * <p/>
+ * Multiple file transfers run their files in parallel, and uploads and copies at or above the multipart threshold configured on the transfer manager are
+ * simulated as parallel part requests, except for uploads from a stream, which the transfer manager uploads one part after the other. Single uploads run in
+ * the background, so uploads of several objects also run in parallel. All other returned transfers are always done. Buckets have to be created with
+ * {@link #createBucket(String)} before they are used.
+ */
+public class SimulatedS3OperationsImpl implements S3Operations
+{
+    private static final Logger LOGGER = Logger.getLogger(SimulatedS3OperationsImpl.class);
+
+    /**
+     * The default number of threads used to run the files and parts of transfers in parallel.
+     */
+    public static final int DEFAULT_TRANSFER_THREADS = 10;
+
+    /**
+     * The delay before a throttled request is retried.
+     */
+    private static final long THROTTLED_REQUEST_RETRY_DELAY_MILLIS = 10;
+
+    private static final String ERROR_CODE_SLOW_DOWN = "SlowDown";
+
+    /**
+     * The objects of each bucket keyed by bucket name. The objects are kept sorted by key, so listings do not need to sort them.
+     */
+    private final Map<String, ConcurrentNavigableMap<String, SimulatedS3Object>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The executor that runs the files of multiple file transfers.
+     */
+    private final ExecutorService fileTransferExecutor;
+
+    /**
+     * The executor that runs the parts of multipart transfers.
+     */
+    private final ExecutorService partTransferExecutor;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final AtomicLong throttledRequestCount = new AtomicLong();
+
+    private volatile long requestLatencyMillis;
+
+    private volatile long bytesPerSecond;
+
+    private volatile int maxRequestsPerSecond;
+
+    private volatile int throttledRequestInterval;
+
+    private volatile int maxKeysPerListing = MockS3OperationsImpl.MAX_KEYS_PER_LISTING;
+
+    /**
+     * The number of requests that can still be made without getting throttled. Access must be synchronized on this instance.
+     */
+    private double availableRequests;
+
+    /**
+     * The time the available requests were last refilled. Access must be synchronized on this instance.
+     */
+    private long availableRequestsRefillNanos = System.nanoTime();
+
+    public SimulatedS3OperationsImpl()
+    {
+        this(DEFAULT_TRANSFER_THREADS);
+    }
+
+    /**
+     * Creates a simulated S3 that runs the files and parts of transfers on the specified number of threads.
+     *
+     * @param transferThreads the number of transfer threads
+     */
+    public SimulatedS3OperationsImpl(int transferThreads)
+    {
+        fileTransferExecutor = Executors.newFixedThreadPool(transferThreads, new DaemonThreadFactory("simulated-s3-file-worker-"));
+        partTransferExecutor = Executors.newFixedThreadPool(transferThreads, new DaemonThreadFactory("simulated-s3-part-worker-"));
+    }
+
+    public long getRequestLatencyMillis()
+    {
+        return requestLatencyMillis;
+    }
+
+    public void setRequestLatencyMillis(long requestLatencyMillis)
+    {
+        this.requestLatencyMillis = requestLatencyMillis;
+    }
+
+    public long getBytesPerSecond()
+    {
+        return bytesPerSecond;
+    }
+
+    public void setBytesPerSecond(long bytesPerSecond)
+    {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public int getMaxRequestsPerSecond()
+    {
+        return maxRequestsPerSecond;
+    }
+
+    public synchronized void setMaxRequestsPerSecond(int maxRequestsPerSecond)
+    {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        availableRequests = maxRequestsPerSecond;
+        availableRequestsRefillNanos = System.nanoTime();
+    }
+
+    public int getThrottledRequestInterval()
+    {
+        return throttledRequestInterval;
+    }
+
+    public void setThrottledRequestInterval(int throttledRequestInterval)
+    {
+        Validate.isTrue(throttledRequestInterval != 1, "Throttling every request would never let a request through.");
+        this.throttledRequestInterval = throttledRequestInterval;
+    }
+
+    public int getMaxKeysPerListing()
+    {
+        return maxKeysPerListing;
+    }
+
+    public void setMaxKeysPerListing(int maxKeysPerListing)
+    {
+        this.maxKeysPerListing = maxKeysPerListing;
+    }
+
+    /**
+     * Gets the number of requests made so far, including the throttled attempts.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount()
+    {
+        return requestCount.get();
+    }
+
+    /**
+     * Gets the number of requests that were throttled so far.
+     *
+     * @return the number of throttled requests
+     */
+    public long getThrottledRequestCount()
+    {
+        return throttledRequestCount.get();
+    }
+
+    /**
+     * Creates an empty bucket. This method does nothing if the bucket already exists.
+     *
+     * @param bucketName the bucket name
+     */
+    public void createBucket(String bucketName)
+    {
+        if (!buckets.containsKey(bucketName))
+        {
+            buckets.put(bucketName, new ConcurrentSkipListMap<String, SimulatedS3Object>());
+        }
+    }
+
+    /**
+     * Gets the number of objects stored in a bucket.
+     *
+     * @param bucketName the bucket name
+     *
+     * @return the number of objects
+     */
+    public int getObjectCount(String bucketName)
+    {
+        return getBucket(bucketName).size();
+    }
+
+    /**
+     * Shuts down the transfer threads.
+     */
+    public void shutdown()
+    {
+        fileTransferExecutor.shutdownNow();
+        partTransferExecutor.shutdownNow();
+    }
+
+    @Override
+    public ObjectMetadata getObjectMetadata(String sourceBucketName, String filePath, AmazonS3Client s3Client)
+    {
+        performRequest(0);
+
+        return getObject(sourceBucketName, filePath).getObjectMetadata().clone();
+    }
+
+    @Override
+    public Copy copyFile(CopyObjectRequest copyObjectRequest, TransferManager transferManager)
+    {
+        LOGGER.debug("copyFile(): copyObjectRequest.getSourceBucketName() = " + copyObjectRequest.getSourceBucketName() +
+            ", copyObjectRequest.getSourceKey() = " + copyObjectRequest.getSourceKey() + ", copyObjectRequest.getDestinationBucketName() = " +
+            copyObjectRequest.getDestinationBucketName() + ", copyObjectRequest.getDestinationKey() = " + copyObjectRequest.getDestinationKey());
+
+        SimulatedS3Object sourceObject = getObject(copyObjectRequest.getSourceBucketName(), copyObjectRequest.getSourceKey());
+        ConcurrentNavigableMap<String, SimulatedS3Object> destinationBucket = getBucket(copyObjectRequest.getDestinationBucketName());
+
+        // The copied data never leaves S3, so a copy costs the requests, but no bandwidth.
+        TransferManagerConfiguration configuration = transferManager.getConfiguration();
+        long contentLength = sourceObject.getData().length;
+        performTransferRequests(contentLength, configuration.getMultipartCopyThreshold(), configuration.getMultipartCopyPartSize(), false, true);
+
+        ObjectMetadata metadata = copyObjectRequest.getNewObjectMetadata() == null ? sourceObject.getObjectMetadata().clone() :
+            copyObjectRequest.getNewObjectMetadata().clone();
+        destinationBucket.put(copyObjectRequest.getDestinationKey(), new SimulatedS3Object(sourceObject.getData(), metadata));
+
+        CopyImpl copy = new CopyImpl(copyObjectRequest.getDestinationKey(), createCompletedProgress(contentLength), new ProgressListenerChain(), null);
+        copy.setState(TransferState.Completed);
+        return copy;
+    }
+
+    @Override
+    public void deleteFile(String bucketName, String key, AmazonS3Client s3Client)
+    {
+        performRequest(0);
+
+        getBucket(bucketName).remove(key);
+    }
+
+    /**
+     * Returns an empty listing, since uploads complete as soon as they are started.
+     */
+    @Override
+    public MultipartUploadListing listMultipartUploads(ListMultipartUploadsRequest listMultipartUploadsRequest, AmazonS3Client s3Client)
+    {
+        performRequest(0);
+
+        getBucket(listMultipartUploadsRequest.getBucketName());
+
+        MultipartUploadListing multipartUploadListing = new MultipartUploadListing();
+        multipartUploadListing.setBucketName(listMultipartUploadsRequest.getBucketName());
+        multipartUploadListing.setMultipartUploads(new ArrayList<MultipartUpload>());
+        return multipartUploadListing;
+    }
+
+    @Override
+    public void abortMultipartUpload(AbortMultipartUploadRequest abortMultipartUploadRequest, AmazonS3Client s3Client)
+    {
+        performRequest(0);
+    }
+
+    /**
+     * Deletes a list of objects from a bucket. When the request gets throttled, all keys fail with a "SlowDown" error.
+     */
+    @Override
+    public DeleteObjectsResult deleteObjects(DeleteObjectsRequest deleteObjectRequest, AmazonS3Client s3Client)
+    {
+        ConcurrentNavigableMap<String, SimulatedS3Object> bucket = getBucket(deleteObjectRequest.getBucketName());
+
+        if (!tryPerformRequest(0))
+        {
+            List<DeleteError> deleteErrors = new ArrayList<>();
+            for (KeyVersion keyVersion : deleteObjectRequest.getKeys())
+            {
+                DeleteError deleteError = new DeleteError();
+                deleteError.setKey(keyVersion.getKey());
+                deleteError.setCode(ERROR_CODE_SLOW_DOWN);
+                deleteError.setMessage("Please reduce your request rate.");
+                deleteErrors.add(deleteError);
+            }
+            throw new MultiObjectDeleteException(deleteErrors, new ArrayList<DeletedObject>());
+        }
+
+        // Like S3, report keys that do not exist as deleted.
+        List<DeletedObject> deletedObjects = new ArrayList<>();
+        for (KeyVersion keyVersion : deleteObjectRequest.getKeys())
+        {
+            bucket.remove(keyVersion.getKey());
+
+            DeletedObject deletedObject = new DeletedObject();
+            deletedObject.setKey(keyVersion.getKey());
+            deletedObjects.add(deletedObject);
+        }
+
+        return new DeleteObjectsResult(deletedObjects);
+    }
+
+    /**
+     * Lists the objects in key order starting after the marker. The page size is limited by the configured maximum keys per listing.
+     */
+    @Override
+    public ObjectListing listObjects(ListObjectsRequest listObjectsRequest, AmazonS3Client s3Client)
+    {
+        String bucketName = listObjectsRequest.getBucketName();
+        ConcurrentNavigableMap<String, SimulatedS3Object> bucket = getBucket(bucketName);
+
+        performRequest(0);
+
+        String prefix = listObjectsRequest.getPrefix() == null ? "" : listObjectsRequest.getPrefix();
+        String marker = listObjectsRequest.getMarker();
+        String delimiter = listObjectsRequest.getDelimiter();
+        int maxKeys = listObjectsRequest.getMaxKeys() == null ? maxKeysPerListing : Math.min(listObjectsRequest.getMaxKeys(), maxKeysPerListing);
+
+        ObjectListing objectListing = new ObjectListing();
+        objectListing.setBucketName(bucketName);
+        objectListing.setPrefix(listObjectsRequest.getPrefix());
+        objectListing.setMarker(marker);
+        objectListing.setDelimiter(delimiter);
+        objectListing.setMaxKeys(maxKeys);
+
+        // The keys that start with the prefix are next to each other in the sorted bucket, so the listing can stop at the first key that does not match. A
+        // marker that is a common prefix continues the listing after all the keys rolled up into it.
+        Map.Entry<String, SimulatedS3Object> entry;
+        if (marker == null || marker.compareTo(prefix) < 0)
+        {
+            entry = bucket.ceilingEntry(prefix);
+        }
+        else if (delimiter != null && marker.startsWith(prefix) && marker.endsWith(delimiter))
+        {
+            entry = bucket.ceilingEntry(marker + Character.MAX_VALUE);
+        }
+        else
+        {
+            entry = bucket.higherEntry(marker);
+        }
+        String lastKey = null;
+        int keyCount = 0;
+        while (entry != null && entry.getKey().startsWith(prefix))
+        {
+            if (keyCount == maxKeys)
+            {
+                objectListing.setTruncated(true);
+                objectListing.setNextMarker(lastKey);
+                break;
+            }
+
+            String s3ObjectKey = entry.getKey();
+            int delimiterIndex = delimiter == null ? -1 : s3ObjectKey.indexOf(delimiter, prefix.length());
+            if (delimiterIndex >= 0)
+            {
+                // Roll up the keys that contain the delimiter after the prefix into a common prefix and skip past all of them.
+                String commonPrefix = s3ObjectKey.substring(0, delimiterIndex + delimiter.length());
+                objectListing.getCommonPrefixes().add(commonPrefix);
+                lastKey = commonPrefix;
+                entry = bucket.ceilingEntry(commonPrefix + Character.MAX_VALUE);
+            }
+            else
+            {
+                S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
+                s3ObjectSummary.setBucketName(bucketName);
+                s3ObjectSummary.setKey(s3ObjectKey);
+                s3ObjectSummary.setSize(entry.getValue().getData().length);
+                s3ObjectSummary.setLastModified(entry.getValue().getObjectMetadata().getLastModified());
+                objectListing.getObjectSummaries().add(s3ObjectSummary);
+                lastKey = s3ObjectKey;
+                entry = bucket.higherEntry(s3ObjectKey);
+            }
+            keyCount++;
+        }
+
+        return objectListing;
+    }
+
+    @Override
+    public PutObjectResult putObject(PutObjectRequest putObjectRequest, AmazonS3Client s3Client)
+    {
+        ConcurrentNavigableMap<String, SimulatedS3Object> bucket = getBucket(putObjectRequest.getBucketName());
+        byte[] data = readData(putObjectRequest);
+
+        performRequest(data.length);
+
+        bucket.put(putObjectRequest.getKey(), new SimulatedS3Object(data, createObjectMetadata(putObjectRequest.getMetadata())));
+        return new PutObjectResult();
+    }
+
+    @Override
+    public MultipleFileUpload uploadDirectory(String bucketName, String virtualDirectoryKeyPrefix, File directory, boolean includeSubdirectories,
+        ObjectMetadataProvider metadataProvider, TransferManager transferManager)
+    {
+        List<File> files = new ArrayList<>();
+        listFiles(directory, files, includeSubdirectories);
+
+        return uploadFileList(bucketName, virtualDirectoryKeyPrefix, directory, files, metadataProvider, transferManager);
+    }
+
+    /**
+     * Uploads a list of files in parallel. The keys are built the same way the transfer manager builds them.
+     */
+    @Override
+    public MultipleFileUpload uploadFileList(final String bucketName, String virtualDirectoryKeyPrefix, File directory, List<File> files,
+        final ObjectMetadataProvider metadataProvider, final TransferManager transferManager)
+    {
+        final String keyPrefix = virtualDirectoryKeyPrefix.replaceAll("/+$", "");
+        final String directoryPath = directory.getAbsolutePath();
+
+        List<Callable<Long>> fileUploads = new ArrayList<>();
+        for (final File file : files)
+        {
+            fileUploads.add(new Callable<Long>()
+            {
+                @Override
+                public Long call()
+                {
+                    String relativeFilePath = file.getAbsolutePath().substring(directoryPath.length()).replace("\\", "/").replaceAll("^/+", "");
+
+                    ObjectMetadata metadata = new ObjectMetadata();
+                    if (metadataProvider != null)
+                    {
+                        metadataProvider.provideObjectMetadata(file, metadata);
+                    }
+
+                    PutObjectRequest putObjectRequest = new PutObjectRequest(bucketName, keyPrefix + "/" + relativeFilePath, file);
+                    putObjectRequest.setMetadata(metadata);
+                    return uploadObject(putObjectRequest, transferManager.getConfiguration());
+                }
+            });
+        }
+
+        long totalBytes = 0;
+        List<Upload> subTransfers = new ArrayList<>();
+        for (Long fileLength : invokeAll(fileTransferExecutor, fileUploads))
+        {
+            totalBytes += fileLength;
+            subTransfers.add(new UploadImpl(null, null, null, null));
+        }
+
+        MultipleFileUploadImpl multipleFileUpload =
+            new MultipleFileUploadImpl(keyPrefix, createCompletedProgress(totalBytes), new ProgressListenerChain(), keyPrefix, bucketName, subTransfers);
+        multipleFileUpload.setState(TransferState.Completed);
+        return multipleFileUpload;
+    }
+
+    /**
+     * Downloads the objects with the specified key prefix in parallel.
+     */
+    @Override
+    public MultipleFileDownload downloadDirectory(final String bucketName, String keyPrefix, final File destinationDirectory, TransferManager transferManager)
+    {
+        ConcurrentNavigableMap<String, SimulatedS3Object> bucket = getBucket(bucketName);
+
+        performRequest(0);
+
+        List<Callable<Long>> fileDownloads = new ArrayList<>();
+        final List<Download> downloads = new ArrayList<>();
+        for (final Map.Entry<String, SimulatedS3Object> entry : bucket.tailMap(keyPrefix).entrySet())
+        {
+            if (!entry.getKey().startsWith(keyPrefix))
+            {
+                break;
+            }
+
+            final File file = new File(destinationDirectory, entry.getKey());
+            downloads.add(new DownloadImpl(null, null, null, null, null, new GetObjectRequest(bucketName, entry.getKey()), file));
+            fileDownloads.add(new Callable<Long>()
+            {
+                @Override
+                public Long call()
+                {
+                    return downloadObject(entry.getValue(), file);
+                }
+            });
+        }
+
+        long totalBytes = 0;
+        for (Long fileLength : invokeAll(fileTransferExecutor, fileDownloads))
+        {
+            totalBytes += fileLength;
+        }
+
+        MultipleFileDownloadImpl multipleFileDownload =
+            new MultipleFileDownloadImpl(keyPrefix, createCompletedProgress(totalBytes), new ProgressListenerChain(), keyPrefix, bucketName, downloads);
+        multipleFileDownload.setState(TransferState.Completed);
+        return multipleFileDownload;
+    }
+
+    /**
+     * Uploads an object in the background, like the transfer manager does, so the uploads of several objects run in parallel. The request progress listener
+     * is notified once the upload is done.
+     */
+    @Override
+    public Upload upload(final PutObjectRequest putObjectRequest, final TransferManager transferManager) throws AmazonServiceException, AmazonClientException
+    {
+        final TransferProgress progress = new TransferProgress();
+        progress.setTotalBytesToTransfer(
+            putObjectRequest.getFile() != null ? putObjectRequest.getFile().length() : putObjectRequest.getMetadata().getContentLength());
+
+        final UploadImpl upload = new UploadImpl(putObjectRequest.getKey(), progress, new ProgressListenerChain(), null);
+        final Future<Void> future = fileTransferExecutor.submit(new Callable<Void>()
+        {
+            @Override
+            public Void call()
+            {
+                ProgressEventType completionEventType = ProgressEventType.TRANSFER_FAILED_EVENT;
+                try
+                {
+                    progress.updateProgress(uploadObject(putObjectRequest, transferManager.getConfiguration()));
+                    upload.setState(TransferState.Completed);
+                    completionEventType = ProgressEventType.TRANSFER_COMPLETED_EVENT;
+                }
+                catch (RuntimeException e)
+                {
+                    upload.setState(TransferState.Failed);
+                    throw e;
+                }
+                finally
+                {
+                    ProgressListener progressListener = putObjectRequest.getGeneralProgressListener();
+                    if (progressListener != null)
+                    {
+                        progressListener.progressChanged(new ProgressEvent(completionEventType));
+                    }
+                }
+                return null;
+            }
+        });
+        upload.setMonitor(new TransferMonitor()
+        {
+            @Override
+            public Future<?> getFuture()
+            {
+                return future;
+            }
+
+            @Override
+            public boolean isDone()
+            {
+                return future.isDone();
+            }
+        });
+        return upload;
+    }
+
+    @Override
+    public Download download(String bucket, String key, File file, TransferManager transferManager)
+    {
+        long contentLength = downloadObject(getObject(bucket, key), file);
+
+        DownloadImpl download =
+            new DownloadImpl(key, createCompletedProgress(contentLength), new ProgressListenerChain(), null, null, new GetObjectRequest(bucket, key), file);
+        download.setState(TransferState.Completed);
+        return download;
+    }
+
+    /**
+     * Removes all buckets and resets the request counters.
+     */
+    @Override
+    public void rollback()
+    {
+        buckets.clear();
+        requestCount.set(0);
+        throttledRequestCount.set(0);
+    }
+
+    @Override
+    public S3Object getS3Object(GetObjectRequest getObjectRequest, AmazonS3 s3)
+    {
+        SimulatedS3Object simulatedS3Object = getObject(getObjectRequest.getBucketName(), getObjectRequest.getKey());
+
+        performRequest(simulatedS3Object.getData().length);
+
+        S3Object s3Object = new S3Object();
+        s3Object.setBucketName(getObjectRequest.getBucketName());
+        s3Object.setKey(getObjectRequest.getKey());
+        s3Object.setObjectContent(new ByteArrayInputStream(simulatedS3Object.getData()));
+        s3Object.setObjectMetadata(simulatedS3Object.getObjectMetadata().clone());
+        return s3Object;
+    }
+
+    /**
+     * Uploads an object, simulating a multipart upload when the object is at or above the multipart upload threshold.
+     *
+     * @param putObjectRequest the put object request
+     * @param configuration the configuration of the transfer manager performing the upload
+     *
+     * @return the number of bytes uploaded
+     */
+    private long uploadObject(PutObjectRequest putObjectRequest, TransferManagerConfiguration configuration)
+    {
+        ConcurrentNavigableMap<String, SimulatedS3Object> bucket = getBucket(putObjectRequest.getBucketName());
+        byte[] data = readData(putObjectRequest);
+
+        // The transfer manager can only upload the parts of a file in parallel, since the parts of a stream have to be read one after the other.
+        performTransferRequests(data.length, configuration.getMultipartUploadThreshold(), configuration.getMinimumUploadPartSize(), true,
+            putObjectRequest.getFile() != null);
+
+        bucket.put(putObjectRequest.getKey(), new SimulatedS3Object(data, createObjectMetadata(putObjectRequest.getMetadata())));
+        return data.length;
+    }
+
+    /**
+     * Writes the data of an object to a local file, creating any missing parent directories.
+     *
+     * @param simulatedS3Object the object
+     * @param file the local file
+     *
+     * @return the number of bytes downloaded
+     */
+    private long downloadObject(SimulatedS3Object simulatedS3Object, File file)
+    {
+        performRequest(simulatedS3Object.getData().length);
+
+        file.getParentFile().mkdirs();
+        try (FileOutputStream fileOutputStream = new FileOutputStream(file))
+        {
+            fileOutputStream.write(simulatedS3Object.getData());
+        }
+        catch (IOException e)
+        {
+            throw new AmazonClientException("Error writing to file " + file, e);
+        }
+        return simulatedS3Object.getData().length;
+    }
+
+    /**
+     * Simulates the requests of a transfer. Transfers at or above the multipart threshold are simulated as an initiate request, part requests and a complete
+     * request.
+     *
+     * @param contentLength the number of bytes to transfer
+     * @param multipartThreshold the multipart threshold in bytes
+     * @param partSize the part size in bytes
+     * @param usesBandwidth specifies whether the transferred bytes use bandwidth
+     * @param parallelParts specifies whether the part requests are made in parallel or one after the other
+     */
+    private void performTransferRequests(long contentLength, long multipartThreshold, long partSize, final boolean usesBandwidth, boolean parallelParts)
+    {
+        if (contentLength < multipartThreshold || partSize <= 0)
+        {
+            performRequest(usesBandwidth ? contentLength : 0);
+            return;
+        }
+
+        performRequest(0);
+
+        List<Callable<Long>> parts = new ArrayList<>();
+        for (long offset = 0; offset < contentLength; offset += partSize)
+        {
+            final long currentPartSize = Math.min(partSize, contentLength - offset);
+            if (parallelParts)
+            {
+                parts.add(new Callable<Long>()
+                {
+                    @Override
+                    public Long call()
+                    {
+                        performRequest(usesBandwidth ? currentPartSize : 0);
+                        return currentPartSize;
+                    }
+                });
+            }
+            else
+            {
+                performRequest(usesBandwidth ? currentPartSize : 0);
+            }
+        }
+        invokeAll(partTransferExecutor, parts);
+
+        performRequest(0);
+    }
+
+    /**
+     * Simulates a request that is retried until it is not throttled.
+     *
+     * @param bytes the number of bytes transferred by the request
+     */
+    private void performRequest(long bytes)
+    {
+        while (!tryPerformRequest(bytes))
+        {
+            sleep(THROTTLED_REQUEST_RETRY_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Simulates a single request attempt. The attempt waits for the request latency and the transfer time of the bytes unless it gets throttled.
+     *
+     * @param bytes the number of bytes transferred by the request
+     *
+     * @return true if the request was performed, false if it was throttled
+     */
+    private boolean tryPerformRequest(long bytes)
+    {
+        long requestNumber = requestCount.incrementAndGet();
+
+        int currentThrottledRequestInterval = throttledRequestInterval;
+        if ((currentThrottledRequestInterval > 0 && requestNumber % currentThrottledRequestInterval == 0) || !acquireRequest())
+        {
+            throttledRequestCount.incrementAndGet();
+            return false;
+        }
+
+        long currentBytesPerSecond = bytesPerSecond;
+        sleep(requestLatencyMillis + (currentBytesPerSecond > 0 ? bytes * 1000 / currentBytesPerSecond : 0));
+        return true;
+    }
+
+    /**
+     * Takes a request from the available requests, which are refilled at the maximum request rate up to one second worth of requests.
+     *
+     * @return true if a request was available, false if the request has to be throttled
+     */
+    private synchronized boolean acquireRequest()
+    {
+        if (maxRequestsPerSecond <= 0)
+        {
+            return true;
+        }
+
+        long nowNanos = System.nanoTime();
+        availableRequests = Math.min(maxRequestsPerSecond, availableRequests + (nowNanos - availableRequestsRefillNanos) * maxRequestsPerSecond / 1e9);
+        availableRequestsRefillNanos = nowNanos;
+
+        if (availableRequests < 1)
+        {
+            return false;
+        }
+        availableRequests--;
+        return true;
+    }
+
+    /**
+     * Runs the specified tasks on an executor and waits for all of them to complete.
+     *
+     * @param executorService the executor
+     * @param tasks the tasks
+     *
+     * @return the results of the tasks in task order
+     * @throws AmazonClientException if any of the tasks failed
+     */
+    private List<Long> invokeAll(ExecutorService executorService, List<Callable<Long>> tasks)
+    {
+        try
+        {
+            List<Long> results = new ArrayList<>();
+            for (Future<Long> future : executorService.invokeAll(tasks))
+            {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while waiting for the transfer to complete.", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof AmazonClientException)
+            {
+                throw (AmazonClientException) e.getCause();
+            }
+            throw new AmazonClientException("Transfer failed.", e.getCause());
+        }
+    }
+
+    private void sleep(long millis)
+    {
+        if (millis <= 0)
+        {
+            return;
+        }
+
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while performing a request.", e);
+        }
+    }
+
+    /**
+     * Gets the objects of an existing bucket.
+     *
+     * @param bucketName the bucket name
+     *
+     * @return the objects of the bucket
+     * @throws AmazonS3Exception with the "NoSuchBucket" error code if the bucket does not exist
+     */
+    private ConcurrentNavigableMap<String, SimulatedS3Object> getBucket(String bucketName)
+    {
+        ConcurrentNavigableMap<String, SimulatedS3Object> bucket = buckets.get(bucketName);
+        if (bucket == null)
+        {
+            throw createAmazonS3Exception("The specified bucket does not exist", ERROR_CODE_NO_SUCH_BUCKET, HttpStatus.SC_NOT_FOUND);
+        }
+        return bucket;
+    }
+
+    /**
+     * Gets an existing object.
+     *
+     * @param bucketName the bucket name
+     * @param key the key
+     *
+     * @return the object
+     * @throws AmazonS3Exception with the "NoSuchKey" error code if the object does not exist
+     */
+    private SimulatedS3Object getObject(String bucketName, String key)
+    {
+        SimulatedS3Object simulatedS3Object = getBucket(bucketName).get(key);
+        if (simulatedS3Object == null)
+        {
+            throw createAmazonS3Exception("The specified key does not exist.", ERROR_CODE_NO_SUCH_KEY, HttpStatus.SC_NOT_FOUND);
+        }
+        return simulatedS3Object;
+    }
+
+    private AmazonS3Exception createAmazonS3Exception(String message, String errorCode, int statusCode)
+    {
+        AmazonS3Exception amazonS3Exception = new AmazonS3Exception(message);
+        amazonS3Exception.setErrorCode(errorCode);
+        amazonS3Exception.setStatusCode(statusCode);
+        return amazonS3Exception;
+    }
+
+    /**
+     * Reads the data of a put object request from either its file or its input stream.
+     *
+     * @param putObjectRequest the put object request
+     *
+     * @return the data
+     */
+    private byte[] readData(PutObjectRequest putObjectRequest)
+    {
+        try (InputStream inputStream = putObjectRequest.getFile() != null ? new FileInputStream(putObjectRequest.getFile()) :
+            putObjectRequest.getInputStream())
+        {
+            return IOUtils.toByteArray(inputStream);
+        }
+        catch (IOException e)
+        {
+            throw new AmazonClientException("Unable to read the data of key " + putObjectRequest.getKey(), e);
+        }
+    }
+
+    /**
+     * Creates the metadata of a stored object from the metadata of the request.
+     *
+     * @param requestMetadata the optional metadata of the request
+     *
+     * @return the object metadata
+     */
+    private ObjectMetadata createObjectMetadata(ObjectMetadata requestMetadata)
+    {
+        ObjectMetadata metadata = requestMetadata == null ? new ObjectMetadata() : requestMetadata.clone();
+        metadata.setLastModified(new Date());
+        return metadata;
+    }
+
+    private TransferProgress createCompletedProgress(long bytes)
+    {
+        TransferProgress transferProgress = new TransferProgress();
+        transferProgress.setTotalBytesToTransfer(bytes);
+        transferProgress.updateProgress(bytes);
+        return transferProgress;
+    }
+
+    /**
+     * Implementation copied from {@link TransferManager#listFiles}.
+     */
+    private void listFiles(File dir, List<File> results, boolean includeSubDirectories)
+    {
+        File[] found = dir.listFiles();
+        if (found != null)
+        {
+            for (File f : found)
+            {
+                if (f.isDirectory())
+                {
+                    if (includeSubDirectories)
+                    {
+                        listFiles(f, results, includeSubDirectories);
+                    }
+                }
+                else
+                {
+                    results.add(f);
+                }
+            }
+        }
+    }
+
+    /**
+     * An object stored in a simulated bucket.
+     */
+    private static class SimulatedS3Object
+    {
+        private final byte[] data;
+
+        private final ObjectMetadata objectMetadata;
+
+        private SimulatedS3Object(byte[] data, ObjectMetadata objectMetadata)
+        {
+            this.data = data;
+            this.objectMetadata = objectMetadata;
+            this.objectMetadata.setContentLength(data.length);
+        }
+
+        private byte[] getData()
+        {
+            return data;
+        }
+
+        private ObjectMetadata getObjectMetadata()
+        {
+            return objectMetadata;
+        }
+    }
+
+    /**
+     * A thread factory that creates named daemon threads, so the transfer threads never keep the JVM from exiting.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory
+    {
+        private final String threadNamePrefix;
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private DaemonThreadFactory(String threadNamePrefix)
+        {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -28,6 +28,13 @@ ALTER TABLE BUS_OBJCT_FRMT ADD CONSTRAINT BUS_OBJCT_FRMT_CK1 CHECK (LTST_VRSN_FL
 -- Create a composite key. This is tested in a JUnit by attempting to insert 2 rows with the same format and format version.
 CREATE UNIQUE INDEX BUS_OBJCT_FRMT_AK ON BUS_OBJCT_FRMT (BUS_OBJCT_DFNTN_ID, USAGE_CD, FILE_TYPE_CD, FRMT_VRSN_NB);
 
+-- Create the indexes used by the latest business object data version lookups. H2 does not support partial indexes, so the latest version flags are
+-- index columns here instead of the index conditions used by the Postgres create script.
+CREATE INDEX BUS_OBJCT_DATA_IX3 ON BUS_OBJCT_DATA (BUS_OBJCT_FRMT_ID, PRTN_VALUE_TX, PRTN_VALUE_2_TX, PRTN_VALUE_3_TX, PRTN_VALUE_4_TX, PRTN_VALUE_5_TX,
+  BUS_OBJCT_DATA_STTS_CD, LTST_STTS_VRSN_FL);
+CREATE INDEX BUS_OBJCT_DATA_IX4 ON BUS_OBJCT_DATA (BUS_OBJCT_FRMT_ID, PRTN_VALUE_TX, PRTN_VALUE_2_TX, PRTN_VALUE_3_TX, PRTN_VALUE_4_TX, PRTN_VALUE_5_TX,
+  LTST_VRSN_FL);
+
 -- TODO: Need to revisit this to see if the H2 in-memory database supports views. If so, we can un-ignore a JUnit that uses it.
 -- CREATE OR REPLACE VIEW biz_dt_file_vw AS
 -- SELECT sf.strge_file_id,
@@ -40,6 +40,24 @@ public enum ConfigurationValue
      */
     SHOW_SQL("hibernate.show_sql", "false"),
 
+    /**
+     * The Hibernate batch size used when initializing lazy collections and proxies. Uninitialized collections of the same role (e.g. the storage files of all
+     * storage units of a business object data) are loaded together in batches of this size instead of one statement per collection. The default is 100.
+     */
+    HIBERNATE_DEFAULT_BATCH_FETCH_SIZE("hibernate.default_batch_fetch_size", 100),
+
+    /**
+     * The Hibernate JDBC batch size used when flushing inserts and updates (e.g. storage files registered with a business object data). The default is 100.
+     */
+    HIBERNATE_JDBC_BATCH_SIZE("hibernate.jdbc.batch_size", 100),
+
+    /**
+     * Determines whether Hibernate collects statistics, including the second level cache and query cache hit and miss counts per cache region. The statistics
+     * are exposed over JMX as the "org.finra.dm:type=HibernateStatistics" MBean, which can also turn the collection on and off at runtime. Default to not
+     * collecting statistics.
+     */
+    HIBERNATE_GENERATE_STATISTICS("hibernate.generate_statistics", "false"),
+
     /**
      * The S3 managed bucket name. This is required so there is no default.
      */
@@ -50,6 +68,21 @@ public enum ConfigurationValue
      */
     S3_ENDPOINT("s3.endpoint", null),
 
+    /**
+     * The size in bytes at or above which S3 objects are copied using parallel multipart copy requests. The default is 100 MB.
+     */
+    S3_COPY_MULTIPART_THRESHOLD_BYTES("s3.copy.multipart.threshold.bytes", 104857600L),
+
+    /**
+     * The size in bytes of each part of a multipart S3 copy. The default is 64 MB.
+     */
+    S3_COPY_MULTIPART_PART_SIZE_BYTES("s3.copy.multipart.part.size.bytes", 67108864L),
+
+    /**
+     * The maximum number of parts of a multipart S3 copy that are copied concurrently. The default is 20.
+     */
+    S3_COPY_MAX_THREADS("s3.copy.max.threads", 20),
+
     /**
      * The HTTP proxy hostname. This is optional and there is no default.
      */
@@ -127,6 +160,30 @@ public enum ConfigurationValue
      */
     JMS_PUBLISHING_JOB_CRON_EXPRESSION("jms.publishing.job.cron.expression", "0 0/5 * * * ?"),
 
+    /**
+     * The maximum number of JMS messages each worker of the "jmsPublishing" system job claims and publishes at a time using SQS batch sends. The default is
+     * 100.
+     */
+    JMS_PUBLISHING_JOB_MAX_MESSAGES_PER_TRANSACTION("jms.publishing.job.max.messages.per.transaction", 100),
+
+    /**
+     * The number of workers the "jmsPublishing" system job runs to publish JMS messages concurrently. Changing it requires a server restart. The default is 4.
+     */
+    JMS_PUBLISHING_JOB_WORKER_COUNT("jms.publishing.job.worker.count", 4),
+
+    /**
+     * The number of seconds a JMS message stays claimed by a worker of the "jmsPublishing" system job. A message that fails to be published is retried by
+     * any worker once its lease expires. The default is 300.
+     */
+    JMS_PUBLISHING_JOB_LEASE_SECONDS("jms.publishing.job.lease.seconds", 300),
+
+    /**
+     * A comma separated list of the JMS queue names whose messages the "jmsPublishing" system job publishes in order. The messages of these queues are
+     * published by a single worker at a time, and a message that fails to be published holds back the newer messages of its queue until it is published.
+     * The default is no queues.
+     */
+    JMS_PUBLISHING_JOB_ORDERED_QUEUE_NAMES("jms.publishing.job.ordered.queue.names", null),
+
     /**
      * The tokenized template of the Activiti Id. The default is computed dynamically so it is not listed here.
      */
@@ -343,6 +400,13 @@ public enum ConfigurationValue
      */
     DB_IN_CLAUSE_CHUNK_SIZE("db.in.clause.chunk.size", 1000),
 
+    /**
+     * Determines whether business object data lookups with more partition filters than fit in a single request are resolved with bulk queries that match up to
+     * the in clause chunk size of partition filters each and select the latest versions in memory, instead of one query with correlated sub-queries per chunk
+     * of partition filters. The default is true.
+     */
+    BUSINESS_OBJECT_DATA_PARTITION_FILTERS_BULK_LOOKUP_ENABLED("business.object.data.partition.filters.bulk.lookup.enabled", "true"),
+
     /**
      * The thread pool core pool size. The default is 5.
      */
@@ -358,11 +422,67 @@ public enum ConfigurationValue
      */
     THREAD_POOL_KEEP_ALIVE_SECS("thread.pool.keep.alive.secs", 60),
 
+    /**
+     * The maximum time in milliseconds that a task submitted to a full notification or "@Async" thread pool waits for room in the queue before it is rejected.
+     * The default is 10 seconds.
+     */
+    THREAD_POOL_REJECTED_TASK_MAX_WAIT_MILLIS("thread.pool.rejected.task.max.wait.millis", 10000L),
+
+    /**
+     * The thread pool queue capacity. Threads beyond the core pool size are only started once the queue is full. Tasks submitted while both the queue and the
+     * pool are full wait for room in the queue for up to the time set by "thread.pool.rejected.task.max.wait.millis", and are then rejected with a
+     * RejectedExecutionException. They never run on the calling thread. The default is 1000.
+     */
+    THREAD_POOL_QUEUE_CAPACITY("thread.pool.queue.capacity", 1000),
+
+    /**
+     * The notification thread pool core pool size. The default is 5.
+     */
+    NOTIFICATION_THREAD_POOL_CORE_POOL_SIZE("notification.thread.pool.core.pool.size", 5),
+
+    /**
+     * The notification thread pool max pool size. The default is 20.
+     */
+    NOTIFICATION_THREAD_POOL_MAX_POOL_SIZE("notification.thread.pool.max.pool.size", 20),
+
+    /**
+     * The notification thread pool queue capacity. Notification events submitted while both the queue and the pool are full wait for room in the queue for up
+     * to the time set by "thread.pool.rejected.task.max.wait.millis", and are then rejected with a RejectedExecutionException. They are never processed on the
+     * calling thread. The default is 1000.
+     */
+    NOTIFICATION_THREAD_POOL_QUEUE_CAPACITY("notification.thread.pool.queue.capacity", 1000),
+
+    /**
+     * The Activiti job executor thread pool core pool size. The default is 5.
+     */
+    ACTIVITI_JOB_EXECUTOR_THREAD_POOL_CORE_POOL_SIZE("activiti.job.executor.thread.pool.core.pool.size", 5),
+
+    /**
+     * The Activiti job executor thread pool max pool size. The default is 20.
+     */
+    ACTIVITI_JOB_EXECUTOR_THREAD_POOL_MAX_POOL_SIZE("activiti.job.executor.thread.pool.max.pool.size", 20),
+
+    /**
+     * The Activiti job executor thread pool queue capacity. Jobs acquired while both the queue and the pool are full are executed by the job acquisition
+     * thread, which stops acquiring jobs until they complete. The default is 100.
+     */
+    ACTIVITI_JOB_EXECUTOR_THREAD_POOL_QUEUE_CAPACITY("activiti.job.executor.thread.pool.queue.capacity", 100),
+
     /**
      * JMS listener concurrency limits via a "lower-upper" String, e.g. "5-10". Refer to DefaultMessageListenerContainer#setConcurrency for details.
      */
     JMS_LISTENER_POOL_CONCURRENCY_LIMITS("jms.listener.pool.concurrency.limits", "3-10"),
 
+    /**
+     * The number of messages each JMS listener consumer receives from SQS ahead of processing them. The messages are received with batch requests of up to ten
+     * messages, but a message received by a busy consumer waits for that consumer even when another consumer is idle. The SQS visibility timeout of a
+     * prefetched message starts when it is received, so all the prefetched messages must get processed within the visibility timeout of the queue. Otherwise,
+     * SQS makes them visible again and they get delivered twice (e.g. while a consumer copies a large file in performCompleteUploadSingleMessage). Keep this
+     * value low enough that this number of messages times the longest message processing time stays under the visibility timeout. The default is 1, which
+     * turns batch receives off, since each consumer then receives a single message per SQS request. Raise it to receive messages in batches.
+     */
+    JMS_LISTENER_MESSAGES_TO_PREFETCH("jms.listener.messages.to.prefetch", 1),
+
     /**
      * The optional Log4J override configuration.
      */
@@ -422,6 +542,11 @@ public enum ConfigurationValue
      */
     SECURITY_HTTP_HEADER_ROLE_REGEX_GROUP("security.http.header.role.regex.group", null),
 
+    /**
+     * The interval in seconds between the background refreshes of the security role to function mappings snapshot. The default is 60 seconds.
+     */
+    SECURITY_FUNCTIONS_REFRESH_INTERVAL_SECS("security.functions.refresh.interval.secs", 60),
+
     /**
      * Indicates whether the data management events are posted to AWS SQS.
      */
@@ -470,6 +595,23 @@ public enum ConfigurationValue
      */
     DM_NOTIFICATION_SQS_BUSINESS_OBJECT_DATA_STATUS_CHANGE_VELOCITY_TEMPLATE("dm.notification.sqs.business.object.data.status.change.velocity.template", null),
 
+    /**
+     * Indicates whether cache invalidation messages are broadcast to and received from the other nodes of a clustered deployment. The default is false which
+     * is suitable for a single node deployment.
+     */
+    DM_CACHE_INVALIDATION_ENABLED("dm.cache.invalidation.enabled", "false"),
+
+    /**
+     * A comma separated list of AWS SQS queue names where cache invalidation messages are broadcast to. Each node listens on one of these queues.
+     */
+    DM_CACHE_INVALIDATION_SQS_QUEUE_NAMES("dm.cache.invalidation.sqs.queue.names", null),
+
+    /**
+     * AWS SQS queue name where this node receives cache invalidation messages from. Since this value is different for each node, it is normally specified as
+     * a system property rather than in the database configuration. Messages are never broadcast to this queue.
+     */
+    DM_CACHE_INVALIDATION_SQS_INCOMING_QUEUE_NAME("dm.cache.invalidation.sqs.incoming.queue.name", null),
+
     /**
      * The cache time to live in seconds defined in net.sf.ehcache.config.CacheConfiguration.
      */
@@ -490,6 +632,39 @@ public enum ConfigurationValue
      */
     DM_CACHE_MEMORY_STORE_EVICTION_POLICY("dm.cache.memory.store.eviction.policy", "LRU"),
 
+    /**
+     * The time to live in seconds of the cache that holds the security functions for each security role.
+     */
+    DM_CACHE_SECURITY_FUNCTIONS_FOR_ROLE_TIME_TO_LIVE_SECONDS("dm.cache.security.functions.for.role.time.to.live.seconds", 300L),
+
+    /**
+     * The max elements in memory of the cache that holds the security functions for each security role.
+     */
+    DM_CACHE_SECURITY_FUNCTIONS_FOR_ROLE_MAX_ELEMENTS_IN_MEMORY("dm.cache.security.functions.for.role.max.elements.in.memory", 1000),
+
+    /**
+     * The time to live in seconds of the cache that holds the list of all security functions.
+     */
+    DM_CACHE_SECURITY_FUNCTIONS_TIME_TO_LIVE_SECONDS("dm.cache.security.functions.time.to.live.seconds", 300L),
+
+    /**
+     * The max elements in memory of the cache that holds the list of all security functions.
+     */
+    DM_CACHE_SECURITY_FUNCTIONS_MAX_ELEMENTS_IN_MEMORY("dm.cache.security.functions.max.elements.in.memory", 10),
+
+    /**
+     * The time to live in seconds of the cache that holds the index of the business object data notification registrations. The index is kept up to date by
+     * the registration changes made on this node and cleared by the cache invalidation messages of the other nodes, so the time to live only bounds the
+     * staleness when a cache invalidation message is lost.
+     */
+    DM_CACHE_NOTIFICATION_REGISTRATION_INDEX_TIME_TO_LIVE_SECONDS("dm.cache.notification.registration.index.time.to.live.seconds", 300L),
+
+    /**
+     * The max elements in memory of the cache that holds the index of the business object data notification registrations. The whole index is a single
+     * element.
+     */
+    DM_CACHE_NOTIFICATION_REGISTRATION_INDEX_MAX_ELEMENTS_IN_MEMORY("dm.cache.notification.registration.index.max.elements.in.memory", 1),
+
     /**
      * The default value for EC2 node IAM profile name when creating EMR cluster.
      */
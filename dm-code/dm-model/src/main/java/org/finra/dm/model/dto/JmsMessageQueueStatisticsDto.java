@@ -0,0 +1,87 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.model.dto;
+
+import java.sql.Timestamp;
+
+/**
+ * A snapshot of the database queue of JMS messages that are waiting to be published.
+ */
+public class JmsMessageQueueStatisticsDto
+{
+    /**
+     * The number of messages in the queue.
+     */
+    private long messageCount;
+
+    /**
+     * The number of messages that are claimed by a publishing worker with a lease that has not expired.
+     */
+    private long leasedMessageCount;
+
+    /**
+     * The creation time of the oldest message in the queue, or null when the queue is empty.
+     */
+    private Timestamp oldestMessageCreatedOn;
+
+    public long getMessageCount()
+    {
+        return messageCount;
+    }
+
+    public void setMessageCount(long messageCount)
+    {
+        this.messageCount = messageCount;
+    }
+
+    public long getLeasedMessageCount()
+    {
+        return leasedMessageCount;
+    }
+
+    public void setLeasedMessageCount(long leasedMessageCount)
+    {
+        this.leasedMessageCount = leasedMessageCount;
+    }
+
+    public Timestamp getOldestMessageCreatedOn()
+    {
+        return oldestMessageCreatedOn;
+    }
+
+    public void setOldestMessageCreatedOn(Timestamp oldestMessageCreatedOn)
+    {
+        this.oldestMessageCreatedOn = oldestMessageCreatedOn;
+    }
+
+    /**
+     * Gets the age of the oldest message in the queue relative to the specified time.
+     *
+     * @param currentTimeMillis the current time in milliseconds
+     *
+     * @return the age in milliseconds, or 0 when the queue is empty
+     */
+    public long getOldestMessageAgeMillis(long currentTimeMillis)
+    {
+        return oldestMessageCreatedOn == null ? 0 : Math.max(0, currentTimeMillis - oldestMessageCreatedOn.getTime());
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[messageCount=" + messageCount + ", leasedMessageCount=" + leasedMessageCount + ", oldestMessageCreatedOn=" + oldestMessageCreatedOn + "]";
+    }
+}
@@ -23,6 +23,7 @@ public class ManifestFile
     private String fileName;
     private Long fileSizeBytes;
     private Long rowCount;
+    private String md5;
 
     public String getFileName()
     {
@@ -54,6 +55,16 @@ public class ManifestFile
         this.fileSizeBytes = fileSizeBytes;
     }
 
+    public String getMd5()
+    {
+        return md5;
+    }
+
+    public void setMd5(String md5)
+    {
+        this.md5 = md5;
+    }
+
     /**
      * Manifest files are only considered equal if their fileName is equal. Other properties such as file size and row count are not considered.
      *
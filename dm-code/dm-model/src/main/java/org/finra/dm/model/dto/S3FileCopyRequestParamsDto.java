@@ -30,6 +30,16 @@ public class S3FileCopyRequestParamsDto extends S3FileTransferRequestParamsDto
      */
     private String targetBucketName;
 
+    /**
+     * The size in bytes at or above which the object is copied using parallel multipart copy requests. The transfer manager default is used when not set.
+     */
+    private Long multipartCopyThreshold;
+
+    /**
+     * The size in bytes of each part of a multipart copy. The transfer manager default is used when not set.
+     */
+    private Long multipartCopyPartSize;
+
     public String getSourceBucketName()
     {
         return sourceBucketName;
@@ -49,4 +59,24 @@ public class S3FileCopyRequestParamsDto extends S3FileTransferRequestParamsDto
     {
         this.targetBucketName = targetBucketName;
     }
+
+    public Long getMultipartCopyThreshold()
+    {
+        return multipartCopyThreshold;
+    }
+
+    public void setMultipartCopyThreshold(Long multipartCopyThreshold)
+    {
+        this.multipartCopyThreshold = multipartCopyThreshold;
+    }
+
+    public Long getMultipartCopyPartSize()
+    {
+        return multipartCopyPartSize;
+    }
+
+    public void setMultipartCopyPartSize(Long multipartCopyPartSize)
+    {
+        this.multipartCopyPartSize = multipartCopyPartSize;
+    }
 }
@@ -80,6 +80,16 @@ public class S3FileTransferRequestParamsDto extends AwsParamsDto
      * The maximum number of threads to use for file copying.
      */
     private Integer maxThreads;
+
+    /**
+     * The optional size in bytes at or above which a file is uploaded as a multipart upload.
+     */
+    private Long multipartUploadThreshold;
+
+    /**
+     * The optional minimum size in bytes of a part of a multipart upload.
+     */
+    private Long multipartUploadPartSize;
     
     /**
      * The KMS id to use for server side encryption.
@@ -186,6 +196,26 @@ public class S3FileTransferRequestParamsDto extends AwsParamsDto
         this.maxThreads = maxThreads;
     }
 
+    public Long getMultipartUploadThreshold()
+    {
+        return multipartUploadThreshold;
+    }
+
+    public void setMultipartUploadThreshold(Long multipartUploadThreshold)
+    {
+        this.multipartUploadThreshold = multipartUploadThreshold;
+    }
+
+    public Long getMultipartUploadPartSize()
+    {
+        return multipartUploadPartSize;
+    }
+
+    public void setMultipartUploadPartSize(Long multipartUploadPartSize)
+    {
+        this.multipartUploadPartSize = multipartUploadPartSize;
+    }
+
     public String getKmsKeyId()
     {
         return kmsKeyId;
@@ -273,6 +303,18 @@ public class S3FileTransferRequestParamsDto extends AwsParamsDto
             return this;
         }
 
+        public Builder multipartUploadThreshold(Long multipartUploadThreshold)
+        {
+            params.setMultipartUploadThreshold(multipartUploadThreshold);
+            return this;
+        }
+
+        public Builder multipartUploadPartSize(Long multipartUploadPartSize)
+        {
+            params.setMultipartUploadPartSize(multipartUploadPartSize);
+            return this;
+        }
+
         public Builder httpProxyHost(String httpProxyHost)
         {
             params.setHttpProxyHost(httpProxyHost);
@@ -15,6 +15,8 @@
 */
 package org.finra.dm.model.dto;
 
+import java.util.Map;
+
 /**
  * A DTO that contains the results of an S3 file/directory transfer.
  */
@@ -35,6 +37,21 @@ public class S3FileTransferResultsDto
      */
     private Long durationMillis;
 
+    /**
+     * The maximum number of multipart transfer parts that were in flight at the same time.
+     */
+    private Integer maxPartsInFlight;
+
+    /**
+     * The total number of request retries made during the transfer.
+     */
+    private Long totalRetries;
+
+    /**
+     * The hex encoded MD5 digests of the uploaded files keyed by S3 key, calculated while the files were uploaded.
+     */
+    private Map<String, String> md5s;
+
     public Long getTotalFilesTransferred()
     {
         return totalFilesTransferred;
@@ -64,4 +81,48 @@ public class S3FileTransferResultsDto
     {
         this.durationMillis = durationMillis;
     }
+
+    public Integer getMaxPartsInFlight()
+    {
+        return maxPartsInFlight;
+    }
+
+    public void setMaxPartsInFlight(Integer maxPartsInFlight)
+    {
+        this.maxPartsInFlight = maxPartsInFlight;
+    }
+
+    public Long getTotalRetries()
+    {
+        return totalRetries;
+    }
+
+    public void setTotalRetries(Long totalRetries)
+    {
+        this.totalRetries = totalRetries;
+    }
+
+    public Map<String, String> getMd5s()
+    {
+        return md5s;
+    }
+
+    public void setMd5s(Map<String, String> md5s)
+    {
+        this.md5s = md5s;
+    }
+
+    /**
+     * Gets the transfer rate, which is the total number of bytes transferred over the duration of the transfer.
+     *
+     * @return the transfer rate in bytes per second or null if the number of bytes transferred or the duration are not known
+     */
+    public Double getTransferRateInBytesPerSecond()
+    {
+        if (totalBytesTransferred == null || durationMillis == null || durationMillis == 0)
+        {
+            return null;
+        }
+        return totalBytesTransferred * 1000.0 / durationMillis;
+    }
 }
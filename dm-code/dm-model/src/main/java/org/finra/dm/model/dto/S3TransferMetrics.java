@@ -0,0 +1,287 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.model.dto;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counters for the S3 transfers performed by the S3 DAO, kept per transfer type. Besides the totals, the transfer latencies are recorded in a
+ * histogram with fixed buckets. The counters of each transfer type are available as a read-only view, so they can be exposed over JMX.
+ */
+public class S3TransferMetrics
+{
+    /**
+     * The upper bounds (inclusive) of the latency histogram buckets in milliseconds. The last bucket holds all latencies above the last bound.
+     */
+    public static final long[] LATENCY_BUCKET_UPPER_BOUNDS_MILLIS = {100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000, 300000, 900000};
+
+    /**
+     * The type of an S3 transfer.
+     */
+    public enum TransferType
+    {
+        UPLOAD, DOWNLOAD, COPY
+    }
+
+    private final Map<TransferType, TransferTypeMetrics> transferTypeMetrics = new EnumMap<>(TransferType.class);
+
+    private final AtomicInteger partsInFlight = new AtomicInteger();
+
+    public S3TransferMetrics()
+    {
+        for (TransferType transferType : TransferType.values())
+        {
+            transferTypeMetrics.put(transferType, new TransferTypeMetrics());
+        }
+    }
+
+    /**
+     * Records a finished transfer.
+     *
+     * @param transferType the transfer type
+     * @param succeeded specifies whether the transfer completed successfully
+     * @param bytesTransferred the number of bytes transferred
+     * @param durationMillis the duration of the transfer in milliseconds
+     * @param retries the number of request retries made during the transfer
+     */
+    public void recordTransfer(TransferType transferType, boolean succeeded, long bytesTransferred, long durationMillis, long retries)
+    {
+        TransferTypeMetrics metrics = transferTypeMetrics.get(transferType);
+
+        metrics.transferCount.incrementAndGet();
+        if (!succeeded)
+        {
+            metrics.failedTransferCount.incrementAndGet();
+        }
+        metrics.bytesTransferred.addAndGet(bytesTransferred);
+        metrics.durationMillis.addAndGet(durationMillis);
+        metrics.retryCount.addAndGet(retries);
+        metrics.latencyHistogram.incrementAndGet(getLatencyBucketIndex(durationMillis));
+    }
+
+    /**
+     * Records that a part of a multipart transfer started.
+     */
+    public void partStarted()
+    {
+        partsInFlight.incrementAndGet();
+    }
+
+    /**
+     * Records that a part of a multipart transfer completed or failed.
+     */
+    public void partFinished()
+    {
+        partsInFlight.decrementAndGet();
+    }
+
+    /**
+     * Gets the number of parts of multipart transfers currently in flight across all transfers.
+     *
+     * @return the number of parts in flight
+     */
+    public int getPartsInFlight()
+    {
+        return partsInFlight.get();
+    }
+
+    /**
+     * Gets the read-only view of the counters of the specified transfer type.
+     *
+     * @param transferType the transfer type
+     *
+     * @return the counters of the transfer type
+     */
+    public TransferTypeMetrics getTransferTypeMetrics(TransferType transferType)
+    {
+        return transferTypeMetrics.get(transferType);
+    }
+
+    public long getTransferCount(TransferType transferType)
+    {
+        return getTransferTypeMetrics(transferType).getTransferCount();
+    }
+
+    public long getFailedTransferCount(TransferType transferType)
+    {
+        return getTransferTypeMetrics(transferType).getFailedTransferCount();
+    }
+
+    public long getBytesTransferred(TransferType transferType)
+    {
+        return getTransferTypeMetrics(transferType).getBytesTransferred();
+    }
+
+    public long getDurationMillis(TransferType transferType)
+    {
+        return getTransferTypeMetrics(transferType).getDurationMillis();
+    }
+
+    public long getRetryCount(TransferType transferType)
+    {
+        return getTransferTypeMetrics(transferType).getRetryCount();
+    }
+
+    /**
+     * Gets the average transfer rate of the specified transfer type, which is the total number of bytes transferred over the total transfer duration.
+     *
+     * @param transferType the transfer type
+     *
+     * @return the transfer rate in bytes per second
+     */
+    public double getBytesPerSecond(TransferType transferType)
+    {
+        return getTransferTypeMetrics(transferType).getBytesPerSecond();
+    }
+
+    /**
+     * Gets the latency histogram of the specified transfer type. The element at index i holds the number of transfers that took at most {@link
+     * #LATENCY_BUCKET_UPPER_BOUNDS_MILLIS}[i] milliseconds and more than the previous bound. The last element holds the number of transfers that took longer
+     * than the last bound.
+     *
+     * @param transferType the transfer type
+     *
+     * @return the copy of the latency histogram
+     */
+    public long[] getLatencyHistogram(TransferType transferType)
+    {
+        return getTransferTypeMetrics(transferType).getLatencyHistogram();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (TransferType transferType : TransferType.values())
+        {
+            if (stringBuilder.length() > 0)
+            {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(String
+                .format("%s: %d transfers (%d failed), %d bytes, %.2f kBytes/s, %d retries, latency histogram %s", transferType,
+                    getTransferCount(transferType), getFailedTransferCount(transferType), getBytesTransferred(transferType),
+                    getBytesPerSecond(transferType) / 1024, getRetryCount(transferType), Arrays.toString(getLatencyHistogram(transferType))));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Gets the index of the latency histogram bucket for the specified duration.
+     *
+     * @param durationMillis the duration in milliseconds
+     *
+     * @return the bucket index
+     */
+    private int getLatencyBucketIndex(long durationMillis)
+    {
+        int index = 0;
+        while (index < LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length && durationMillis > LATENCY_BUCKET_UPPER_BOUNDS_MILLIS[index])
+        {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * The counters of a single transfer type. Only the enclosing class updates them.
+     */
+    public static class TransferTypeMetrics
+    {
+        private final AtomicLong transferCount = new AtomicLong();
+
+        private final AtomicLong failedTransferCount = new AtomicLong();
+
+        private final AtomicLong bytesTransferred = new AtomicLong();
+
+        private final AtomicLong durationMillis = new AtomicLong();
+
+        private final AtomicLong retryCount = new AtomicLong();
+
+        private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length + 1);
+
+        private TransferTypeMetrics()
+        {
+        }
+
+        public long getTransferCount()
+        {
+            return transferCount.get();
+        }
+
+        public long getFailedTransferCount()
+        {
+            return failedTransferCount.get();
+        }
+
+        public long getBytesTransferred()
+        {
+            return bytesTransferred.get();
+        }
+
+        public long getDurationMillis()
+        {
+            return durationMillis.get();
+        }
+
+        public long getRetryCount()
+        {
+            return retryCount.get();
+        }
+
+        /**
+         * Gets the average transfer rate, which is the total number of bytes transferred over the total transfer duration.
+         *
+         * @return the transfer rate in bytes per second
+         */
+        public double getBytesPerSecond()
+        {
+            long totalDurationMillis = getDurationMillis();
+            return totalDurationMillis == 0 ? 0 : getBytesTransferred() * 1000.0 / totalDurationMillis;
+        }
+
+        /**
+         * Gets the latency histogram. The element at index i holds the number of transfers that took at most the i-th latency bucket upper bound and more
+         * than the previous bound. The last element holds the number of transfers that took longer than the last bound.
+         *
+         * @return the copy of the latency histogram
+         */
+        public long[] getLatencyHistogram()
+        {
+            long[] result = new long[latencyHistogram.length()];
+            for (int i = 0; i < result.length; i++)
+            {
+                result[i] = latencyHistogram.get(i);
+            }
+            return result;
+        }
+
+        /**
+         * Gets the upper bounds (inclusive) of the latency histogram buckets in milliseconds.
+         *
+         * @return the copy of the latency bucket upper bounds
+         */
+        public long[] getLatencyBucketUpperBoundsMillis()
+        {
+            return LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.clone();
+        }
+    }
+}
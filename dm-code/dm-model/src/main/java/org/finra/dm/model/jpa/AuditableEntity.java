@@ -26,6 +26,11 @@ import javax.persistence.MappedSuperclass;
 @MappedSuperclass
 public abstract class AuditableEntity
 {
+    /**
+     * The query cache region used by the reference entity lookups.
+     */
+    public static final String REFERENCE_DATA_QUERY_CACHE_REGION = "dm.referenceDataQueries";
+
     @Column(name = "CREAT_TS")
     private Timestamp createdOn;
 
@@ -93,6 +93,13 @@ public class BusinessObjectDataEntity extends AuditableEntity
     @Type(type = "yes_no")
     private Boolean latestVersion;
 
+    /**
+     * Flags the latest version among the versions of this business object data that have the same status.
+     */
+    @Column(name = "ltst_stts_vrsn_fl")
+    @Type(type = "yes_no")
+    private Boolean latestStatusVersion = false;
+
     @ManyToOne
     @JoinColumn(name = "bus_objct_frmt_id", referencedColumnName = "bus_objct_frmt_id", nullable = false)
     private BusinessObjectFormatEntity businessObjectFormat;
@@ -203,6 +210,16 @@ public class BusinessObjectDataEntity extends AuditableEntity
         this.latestVersion = latestVersion;
     }
 
+    public Boolean getLatestStatusVersion()
+    {
+        return latestStatusVersion;
+    }
+
+    public void setLatestStatusVersion(Boolean latestStatusVersion)
+    {
+        this.latestStatusVersion = latestStatusVersion;
+    }
+
     public BusinessObjectFormatEntity getBusinessObjectFormat()
     {
         return businessObjectFormat;
@@ -31,6 +31,8 @@ import javax.persistence.Table;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 
 /**
@@ -40,6 +42,7 @@ import org.hibernate.annotations.Type;
 @XmlType
 @Table(name = BusinessObjectFormatEntity.TABLE_NAME)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class BusinessObjectFormatEntity extends AuditableEntity
 {
     /**
@@ -15,6 +15,8 @@
 */
 package org.finra.dm.model.jpa;
 
+import java.sql.Timestamp;
+
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -56,6 +58,18 @@ public class JmsMessageEntity extends AuditableEntity
     @Column(name = "msg_tx")
     private String messageText;
 
+    /**
+     * The lease owner column. Identifies the publishing worker that claimed the message, or is null when the message is not claimed.
+     */
+    @Column(name = "lease_owner_tx")
+    private String leaseOwner;
+
+    /**
+     * The lease expiration column. Once the lease expires, the message can be claimed by another publishing worker.
+     */
+    @Column(name = "lease_exprn_ts")
+    private Timestamp leaseExpiration;
+
     public Integer getId()
     {
         return id;
@@ -86,6 +100,26 @@ public class JmsMessageEntity extends AuditableEntity
         this.messageText = messageText;
     }
 
+    public String getLeaseOwner()
+    {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner)
+    {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public Timestamp getLeaseExpiration()
+    {
+        return leaseExpiration;
+    }
+
+    public void setLeaseExpiration(Timestamp leaseExpiration)
+    {
+        this.leaseExpiration = leaseExpiration;
+    }
+
     @Override
     public boolean equals(Object o)
     {
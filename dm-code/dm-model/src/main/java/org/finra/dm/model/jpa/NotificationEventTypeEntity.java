@@ -22,6 +22,9 @@ import javax.persistence.Table;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * A notification event type.
  */
@@ -29,6 +32,7 @@ import javax.xml.bind.annotation.XmlType;
 @XmlType
 @Table(name = "ntfcn_event_type_cd_lk")
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class NotificationEventTypeEntity extends AuditableEntity
 {
     /**
@@ -26,6 +26,9 @@ import javax.persistence.Table;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Attribute associated with a storage.
  */
@@ -33,6 +36,7 @@ import javax.xml.bind.annotation.XmlType;
 @XmlType
 @Table(name = StorageAttributeEntity.TABLE_NAME)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class StorageAttributeEntity extends AuditableEntity
 {
     /**
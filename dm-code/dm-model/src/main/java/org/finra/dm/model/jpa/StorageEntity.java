@@ -32,6 +32,9 @@ import javax.persistence.Table;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * A storage.
  */
@@ -39,6 +42,7 @@ import javax.xml.bind.annotation.XmlType;
 @XmlType
 @Table(name = StorageEntity.TABLE_NAME)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class StorageEntity extends AuditableEntity
 {
     /**
@@ -77,6 +81,7 @@ public class StorageEntity extends AuditableEntity
 
     @OneToMany(mappedBy = "storage", orphanRemoval = true, cascade = {CascadeType.ALL})
     @OrderBy("name")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Collection<StorageAttributeEntity> attributes;
 
     public String getName()
@@ -58,6 +58,13 @@ public class StorageFileEntity extends AuditableEntity
     @Column(name = "row_ct")
     private Long rowCount;
 
+    /**
+     * The hex encoded MD5 digest of the file contents. The uploader calculates it while uploading the file and the downloader verifies it after the download.
+     * It is null for files registered without a digest.
+     */
+    @Column(name = "md5_hash_tx", length = 32)
+    private String md5;
+
     @ManyToOne
     @JoinColumn(name = "strge_unit_id", referencedColumnName = "strge_unit_id", nullable = false)
     private StorageUnitEntity storageUnit;
@@ -97,6 +104,16 @@ public class StorageFileEntity extends AuditableEntity
         this.rowCount = rowCount;
     }
 
+    public String getMd5()
+    {
+        return md5;
+    }
+
+    public void setMd5(String md5)
+    {
+        this.md5 = md5;
+    }
+
     public void setPath(String path)
     {
         this.path = path;
@@ -20,10 +20,14 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.Table;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * A storage platform.
  */
@@ -31,8 +35,11 @@ import javax.xml.bind.annotation.XmlType;
 @XmlType
 @Table(name = StoragePlatformEntity.TABLE_NAME)
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NamedQueries(
-    {@NamedQuery(name = StoragePlatformEntity.QUERY_GET_STORAGE_PLATFORM_BY_NAME, query = StoragePlatformEntity.GET_STORAGE_PLATFORM_BY_NAME_QUERY_STRING),
+    {@NamedQuery(name = StoragePlatformEntity.QUERY_GET_STORAGE_PLATFORM_BY_NAME, query = StoragePlatformEntity.GET_STORAGE_PLATFORM_BY_NAME_QUERY_STRING,
+        hints = {@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = AuditableEntity.REFERENCE_DATA_QUERY_CACHE_REGION)}),
         @NamedQuery(name = StoragePlatformEntity.QUERY_GET_S3_STORAGE_PLATFORM,
             query = "select spe from StoragePlatformEntity spe where spe.name = '" + StoragePlatformEntity.S3 + "'")})
 public class StoragePlatformEntity extends AuditableEntity
@@ -31,6 +31,8 @@ import javax.persistence.Table;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.hibernate.annotations.Type;
+
 /**
  * A storage unit.
  */
@@ -69,6 +71,20 @@ public class StorageUnitEntity extends AuditableEntity
     @Column(name = "drcty_path_tx", length = 1024)
     private String directoryPath;
 
+    /**
+     * Flags the storage unit of the latest business object data version in this storage.
+     */
+    @Column(name = "ltst_vrsn_fl")
+    @Type(type = "yes_no")
+    private Boolean latestVersion = false;
+
+    /**
+     * Flags the storage unit of the latest business object data version in this storage among the versions that have the same status.
+     */
+    @Column(name = "ltst_stts_vrsn_fl")
+    @Type(type = "yes_no")
+    private Boolean latestStatusVersion = false;
+
     public Integer getId()
     {
         return id;
@@ -89,6 +105,26 @@ public class StorageUnitEntity extends AuditableEntity
         this.directoryPath = directoryPath;
     }
 
+    public Boolean getLatestVersion()
+    {
+        return latestVersion;
+    }
+
+    public void setLatestVersion(Boolean latestVersion)
+    {
+        this.latestVersion = latestVersion;
+    }
+
+    public Boolean getLatestStatusVersion()
+    {
+        return latestStatusVersion;
+    }
+
+    public void setLatestStatusVersion(Boolean latestStatusVersion)
+    {
+        this.latestStatusVersion = latestStatusVersion;
+    }
+
     public Collection<StorageFileEntity> getStorageFiles()
     {
         return storageFiles;
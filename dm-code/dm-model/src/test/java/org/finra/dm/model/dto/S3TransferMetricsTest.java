@@ -0,0 +1,73 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.model.dto;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * This class tests the functionality of S3TransferMetrics.
+ */
+public class S3TransferMetricsTest
+{
+    @Test
+    public void testRecordTransfer()
+    {
+        S3TransferMetrics s3TransferMetrics = new S3TransferMetrics();
+
+        s3TransferMetrics.recordTransfer(S3TransferMetrics.TransferType.UPLOAD, true, 1000L, 50L, 0L);
+        s3TransferMetrics.recordTransfer(S3TransferMetrics.TransferType.UPLOAD, false, 3000L, 950L, 2L);
+        s3TransferMetrics.recordTransfer(S3TransferMetrics.TransferType.UPLOAD, true, 0L, 1000000L, 0L);
+
+        assertEquals(3L, s3TransferMetrics.getTransferCount(S3TransferMetrics.TransferType.UPLOAD));
+        assertEquals(1L, s3TransferMetrics.getFailedTransferCount(S3TransferMetrics.TransferType.UPLOAD));
+        assertEquals(4000L, s3TransferMetrics.getBytesTransferred(S3TransferMetrics.TransferType.UPLOAD));
+        assertEquals(2L, s3TransferMetrics.getRetryCount(S3TransferMetrics.TransferType.UPLOAD));
+        assertEquals(4000L * 1000.0 / 1001000, s3TransferMetrics.getBytesPerSecond(S3TransferMetrics.TransferType.UPLOAD), 0.001);
+
+        // The latencies fall into the first bucket, the bucket up to a second and the overflow bucket.
+        long[] expectedLatencyHistogram = new long[S3TransferMetrics.LATENCY_BUCKET_UPPER_BOUNDS_MILLIS.length + 1];
+        expectedLatencyHistogram[0] = 1;
+        expectedLatencyHistogram[3] = 1;
+        expectedLatencyHistogram[expectedLatencyHistogram.length - 1] = 1;
+        assertArrayEquals(expectedLatencyHistogram, s3TransferMetrics.getLatencyHistogram(S3TransferMetrics.TransferType.UPLOAD));
+
+        // The view of the transfer type holds the same counters.
+        S3TransferMetrics.TransferTypeMetrics uploadMetrics = s3TransferMetrics.getTransferTypeMetrics(S3TransferMetrics.TransferType.UPLOAD);
+        assertEquals(3L, uploadMetrics.getTransferCount());
+        assertEquals(1001000L, uploadMetrics.getDurationMillis());
+        assertArrayEquals(expectedLatencyHistogram, uploadMetrics.getLatencyHistogram());
+        assertArrayEquals(S3TransferMetrics.LATENCY_BUCKET_UPPER_BOUNDS_MILLIS, uploadMetrics.getLatencyBucketUpperBoundsMillis());
+
+        // Other transfer types are not affected.
+        assertEquals(0L, s3TransferMetrics.getTransferCount(S3TransferMetrics.TransferType.COPY));
+        assertEquals(0, s3TransferMetrics.getBytesPerSecond(S3TransferMetrics.TransferType.COPY), 0);
+    }
+
+    @Test
+    public void testPartsInFlight()
+    {
+        S3TransferMetrics s3TransferMetrics = new S3TransferMetrics();
+
+        s3TransferMetrics.partStarted();
+        s3TransferMetrics.partStarted();
+        s3TransferMetrics.partFinished();
+
+        assertEquals(1, s3TransferMetrics.getPartsInFlight());
+    }
+}
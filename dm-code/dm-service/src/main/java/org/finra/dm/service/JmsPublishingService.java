@@ -15,15 +15,42 @@
 */
 package org.finra.dm.service;
 
+import java.util.List;
+
+import org.finra.dm.model.dto.JmsMessageQueueStatisticsDto;
+import org.finra.dm.model.jpa.JmsMessageEntity;
+
 /**
  * The JMS publishing service.
  */
 public interface JmsPublishingService
 {
     /**
-     * Publishes and removes from the database queue the oldest JMS message.
+     * Claims the oldest JMS messages that are not claimed by another worker by leasing them to the specified owner. Concurrent callers, including callers on
+     * other nodes, claim disjoint sets of messages. The messages of the queues configured as ordered are only claimed by one owner at a time.
+     *
+     * @param leaseOwner the lease owner that uniquely identifies the publishing worker
+     * @param maxMessages the maximum number of messages to claim
+     *
+     * @return the claimed JMS messages ordered from the oldest to the newest
+     */
+    public List<JmsMessageEntity> claimOldestJmsMessages(String leaseOwner, int maxMessages);
+
+    /**
+     * Publishes the specified claimed JMS messages using SQS batch sends and removes the published messages from the database queue. A message that fails to
+     * be published is logged and stays leased to the owner until its lease expires, so it gets retried by a later claim after a back off.
+     *
+     * @param leaseOwner the lease owner the messages were claimed by
+     * @param jmsMessageEntities the claimed JMS messages
+     *
+     * @return the number of messages that got published
+     */
+    public int publishClaimedJmsMessages(String leaseOwner, List<JmsMessageEntity> jmsMessageEntities);
+
+    /**
+     * Gets the statistics of the database queue of JMS messages that are waiting to be published.
      *
-     * @return true if a message was sent or false if no message was sent (i.e. no message needed to be sent).
+     * @return the JMS message queue statistics
      */
-    public boolean publishOldestJmsMessage();
+    public JmsMessageQueueStatisticsDto getJmsMessageQueueStatistics();
 }
@@ -15,11 +15,14 @@
 */
 package org.finra.dm.service;
 
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferMetrics;
 import org.finra.dm.model.api.xml.StorageFile;
 
 /**
@@ -56,6 +59,18 @@ public interface S3Service
      */
     public List<StorageFile> listDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto, boolean ignoreZeroByteDirectoryMarkers);
 
+    /**
+     * Iterates over all S3 objects matching the S3 key prefix in the given bucket (S3 bucket name). The listing pages are requested lazily as the iterator
+     * advances, so callers that only need a single pass, a count or an early exit do not materialize the whole listing.
+     *
+     * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to get
+     * listed.
+     * @param ignoreZeroByteDirectoryMarkers specifies whether to ignore 0 byte objects that represent S3 directories.
+     *
+     * @return the iterator over all S3 objects represented as storage files that match the prefix in the given bucket, in key order.
+     */
+    public Iterator<StorageFile> iterateDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto, boolean ignoreZeroByteDirectoryMarkers);
+
     /**
      * Uploads a local file into S3.
      *
@@ -113,16 +128,20 @@ public interface S3Service
      *
      * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name and the file list identify the S3 objects to be
      * deleted.
+     *
+     * @return the results with the number of deleted keys/objects and the duration of the delete.
      */
-    public void deleteFileList(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
+    public S3FileTransferResultsDto deleteFileList(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
 
     /**
      * Deletes keys/objects from specified bucket with matching prefix.
      *
      * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name and S3 key prefix identify the S3 objects to be
      * deleted.
+     *
+     * @return the results with the number of deleted keys/objects and the duration of the delete.
      */
-    public void deleteDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
+    public S3FileTransferResultsDto deleteDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto);
 
     /**
      * Deletes keys/objects from specified bucket with matching prefix.  This method does not fail in case cleaning is unsuccessful, but simply logs the
@@ -154,4 +173,22 @@ public interface S3Service
      * @throws InterruptedException if any problems were encountered.
      */
     public S3FileTransferResultsDto downloadDirectory(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto) throws InterruptedException;
+
+    /**
+     * Aborts any multipart uploads that were initiated in the specified S3 bucket older than threshold date.
+     *
+     * @param s3FileTransferRequestParamsDto the S3 file transfer request parameters. The S3 bucket name specifies the name of the bucket containing the
+     * multipart uploads to abort. The optional S3 key prefix limits the multipart uploads to abort to the ones of the keys that start with the prefix.
+     * @param thresholdDate the date indicating which multipart uploads should be aborted
+     *
+     * @return the total number of aborted multipart uploads
+     */
+    public int abortMultipartUploads(S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto, Date thresholdDate);
+
+    /**
+     * Gets the metrics of the S3 transfers (uploads, downloads and copies) performed so far.
+     *
+     * @return the S3 transfer metrics.
+     */
+    public S3TransferMetrics getTransferMetrics();
 }
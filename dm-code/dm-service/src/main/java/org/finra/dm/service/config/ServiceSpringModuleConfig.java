@@ -24,6 +24,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import javax.jms.ConnectionFactory;
 import javax.sql.DataSource;
@@ -38,6 +40,7 @@ import org.activiti.engine.RuntimeService;
 import org.activiti.engine.TaskService;
 import org.activiti.engine.cfg.ProcessEngineConfigurator;
 import org.activiti.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.activiti.engine.impl.jobexecutor.CallerRunsRejectedJobsHandler;
 import org.activiti.engine.impl.jobexecutor.JobExecutor;
 import org.activiti.engine.impl.scripting.BeansResolverFactory;
 import org.activiti.engine.impl.scripting.ResolverFactory;
@@ -62,19 +65,21 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 
 import org.finra.dm.core.ApplicationContextHolder;
 import org.finra.dm.core.AutowiringQuartzSpringBeanJobFactory;
+import org.finra.dm.core.BlockingRejectedExecutionHandler;
+import org.finra.dm.core.MonitoredThreadPoolTaskExecutor;
 import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.helper.AwsHelper;
 import org.finra.dm.model.dto.AwsParamsDto;
@@ -107,6 +112,11 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
      */
     public static final String CREATE_QUARTZ_TABLES_BEAN_NAME = "createQuartzTables";
 
+    /**
+     * The JMS listener container factory bean name used by the cache invalidation JMS listener.
+     */
+    public static final String CACHE_INVALIDATION_JMS_LISTENER_CONTAINER_FACTORY_BEAN_NAME = "cacheInvalidationJmsListenerContainerFactory";
+
     @Autowired
     private DataSource dmDataSource;
 
@@ -147,21 +157,74 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
     }
 
     /**
-     * Returns an Activiti job executor that uses our configured Async executor.
+     * Returns an Activiti job executor that uses its own bounded thread pool, so that Activiti asynchronous job executions (e.g. timers, messages, etc.) can't
+     * starve "@Async" methods of threads or vice versa. The thread pool rejects jobs once both its queue and its threads are full, and the rejected jobs are
+     * executed by the job acquisition thread, which stops acquiring more jobs until they complete.
      *
      * @return a Spring job executor.
      */
     @Bean
     public JobExecutor jobExecutor()
     {
-        return new SpringJobExecutor(getAsyncExecutor());
+        SpringJobExecutor jobExecutor = new SpringJobExecutor(activitiJobTaskExecutor());
+        jobExecutor.setRejectedJobsHandler(new CallerRunsRejectedJobsHandler());
+        return jobExecutor;
+    }
+
+    /**
+     * Returns the task executor that executes Activiti asynchronous jobs.
+     *
+     * @return the Activiti job task executor.
+     */
+    @Bean // This will call the "initialize" method of the ThreadPoolTaskExecutor automatically.
+    public TaskExecutor activitiJobTaskExecutor()
+    {
+        return createMonitoredTaskExecutor("activitiJobTaskExecutor-", ConfigurationValue.ACTIVITI_JOB_EXECUTOR_THREAD_POOL_CORE_POOL_SIZE,
+            ConfigurationValue.ACTIVITI_JOB_EXECUTOR_THREAD_POOL_MAX_POOL_SIZE, ConfigurationValue.ACTIVITI_JOB_EXECUTOR_THREAD_POOL_QUEUE_CAPACITY,
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the task executor that processes notification events. Methods annotated with "@Async" that name this executor run on it instead of the default
+     * Async executor, so that a burst of notification events only delays other notification events. Notification events submitted while both the queue and
+     * the threads of the executor are full wait for room in the queue, which slows down the producers. They are never processed on the calling thread, where
+     * they would join, and could roll back, the transaction of the caller.
+     *
+     * @return the notification task executor.
+     */
+    @Bean // This will call the "initialize" method of the ThreadPoolTaskExecutor automatically.
+    public TaskExecutor notificationTaskExecutor()
+    {
+        return createMonitoredTaskExecutor("notificationTaskExecutor-", ConfigurationValue.NOTIFICATION_THREAD_POOL_CORE_POOL_SIZE,
+            ConfigurationValue.NOTIFICATION_THREAD_POOL_MAX_POOL_SIZE, ConfigurationValue.NOTIFICATION_THREAD_POOL_QUEUE_CAPACITY,
+            createBlockingRejectedExecutionHandler());
     }
 
     /**
-     * Returns an Async "task" executor which is also a normal "executor". This is being wired into Activity via the job executor bean. It is also being used by
-     * the "@EnableAsync" annotation and the fact that this class implements AsyncConfigurer. That way, all methods annotated with "@Async" will be executed
-     * asynchronously by this executor. Thus, we have a shared thread pool that handles both Async method calls as well as Activiti asynchronous job executions
-     * (e.g. timers, messages, etc.).
+     * Returns the task executor that runs the workers of the "jmsPublishing" system job. The executor lives as long as the application context, so the
+     * system job doesn't create threads on every run, and it only accepts as many workers as one run of the system job submits.
+     *
+     * @return the JMS publishing task executor.
+     */
+    @Bean // This will call the "initialize" method of the ThreadPoolTaskExecutor automatically.
+    public AsyncTaskExecutor jmsPublishingTaskExecutor()
+    {
+        int workerCount = Math.max(1, configurationHelper.getProperty(ConfigurationValue.JMS_PUBLISHING_JOB_WORKER_COUNT, Integer.class));
+
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("jmsPublishingTaskExecutor-");
+        executor.setCorePoolSize(workerCount);
+        executor.setMaxPoolSize(workerCount);
+        executor.setQueueCapacity(workerCount);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Returns an Async "task" executor which is also a normal "executor". It is being used by the "@EnableAsync" annotation and the fact that this class
+     * implements AsyncConfigurer. That way, all methods annotated with "@Async" that don't name another executor will be executed asynchronously by this
+     * executor. Tasks submitted while both the queue and the threads of the executor are full wait for room in the queue, so that they still run
+     * asynchronously.
      *
      * @return the async task executor.
      */
@@ -169,15 +232,45 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
     @Bean // This will call the "initialize" method of the ThreadPoolTaskExecutor automatically.
     public TaskExecutor getAsyncExecutor()
     {
-        // Create a Spring thread pool "task" executor that is backed by a JDK Thread Pool Executor.
-        // Use the environment to make the key thread pool parameters configurable although changing them would require a server restart.
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_CORE_POOL_SIZE, Integer.class));
-        executor.setMaxPoolSize(configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_MAX_POOL_SIZE, Integer.class));
+        return createMonitoredTaskExecutor("asyncTaskExecutor-", ConfigurationValue.THREAD_POOL_CORE_POOL_SIZE, ConfigurationValue.THREAD_POOL_MAX_POOL_SIZE,
+            ConfigurationValue.THREAD_POOL_QUEUE_CAPACITY, createBlockingRejectedExecutionHandler());
+    }
+
+    /**
+     * Creates a Spring thread pool "task" executor that is backed by a bounded JDK Thread Pool Executor and logs its queue depth and queue wait times. Use the
+     * environment to make the key thread pool parameters configurable although changing them would require a server restart.
+     *
+     * @param threadNamePrefix the prefix of the names of the threads of the executor
+     * @param corePoolSize the configuration value of the core pool size
+     * @param maxPoolSize the configuration value of the max pool size
+     * @param queueCapacity the configuration value of the queue capacity
+     * @param rejectedExecutionHandler the policy for tasks submitted while both the queue and the threads of the executor are full
+     *
+     * @return the task executor
+     */
+    private MonitoredThreadPoolTaskExecutor createMonitoredTaskExecutor(String threadNamePrefix, ConfigurationValue corePoolSize,
+        ConfigurationValue maxPoolSize, ConfigurationValue queueCapacity, RejectedExecutionHandler rejectedExecutionHandler)
+    {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(configurationHelper.getProperty(corePoolSize, Integer.class));
+        executor.setMaxPoolSize(configurationHelper.getProperty(maxPoolSize, Integer.class));
+        executor.setQueueCapacity(configurationHelper.getProperty(queueCapacity, Integer.class));
         executor.setKeepAliveSeconds(configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_KEEP_ALIVE_SECS, Integer.class));
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler);
         return executor;
     }
 
+    /**
+     * Creates a rejection policy that makes the submitting thread wait for room in the queue of a full executor up to the configured maximum wait time.
+     *
+     * @return the rejection policy
+     */
+    private RejectedExecutionHandler createBlockingRejectedExecutionHandler()
+    {
+        return new BlockingRejectedExecutionHandler(configurationHelper.getProperty(ConfigurationValue.THREAD_POOL_REJECTED_TASK_MAX_WAIT_MILLIS, Long.class));
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler()
     {
@@ -419,7 +512,27 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
     }
 
     /**
-     * Gets a JMS connection factory.
+     * Gets a JMS listener container factory for the cache invalidation JMS listener. The cache invalidation messages are processed one at a time and the
+     * listener containers are only started when the cache invalidation is enabled, so a node without a cache invalidation queue doesn't fail to resolve it.
+     *
+     * @param jmsConnectionFactory a JMS connection factory.
+     *
+     * @return the JMS listener container factory.
+     */
+    @Bean(name = CACHE_INVALIDATION_JMS_LISTENER_CONTAINER_FACTORY_BEAN_NAME)
+    public DefaultJmsListenerContainerFactory cacheInvalidationJmsListenerContainerFactory(ConnectionFactory jmsConnectionFactory)
+    {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory(jmsConnectionFactory);
+        factory.setDestinationResolver(dmDestinationResolver);
+        factory.setConcurrency("1");
+        factory.setAutoStartup(Boolean.valueOf(configurationHelper.getProperty(ConfigurationValue.DM_CACHE_INVALIDATION_ENABLED)));
+        return factory;
+    }
+
+    /**
+     * Gets a JMS connection factory. Each JMS consumer created by the connection factory prefetches the configured number of messages, so it only receives
+     * several messages per SQS request when the number of messages to prefetch is raised above one.
      *
      * @return the JMS connection factory.
      */
@@ -440,7 +553,8 @@ public class ServiceSpringModuleConfig implements AsyncConfigurer
             clientConfiguration.setProxyPort(awsParamsDto.getHttpProxyPort());
         }
 
-        return SQSConnectionFactory.builder().withClientConfiguration(clientConfiguration).build();
+        return SQSConnectionFactory.builder().withClientConfiguration(clientConfiguration)
+            .withNumberOfMessagesToPrefetch(configurationHelper.getProperty(ConfigurationValue.JMS_LISTENER_MESSAGES_TO_PREFETCH, Integer.class)).build();
     }
 
     /**
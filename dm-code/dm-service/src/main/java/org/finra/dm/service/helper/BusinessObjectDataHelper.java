@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
 
 import org.apache.commons.lang3.BooleanUtils;
@@ -703,6 +704,9 @@ public class BusinessObjectDataHelper
         // Persist the new entity.
         newVersionBusinessObjectDataEntity = dmDao.saveAndRefresh(newVersionBusinessObjectDataEntity);
 
+        // Update the latest version flags of this business object data now that the new version is persisted.
+        dmDao.updateBusinessObjectDataLatestVersionFlags(newVersionBusinessObjectDataEntity);
+
         // Create a status change notification to be sent on create business object data event.
         sqsNotificationEventService
             .processBusinessObjectDataStatusChangeNotificationEvent(dmDaoHelper.getBusinessObjectDataKey(newVersionBusinessObjectDataEntity),
@@ -738,6 +742,9 @@ public class BusinessObjectDataHelper
         // Persist the entity.
         dmDao.saveAndRefresh(businessObjectDataEntity);
 
+        // The latest version for the old and the new status may have changed, so update the latest version flags of this business object data.
+        dmDao.updateBusinessObjectDataLatestVersionFlags(businessObjectDataEntity);
+
         // Sent a business object data status change notification.
         sqsNotificationEventService.processBusinessObjectDataStatusChangeNotificationEvent(dmDaoHelper.getBusinessObjectDataKey(businessObjectDataEntity),
             businessObjectDataStatusEntity.getCode(), oldStatus);
@@ -864,6 +871,7 @@ public class BusinessObjectDataHelper
                     storageFile.setFilePath(storageFileEntity.getPath());
                     storageFile.setFileSizeBytes(storageFileEntity.getFileSizeBytes());
                     storageFile.setRowCount(storageFileEntity.getRowCount());
+                    storageFile.setMd5(storageFileEntity.getMd5());
                 }
             }
         }
@@ -909,7 +917,7 @@ public class BusinessObjectDataHelper
         request.setStorageUnits(Arrays.asList(storageUnitCreateRequest));
         storageUnitCreateRequest.setStorageName(storageEntity.getName());
         storageUnitCreateRequest.setStorageDirectory(new StorageDirectory(storageDirectoryPath));
-        storageUnitCreateRequest.setStorageFiles(Arrays.asList(new StorageFile(storageFilePath, storageFileSizeBytes, storageFileRowCount)));
+        storageUnitCreateRequest.setStorageFiles(Arrays.asList(new StorageFile(storageFilePath, storageFileSizeBytes, storageFileRowCount, null)));
 
         // Set the attributes if any are specified.
         request.setAttributes(attributes);
@@ -1131,6 +1139,13 @@ public class BusinessObjectDataHelper
                     {
                         Assert.isTrue(storageFile.getRowCount() >= 0, "File \"" + storageFile.getFilePath() + "\" has a row count which is < 0.");
                     }
+
+                    // Ensure the MD5 digest, if specified, is a hex encoded 128-bit value.
+                    if (storageFile.getMd5() != null)
+                    {
+                        storageFile.setMd5(storageFile.getMd5().trim().toLowerCase());
+                        Assert.isTrue(storageFile.getMd5().matches("[0-9a-f]{32}"), "File \"" + storageFile.getFilePath() + "\" has an invalid MD5 digest.");
+                    }
                 }
             }
         }
@@ -1356,7 +1371,7 @@ public class BusinessObjectDataHelper
 
             // If this storage is an S3 managed storage and storage files were not discovered, prepare for S3 file validation.
             S3FileTransferRequestParamsDto params = null;
-            List<String> actualKeys = null;
+            Set<String> actualKeys = null;
             if (s3ManagedStorage && !storageFilesDiscovered)
             {
                 // Get S3 managed bucket access parameters, such as bucket name, AWS access key ID, AWS secret access key, etc...
@@ -1365,7 +1380,7 @@ public class BusinessObjectDataHelper
                 // Since S3 key prefix represents the directory, we add a trailing '/' character to it.
                 params.setS3KeyPrefix(expectedS3KeyPrefix + "/");
                 // When listing S3 files, we ignore 0 byte objects that represent S3 directories.
-                actualKeys = storageFileHelper.getFilePaths(s3Service.listDirectory(params, true));
+                actualKeys = new HashSet<>(storageFileHelper.getFilePaths(s3Service.listDirectory(params, true)));
             }
 
             // For S3 managed storage, ensure that there are no storage files already registered in this
@@ -1391,6 +1406,7 @@ public class BusinessObjectDataHelper
                 storageFileEntity.setPath(storageFile.getFilePath());
                 storageFileEntity.setFileSizeBytes(storageFile.getFileSizeBytes());
                 storageFileEntity.setRowCount(storageFile.getRowCount());
+                storageFileEntity.setMd5(storageFile.getMd5());
 
                 // Skip storage file validation if storage files were discovered.
                 if (!storageFilesDiscovered)
@@ -334,6 +334,9 @@ public class BusinessObjectDataInvalidateUnregisteredHelper
 
                 createdBusinessObjectDataEntities.add(businessObjectDataEntity);
             }
+
+            // Update the latest version flags now that all the versions are registered.
+            dmDao.updateBusinessObjectDataLatestVersionFlags(createdBusinessObjectDataEntities.get(0));
         }
 
         return createdBusinessObjectDataEntities;
@@ -36,6 +36,9 @@ public class DmJmsDestinationResolver implements DestinationResolver
     // The queue name that is used to annotate the JMS listener {@link DmJmsMessageListener}. 
     public static final String SQS_DESTINATION_DM_INCOMING = "dm_incoming_queue";
 
+    // The queue name that is used to annotate the cache invalidation JMS listener {@link DmJmsMessageListener}.
+    public static final String SQS_DESTINATION_DM_CACHE_INVALIDATION = "dm_cache_invalidation_queue";
+
     @Override
     public Destination resolveDestinationName(Session session, String destinationName, boolean pubSubDomain) throws JMSException
     {
@@ -44,6 +47,10 @@ public class DmJmsDestinationResolver implements DestinationResolver
         {
             sqsQueueName = getIncomingSqsQueueName();
         }
+        else if (destinationName.equals(SQS_DESTINATION_DM_CACHE_INVALIDATION))
+        {
+            sqsQueueName = getCacheInvalidationSqsQueueName();
+        }
         
         Destination destination = null;
         try
@@ -74,4 +81,22 @@ public class DmJmsDestinationResolver implements DestinationResolver
 
         return sqsQueueName;
     }
+
+    /**
+     * Returns the SQS queue name this node receives the cache invalidation messages from. Throws {@link IllegalStateException} if SQS queue name is undefined.
+     *
+     * @return the cache invalidation queue name
+     */
+    private String getCacheInvalidationSqsQueueName()
+    {
+        String sqsQueueName = configurationHelper.getProperty(ConfigurationValue.DM_CACHE_INVALIDATION_SQS_INCOMING_QUEUE_NAME);
+
+        if (StringUtils.isBlank(sqsQueueName))
+        {
+            throw new IllegalStateException(String.format("SQS queue name not found. Ensure the \"%s\" configuration entry is configured.",
+                ConfigurationValue.DM_CACHE_INVALIDATION_SQS_INCOMING_QUEUE_NAME.getKey()));
+        }
+
+        return sqsQueueName;
+    }
 }
@@ -16,18 +16,23 @@
 package org.finra.dm.service.helper;
 
 import java.net.URLDecoder;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.amazonaws.services.s3.event.S3EventNotification;
 import org.apache.commons.lang.CharEncoding;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.JmsHeaders;
 import org.springframework.messaging.handler.annotation.Headers;
 import org.springframework.stereotype.Component;
 
+import org.finra.dm.dao.helper.CacheInvalidationHelper;
 import org.finra.dm.service.SqsNotificationEventService;
 import org.finra.dm.service.UploadDownloadService;
+import org.finra.dm.service.config.ServiceSpringModuleConfig;
 import org.finra.dm.service.impl.UploadDownloadServiceImpl.CompleteUploadSingleMessageResult;
 
 /*
@@ -38,6 +43,11 @@ public class DmJmsMessageListener
 {
     private static final Logger LOGGER = Logger.getLogger(DmJmsMessageListener.class);
 
+    /**
+     * The minimum number of milliseconds between two log entries with the message processing statistics.
+     */
+    private static final long STATISTICS_LOGGING_INTERVAL_MILLIS = 60000L;
+
     @Autowired
     private DmHelper dmHelper;
 
@@ -47,8 +57,38 @@ public class DmJmsMessageListener
     @Autowired
     private SqsNotificationEventService sqsNotificationEventService;
 
+    @Autowired
+    private CacheInvalidationHelper cacheInvalidationHelper;
+
+    /**
+     * The processing statistics of the incoming messages, by message type.
+     */
+    private final Map<IncomingMessageType, MessageTypeStatistics> messageTypeStatistics = new EnumMap<>(IncomingMessageType.class);
+
+    private final AtomicLong lastStatisticsLoggingTime = new AtomicLong(System.currentTimeMillis());
+
     /**
-     * Processes a JMS message.
+     * The types of the messages received from the incoming queue.
+     */
+    public enum IncomingMessageType
+    {
+        S3_NOTIFICATION, SYSTEM_MONITOR, UNKNOWN
+    }
+
+    /**
+     * Creates the JMS message listener.
+     */
+    public DmJmsMessageListener()
+    {
+        for (IncomingMessageType messageType : IncomingMessageType.values())
+        {
+            messageTypeStatistics.put(messageType, new MessageTypeStatistics());
+        }
+    }
+
+    /**
+     * Processes a JMS message. The message is classified by its first character before it is processed, so a message is only ever parsed as the type of
+     * message it is.
      *
      * @param payload the message payload.
      * @param allHeaders the JMS headers.
@@ -60,20 +100,51 @@ public class DmJmsMessageListener
             .format("JMS message received from \"%s\" queue. Headers: \"%s\" Payload: \"%s\"", DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, allHeaders,
                 payload));
 
-        // Process the message as S3 notification.
-        boolean messageProcessed = processS3Notification(payload);
+        long startTime = System.currentTimeMillis();
+        IncomingMessageType messageType = getIncomingMessageType(payload);
 
-        // If message is not processed as S3 notification, then process it as ESB system monitor message.
-        if (!messageProcessed)
+        boolean messageProcessed;
+        switch (messageType)
         {
-            messageProcessed = processEsbSystemMonitorMessage(payload);
+            case S3_NOTIFICATION:
+                messageProcessed = processS3Notification(payload);
+                break;
+            case SYSTEM_MONITOR:
+                messageProcessed = processEsbSystemMonitorMessage(payload);
+                break;
+            default:
+                // The message was not recognized, log the error.
+                LOGGER.error(String.format("Failed to process JMS message from \"%s\" queue. Unrecognized payload: \"%s\"",
+                    DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, payload));
+                messageProcessed = false;
         }
 
-        if (!messageProcessed)
+        messageTypeStatistics.get(messageType).record(messageProcessed, startTime, getSentTime(allHeaders));
+        logMessageTypeStatisticsIfDue();
+    }
+
+    /**
+     * Processes a cache invalidation message broadcast by another node. This listener uses its own container factory, so it only gets started when the cache
+     * invalidation is enabled.
+     *
+     * @param payload the message payload.
+     * @param allHeaders the JMS headers.
+     */
+    @JmsListener(destination = DmJmsDestinationResolver.SQS_DESTINATION_DM_CACHE_INVALIDATION,
+        containerFactory = ServiceSpringModuleConfig.CACHE_INVALIDATION_JMS_LISTENER_CONTAINER_FACTORY_BEAN_NAME)
+    public void processCacheInvalidationMessage(String payload, @Headers Map<Object, Object> allHeaders)
+    {
+        LOGGER.debug(String.format("JMS message received from \"%s\" queue. Headers: \"%s\" Payload: \"%s\"",
+            DmJmsDestinationResolver.SQS_DESTINATION_DM_CACHE_INVALIDATION, allHeaders, payload));
+
+        try
+        {
+            cacheInvalidationHelper.processCacheInvalidationMessage(payload);
+        }
+        catch (Exception e)
         {
-            // The message was not processed, log the error.
-            LOGGER.error(String
-                .format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\"", DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, payload));
+            LOGGER.error(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\"",
+                DmJmsDestinationResolver.SQS_DESTINATION_DM_CACHE_INVALIDATION, payload), e);
         }
     }
 
@@ -107,7 +178,7 @@ public class DmJmsMessageListener
         }
         catch (Exception e)
         {
-            LOGGER.debug(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for an S3 notification.",
+            LOGGER.error(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for an S3 notification.",
                 DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, payload), e);
         }
 
@@ -132,10 +203,160 @@ public class DmJmsMessageListener
         }
         catch (Exception e)
         {
-            LOGGER.debug(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for a system monitor request.",
+            LOGGER.error(String.format("Failed to process JMS message from \"%s\" queue. Payload: \"%s\" for a system monitor request.",
                 DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, payload), e);
         }
 
         return messageProcessed;
     }
+
+    /**
+     * Classifies an incoming message without parsing it. S3 event notifications are JSON documents and system monitor requests are XML documents.
+     *
+     * @param payload the JMS message payload.
+     *
+     * @return the message type.
+     */
+    public IncomingMessageType getIncomingMessageType(String payload)
+    {
+        if (payload != null)
+        {
+            for (int i = 0; i < payload.length(); i++)
+            {
+                char character = payload.charAt(i);
+                if (!Character.isWhitespace(character))
+                {
+                    return character == '{' ? IncomingMessageType.S3_NOTIFICATION :
+                        (character == '<' ? IncomingMessageType.SYSTEM_MONITOR : IncomingMessageType.UNKNOWN);
+                }
+            }
+        }
+
+        return IncomingMessageType.UNKNOWN;
+    }
+
+    /**
+     * Gets the number of messages of the specified type received since the listener was created.
+     *
+     * @param messageType the message type.
+     *
+     * @return the number of messages.
+     */
+    public long getMessageCount(IncomingMessageType messageType)
+    {
+        return messageTypeStatistics.get(messageType).messageCount.get();
+    }
+
+    /**
+     * Gets the number of messages of the specified type that failed to be processed since the listener was created.
+     *
+     * @param messageType the message type.
+     *
+     * @return the number of failed messages.
+     */
+    public long getFailedMessageCount(IncomingMessageType messageType)
+    {
+        return messageTypeStatistics.get(messageType).failedMessageCount.get();
+    }
+
+    /**
+     * Gets the time the message was sent to the queue from the JMS headers.
+     *
+     * @param allHeaders the JMS headers.
+     *
+     * @return the time the message was sent in milliseconds, or null if it is not known.
+     */
+    private Long getSentTime(Map<Object, Object> allHeaders)
+    {
+        Object timestamp = allHeaders == null ? null : allHeaders.get(JmsHeaders.TIMESTAMP);
+        return timestamp instanceof Long && (Long) timestamp > 0 ? (Long) timestamp : null;
+    }
+
+    /**
+     * Logs the message processing statistics of each message type and starts a new logging interval when the current one has elapsed. Only one thread logs
+     * per interval.
+     */
+    private void logMessageTypeStatisticsIfDue()
+    {
+        long lastLoggingTime = lastStatisticsLoggingTime.get();
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastLoggingTime >= STATISTICS_LOGGING_INTERVAL_MILLIS && lastStatisticsLoggingTime.compareAndSet(lastLoggingTime, currentTime))
+        {
+            double intervalSeconds = (currentTime - lastLoggingTime) / 1000.0;
+            for (Map.Entry<IncomingMessageType, MessageTypeStatistics> entry : messageTypeStatistics.entrySet())
+            {
+                MessageTypeStatistics statistics = entry.getValue();
+                long intervalMessageCount = statistics.intervalMessageCount.getAndSet(0);
+                if (intervalMessageCount > 0)
+                {
+                    LOGGER.info(String.format("JMS message statistics for \"%s\" queue: messageType=%s messageCount=%d failedMessageCount=%d " +
+                        "intervalMessageCount=%d messagesPerSecond=%.2f averageProcessingMillis=%d maxProcessingMillis=%d maxQueueLatencyMillis=%d",
+                        DmJmsDestinationResolver.SQS_DESTINATION_DM_INCOMING, entry.getKey(), statistics.messageCount.get(),
+                        statistics.failedMessageCount.get(), intervalMessageCount, intervalMessageCount / intervalSeconds,
+                        statistics.intervalProcessingMillis.getAndSet(0) / intervalMessageCount, statistics.maxProcessingMillis.getAndSet(0),
+                        statistics.maxQueueLatencyMillis.getAndSet(0)));
+                }
+            }
+        }
+    }
+
+    /**
+     * The processing statistics of one type of message. The message counts cover the lifetime of the listener and the other statistics cover the current
+     * logging interval.
+     */
+    private static class MessageTypeStatistics
+    {
+        private final AtomicLong messageCount = new AtomicLong();
+
+        private final AtomicLong failedMessageCount = new AtomicLong();
+
+        private final AtomicLong intervalMessageCount = new AtomicLong();
+
+        private final AtomicLong intervalProcessingMillis = new AtomicLong();
+
+        private final AtomicLong maxProcessingMillis = new AtomicLong();
+
+        private final AtomicLong maxQueueLatencyMillis = new AtomicLong();
+
+        /**
+         * Records a processed message.
+         *
+         * @param messageProcessed whether the message was processed successfully.
+         * @param startTime the time the processing of the message started.
+         * @param sentTime the time the message was sent to the queue, or null if it is not known.
+         */
+        private void record(boolean messageProcessed, long startTime, Long sentTime)
+        {
+            long currentTime = System.currentTimeMillis();
+            long processingMillis = currentTime - startTime;
+
+            messageCount.incrementAndGet();
+            if (!messageProcessed)
+            {
+                failedMessageCount.incrementAndGet();
+            }
+            intervalMessageCount.incrementAndGet();
+            intervalProcessingMillis.addAndGet(processingMillis);
+            updateMax(maxProcessingMillis, processingMillis);
+            if (sentTime != null)
+            {
+                updateMax(maxQueueLatencyMillis, Math.max(0, currentTime - sentTime));
+            }
+        }
+
+        /**
+         * Raises the specified maximum to the specified value when the value is greater.
+         *
+         * @param max the maximum.
+         * @param value the value.
+         */
+        private void updateMax(AtomicLong max, long value)
+        {
+            long currentMax;
+            while ((currentMax = max.get()) < value && !max.compareAndSet(currentMax, value))
+            {
+                // Retry until the maximum is updated or another message raised it further.
+            }
+        }
+    }
 }
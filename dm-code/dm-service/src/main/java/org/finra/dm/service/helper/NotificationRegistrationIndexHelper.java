@@ -0,0 +1,426 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+
+import org.apache.log4j.Logger;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.finra.dm.dao.DmDao;
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
+import org.finra.dm.dao.helper.CacheInvalidationHelper;
+import org.finra.dm.model.jpa.BusinessObjectDataNotificationRegistrationEntity;
+import org.finra.dm.model.api.xml.BusinessObjectDataKey;
+
+/**
+ * An in-memory index of the business object data notification registrations, so the registrations matching a business object data event are found without
+ * querying the database. The registrations are keyed by event type, business object definition namespace and name, usage and file type, where a registration
+ * without a usage or a file type is keyed by null and matches any value.
+ * <p/>
+ * The index is built from the database on first use and then updated in place as the registrations are created, updated and deleted on this node. A
+ * registration is added to the index as soon as it is flushed, so it is visible to its own transaction, and added again once the transaction commits, in
+ * case the index got rebuilt in between. A deleted registration is removed once the transaction commits. A transaction that rolls back after modifying a
+ * registration clears the index, so it gets rebuilt. The other nodes of a clustered deployment clear their index through a cache invalidation message.
+ */
+@Component
+public class NotificationRegistrationIndexHelper implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger(NotificationRegistrationIndexHelper.class);
+
+    /**
+     * The key of the index in its cache.
+     */
+    private static final String INDEX_CACHE_KEY = "index";
+
+    @Autowired
+    private transient DmDao dmDao;
+
+    @Autowired
+    private transient CacheManager cacheManager;
+
+    @Autowired
+    private transient CacheInvalidationHelper cacheInvalidationHelper;
+
+    @PersistenceUnit
+    private transient EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Registers this helper as a Hibernate listener of the entity insert, update and delete events.
+     */
+    @PostConstruct
+    public void registerEventListeners()
+    {
+        EventListenerRegistry eventListenerRegistry =
+            entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.POST_INSERT, this);
+        eventListenerRegistry.appendListeners(EventType.POST_UPDATE, this);
+        eventListenerRegistry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event)
+    {
+        if (event.getEntity() instanceof BusinessObjectDataNotificationRegistrationEntity)
+        {
+            onRegistrationSaved((BusinessObjectDataNotificationRegistrationEntity) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event)
+    {
+        if (event.getEntity() instanceof BusinessObjectDataNotificationRegistrationEntity)
+        {
+            onRegistrationSaved((BusinessObjectDataNotificationRegistrationEntity) event.getEntity());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event)
+    {
+        if (event.getEntity() instanceof BusinessObjectDataNotificationRegistrationEntity)
+        {
+            Integer id = ((BusinessObjectDataNotificationRegistrationEntity) event.getEntity()).getId();
+            if (TransactionSynchronizationManager.isSynchronizationActive())
+            {
+                getTransactionChanges().deletedIds.add(id);
+            }
+            else
+            {
+                updateIndex(Collections.<IndexedRegistration>emptySet(), Collections.singleton(id));
+                cacheInvalidationHelper.invalidateRemoteCache(DaoSpringModuleConfig.NOTIFICATION_REGISTRATION_INDEX_CACHE_NAME);
+            }
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister)
+    {
+        return false;
+    }
+
+    /**
+     * Gets the business object data notification registrations that match the specified event, ordered by namespace and notification name. The match is the
+     * same as the one of {@link DmDao#getBusinessObjectDataNotificationRegistrations(String, BusinessObjectDataKey)}, except that the storage filter of the
+     * registrations is left to the caller.
+     *
+     * @param notificationEventTypeCode the notification event type code
+     * @param businessObjectDataKey the business object data key
+     *
+     * @return the matching registrations
+     */
+    public List<IndexedRegistration> getBusinessObjectDataNotificationRegistrations(String notificationEventTypeCode,
+        BusinessObjectDataKey businessObjectDataKey)
+    {
+        Map<List<String>, List<IndexedRegistration>> registrationsByKey = getIndex().registrationsByKey;
+
+        List<IndexedRegistration> registrations = new ArrayList<>();
+        for (String usage : Arrays.asList(businessObjectDataKey.getBusinessObjectFormatUsage(), null))
+        {
+            for (String fileType : Arrays.asList(businessObjectDataKey.getBusinessObjectFormatFileType(), null))
+            {
+                List<IndexedRegistration> keyRegistrations = registrationsByKey.get(
+                    getIndexKey(notificationEventTypeCode, businessObjectDataKey.getNamespace(), businessObjectDataKey.getBusinessObjectDefinitionName(), usage,
+                        fileType));
+                if (keyRegistrations != null)
+                {
+                    for (IndexedRegistration registration : keyRegistrations)
+                    {
+                        if (registration.businessObjectFormatVersion == null ||
+                            registration.businessObjectFormatVersion.equals(businessObjectDataKey.getBusinessObjectFormatVersion()))
+                        {
+                            registrations.add(registration);
+                        }
+                    }
+                }
+            }
+        }
+
+        Collections.sort(registrations, new Comparator<IndexedRegistration>()
+        {
+            @Override
+            public int compare(IndexedRegistration registration1, IndexedRegistration registration2)
+            {
+                int result = registration1.namespace.compareTo(registration2.namespace);
+                return result != 0 ? result : registration1.name.compareTo(registration2.name);
+            }
+        });
+
+        return registrations;
+    }
+
+    /**
+     * Gets the index from its cache, or builds it from the database when it is not cached.
+     *
+     * @return the index
+     */
+    private Index getIndex()
+    {
+        Cache.ValueWrapper valueWrapper = getCache().get(INDEX_CACHE_KEY);
+        if (valueWrapper != null)
+        {
+            return (Index) valueWrapper.get();
+        }
+
+        synchronized (this)
+        {
+            valueWrapper = getCache().get(INDEX_CACHE_KEY);
+            if (valueWrapper != null)
+            {
+                return (Index) valueWrapper.get();
+            }
+
+            List<IndexedRegistration> registrations = new ArrayList<>();
+            for (BusinessObjectDataNotificationRegistrationEntity registrationEntity : dmDao
+                .findAll(BusinessObjectDataNotificationRegistrationEntity.class))
+            {
+                registrations.add(new IndexedRegistration(registrationEntity));
+            }
+
+            Index index = new Index(registrations);
+            getCache().put(INDEX_CACHE_KEY, index);
+            LOGGER.debug(String.format("Built the index of %d business object data notification registration(s).", registrations.size()));
+            return index;
+        }
+    }
+
+    /**
+     * Replaces the specified registrations in the index and removes the registrations with the specified ids from it. Nothing is done when the index is not
+     * cached, since it reads the registrations from the database when it gets built.
+     *
+     * @param savedRegistrations the registrations to add or replace
+     * @param deletedIds the ids of the registrations to remove
+     */
+    private synchronized void updateIndex(Collection<IndexedRegistration> savedRegistrations, Collection<Integer> deletedIds)
+    {
+        Cache.ValueWrapper valueWrapper = getCache().get(INDEX_CACHE_KEY);
+        if (valueWrapper != null)
+        {
+            Map<Integer, IndexedRegistration> registrationsById = new LinkedHashMap<>(((Index) valueWrapper.get()).registrationsById);
+            for (IndexedRegistration registration : savedRegistrations)
+            {
+                registrationsById.put(registration.id, registration);
+            }
+            registrationsById.keySet().removeAll(deletedIds);
+            getCache().put(INDEX_CACHE_KEY, new Index(registrationsById.values()));
+        }
+    }
+
+    /**
+     * Clears the index on this node, so it gets rebuilt from the database on next use.
+     */
+    private synchronized void clearIndex()
+    {
+        getCache().evict(INDEX_CACHE_KEY);
+    }
+
+    /**
+     * Adds a registration that got inserted or updated to the index, and records it as a change of the current transaction if there is one.
+     *
+     * @param registrationEntity the registration entity
+     */
+    private void onRegistrationSaved(BusinessObjectDataNotificationRegistrationEntity registrationEntity)
+    {
+        IndexedRegistration registration = new IndexedRegistration(registrationEntity);
+        updateIndex(Collections.singleton(registration), Collections.<Integer>emptySet());
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            getTransactionChanges().savedRegistrations.add(registration);
+        }
+        else
+        {
+            cacheInvalidationHelper.invalidateRemoteCache(DaoSpringModuleConfig.NOTIFICATION_REGISTRATION_INDEX_CACHE_NAME);
+        }
+    }
+
+    /**
+     * Gets the registration changes of the current transaction. The changes are applied to the index once the transaction commits, and the index is cleared
+     * if the transaction rolls back. This method must only be called while a transaction synchronization is active.
+     *
+     * @return the registration changes
+     */
+    private TransactionChanges getTransactionChanges()
+    {
+        TransactionChanges transactionChanges = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (transactionChanges == null)
+        {
+            final TransactionChanges changes = new TransactionChanges();
+            transactionChanges = changes;
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    updateIndex(changes.savedRegistrations, changes.deletedIds);
+                    cacheInvalidationHelper.invalidateRemoteCache(DaoSpringModuleConfig.NOTIFICATION_REGISTRATION_INDEX_CACHE_NAME);
+                }
+
+                @Override
+                public void afterCompletion(int status)
+                {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NotificationRegistrationIndexHelper.this);
+                    if (status != STATUS_COMMITTED)
+                    {
+                        clearIndex();
+                    }
+                }
+            });
+        }
+
+        return transactionChanges;
+    }
+
+    /**
+     * Gets the cache that holds the index.
+     *
+     * @return the cache
+     */
+    private Cache getCache()
+    {
+        return cacheManager.getCache(DaoSpringModuleConfig.NOTIFICATION_REGISTRATION_INDEX_CACHE_NAME);
+    }
+
+    /**
+     * Gets the index key of the specified values. The values are upper cased, since the registrations are matched case insensitively.
+     *
+     * @param notificationEventTypeCode the notification event type code
+     * @param namespace the business object definition namespace
+     * @param businessObjectDefinitionName the business object definition name
+     * @param usage the business object format usage, may be null
+     * @param fileType the business object format file type, may be null
+     *
+     * @return the index key
+     */
+    private static List<String> getIndexKey(String notificationEventTypeCode, String namespace, String businessObjectDefinitionName, String usage,
+        String fileType)
+    {
+        return Arrays.asList(toUpperCase(notificationEventTypeCode), toUpperCase(namespace), toUpperCase(businessObjectDefinitionName), toUpperCase(usage),
+            toUpperCase(fileType));
+    }
+
+    private static String toUpperCase(String value)
+    {
+        return value == null ? null : value.toUpperCase();
+    }
+
+    /**
+     * A business object data notification registration as held by the index. It only holds the values needed to match the events, so it does not depend on
+     * a persistence context.
+     */
+    public static class IndexedRegistration
+    {
+        private final Integer id;
+
+        private final String namespace;
+
+        private final String name;
+
+        private final List<String> indexKey;
+
+        private final Integer businessObjectFormatVersion;
+
+        private final String storageName;
+
+        private IndexedRegistration(BusinessObjectDataNotificationRegistrationEntity registrationEntity)
+        {
+            id = registrationEntity.getId();
+            namespace = registrationEntity.getNamespace().getCode();
+            name = registrationEntity.getName();
+            indexKey = getIndexKey(registrationEntity.getNotificationEventType().getCode(),
+                registrationEntity.getBusinessObjectDefinition().getNamespace().getCode(), registrationEntity.getBusinessObjectDefinition().getName(),
+                registrationEntity.getUsage(), registrationEntity.getFileType() == null ? null : registrationEntity.getFileType().getCode());
+            businessObjectFormatVersion = registrationEntity.getBusinessObjectFormatVersion();
+            storageName = registrationEntity.getStorage() == null ? null : registrationEntity.getStorage().getName();
+        }
+
+        public Integer getId()
+        {
+            return id;
+        }
+
+        public String getStorageName()
+        {
+            return storageName;
+        }
+    }
+
+    /**
+     * An immutable snapshot of the index.
+     */
+    private static class Index
+    {
+        private final Map<Integer, IndexedRegistration> registrationsById = new LinkedHashMap<>();
+
+        private final Map<List<String>, List<IndexedRegistration>> registrationsByKey = new HashMap<>();
+
+        private Index(Collection<IndexedRegistration> registrations)
+        {
+            for (IndexedRegistration registration : registrations)
+            {
+                registrationsById.put(registration.id, registration);
+
+                List<IndexedRegistration> keyRegistrations = registrationsByKey.get(registration.indexKey);
+                if (keyRegistrations == null)
+                {
+                    keyRegistrations = new ArrayList<>();
+                    registrationsByKey.put(registration.indexKey, keyRegistrations);
+                }
+                keyRegistrations.add(registration);
+            }
+        }
+    }
+
+    /**
+     * The registration changes made by a transaction.
+     */
+    private static class TransactionChanges
+    {
+        private final List<IndexedRegistration> savedRegistrations = new ArrayList<>();
+
+        private final List<Integer> deletedIds = new ArrayList<>();
+    }
+}
@@ -18,10 +18,16 @@ package org.finra.dm.service.helper;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.Velocity;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.runtime.RuntimeServices;
+import org.apache.velocity.runtime.RuntimeSingleton;
+import org.apache.velocity.runtime.parser.ParseException;
 import org.springframework.stereotype.Component;
 
 /**
@@ -30,6 +36,26 @@ import org.springframework.stereotype.Component;
 @Component
 public class VelocityHelper
 {
+    /**
+     * The maximum number of parsed templates to keep in the template cache.
+     */
+    public static final int TEMPLATE_CACHE_MAX_SIZE = 500;
+
+    /**
+     * The parsed templates keyed by the template content. The least recently used templates get evicted once the cache is full. Since the key is the template
+     * content, a template that changes in the configuration simply gets parsed and cached again while its previous version ages out of the cache.
+     */
+    private final Map<String, Template> templateCache = new LinkedHashMap<String, Template>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Template> eldest)
+        {
+            return size() > TEMPLATE_CACHE_MAX_SIZE;
+        }
+    };
+
     /**
      * Initializes the Velocity engine.
      */
@@ -63,7 +89,8 @@ public class VelocityHelper
     }
 
     /**
-     * Wrapper for {@link Velocity#evaluate(org.apache.velocity.context.Context, java.io.Writer, String, java.io.InputStream)}
+     * Evaluates a Velocity template. Unlike {@link #evaluate(Reader, Map, String)}, the template is only parsed the first time it is seen and the parsed
+     * template is reused by the subsequent evaluations.
      * 
      * @param template The template {@link String}
      * @param variables Variables to add to context
@@ -72,7 +99,65 @@ public class VelocityHelper
      */
     public String evaluate(String template, Map<String, Object> variables, String logTag)
     {
-        StringReader templateReader = new StringReader(template);
-        return evaluate(templateReader, variables, logTag);
+        VelocityContext velocityContext = new VelocityContext(variables);
+        StringWriter writer = new StringWriter();
+        getTemplate(template, logTag).merge(velocityContext, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Gets the number of parsed templates currently in the template cache.
+     *
+     * @return the template cache size
+     */
+    public int getTemplateCacheSize()
+    {
+        synchronized (templateCache)
+        {
+            return templateCache.size();
+        }
+    }
+
+    /**
+     * Gets a parsed template from the template cache, parsing and caching it if it is not there yet.
+     *
+     * @param template the template content
+     * @param logTag the log tag used as the template name in the error messages
+     *
+     * @return the parsed template
+     * @throws ParseErrorException if the template couldn't be parsed
+     */
+    private Template getTemplate(String template, String logTag)
+    {
+        Template parsedTemplate;
+        synchronized (templateCache)
+        {
+            parsedTemplate = templateCache.get(template);
+        }
+
+        if (parsedTemplate == null)
+        {
+            // Parse the template outside of the lock. Concurrent callers might parse the same template, but they would all get equivalent results.
+            RuntimeServices runtimeServices = RuntimeSingleton.getRuntimeServices();
+            parsedTemplate = new Template();
+            parsedTemplate.setRuntimeServices(runtimeServices);
+            parsedTemplate.setName(logTag);
+            try
+            {
+                parsedTemplate.setData(runtimeServices.parse(new StringReader(template), logTag));
+            }
+            catch (ParseException e)
+            {
+                throw new ParseErrorException(e, logTag);
+            }
+            parsedTemplate.initDocument();
+
+            synchronized (templateCache)
+            {
+                templateCache.put(template, parsedTemplate);
+            }
+        }
+
+        return parsedTemplate;
     }
 }
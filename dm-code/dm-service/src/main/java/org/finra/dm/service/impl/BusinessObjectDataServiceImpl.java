@@ -432,6 +432,9 @@ public class BusinessObjectDataServiceImpl implements BusinessObjectDataService
             }
         }
 
+        // Update the latest version flags of the remaining versions of this business object data.
+        dmDao.updateBusinessObjectDataLatestVersionFlags(businessObjectDataEntity);
+
         // Return the deleted business object data.
         return deletedBusinessObjectData;
     }
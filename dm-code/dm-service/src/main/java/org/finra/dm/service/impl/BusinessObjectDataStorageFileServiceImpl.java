@@ -15,8 +15,11 @@
 */
 package org.finra.dm.service.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -132,17 +135,27 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
         }
 
         // validate that files in the request does not already exist in the DB
-        for (StorageFile storageFile : businessObjectDataStorageFilesCreateRequest.getStorageFiles())
+        // Ensure that the files are not already registered in this storage by some other business object data. All the files are checked with one query.
+        List<StorageFileEntity> existingStorageFileEntities = dmDao.getStorageFilesByStorageNameAndFilePaths(storageUnitEntity.getStorage().getName(),
+            storageFileHelper.getFilePaths(businessObjectDataStorageFilesCreateRequest.getStorageFiles()));
+        if (!existingStorageFileEntities.isEmpty())
         {
-            // Ensure that the file is not already registered in this storage by some other business object data.
-            StorageFileEntity storageFileEntity =
-                dmDao.getStorageFileByStorageNameAndFilePath(storageUnitEntity.getStorage().getName(), storageFile.getFilePath());
-            if (storageFileEntity != null)
+            // Report the first already registered file in the order of the request.
+            Map<String, StorageFileEntity> existingStorageFileEntityMap = new HashMap<>();
+            for (StorageFileEntity existingStorageFileEntity : existingStorageFileEntities)
             {
-                throw new AlreadyExistsException(String
-                    .format("S3 file \"%s\" in \"%s\" storage is already registered by the business object data {%s}.", storageFile.getFilePath(),
-                        storageUnitEntity.getStorage().getName(),
-                        dmDaoHelper.businessObjectDataEntityAltKeyToString(storageFileEntity.getStorageUnit().getBusinessObjectData())));
+                existingStorageFileEntityMap.put(existingStorageFileEntity.getPath(), existingStorageFileEntity);
+            }
+            for (StorageFile storageFile : businessObjectDataStorageFilesCreateRequest.getStorageFiles())
+            {
+                StorageFileEntity storageFileEntity = existingStorageFileEntityMap.get(storageFile.getFilePath());
+                if (storageFileEntity != null)
+                {
+                    throw new AlreadyExistsException(String
+                        .format("S3 file \"%s\" in \"%s\" storage is already registered by the business object data {%s}.", storageFile.getFilePath(),
+                            storageUnitEntity.getStorage().getName(),
+                            dmDaoHelper.businessObjectDataEntityAltKeyToString(storageFileEntity.getStorageUnit().getBusinessObjectData())));
+                }
             }
         }
 
@@ -164,7 +177,7 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
             // validate each file against S3
             S3FileTransferRequestParamsDto s3FileTransferRequestParamsDto = dmDaoHelper.getS3ManagedBucketAccessParams();
             s3FileTransferRequestParamsDto.setS3KeyPrefix(expectedS3KeyPrefix);
-            List<String> actualS3Keys = storageFileHelper.getFilePaths(s3Service.listDirectory(s3FileTransferRequestParamsDto, true));
+            Set<String> actualS3Keys = new HashSet<>(storageFileHelper.getFilePaths(s3Service.listDirectory(s3FileTransferRequestParamsDto, true)));
 
             for (StorageFile requestStorageFile : businessObjectDataStorageFilesCreateRequest.getStorageFiles())
             {
@@ -190,16 +203,19 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
          * If non S3_MANAGED and storage has no directory specified, no storage validations occur.
          */
 
-        // Add new files to existing storage
+        // Add new files to existing storage. The files are saved together, so they get inserted in JDBC batches.
+        List<StorageFileEntity> storageFileEntities = new ArrayList<>();
         for (StorageFile storageFile : businessObjectDataStorageFilesCreateRequest.getStorageFiles())
         {
             StorageFileEntity storageFileEntity = new StorageFileEntity();
             storageFileEntity.setFileSizeBytes(storageFile.getFileSizeBytes());
             storageFileEntity.setPath(storageFile.getFilePath());
             storageFileEntity.setRowCount(storageFile.getRowCount());
+            storageFileEntity.setMd5(storageFile.getMd5());
             storageFileEntity.setStorageUnit(storageUnitEntity);
-            dmDao.saveAndRefresh(storageFileEntity);
+            storageFileEntities.add(storageFileEntity);
         }
+        dmDao.saveAll(storageFileEntities);
 
         // construct and return response
         BusinessObjectDataStorageFilesCreateResponse businessObjectDataStorageFilesCreateResponse = new BusinessObjectDataStorageFilesCreateResponse();
@@ -283,6 +299,13 @@ public class BusinessObjectDataStorageFileServiceImpl implements BusinessObjectD
                 Assert.isTrue(storageFile.getRowCount() >= 0, "File \"" + storageFile.getFilePath() + "\" has a row count which is < 0.");
             }
 
+            // Ensure the MD5 digest, if specified, is a hex encoded 128-bit value.
+            if (storageFile.getMd5() != null)
+            {
+                storageFile.setMd5(storageFile.getMd5().trim().toLowerCase());
+                Assert.isTrue(storageFile.getMd5().matches("[0-9a-f]{32}"), "File \"" + storageFile.getFilePath() + "\" has an invalid MD5 digest.");
+            }
+
             // Check for duplicates.
             if (storageFilePathValidationSet.contains(storageFile.getFilePath()))
             {
@@ -15,15 +15,28 @@
 */
 package org.finra.dm.service.impl;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.DmDao;
 import org.finra.dm.dao.SqsDao;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.dao.helper.AwsHelper;
+import org.finra.dm.model.dto.AwsParamsDto;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.dto.JmsMessageQueueStatisticsDto;
 import org.finra.dm.model.jpa.JmsMessageEntity;
 import org.finra.dm.service.JmsPublishingService;
 
@@ -44,39 +57,169 @@ public class JmsPublishingServiceImpl implements JmsPublishingService
     @Autowired
     private AwsHelper awsHelper;
 
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
+    public List<JmsMessageEntity> claimOldestJmsMessages(String leaseOwner, int maxMessages)
+    {
+        long currentTimeMillis = System.currentTimeMillis();
+        long leaseMillis = configurationHelper.getProperty(ConfigurationValue.JMS_PUBLISHING_JOB_LEASE_SECONDS, Integer.class) * 1000L;
+
+        return dmDao.claimOldestJmsMessages(leaseOwner, new Timestamp(currentTimeMillis), new Timestamp(currentTimeMillis + leaseMillis), maxMessages,
+            getOrderedJmsQueueNames());
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     @Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
-    public boolean publishOldestJmsMessage()
+    public int publishClaimedJmsMessages(String leaseOwner, List<JmsMessageEntity> jmsMessageEntities)
     {
-        boolean messageSent = false;
+        // Publish the claimed JMS messages and delete the published messages from the queue, unless their lease expired and another worker claimed them.
+        List<Integer> publishedJmsMessageIds = new ArrayList<>();
+        for (JmsMessageEntity jmsMessageEntity : sendJmsMessages(jmsMessageEntities))
+        {
+            publishedJmsMessageIds.add(jmsMessageEntity.getId());
+        }
+        dmDao.deleteClaimedJmsMessages(leaseOwner, publishedJmsMessageIds);
+
+        return publishedJmsMessageIds.size();
+    }
 
-        // Retrieve the oldest JMS message, unless the queue is empty.
-        JmsMessageEntity jmsMessageEntity = dmDao.getOldestJmsMessage();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(value = DaoSpringModuleConfig.DM_TRANSACTION_MANAGER_BEAN_NAME)
+    public JmsMessageQueueStatisticsDto getJmsMessageQueueStatistics()
+    {
+        return dmDao.getJmsMessageQueueStatistics(new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Sends the specified JMS messages to their AWS SQS queues using batch sends. The messages are grouped by queue, so each queue gets its messages in batch
+     * sends. A failure of a whole queue only fails the messages of this queue, and the messages of the other queues are still sent. The messages of an ordered
+     * queue are sent one at a time instead, and the first failure stops the sending of this queue, so no message of an ordered queue is published ahead of an
+     * older message that failed.
+     *
+     * @param jmsMessageEntities the JMS messages ordered from the oldest to the newest
+     *
+     * @return the JMS messages that got sent
+     */
+    private List<JmsMessageEntity> sendJmsMessages(List<JmsMessageEntity> jmsMessageEntities)
+    {
+        Map<String, List<JmsMessageEntity>> jmsMessageEntitiesByQueue = new LinkedHashMap<>();
+        for (JmsMessageEntity jmsMessageEntity : jmsMessageEntities)
+        {
+            List<JmsMessageEntity> queueJmsMessageEntities = jmsMessageEntitiesByQueue.get(jmsMessageEntity.getJmsQueueName());
+            if (queueJmsMessageEntities == null)
+            {
+                queueJmsMessageEntities = new ArrayList<>();
+                jmsMessageEntitiesByQueue.put(jmsMessageEntity.getJmsQueueName(), queueJmsMessageEntities);
+            }
+            queueJmsMessageEntities.add(jmsMessageEntity);
+        }
 
-        if (jmsMessageEntity != null)
+        AwsParamsDto awsParamsDto = awsHelper.getAwsParamsDto();
+        Set<String> orderedJmsQueueNames = getOrderedJmsQueueNames();
+        List<JmsMessageEntity> sentJmsMessageEntities = new ArrayList<>();
+        for (Map.Entry<String, List<JmsMessageEntity>> entry : jmsMessageEntitiesByQueue.entrySet())
         {
+            String jmsQueueName = entry.getKey();
+            List<JmsMessageEntity> queueJmsMessageEntities = entry.getValue();
+
+            if (orderedJmsQueueNames.contains(jmsQueueName))
+            {
+                sentJmsMessageEntities.addAll(sendOrderedJmsMessages(awsParamsDto, jmsQueueName, queueJmsMessageEntities));
+                continue;
+            }
+
+            List<String> messageTexts = new ArrayList<>();
+            for (JmsMessageEntity jmsMessageEntity : queueJmsMessageEntities)
+            {
+                messageTexts.add(jmsMessageEntity.getMessageText());
+            }
+
+            Map<Integer, String> failedMessages;
             try
             {
-                // Send a text message to the specified AWS SQS queue.
-                sqsDao.sendSqsTextMessage(awsHelper.getAwsParamsDto(), jmsMessageEntity.getJmsQueueName(), jmsMessageEntity.getMessageText());
-                messageSent = true;
+                failedMessages = sqsDao.sendSqsTextMessages(awsParamsDto, jmsQueueName, messageTexts);
             }
             catch (Exception e)
             {
-                LOGGER.error(String
-                    .format("Failed to post message on \"%s\" SQS queue. Message: %s", jmsMessageEntity.getJmsQueueName(), jmsMessageEntity.getMessageText()));
+                LOGGER.error(String.format("Failed to post %d message(s) on \"%s\" SQS queue.", messageTexts.size(), jmsQueueName), e);
+                continue;
+            }
 
-                // Throw the exception up.
-                throw new IllegalStateException(e.getMessage(), e);
+            for (int i = 0; i < queueJmsMessageEntities.size(); i++)
+            {
+                if (failedMessages.containsKey(i))
+                {
+                    LOGGER.error(String.format("Failed to post message on \"%s\" SQS queue. Reason: %s Message: %s", jmsQueueName, failedMessages.get(i),
+                        messageTexts.get(i)));
+                }
+                else
+                {
+                    sentJmsMessageEntities.add(queueJmsMessageEntities.get(i));
+                }
             }
+        }
+
+        return sentJmsMessageEntities;
+    }
 
-            // Delete this message from the queue.
-            dmDao.delete(jmsMessageEntity);
+    /**
+     * Sends the specified JMS messages of an ordered queue one at a time, and stops at the first message that fails to be sent. The messages that were not
+     * sent stay in the database queue, so they are claimed again in order once their lease expires.
+     *
+     * @param awsParamsDto the AWS related parameters
+     * @param jmsQueueName the JMS queue name
+     * @param queueJmsMessageEntities the JMS messages of the queue ordered from the oldest to the newest
+     *
+     * @return the JMS messages that got sent
+     */
+    private List<JmsMessageEntity> sendOrderedJmsMessages(AwsParamsDto awsParamsDto, String jmsQueueName, List<JmsMessageEntity> queueJmsMessageEntities)
+    {
+        List<JmsMessageEntity> sentJmsMessageEntities = new ArrayList<>();
+        for (JmsMessageEntity jmsMessageEntity : queueJmsMessageEntities)
+        {
+            try
+            {
+                sqsDao.sendSqsTextMessage(awsParamsDto, jmsQueueName, jmsMessageEntity.getMessageText());
+            }
+            catch (Exception e)
+            {
+                LOGGER.error(String.format("Failed to post message on \"%s\" SQS queue, so its %d newer message(s) are not posted. Message: %s", jmsQueueName,
+                    queueJmsMessageEntities.size() - sentJmsMessageEntities.size() - 1, jmsMessageEntity.getMessageText()), e);
+                break;
+            }
+            sentJmsMessageEntities.add(jmsMessageEntity);
         }
+        return sentJmsMessageEntities;
+    }
 
-        return messageSent;
+    /**
+     * Gets the names of the JMS queues whose messages must be published in order.
+     *
+     * @return the ordered JMS queue names
+     */
+    private Set<String> getOrderedJmsQueueNames()
+    {
+        Set<String> orderedJmsQueueNames = new HashSet<>();
+        for (String jmsQueueName : StringUtils.split(StringUtils.defaultString(configurationHelper.getProperty(ConfigurationValue
+            .JMS_PUBLISHING_JOB_ORDERED_QUEUE_NAMES)), ','))
+        {
+            if (StringUtils.isNotBlank(jmsQueueName))
+            {
+                orderedJmsQueueNames.add(jmsQueueName.trim());
+            }
+        }
+        return orderedJmsQueueNames;
     }
 }
@@ -16,7 +16,9 @@
 package org.finra.dm.service.impl;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
@@ -42,6 +44,7 @@ import org.finra.dm.service.NotificationActionService;
 import org.finra.dm.service.NotificationEventService;
 import org.finra.dm.service.helper.DmHelper;
 import org.finra.dm.service.helper.NotificationActionFactory;
+import org.finra.dm.service.helper.NotificationRegistrationIndexHelper;
 
 /**
  * The notification event service.
@@ -61,15 +64,18 @@ public class NotificationEventServiceImpl implements NotificationEventService
     @Autowired
     private DmDao dmDao;
 
+    @Autowired
+    private NotificationRegistrationIndexHelper notificationRegistrationIndexHelper;
+
     /**
-     * Asynchronously handles the notification for the business object data changes.
+     * Asynchronously handles the notification for the business object data changes on the notification task executor.
      *
      * @param eventType the event type
      * @param key the business object data key.
      *
      * @return a future to know the asynchronous state of this method.
      */
-    @Async
+    @Async("notificationTaskExecutor")
     public Future<Void> processBusinessObjectDataNotificationEventAsync(NotificationEventTypeEntity.EVENT_TYPES_BDATA eventType, BusinessObjectDataKey key)
     {
         processBusinessObjectDataNotificationEventSync(eventType, key);
@@ -89,30 +95,41 @@ public class NotificationEventServiceImpl implements NotificationEventService
      */
     public List<Object> processBusinessObjectDataNotificationEventSync(NotificationEventTypeEntity.EVENT_TYPES_BDATA eventType, BusinessObjectDataKey key)
     {
-        // Retrieve the notifications matching the event type.
-        List<BusinessObjectDataNotificationRegistrationEntity> businessObjectDataNotificationRegistrationEntities =
-            dmDao.getBusinessObjectDataNotificationRegistrations(eventType.name(), key);
+        // Retrieve the notifications matching the event type from the in-memory index, so an event without notifications costs no database access.
+        List<NotificationRegistrationIndexHelper.IndexedRegistration> indexedRegistrations =
+            notificationRegistrationIndexHelper.getBusinessObjectDataNotificationRegistrations(eventType.name(), key);
 
-        BusinessObjectDataEntity businessObjectDataEntity = dmDao.getBusinessObjectDataByAltKey(key);
+        // Get the names of the storages the business object data is stored in, but only when a notification filters on the storage.
+        Set<String> storageNames = null;
+        for (NotificationRegistrationIndexHelper.IndexedRegistration indexedRegistration : indexedRegistrations)
+        {
+            if (indexedRegistration.getStorageName() != null)
+            {
+                storageNames = new HashSet<>();
+                BusinessObjectDataEntity businessObjectDataEntity = dmDao.getBusinessObjectDataByAltKey(key);
+                if (businessObjectDataEntity != null)
+                {
+                    for (StorageUnitEntity storageUnitEntity : businessObjectDataEntity.getStorageUnits())
+                    {
+                        storageNames.add(storageUnitEntity.getStorage().getName().toUpperCase());
+                    }
+                }
+                break;
+            }
+        }
 
         List<BusinessObjectDataNotificationRegistrationEntity> notificationRegistrationsToProcess = new ArrayList<>();
 
-        for (BusinessObjectDataNotificationRegistrationEntity notificationRegistration : businessObjectDataNotificationRegistrationEntities)
+        for (NotificationRegistrationIndexHelper.IndexedRegistration indexedRegistration : indexedRegistrations)
         {
-            if (notificationRegistration.getStorage() == null)
+            if (indexedRegistration.getStorageName() == null || storageNames.contains(indexedRegistration.getStorageName().toUpperCase()))
             {
-                notificationRegistrationsToProcess.add(notificationRegistration);
-            }
-            else
-            {
-                String filterStorageName = notificationRegistration.getStorage().getName();
-                for (StorageUnitEntity storageUnitEntity : businessObjectDataEntity.getStorageUnits())
+                // Load the notification along with its actions. A notification that got deleted by another node since the index was built is skipped.
+                BusinessObjectDataNotificationRegistrationEntity notificationRegistration =
+                    dmDao.findById(BusinessObjectDataNotificationRegistrationEntity.class, indexedRegistration.getId());
+                if (notificationRegistration != null)
                 {
-                    if (filterStorageName.equalsIgnoreCase(storageUnitEntity.getStorage().getName()))
-                    {
-                        notificationRegistrationsToProcess.add(notificationRegistration);
-                        break;
-                    }
+                    notificationRegistrationsToProcess.add(notificationRegistration);
                 }
             }
         }
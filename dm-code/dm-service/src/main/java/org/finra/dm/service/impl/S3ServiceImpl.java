@@ -15,6 +15,8 @@
 */
 package org.finra.dm.service.impl;
 
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -27,6 +29,7 @@ import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferResultsDto;
+import org.finra.dm.model.dto.S3TransferMetrics;
 import org.finra.dm.model.api.xml.StorageFile;
 import org.finra.dm.service.S3Service;
 
@@ -63,6 +66,12 @@ public class S3ServiceImpl implements S3Service
         return s3Dao.listDirectory(params, ignoreZeroByteDirectoryMarkers);
     }
 
+    @Override
+    public Iterator<StorageFile> iterateDirectory(S3FileTransferRequestParamsDto params, boolean ignoreZeroByteDirectoryMarkers)
+    {
+        return s3Dao.iterateDirectory(params, ignoreZeroByteDirectoryMarkers);
+    }
+
     @Override
     public S3FileTransferResultsDto uploadFile(S3FileTransferRequestParamsDto params) throws InterruptedException
     {
@@ -94,15 +103,15 @@ public class S3ServiceImpl implements S3Service
     }
 
     @Override
-    public void deleteFileList(S3FileTransferRequestParamsDto params)
+    public S3FileTransferResultsDto deleteFileList(S3FileTransferRequestParamsDto params)
     {
-        s3Dao.deleteFileList(params);
+        return s3Dao.deleteFileList(params);
     }
 
     @Override
-    public void deleteDirectory(S3FileTransferRequestParamsDto params)
+    public S3FileTransferResultsDto deleteDirectory(S3FileTransferRequestParamsDto params)
     {
-        s3Dao.deleteDirectory(params);
+        return s3Dao.deleteDirectory(params);
     }
 
     @Override
@@ -129,4 +138,16 @@ public class S3ServiceImpl implements S3Service
     {
         return s3Dao.downloadDirectory(params);
     }
+
+    @Override
+    public int abortMultipartUploads(S3FileTransferRequestParamsDto params, Date thresholdDate)
+    {
+        return s3Dao.abortMultipartUploads(params, thresholdDate);
+    }
+
+    @Override
+    public S3TransferMetrics getTransferMetrics()
+    {
+        return s3Dao.getTransferMetrics();
+    }
 }
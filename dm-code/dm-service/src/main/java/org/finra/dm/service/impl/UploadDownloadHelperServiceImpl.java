@@ -21,9 +21,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.S3Dao;
 import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.model.dto.AwsParamsDto;
+import org.finra.dm.model.dto.ConfigurationValue;
 import org.finra.dm.model.dto.S3FileCopyRequestParamsDto;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
 import org.finra.dm.model.jpa.BusinessObjectDataEntity;
@@ -55,6 +57,9 @@ public class UploadDownloadHelperServiceImpl implements UploadDownloadHelperServ
     @Autowired
     private BusinessObjectDataHelper businessObjectDataHelper;
 
+    @Autowired
+    private ConfigurationHelper configurationHelper;
+
     /**
      * {@inheritDoc}
      */
@@ -91,6 +96,11 @@ public class UploadDownloadHelperServiceImpl implements UploadDownloadHelperServ
         params.setHttpProxyHost(awsParams.getHttpProxyHost());
         params.setHttpProxyPort(awsParams.getHttpProxyPort());
 
+        // Copy large files in parallel parts.
+        params.setMaxThreads(configurationHelper.getProperty(ConfigurationValue.S3_COPY_MAX_THREADS, Integer.class));
+        params.setMultipartCopyThreshold(configurationHelper.getProperty(ConfigurationValue.S3_COPY_MULTIPART_THRESHOLD_BYTES, Long.class));
+        params.setMultipartCopyPartSize(configurationHelper.getProperty(ConfigurationValue.S3_COPY_MULTIPART_PART_SIZE_BYTES, Long.class));
+
         String targetStatus;
         String sourceStatus;
 
@@ -15,7 +15,12 @@
 */
 package org.finra.dm.service.systemjobs;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 import org.quartz.DisallowConcurrentExecution;
@@ -23,16 +28,23 @@ import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
 import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.dto.JmsMessageQueueStatisticsDto;
 import org.finra.dm.model.api.xml.Parameter;
+import org.finra.dm.model.jpa.JmsMessageEntity;
 import org.finra.dm.service.JmsPublishingService;
 
 /**
- * The JMS publishing job.
+ * The JMS publishing job. The job runs several workers on a shared executor, and every worker repeatedly claims a batch of the oldest JMS messages and
+ * publishes it. Since the workers claim disjoint batches of messages, they publish concurrently. Runs of the job don't overlap, so a slow run doesn't stack
+ * up more workers.
  */
 @Component(JmsPublishingJob.JOB_NAME)
 @DisallowConcurrentExecution
@@ -45,34 +57,124 @@ public class JmsPublishingJob extends AbstractSystemJob
     @Autowired
     private JmsPublishingService jmsPublishingService;
 
+    @Autowired
+    @Qualifier("jmsPublishingTaskExecutor")
+    private AsyncTaskExecutor jmsPublishingTaskExecutor;
+
     @Override
     protected void executeInternal(JobExecutionContext context) throws JobExecutionException
     {
         // Log that the system job is started.
         LOGGER.info(String.format("Started \"%s\" system job.", JOB_NAME));
+        logJmsMessageQueueStatistics();
 
-        // Publish JMS messages stored in the database queue.
-        int publishedJmsMessagesCount = 0;
+        // Publish JMS messages stored in the database queue using the configured number of workers.
+        final int maxMessagesPerTransaction =
+            configurationHelper.getProperty(ConfigurationValue.JMS_PUBLISHING_JOB_MAX_MESSAGES_PER_TRANSACTION, Integer.class);
+        int workerCount = Math.max(1, configurationHelper.getProperty(ConfigurationValue.JMS_PUBLISHING_JOB_WORKER_COUNT, Integer.class));
+        List<Future<Integer>> workers = new ArrayList<>();
         try
         {
-            while (jmsPublishingService.publishOldestJmsMessage())
+            for (int i = 0; i < workerCount; i++)
             {
-                publishedJmsMessagesCount++;
+                workers.add(jmsPublishingTaskExecutor.submit(new Callable<Integer>()
+                {
+                    @Override
+                    public Integer call()
+                    {
+                        return publishJmsMessages(maxMessagesPerTransaction);
+                    }
+                }));
             }
         }
-        catch (Exception e)
+        catch (TaskRejectedException e)
         {
-            // Log the exception.
-            LOGGER.error("Failed to publish a JMS message.", e);
+            // Log the exception. The workers that were started keep publishing until there are no messages left to claim.
+            LOGGER.error("Failed to start a JMS publishing worker.", e);
+        }
+
+        // Wait for every started worker, even when interrupted, so a new run of the job doesn't overlap the workers of this run.
+        int publishedJmsMessagesCount = 0;
+        boolean interrupted = false;
+        for (Future<Integer> worker : workers)
+        {
+            while (true)
+            {
+                try
+                {
+                    publishedJmsMessagesCount += worker.get();
+                    break;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+                catch (ExecutionException e)
+                {
+                    LOGGER.error("Failed to publish JMS messages.", e);
+                    break;
+                }
+            }
+        }
+        if (interrupted)
+        {
+            // Restore the interrupt status, so the caller knows the job was interrupted.
+            Thread.currentThread().interrupt();
         }
 
         // Log the number of JMS messages successfully published.
         LOGGER.info(String.format("Published %d JMS messages.", publishedJmsMessagesCount));
+        logJmsMessageQueueStatistics();
 
         // Log that the system job is ended.
         LOGGER.info(String.format("Completed \"%s\" system job.", JOB_NAME));
     }
 
+    /**
+     * Keeps claiming and publishing batches of JMS messages until there is no unleased message left to claim. Each call uses its own lease owner, so it only
+     * publishes the messages it claimed.
+     *
+     * @param maxMessagesPerTransaction the maximum number of messages to claim at a time
+     *
+     * @return the number of JMS messages that got published
+     */
+    private int publishJmsMessages(int maxMessagesPerTransaction)
+    {
+        String leaseOwner = UUID.randomUUID().toString();
+        int publishedJmsMessagesCount = 0;
+        try
+        {
+            List<JmsMessageEntity> jmsMessageEntities;
+            while (!(jmsMessageEntities = jmsPublishingService.claimOldestJmsMessages(leaseOwner, maxMessagesPerTransaction)).isEmpty())
+            {
+                publishedJmsMessagesCount += jmsPublishingService.publishClaimedJmsMessages(leaseOwner, jmsMessageEntities);
+            }
+        }
+        catch (Exception e)
+        {
+            // Log the exception. The messages claimed by this worker are claimed again by another worker once their lease expires.
+            LOGGER.error("Failed to publish a JMS message.", e);
+        }
+        return publishedJmsMessagesCount;
+    }
+
+    /**
+     * Logs the depth and the age of the database queue of JMS messages.
+     */
+    private void logJmsMessageQueueStatistics()
+    {
+        try
+        {
+            JmsMessageQueueStatisticsDto statistics = jmsPublishingService.getJmsMessageQueueStatistics();
+            LOGGER.info(String.format("JMS message queue holds %d message(s) of which %d leased, and its oldest message is %d ms old.",
+                statistics.getMessageCount(), statistics.getLeasedMessageCount(), statistics.getOldestMessageAgeMillis(System.currentTimeMillis())));
+        }
+        catch (Exception e)
+        {
+            LOGGER.warn("Failed to get the JMS message queue statistics.", e);
+        }
+    }
+
     @Override
     public void validateParameters(List<Parameter> parameters)
     {
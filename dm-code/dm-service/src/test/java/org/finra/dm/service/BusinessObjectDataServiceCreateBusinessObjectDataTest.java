@@ -1126,7 +1126,7 @@ public class BusinessObjectDataServiceCreateBusinessObjectDataTest extends Abstr
                 new BusinessObjectDataCreateRequest(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_KEY,
                     PARTITION_VALUE, NO_SUBPARTITION_VALUES, BDATA_STATUS, Arrays.asList(
                     new StorageUnitCreateRequest(STORAGE_NAME, new StorageDirectory(STORAGE_DIRECTORY_PATH),
-                        Arrays.asList(new StorageFile(LOCAL_FILE, FILE_SIZE_1_KB, ROW_COUNT_1000)), DISCOVER_STORAGE_FILES)), NO_ATTRIBUTES,
+                        Arrays.asList(new StorageFile(LOCAL_FILE, FILE_SIZE_1_KB, ROW_COUNT_1000, null)), DISCOVER_STORAGE_FILES)), NO_ATTRIBUTES,
                     NO_BUSINESS_OBJECT_DATA_PARENTS, NO_CREATE_NEW_VERSION));
             fail("Should throw an IllegalArgumentException when discovery of storage files is enabled and storage files are specified.");
         }
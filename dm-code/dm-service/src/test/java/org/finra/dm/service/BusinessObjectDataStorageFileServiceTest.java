@@ -329,6 +329,22 @@ public class BusinessObjectDataStorageFileServiceTest extends AbstractServiceTes
             SUB_PARTITION_VALUES, DATA_VERSION, STORAGE_NAME, request.getStorageFiles(), response);
     }
 
+    @Test
+    public void testCreateBusinessObjectDataStorageFilesWithMd5()
+    {
+        createDataWithSubPartitions();
+
+        // Create a business object data storage file with an upper case MD5 digest surrounded by whitespace.
+        StorageFile storageFile = createFile(FILE_PATH_2, FILE_SIZE_1_KB, ROW_COUNT_1000);
+        storageFile.setMd5(addWhitespace("D41D8CD98F00B204E9800998ECF8427E"));
+        businessObjectDataStorageFileService.createBusinessObjectDataStorageFiles(
+            createBusinessObjectDataStorageFilesCreateRequest(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE,
+                SUB_PARTITION_VALUES, DATA_VERSION, STORAGE_NAME, Arrays.asList(storageFile)));
+
+        // Validate that the digest got registered in its normalized form.
+        assertEquals("d41d8cd98f00b204e9800998ecf8427e", dmDao.getStorageFileByStorageNameAndFilePath(STORAGE_NAME, FILE_PATH_2).getMd5());
+    }
+
     @Test
     public void testCreateBusinessObjectDataStorageFilesLowerCaseParameters()
     {
@@ -365,6 +381,21 @@ public class BusinessObjectDataStorageFileServiceTest extends AbstractServiceTes
             assertEquals(String.format("File \"%s\" has a row count which is < 0.", FILE_PATH_2), e.getMessage());
         }
 
+        // Try to add business object data storage files using an invalid MD5 digest.
+        try
+        {
+            StorageFile storageFile = createFile(FILE_PATH_2, FILE_SIZE_1_KB, ROW_COUNT_1000);
+            storageFile.setMd5("NOT_AN_MD5");
+            businessObjectDataStorageFileService.createBusinessObjectDataStorageFiles(
+                createBusinessObjectDataStorageFilesCreateRequest(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION,
+                    PARTITION_VALUE, SUB_PARTITION_VALUES, DATA_VERSION, STORAGE_NAME, Arrays.asList(storageFile)));
+            fail("Should throw an IllegalArgumentException when storage file has an invalid MD5 digest.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals(String.format("File \"%s\" has an invalid MD5 digest.", FILE_PATH_2), e.getMessage());
+        }
+
         // Try to add duplicate business object data storage files.
         try
         {
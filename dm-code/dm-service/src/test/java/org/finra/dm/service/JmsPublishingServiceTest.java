@@ -16,14 +16,19 @@
 package org.finra.dm.service;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
 import org.finra.dm.dao.impl.MockSqsOperationsImpl;
+import org.finra.dm.model.dto.ConfigurationValue;
+import org.finra.dm.model.dto.JmsMessageQueueStatisticsDto;
 import org.finra.dm.model.jpa.JmsMessageEntity;
 
 /**
@@ -32,33 +37,27 @@ import org.finra.dm.model.jpa.JmsMessageEntity;
 public class JmsPublishingServiceTest extends AbstractServiceTest
 {
     @Test
-    public void testPublishOldestJmsMessage() throws Exception
+    public void testPublishClaimedJmsMessages() throws Exception
     {
         // Create only 1 message to be sent in the database.
         createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
 
-        // Validate the results by ensuring there is only 1 message that got published (i.e. true for the first message and false for the second one since
-        // only 1 exists).
-        assertTrue(jmsPublishingService.publishOldestJmsMessage());
-        assertFalse(jmsPublishingService.publishOldestJmsMessage());
+        // Validate the results by ensuring there is only 1 message that got claimed and published.
+        List<JmsMessageEntity> jmsMessageEntities = jmsPublishingService.claimOldestJmsMessages("owner1", 10);
+        assertEquals(1, jmsMessageEntities.size());
+        assertEquals(1, jmsPublishingService.publishClaimedJmsMessages("owner1", jmsMessageEntities));
+        assertTrue(jmsPublishingService.claimOldestJmsMessages("owner1", 10).isEmpty());
+        assertNull(dmDao.getOldestJmsMessage());
     }
 
     @Test
-    public void testPublishOldestJmsMessageRuntimeException() throws Exception
+    public void testPublishClaimedJmsMessagesQueueNotFound() throws Exception
     {
         // Prepare database entries required for testing.
         createJmsMessageEntity(MockSqsOperationsImpl.MOCK_SQS_QUEUE_NOT_FOUND_NAME, MESSAGE_TEXT);
 
         // Try to publish a JMS message which should fail since the database message has an invalid queue name.
-        try
-        {
-            jmsPublishingService.publishOldestJmsMessage();
-            fail("Should throw a RuntimeException when AWS SQS queue does not exist.");
-        }
-        catch (IllegalStateException e)
-        {
-            assertEquals(String.format("AWS SQS queue with \"%s\" name not found.", MockSqsOperationsImpl.MOCK_SQS_QUEUE_NOT_FOUND_NAME), e.getMessage());
-        }
+        assertEquals(0, jmsPublishingService.publishClaimedJmsMessages("owner1", jmsPublishingService.claimOldestJmsMessages("owner1", 10)));
 
         // Check that the test JMS message is still the oldest message in the database queue.
         JmsMessageEntity jmsMessageEntity = dmDao.getOldestJmsMessage();
@@ -66,4 +65,99 @@ public class JmsPublishingServiceTest extends AbstractServiceTest
         assertEquals(MockSqsOperationsImpl.MOCK_SQS_QUEUE_NOT_FOUND_NAME, jmsMessageEntity.getJmsQueueName());
         assertEquals(MESSAGE_TEXT, jmsMessageEntity.getMessageText());
     }
+
+    @Test
+    public void testPublishClaimedJmsMessagesInBatches() throws Exception
+    {
+        // Create three messages on two queues in the database.
+        createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT);
+        createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT_2);
+
+        // Claim and publish the messages in batches of two.
+        assertEquals(2, jmsPublishingService.publishClaimedJmsMessages("owner1", jmsPublishingService.claimOldestJmsMessages("owner1", 2)));
+        assertEquals(1, jmsPublishingService.publishClaimedJmsMessages("owner1", jmsPublishingService.claimOldestJmsMessages("owner1", 2)));
+        assertTrue(jmsPublishingService.claimOldestJmsMessages("owner1", 2).isEmpty());
+        assertNull(dmDao.getOldestJmsMessage());
+    }
+
+    @Test
+    public void testPublishClaimedJmsMessagesPartialFailure() throws Exception
+    {
+        // Create messages where one message fails to be sent and one queue does not exist.
+        createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        JmsMessageEntity failedJmsMessageEntity = createJmsMessageEntity(JMS_QUEUE_NAME, MockSqsOperationsImpl.MOCK_SQS_MESSAGE_FAILED_TEXT);
+        createJmsMessageEntity(MockSqsOperationsImpl.MOCK_SQS_QUEUE_NOT_FOUND_NAME, MESSAGE_TEXT);
+        createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT_2);
+
+        // Only the messages that got sent are published.
+        assertEquals(2, jmsPublishingService.publishClaimedJmsMessages("owner1", jmsPublishingService.claimOldestJmsMessages("owner1", 10)));
+
+        // Check that the messages that failed to be sent are still in the database queue and stay leased.
+        JmsMessageQueueStatisticsDto statistics = jmsPublishingService.getJmsMessageQueueStatistics();
+        assertEquals(2, statistics.getMessageCount());
+        assertEquals(2, statistics.getLeasedMessageCount());
+        assertEquals(failedJmsMessageEntity, dmDao.getOldestJmsMessage());
+        assertTrue(jmsPublishingService.claimOldestJmsMessages("owner2", 10).isEmpty());
+    }
+
+    @Test
+    public void testPublishClaimedJmsMessagesOrderedQueueFailure() throws Exception
+    {
+        // Create messages on an ordered queue where the second message fails to be sent, and a message on an unordered queue.
+        createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        JmsMessageEntity failedJmsMessageEntity = createJmsMessageEntity(JMS_QUEUE_NAME, MockSqsOperationsImpl.MOCK_SQS_MESSAGE_FAILED_TEXT);
+        createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT_2);
+        createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT_2);
+
+        // Override configuration.
+        Map<String, Object> overrideMap = new HashMap<>();
+        overrideMap.put(ConfigurationValue.JMS_PUBLISHING_JOB_ORDERED_QUEUE_NAMES.getKey(), JMS_QUEUE_NAME);
+        modifyPropertySourceInEnvironment(overrideMap);
+
+        try
+        {
+            // The ordered queue stops at its failed message, so only its first message and the message of the unordered queue are published.
+            assertEquals(2, jmsPublishingService.publishClaimedJmsMessages("owner1", jmsPublishingService.claimOldestJmsMessages("owner1", 10)));
+
+            // Check that the failed message and the newer message of the ordered queue are still in the database queue.
+            JmsMessageQueueStatisticsDto statistics = jmsPublishingService.getJmsMessageQueueStatistics();
+            assertEquals(2, statistics.getMessageCount());
+            assertEquals(2, statistics.getLeasedMessageCount());
+            assertEquals(failedJmsMessageEntity, dmDao.getOldestJmsMessage());
+        }
+        finally
+        {
+            // Restore the property sources so we don't affect other tests.
+            restorePropertySourceInEnvironment();
+        }
+    }
+
+    @Test
+    public void testClaimAndPublishJmsMessages() throws Exception
+    {
+        // Create messages where one message fails to be sent.
+        createJmsMessageEntity(JMS_QUEUE_NAME, MESSAGE_TEXT);
+        JmsMessageEntity failedJmsMessageEntity = createJmsMessageEntity(JMS_QUEUE_NAME, MockSqsOperationsImpl.MOCK_SQS_MESSAGE_FAILED_TEXT);
+        createJmsMessageEntity(JMS_QUEUE_NAME_2, MESSAGE_TEXT_2);
+
+        // Two workers claim disjoint batches of messages.
+        List<JmsMessageEntity> jmsMessageEntities1 = jmsPublishingService.claimOldestJmsMessages("owner1", 2);
+        List<JmsMessageEntity> jmsMessageEntities2 = jmsPublishingService.claimOldestJmsMessages("owner2", 2);
+        assertEquals(2, jmsMessageEntities1.size());
+        assertEquals(1, jmsMessageEntities2.size());
+        assertTrue(jmsPublishingService.claimOldestJmsMessages("owner3", 2).isEmpty());
+        assertEquals(3, jmsPublishingService.getJmsMessageQueueStatistics().getLeasedMessageCount());
+
+        // Only the messages that got sent are published.
+        assertEquals(1, jmsPublishingService.publishClaimedJmsMessages("owner1", jmsMessageEntities1));
+        assertEquals(1, jmsPublishingService.publishClaimedJmsMessages("owner2", jmsMessageEntities2));
+
+        // The message that failed to be sent stays leased in the database queue until its lease expires.
+        JmsMessageQueueStatisticsDto statistics = jmsPublishingService.getJmsMessageQueueStatistics();
+        assertEquals(1, statistics.getMessageCount());
+        assertEquals(1, statistics.getLeasedMessageCount());
+        assertEquals(failedJmsMessageEntity, dmDao.getOldestJmsMessage());
+        assertTrue(jmsPublishingService.claimOldestJmsMessages("owner3", 2).isEmpty());
+    }
 }
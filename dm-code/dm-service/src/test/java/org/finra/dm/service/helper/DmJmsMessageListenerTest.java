@@ -15,6 +15,8 @@
 */
 package org.finra.dm.service.helper;
 
+import static org.junit.Assert.assertEquals;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -52,6 +54,17 @@ public class DmJmsMessageListenerTest extends AbstractServiceTest
     @Autowired
     UploadDownloadService uploadDownloadService;
 
+    @Test
+    public void testGetIncomingMessageType() throws Exception
+    {
+        assertEquals(DmJmsMessageListener.IncomingMessageType.S3_NOTIFICATION, dmJmsMessageListener.getIncomingMessageType(" \n{\"Records\":[]}"));
+        assertEquals(DmJmsMessageListener.IncomingMessageType.SYSTEM_MONITOR, dmJmsMessageListener.getIncomingMessageType(
+            getTestSystemMonitorIncomingMessage()));
+        assertEquals(DmJmsMessageListener.IncomingMessageType.UNKNOWN, dmJmsMessageListener.getIncomingMessageType("WRONG_MESSAGE"));
+        assertEquals(DmJmsMessageListener.IncomingMessageType.UNKNOWN, dmJmsMessageListener.getIncomingMessageType("  "));
+        assertEquals(DmJmsMessageListener.IncomingMessageType.UNKNOWN, dmJmsMessageListener.getIncomingMessageType(null));
+    }
+
     @Test
     public void testSystemMonitorMessage() throws Exception
     {
@@ -120,7 +133,11 @@ public class DmJmsMessageListenerTest extends AbstractServiceTest
         Logger.getLogger(UploadDownloadServiceImpl.class).setLevel(Level.OFF);
         Logger.getLogger(DmJmsMessageListener.class).setLevel(Level.OFF);
 
+        long failedMessageCount = dmJmsMessageListener.getFailedMessageCount(DmJmsMessageListener.IncomingMessageType.S3_NOTIFICATION);
+
         dmJmsMessageListener.processMessage(jsonHelper.objectToJson(s3EventNotification), null);
+
+        assertEquals(failedMessageCount + 1, dmJmsMessageListener.getFailedMessageCount(DmJmsMessageListener.IncomingMessageType.S3_NOTIFICATION));
     }
 
     @Test
@@ -129,6 +146,12 @@ public class DmJmsMessageListenerTest extends AbstractServiceTest
         Logger.getLogger(UploadDownloadServiceImpl.class).setLevel(Level.OFF);
         Logger.getLogger(DmJmsMessageListener.class).setLevel(Level.OFF);
 
+        long messageCount = dmJmsMessageListener.getMessageCount(DmJmsMessageListener.IncomingMessageType.UNKNOWN);
+        long failedMessageCount = dmJmsMessageListener.getFailedMessageCount(DmJmsMessageListener.IncomingMessageType.UNKNOWN);
+
         dmJmsMessageListener.processMessage("WRONG_MESSAGE", null);
+
+        assertEquals(messageCount + 1, dmJmsMessageListener.getMessageCount(DmJmsMessageListener.IncomingMessageType.UNKNOWN));
+        assertEquals(failedMessageCount + 1, dmJmsMessageListener.getFailedMessageCount(DmJmsMessageListener.IncomingMessageType.UNKNOWN));
     }
 }
\ No newline at end of file
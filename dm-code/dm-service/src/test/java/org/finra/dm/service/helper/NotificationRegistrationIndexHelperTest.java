@@ -0,0 +1,83 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.service.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.finra.dm.model.jpa.BusinessObjectDataNotificationRegistrationEntity;
+import org.finra.dm.model.jpa.NotificationEventTypeEntity;
+import org.finra.dm.model.api.xml.BusinessObjectDataKey;
+import org.finra.dm.model.api.xml.JobAction;
+import org.finra.dm.service.AbstractServiceTest;
+
+/**
+ * This class tests functionality within the NotificationRegistrationIndexHelper class.
+ */
+public class NotificationRegistrationIndexHelperTest extends AbstractServiceTest
+{
+    private static final String EVENT_TYPE = NotificationEventTypeEntity.EVENT_TYPES_BDATA.BUS_OBJCT_DATA_RGSTN.name();
+
+    @Autowired
+    private NotificationRegistrationIndexHelper notificationRegistrationIndexHelper;
+
+    @Test
+    public void testGetBusinessObjectDataNotificationRegistrations() throws Exception
+    {
+        BusinessObjectDataKey businessObjectDataKey =
+            new BusinessObjectDataKey(NAMESPACE_CD, BOD_NAME, FORMAT_USAGE_CODE, FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, PARTITION_VALUE, SUBPARTITION_VALUES,
+                DATA_VERSION);
+
+        // Build the index before the registrations exist.
+        assertTrue(notificationRegistrationIndexHelper.getBusinessObjectDataNotificationRegistrations(EVENT_TYPE, businessObjectDataKey).isEmpty());
+
+        // Create registrations that match the business object data, with and without optional filters, and registrations that do not match it.
+        List<JobAction> jobActions = new ArrayList<>();
+        BusinessObjectDataNotificationRegistrationEntity registration2 =
+            createBusinessObjectDataNotificationRegistrationEntity(NAMESPACE_CD, NOTIFICATION_NAME_2, EVENT_TYPE, BOD_NAME, null, null, null, STORAGE_NAME,
+                jobActions);
+        BusinessObjectDataNotificationRegistrationEntity registration1 =
+            createBusinessObjectDataNotificationRegistrationEntity(NAMESPACE_CD, NOTIFICATION_NAME, EVENT_TYPE, BOD_NAME, FORMAT_USAGE_CODE,
+                FORMAT_FILE_TYPE_CODE, FORMAT_VERSION, null, jobActions);
+        createBusinessObjectDataNotificationRegistrationEntity(NAMESPACE_CD, NOTIFICATION_NAME + "_3", EVENT_TYPE, BOD_NAME, FORMAT_USAGE_CODE, null,
+            FORMAT_VERSION_2, null, jobActions);
+        createBusinessObjectDataNotificationRegistrationEntity(NAMESPACE_CD, NOTIFICATION_NAME + "_4", EVENT_TYPE, BOD_NAME, FORMAT_USAGE_CODE_2, null, null,
+            null, jobActions);
+
+        // The registrations added after the index was built are matched case insensitively and ordered by notification name.
+        List<NotificationRegistrationIndexHelper.IndexedRegistration> registrations = notificationRegistrationIndexHelper
+            .getBusinessObjectDataNotificationRegistrations(EVENT_TYPE.toLowerCase(),
+                new BusinessObjectDataKey(NAMESPACE_CD.toUpperCase(), BOD_NAME.toLowerCase(), FORMAT_USAGE_CODE.toUpperCase(),
+                    FORMAT_FILE_TYPE_CODE.toLowerCase(), FORMAT_VERSION, PARTITION_VALUE, SUBPARTITION_VALUES, DATA_VERSION));
+        assertEquals(2, registrations.size());
+        assertEquals(Arrays.asList(registration1.getId(), registration2.getId()), Arrays.asList(registrations.get(0).getId(), registrations.get(1).getId()));
+        assertNull(registrations.get(0).getStorageName());
+        assertEquals(STORAGE_NAME, registrations.get(1).getStorageName());
+
+        // No registration matches another event type.
+        assertTrue(notificationRegistrationIndexHelper
+            .getBusinessObjectDataNotificationRegistrations(NotificationEventTypeEntity.EVENT_TYPES_BDATA.BUS_OBJCT_DATA_STTS_CHG.name(), businessObjectDataKey)
+            .isEmpty());
+    }
+}
@@ -34,4 +34,21 @@ public class VelocityHelperTest extends AbstractServiceTest
         String result = velocityHelper.evaluate(template, variables, logTag);
         Assert.assertEquals("result", "bar", result);
     }
+
+    @Test
+    public void testEvaluateCachedTemplate()
+    {
+        String template = "${foo}-cached-" + System.nanoTime();
+        int templateCacheSize = velocityHelper.getTemplateCacheSize();
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("foo", "bar");
+        Assert.assertEquals("result", template.replace("${foo}", "bar"), velocityHelper.evaluate(template, variables, "test"));
+
+        // Evaluate the same template with different variables which should reuse the parsed template.
+        variables.put("foo", "baz");
+        Assert.assertEquals("result", template.replace("${foo}", "baz"), velocityHelper.evaluate(template, variables, "test"));
+        Assert.assertEquals("templateCacheSize", Math.min(templateCacheSize + 1, VelocityHelper.TEMPLATE_CACHE_MAX_SIZE),
+            velocityHelper.getTemplateCacheSize());
+    }
 }
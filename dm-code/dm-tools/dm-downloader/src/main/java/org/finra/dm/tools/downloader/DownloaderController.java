@@ -16,17 +16,27 @@
 package org.finra.dm.tools.downloader;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.JAXBException;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,6 +59,7 @@ import org.finra.dm.model.api.xml.StorageFile;
 import org.finra.dm.model.api.xml.StorageUnit;
 import org.finra.dm.service.helper.StorageFileHelper;
 import org.finra.dm.tools.common.databridge.DataBridgeController;
+import org.finra.dm.tools.common.databridge.DataBridgeTransferPlanner;
 
 /**
  * Executes the DownloaderApp workflow.
@@ -146,16 +157,29 @@ public class DownloaderController extends DataBridgeController
             // Validate S3 files before we start the download.
             dmHelper.validateS3Files(s3ManagedStorageUnit, actualS3Files, s3KeyPrefixInformation.getS3KeyPrefix());
 
-            // Special handling for the maxThreads command line option.
-            s3FileTransferRequestParamsDto.setMaxThreads(adjustIntegerValue(s3FileTransferRequestParamsDto.getMaxThreads(), MIN_THREADS, MAX_THREADS));
+            // Plan the number of threads from the sizes of the files to download. The maxThreads command line option caps the number of threads. The files
+            // are downloaded in a single transfer that is never adjusted, so the transfer starts with the maximum number of threads.
+            List<Long> fileSizes = new ArrayList<>();
+            if (!CollectionUtils.isEmpty(s3ManagedStorageUnit.getStorageFiles()))
+            {
+                for (StorageFile storageFile : s3ManagedStorageUnit.getStorageFiles())
+                {
+                    // The file size is optional, so a file without one is planned as a small file.
+                    fileSizes.add(storageFile.getFileSizeBytes() != null ? storageFile.getFileSizeBytes() : 0L);
+                }
+            }
+            new DataBridgeTransferPlanner(MIN_THREADS, adjustIntegerValue(s3FileTransferRequestParamsDto.getMaxThreads(), MIN_THREADS, MAX_THREADS))
+                .plan(s3FileTransferRequestParamsDto, fileSizes, false);
 
             // Download S3 files to the target local directory.
             s3FileTransferRequestParamsDto.setRecursive(true);
             cleanUpTargetLocalDirectoryOnFailure = true;
             s3Service.downloadDirectory(s3FileTransferRequestParamsDto);
+            LOGGER.info("S3 transfer metrics: " + s3Service.getTransferMetrics());
 
             // Validate the downloaded files.
             dmHelper.validateDownloadedS3Files(s3FileTransferRequestParamsDto.getLocalPath(), s3KeyPrefixInformation.getS3KeyPrefix(), s3ManagedStorageUnit);
+            validateDownloadedFileMd5s(s3FileTransferRequestParamsDto.getLocalPath(), s3ManagedStorageUnit);
 
             // Log a list of files downloaded to the target local directory.
             if (LOGGER.isInfoEnabled())
@@ -182,6 +206,89 @@ public class DownloaderController extends DataBridgeController
         }
     }
 
+    /**
+     * Validates the MD5 digests of the downloaded files against the digests calculated by the uploader and registered with the storage files. The digests are
+     * calculated on a thread per available processor. Storage files registered without a digest are not validated.
+     *
+     * @param localPath the local path the files were downloaded to
+     * @param storageUnit the storage unit with the storage files
+     *
+     * @throws InterruptedException if the download thread was interrupted
+     * @throws IOException if a downloaded file could not be read
+     * @throws IllegalStateException if the digest of a downloaded file does not match the registered digest
+     */
+    private void validateDownloadedFileMd5s(String localPath, StorageUnit storageUnit) throws InterruptedException, IOException
+    {
+        Map<File, String> expectedMd5s = new LinkedHashMap<>();
+        if (!CollectionUtils.isEmpty(storageUnit.getStorageFiles()))
+        {
+            for (StorageFile storageFile : storageUnit.getStorageFiles())
+            {
+                if (storageFile.getMd5() != null)
+                {
+                    expectedMd5s.put(Paths.get(localPath, storageFile.getFilePath()).toFile(), storageFile.getMd5());
+                }
+            }
+        }
+
+        if (expectedMd5s.isEmpty())
+        {
+            return;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(expectedMd5s.size(), Runtime.getRuntime().availableProcessors()));
+        try
+        {
+            Map<File, Future<String>> md5s = new LinkedHashMap<>();
+            for (final File file : expectedMd5s.keySet())
+            {
+                md5s.put(file, executorService.submit(new Callable<String>()
+                {
+                    @Override
+                    public String call() throws IOException
+                    {
+                        try (InputStream inputStream = new FileInputStream(file))
+                        {
+                            return DigestUtils.md5Hex(inputStream);
+                        }
+                    }
+                }));
+            }
+
+            for (Map.Entry<File, Future<String>> entry : md5s.entrySet())
+            {
+                String md5;
+                try
+                {
+                    md5 = entry.getValue().get();
+                }
+                catch (ExecutionException e)
+                {
+                    if (e.getCause() instanceof IOException)
+                    {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new IllegalStateException(String.format("Failed to calculate the MD5 digest of the downloaded \"%s\" S3 file.",
+                        entry.getKey().getPath()), e.getCause());
+                }
+
+                String expectedMd5 = expectedMd5s.get(entry.getKey());
+                if (!expectedMd5.equalsIgnoreCase(md5))
+                {
+                    throw new IllegalStateException(String
+                        .format("MD5 digest of the downloaded \"%s\" S3 file does not match the expected value (expected %s, actual %s).",
+                            entry.getKey().getPath(), expectedMd5, md5));
+                }
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+
+        LOGGER.info(String.format("Validated the MD5 digests of %d downloaded file(s).", expectedMd5s.size()));
+    }
+
     /**
      * Logs all files found in the specified local directory.
      *
@@ -234,6 +341,7 @@ public class DownloaderController extends DataBridgeController
                 manifestFile.setFileName(storageFile.getFilePath().replace(s3KeyPrefix, ""));
                 manifestFile.setFileSizeBytes(storageFile.getFileSizeBytes());
                 manifestFile.setRowCount(storageFile.getRowCount());
+                manifestFile.setMd5(storageFile.getMd5());
             }
         }
 
@@ -68,6 +68,22 @@ public class DownloaderControllerTest extends AbstractDownloaderTest
             MockHttpClientOperationsImpl.HOSTNAME_THROW_IO_EXCEPTION_DURING_GET_STORAGES);
     }
 
+    @Test
+    public void testPerformDownloadMd5Mismatch() throws Exception
+    {
+        try
+        {
+            runDownload(getTestDownloaderInputManifestDto(), LOCAL_TEMP_PATH_OUTPUT.toString(), DownloaderController.MIN_THREADS,
+                MockHttpClientOperationsImpl.HOSTNAME_RESPOND_WITH_MISMATCHED_MD5);
+            fail("Should throw an IllegalStateException when the MD5 digest of a downloaded file does not match the registered digest.");
+        }
+        catch (IllegalStateException e)
+        {
+            assertTrue(e.getMessage().startsWith("MD5 digest of the downloaded "));
+            assertTrue(e.getMessage().contains(String.format("(expected %s, actual ", MockHttpClientOperationsImpl.MISMATCHED_MD5)));
+        }
+    }
+
     @Test
     public void testPerformDownloadTargetLocalDirectoryNoExists() throws Exception
     {
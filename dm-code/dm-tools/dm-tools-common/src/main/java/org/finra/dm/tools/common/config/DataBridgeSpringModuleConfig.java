@@ -19,9 +19,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.jmx.export.MBeanExporter;
 
 import org.finra.dm.core.helper.ConfigurationHelper;
 import org.finra.dm.dao.S3Dao;
+import org.finra.dm.dao.config.DaoSpringModuleConfig;
 import org.finra.dm.dao.helper.DmStringHelper;
 import org.finra.dm.dao.helper.JavaPropertiesHelper;
 import org.finra.dm.dao.impl.S3DaoImpl;
@@ -78,6 +80,17 @@ public class DataBridgeSpringModuleConfig
         return new S3DaoImpl();
     }
 
+    /**
+     * The MBean exporter that exposes the metrics of the S3 transfers performed by the uploader or the downloader over JMX.
+     *
+     * @return the MBean exporter.
+     */
+    @Bean
+    public MBeanExporter s3TransferMetricsMBeanExporter()
+    {
+        return DaoSpringModuleConfig.createS3TransferMetricsMBeanExporter(s3Dao().getTransferMetrics());
+    }
+
     // This dependency is required when S3Dao is used.
     @Bean
     public JavaPropertiesHelper javaPropertiesHelper()
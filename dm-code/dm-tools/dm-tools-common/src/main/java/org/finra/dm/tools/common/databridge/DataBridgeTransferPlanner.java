@@ -0,0 +1,181 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.tools.common.databridge;
+
+import java.util.Collection;
+
+import org.apache.log4j.Logger;
+
+import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
+import org.finra.dm.model.dto.S3FileTransferResultsDto;
+
+/**
+ * Plans the part size and the number of threads of an S3 transfer from the sizes of the files to transfer, and adapts the number of threads to the
+ * throughput observed after each batch of files. When the transfer is split in batches, the number of threads starts at half of the maximum, grows while
+ * every increase still improves the throughput, and is halved as soon as S3 throttles the requests. A transfer made of a single batch is never adjusted, so
+ * it starts at the maximum. The maximum number of threads specified by the user is never exceeded.
+ */
+public class DataBridgeTransferPlanner
+{
+    private static final Logger LOGGER = Logger.getLogger(DataBridgeTransferPlanner.class);
+
+    /**
+     * The minimum part size accepted by S3 for all but the last part of a multipart upload.
+     */
+    public static final long MIN_PART_SIZE_BYTES = 5L * 1024 * 1024;
+
+    /**
+     * The largest part size the planner chooses. Larger parts only reduce the request count further at the cost of parallelism and retry granularity.
+     */
+    public static final long MAX_PART_SIZE_BYTES = 512L * 1024 * 1024;
+
+    /**
+     * The maximum number of parts of a multipart upload accepted by S3.
+     */
+    public static final long MAX_PARTS_PER_UPLOAD = 10000;
+
+    /**
+     * The number of parts per thread the part size is chosen for, so that the threads stay busy until the end of the transfer.
+     */
+    private static final int PARTS_PER_THREAD = 4;
+
+    /**
+     * The minimum relative throughput improvement for the number of threads to keep growing.
+     */
+    private static final double MIN_THROUGHPUT_GAIN = 1.1;
+
+    private final int minThreads;
+
+    private final int maxThreads;
+
+    private int threads;
+
+    private boolean rampingUp = true;
+
+    private double previousBytesPerSecond;
+
+    /**
+     * Creates a planner that chooses the number of threads within the specified bounds.
+     *
+     * @param minThreads the minimum number of threads
+     * @param maxThreads the maximum number of threads
+     */
+    public DataBridgeTransferPlanner(int minThreads, int maxThreads)
+    {
+        this.minThreads = minThreads;
+        this.maxThreads = Math.max(minThreads, maxThreads);
+        this.threads = this.maxThreads;
+    }
+
+    /**
+     * Plans the transfer of the specified files and applies the plan to the S3 file transfer request parameters. The part size is large enough for the
+     * largest file to fit in the maximum number of parts, and small enough for the transfer to be split across all threads. Files smaller than a part are
+     * transferred with a single request. The initial number of threads is half of the maximum when the number of threads will be adjusted after each batch,
+     * and the maximum otherwise, but never more than the number of parts to transfer.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param fileSizes the sizes of the files to transfer
+     * @param adjusted specifies whether {@link #adjust} will be called after each batch of the transfer
+     */
+    public void plan(S3FileTransferRequestParamsDto params, Collection<Long> fileSizes, boolean adjusted)
+    {
+        long totalBytes = 0;
+        long largestFileBytes = 0;
+        for (Long fileSize : fileSizes)
+        {
+            totalBytes += fileSize;
+            largestFileBytes = Math.max(largestFileBytes, fileSize);
+        }
+
+        long partSize = totalBytes / ((long) maxThreads * PARTS_PER_THREAD);
+        partSize = Math.max(MIN_PART_SIZE_BYTES, Math.min(MAX_PART_SIZE_BYTES, partSize));
+        partSize = Math.max(partSize, (largestFileBytes + MAX_PARTS_PER_UPLOAD - 1) / MAX_PARTS_PER_UPLOAD);
+
+        long partCount = 0;
+        for (Long fileSize : fileSizes)
+        {
+            partCount += Math.max(1, (fileSize + partSize - 1) / partSize);
+        }
+
+        threads = (int) Math.max(minThreads, Math.min(partCount, adjusted ? Math.max(minThreads, maxThreads / 2) : maxThreads));
+        rampingUp = true;
+        previousBytesPerSecond = 0;
+
+        params.setMultipartUploadThreshold(partSize);
+        params.setMultipartUploadPartSize(partSize);
+        params.setMaxThreads(threads);
+
+        LOGGER.info(String.format("Planned the transfer of %d file(s) totalling %d bytes with a part size of %d bytes and %d thread(s).", fileSizes.size(),
+            totalBytes, partSize, threads));
+    }
+
+    /**
+     * Adapts the number of threads to the results of the last transferred batch and applies it to the S3 file transfer request parameters. A batch that
+     * needed retries halves the number of threads. Otherwise, the number of threads grows by half while each increase improves the throughput by at least
+     * ten percent, and by one thread at a time once the throughput has levelled off.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param results the results of the last transferred batch
+     */
+    public void adjust(S3FileTransferRequestParamsDto params, S3FileTransferResultsDto results)
+    {
+        Double bytesPerSecond = results.getTransferRateInBytesPerSecond();
+        int previousThreads = threads;
+
+        if (results.getTotalRetries() != null && results.getTotalRetries() > 0)
+        {
+            // S3 is throttling the requests, so back off and measure the throughput again from the lower level.
+            threads = Math.max(minThreads, threads / 2);
+            rampingUp = false;
+            previousBytesPerSecond = 0;
+        }
+        else if (bytesPerSecond != null)
+        {
+            if (rampingUp && bytesPerSecond >= previousBytesPerSecond * MIN_THROUGHPUT_GAIN)
+            {
+                threads = Math.min(maxThreads, threads + Math.max(1, threads / 2));
+            }
+            else if (bytesPerSecond >= previousBytesPerSecond)
+            {
+                rampingUp = false;
+                threads = Math.min(maxThreads, threads + 1);
+            }
+            else
+            {
+                rampingUp = false;
+            }
+            previousBytesPerSecond = bytesPerSecond;
+        }
+
+        params.setMaxThreads(threads);
+
+        if (threads != previousThreads)
+        {
+            LOGGER.info(String.format("Changed the number of threads from %d to %d after a batch with a throughput of %s bytes/s and %d retries.",
+                previousThreads, threads, bytesPerSecond == null ? "unknown" : String.format("%.0f", bytesPerSecond), results.getTotalRetries()));
+        }
+    }
+
+    /**
+     * Gets the number of threads currently planned.
+     *
+     * @return the number of threads
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+}
@@ -192,6 +192,7 @@ public abstract class DataBridgeWebClient
             storageFile.setFilePath((s3KeyPrefix + manifestFile.getFileName()).replaceAll("\\\\", "/"));
             storageFile.setFileSizeBytes(Paths.get(localPath, manifestFile.getFileName()).toFile().length());
             storageFile.setRowCount(manifestFile.getRowCount());
+            storageFile.setMd5(manifestFile.getMd5());
         }
 
         BusinessObjectDataCreateRequest request = new BusinessObjectDataCreateRequest();
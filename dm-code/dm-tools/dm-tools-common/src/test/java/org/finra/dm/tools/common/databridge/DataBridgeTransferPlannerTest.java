@@ -0,0 +1,138 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.tools.common.databridge;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
+import org.finra.dm.model.dto.S3FileTransferResultsDto;
+
+/**
+ * Tests the Data Bridge Transfer Planner.
+ */
+public class DataBridgeTransferPlannerTest
+{
+    private static final long MB = 1024L * 1024;
+
+    @Test
+    public void testPlanSmallFiles()
+    {
+        DataBridgeTransferPlanner planner = new DataBridgeTransferPlanner(DataBridgeController.MIN_THREADS, 20);
+        S3FileTransferRequestParamsDto params = new S3FileTransferRequestParamsDto();
+
+        // A small transfer uses the minimum part size, and no more threads than there are files.
+        planner.plan(params, Arrays.asList(MB, MB, MB, MB), true);
+        assertEquals(Long.valueOf(DataBridgeTransferPlanner.MIN_PART_SIZE_BYTES), params.getMultipartUploadPartSize());
+        assertEquals(Long.valueOf(DataBridgeTransferPlanner.MIN_PART_SIZE_BYTES), params.getMultipartUploadThreshold());
+        assertEquals(Integer.valueOf(4), params.getMaxThreads());
+
+        // The number of threads never drops below the minimum.
+        planner.plan(params, Collections.singletonList(MB), true);
+        assertEquals(Integer.valueOf(DataBridgeController.MIN_THREADS), params.getMaxThreads());
+    }
+
+    @Test
+    public void testPlanLargeFiles()
+    {
+        DataBridgeTransferPlanner planner = new DataBridgeTransferPlanner(DataBridgeController.MIN_THREADS, 20);
+        S3FileTransferRequestParamsDto params = new S3FileTransferRequestParamsDto();
+
+        // The part size splits the transfer across all threads and the transfer starts with half of the maximum number of threads.
+        planner.plan(params, Arrays.asList(800 * MB, 800 * MB), true);
+        assertEquals(Long.valueOf(20 * MB), params.getMultipartUploadPartSize());
+        assertEquals(Integer.valueOf(10), params.getMaxThreads());
+
+        // The part size never exceeds the maximum part size, unless the largest file would need more than the maximum number of parts.
+        planner.plan(params, Collections.singletonList(100000 * MB), true);
+        assertEquals(Long.valueOf(DataBridgeTransferPlanner.MAX_PART_SIZE_BYTES), params.getMultipartUploadPartSize());
+        planner.plan(params, Collections.singletonList(10000000 * MB), true);
+        assertEquals(Long.valueOf(1000 * MB), params.getMultipartUploadPartSize());
+    }
+
+    @Test
+    public void testPlanNotAdjusted()
+    {
+        DataBridgeTransferPlanner planner = new DataBridgeTransferPlanner(DataBridgeController.MIN_THREADS, 20);
+        S3FileTransferRequestParamsDto params = new S3FileTransferRequestParamsDto();
+
+        // A transfer that is never adjusted starts with the maximum number of threads.
+        planner.plan(params, Arrays.asList(800 * MB, 800 * MB), false);
+        assertEquals(Long.valueOf(20 * MB), params.getMultipartUploadPartSize());
+        assertEquals(Integer.valueOf(20), params.getMaxThreads());
+
+        // It still uses no more threads than there are parts to transfer.
+        planner.plan(params, Arrays.asList(MB, MB, MB, MB), false);
+        assertEquals(Integer.valueOf(4), params.getMaxThreads());
+    }
+
+    @Test
+    public void testAdjust()
+    {
+        DataBridgeTransferPlanner planner = new DataBridgeTransferPlanner(DataBridgeController.MIN_THREADS, 20);
+        S3FileTransferRequestParamsDto params = new S3FileTransferRequestParamsDto();
+        planner.plan(params, Arrays.asList(800 * MB, 800 * MB), true);
+        assertEquals(10, planner.getThreads());
+
+        // The number of threads grows by half while the throughput keeps improving, up to the maximum.
+        planner.adjust(params, createResults(100 * MB, 0));
+        assertEquals(Integer.valueOf(15), params.getMaxThreads());
+        planner.adjust(params, createResults(150 * MB, 0));
+        assertEquals(Integer.valueOf(20), params.getMaxThreads());
+        planner.adjust(params, createResults(200 * MB, 0));
+        assertEquals(Integer.valueOf(20), params.getMaxThreads());
+
+        // Retries halve the number of threads.
+        planner.adjust(params, createResults(200 * MB, 3));
+        assertEquals(Integer.valueOf(10), params.getMaxThreads());
+
+        // After backing off, the number of threads grows one at a time while the throughput does not drop.
+        planner.adjust(params, createResults(100 * MB, 0));
+        assertEquals(Integer.valueOf(11), params.getMaxThreads());
+        planner.adjust(params, createResults(100 * MB, 0));
+        assertEquals(Integer.valueOf(12), params.getMaxThreads());
+        planner.adjust(params, createResults(90 * MB, 0));
+        assertEquals(Integer.valueOf(12), params.getMaxThreads());
+
+        // The number of threads never drops below the minimum.
+        for (int i = 0; i < 5; i++)
+        {
+            planner.adjust(params, createResults(10 * MB, 1));
+        }
+        assertEquals(Integer.valueOf(DataBridgeController.MIN_THREADS), params.getMaxThreads());
+    }
+
+    /**
+     * Creates the results of a batch that transferred the specified number of bytes in one second.
+     *
+     * @param bytes the number of bytes transferred
+     * @param retries the number of retries
+     *
+     * @return the S3 file transfer results
+     */
+    private S3FileTransferResultsDto createResults(long bytes, long retries)
+    {
+        S3FileTransferResultsDto results = new S3FileTransferResultsDto();
+        results.setTotalBytesTransferred(bytes);
+        results.setDurationMillis(1000L);
+        results.setTotalRetries(retries);
+        return results;
+    }
+}
@@ -40,6 +40,7 @@ public class UploaderApp extends DataBridgeApp
     private Option retryDelaySecsOpt;
     private Option createNewVersionOpt;
     private Option rrsOpt;
+    private Option checkpointFileOpt;
 
     // Integer values for command line options that are of type "Integer".
     private Integer maxRetryAttempts;
@@ -71,6 +72,9 @@ public class UploaderApp extends DataBridgeApp
             "The maximum number of the business object data registration retry attempts that uploader would perform before rolling back the upload.", false);
         retryDelaySecsOpt =
             argParser.addArgument("D", "retryDelaySecs", true, "The delay in seconds between the business object data registration retry attempts.", false);
+        checkpointFileOpt = argParser.addArgument("c", "checkpointFile", true,
+            "Local path to a checkpoint file that makes the upload resumable. If the upload fails, the uploaded files are kept and running the upload again " +
+                "with the same checkpoint file only uploads the remaining files.", false);
     }
 
     /**
@@ -143,7 +147,7 @@ public class UploaderApp extends DataBridgeApp
             DmRegServerAccessParamsDto.builder().dmRegServerHost(argParser.getStringValue(dmRegServerHostOpt)).dmRegServerPort(dmRegServerPort).useSsl(useSsl)
                 .username(argParser.getStringValue(usernameOpt)).password(argParser.getStringValue(passwordOpt)).build();
         controller.performUpload(dmRegServerAccessParamsDto, argParser.getFileValue(manifestPathOpt), params, argParser.getBooleanValue(createNewVersionOpt),
-            maxRetryAttempts, retryDelaySecs);
+            maxRetryAttempts, retryDelaySecs, argParser.getFileValue(checkpointFileOpt));
 
         // No exceptions were returned so return success.
         return ReturnValue.SUCCESS;
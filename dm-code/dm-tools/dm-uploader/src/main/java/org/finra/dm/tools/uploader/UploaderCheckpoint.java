@@ -0,0 +1,186 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.tools.uploader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A local checkpoint of a resumable upload. The checkpoint file starts with the S3 location the files are uploaded to, followed by one line per uploaded
+ * file holding the file size, the MD5 digest calculated during the upload and the S3 key separated by tab characters. The digests are recorded, so the files
+ * skipped when the upload is resumed don't need to be read again to register their digests. Lines are appended as soon as a batch of files is uploaded, so the checkpoint
+ * survives a failure at any point of the upload. Each batch is appended with a single synchronous write, and a trailing line left incomplete by a failure in
+ * the middle of a write is dropped when the checkpoint is loaded.
+ * <p/>
+ * The checkpoint works at the file level. The multipart upload IDs and part ETags of a file that was being uploaded are not recorded, so such a file is
+ * uploaded again from its first part when the upload is resumed.
+ */
+public class UploaderCheckpoint
+{
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final File checkpointFile;
+
+    private String s3Location;
+
+    /**
+     * The sizes of the uploaded files keyed by S3 key.
+     */
+    private final Map<String, Long> uploadedFileSizes = new HashMap<>();
+
+    /**
+     * The hex encoded MD5 digests of the uploaded files keyed by S3 key.
+     */
+    private final Map<String, String> uploadedFileMd5s = new HashMap<>();
+
+    /**
+     * Creates a checkpoint backed by the specified file and loads the contents of the file if it exists.
+     *
+     * @param checkpointFile the checkpoint file
+     *
+     * @throws IOException if the checkpoint file could not be read
+     * @throws IllegalArgumentException if the checkpoint file is not a valid checkpoint
+     */
+    public UploaderCheckpoint(File checkpointFile) throws IOException
+    {
+        this.checkpointFile = checkpointFile;
+
+        if (checkpointFile.isFile())
+        {
+            byte[] bytes = Files.readAllBytes(checkpointFile.toPath());
+
+            // A line is only complete once its line separator is written. Drop a trailing line that was torn by a failure in the middle of a write and
+            // truncate the file, so the next batch is not appended to the torn line.
+            int completeLength = bytes.length;
+            while (completeLength > 0 && bytes[completeLength - 1] != LINE_SEPARATOR.charAt(0))
+            {
+                completeLength--;
+            }
+            if (completeLength < bytes.length)
+            {
+                try (FileChannel fileChannel = FileChannel.open(checkpointFile.toPath(), StandardOpenOption.WRITE))
+                {
+                    fileChannel.truncate(completeLength);
+                }
+            }
+
+            try (BufferedReader reader = new BufferedReader(new StringReader(new String(bytes, 0, completeLength, StandardCharsets.UTF_8))))
+            {
+                s3Location = reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    String[] fields = line.split(FIELD_SEPARATOR, 3);
+                    if (fields.length != 3 || !fields[0].matches("\\d+") || !fields[1].matches("[0-9a-f]{32}"))
+                    {
+                        throw new IllegalArgumentException(String.format("Invalid line \"%s\" in checkpoint file \"%s\".", line, checkpointFile.getPath()));
+                    }
+                    uploadedFileSizes.put(fields[2], Long.parseLong(fields[0]));
+                    uploadedFileMd5s.put(fields[2], fields[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the S3 location recorded in the checkpoint.
+     *
+     * @return the S3 location or null if the checkpoint is empty
+     */
+    public String getS3Location()
+    {
+        return s3Location;
+    }
+
+    /**
+     * Gets the sizes of the files recorded as uploaded.
+     *
+     * @return the file sizes keyed by S3 key
+     */
+    public Map<String, Long> getUploadedFileSizes()
+    {
+        return uploadedFileSizes;
+    }
+
+    /**
+     * Gets the MD5 digests of the files recorded as uploaded.
+     *
+     * @return the hex encoded MD5 digests keyed by S3 key
+     */
+    public Map<String, String> getUploadedFileMd5s()
+    {
+        return uploadedFileMd5s;
+    }
+
+    /**
+     * Starts a new checkpoint for the specified S3 location, replacing any existing contents of the checkpoint file.
+     *
+     * @param s3Location the S3 location
+     *
+     * @throws IOException if the checkpoint file could not be written
+     */
+    public void start(String s3Location) throws IOException
+    {
+        this.s3Location = s3Location;
+        uploadedFileSizes.clear();
+        uploadedFileMd5s.clear();
+
+        Files.write(checkpointFile.toPath(), (s3Location + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+    }
+
+    /**
+     * Records the specified files as uploaded.
+     *
+     * @param fileSizes the sizes of the uploaded files keyed by S3 key
+     * @param fileMd5s the hex encoded MD5 digests of the uploaded files keyed by S3 key
+     *
+     * @throws IOException if the checkpoint file could not be written
+     */
+    public void addUploadedFiles(Map<String, Long> fileSizes, Map<String, String> fileMd5s) throws IOException
+    {
+        // Append the whole batch with a single write that is flushed to the device before returning, so a failure can only tear the last line.
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, Long> entry : fileSizes.entrySet())
+        {
+            lines.append(entry.getValue()).append(FIELD_SEPARATOR).append(fileMd5s.get(entry.getKey())).append(FIELD_SEPARATOR).append(entry.getKey())
+                .append(LINE_SEPARATOR);
+        }
+        Files.write(checkpointFile.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        uploadedFileSizes.putAll(fileSizes);
+        uploadedFileMd5s.putAll(fileMd5s);
+    }
+
+    /**
+     * Deletes the checkpoint file.
+     *
+     * @throws IOException if the checkpoint file could not be deleted
+     */
+    public void delete() throws IOException
+    {
+        Files.deleteIfExists(checkpointFile.toPath());
+    }
+}
@@ -20,8 +20,13 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.bind.JAXBException;
 
@@ -36,6 +41,7 @@ import org.finra.dm.core.helper.DmThreadHelper;
 import org.finra.dm.model.dto.DmRegServerAccessParamsDto;
 import org.finra.dm.model.dto.ManifestFile;
 import org.finra.dm.model.dto.S3FileTransferRequestParamsDto;
+import org.finra.dm.model.dto.S3FileTransferResultsDto;
 import org.finra.dm.model.dto.UploaderInputManifestDto;
 import org.finra.dm.model.jpa.StorageAttributeEntity;
 import org.finra.dm.model.jpa.StorageEntity;
@@ -43,6 +49,7 @@ import org.finra.dm.model.api.xml.S3KeyPrefixInformation;
 import org.finra.dm.model.api.xml.Storage;
 import org.finra.dm.model.api.xml.StorageFile;
 import org.finra.dm.tools.common.databridge.DataBridgeController;
+import org.finra.dm.tools.common.databridge.DataBridgeTransferPlanner;
 
 /**
  * Executes the UploaderApp workflow.
@@ -52,6 +59,17 @@ public class UploaderController extends DataBridgeController
 {
     private static final Logger LOGGER = Logger.getLogger(UploaderController.class);
 
+    /**
+     * The maximum number of files uploaded in a batch. After each batch, the uploaded files are recorded in the checkpoint and the number of threads is
+     * adapted to the observed throughput.
+     */
+    private static final int MAX_FILES_PER_BATCH = 1000;
+
+    /**
+     * The maximum number of bytes uploaded in a batch. A single file can exceed it.
+     */
+    private static final long MAX_BYTES_PER_BATCH = 1024L * 1024 * 1024;
+
     @Autowired
     private UploaderManifestReader manifestReader;
 
@@ -74,6 +92,8 @@ public class UploaderController extends DataBridgeController
      * @param createNewVersion if not set, only initial version of the business object data is allowed to be created
      * @param maxRetryAttempts the maximum number of the business object data registration retry attempts
      * @param retryDelaySecs the delay in seconds between the business object data registration retry attempts
+     * @param checkpointFile the optional local checkpoint file of a resumable upload. When specified, the uploaded files are recorded in the checkpoint file
+     * and kept in S3 if the upload fails, so running the upload again with the same checkpoint file only uploads the remaining files
      *
      * @throws InterruptedException if the upload thread was interrupted.
      * @throws JAXBException if a JAXB error was encountered.
@@ -83,7 +103,8 @@ public class UploaderController extends DataBridgeController
     @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST_OF_RETURN_VALUE",
         justification = "manifestReader.readJsonManifest will always return an UploaderInputManifestDto object.")
     public void performUpload(DmRegServerAccessParamsDto dmRegServerAccessParamsDto, File manifestPath, S3FileTransferRequestParamsDto params,
-        Boolean createNewVersion, Integer maxRetryAttempts, Integer retryDelaySecs) throws InterruptedException, JAXBException, IOException, URISyntaxException
+        Boolean createNewVersion, Integer maxRetryAttempts, Integer retryDelaySecs, File checkpointFile)
+        throws InterruptedException, JAXBException, IOException, URISyntaxException
     {
         boolean cleanUpS3KeyPrefixOnFailure = false;
 
@@ -114,30 +135,33 @@ public class UploaderController extends DataBridgeController
             // Get S3 managed bucket name.  Please note that since this value is required we pass a "true" flag.
             String s3BucketName = dmHelper.getStorageAttributeValueByName(StorageAttributeEntity.ATTRIBUTE_BUCKET_NAME, s3ManagedStorage, true);
 
-            // Special handling for the maxThreads command line option.
-            params.setMaxThreads(adjustIntegerValue(params.getMaxThreads(), MIN_THREADS, MAX_THREADS));
-
             // Populate several missing fields in the S3 file transfer request parameters DTO.
             params.setS3BucketName(s3BucketName);
             // Since the S3 key prefix represents a directory, we add a trailing '/' character to it.
             params.setS3KeyPrefix(s3KeyPrefixInformation.getS3KeyPrefix() + "/");
             params.setFiles(sourceFiles);
 
-            // Check if the destination S3 key prefix is empty.
-            // When listing S3 files, by default, we do not ignore 0 byte objects that represent S3 directories.
-            if (s3Service.listDirectory(params).isEmpty())
+            // The maxThreads command line option caps the number of threads chosen by the transfer planner.
+            DataBridgeTransferPlanner planner =
+                new DataBridgeTransferPlanner(MIN_THREADS, adjustIntegerValue(params.getMaxThreads(), MIN_THREADS, MAX_THREADS));
+
+            // Upload files, collecting the MD5 digests calculated while the files are uploaded.
+            Map<String, String> fileMd5s = new HashMap<>();
+            if (checkpointFile == null)
             {
+                validateS3KeyPrefixIsEmpty(params);
                 cleanUpS3KeyPrefixOnFailure = true;
+                uploadInBatches(params, sourceFiles, null, planner, fileMd5s);
+                params.setFiles(sourceFiles);
             }
             else
             {
-                throw new IllegalStateException(String
-                    .format("The destination S3 folder is not empty. S3 Bucket Name: \"%s\". S3 key prefix: \"%s\".", params.getS3BucketName(),
-                        params.getS3KeyPrefix()));
+                performResumableUpload(params, new UploaderCheckpoint(checkpointFile), planner, fileMd5s);
             }
+            LOGGER.info("S3 transfer metrics: " + s3Service.getTransferMetrics());
 
-            // Upload files.
-            s3Service.uploadFileList(params);
+            // Add the MD5 digests to the manifest files, so they get registered with the storage files.
+            setManifestFileMd5s(params, manifest.getManifestFiles(), sourceFiles, fileMd5s);
 
             // Get the list of files uploaded to S3 key prefix.
             if (LOGGER.isInfoEnabled())
@@ -155,6 +179,12 @@ public class UploaderController extends DataBridgeController
                 {
                     // Attempt to register data with the Data Management service.
                     uploaderWebClient.registerBusinessObjectData(manifest, params, s3ManagedStorage.getName(), createNewVersion);
+
+                    // The upload is complete, so it can no longer be resumed.
+                    if (checkpointFile != null)
+                    {
+                        new UploaderCheckpoint(checkpointFile).delete();
+                    }
                     return;
                 }
                 catch (Exception e)
@@ -194,11 +224,228 @@ public class UploaderController extends DataBridgeController
                         params.getS3BucketName()));
                 s3Service.deleteDirectoryIgnoreException(params);
             }
+            else if (checkpointFile != null)
+            {
+                LOGGER.info(
+                    String.format("Keeping the uploaded files. Run the upload again with checkpoint file \"%s\" to resume it.", checkpointFile.getPath()));
+            }
 
             throw e;
         }
     }
 
+    /**
+     * Validates that the destination S3 key prefix is empty.
+     *
+     * @param params the S3 file transfer request parameters
+     *
+     * @throws IllegalStateException if the destination S3 key prefix is not empty
+     */
+    private void validateS3KeyPrefixIsEmpty(S3FileTransferRequestParamsDto params)
+    {
+        // When listing S3 files, by default, we do not ignore 0 byte objects that represent S3 directories. Since we only need to know whether there is
+        // at least one object, we only request the first listing page.
+        if (s3Service.iterateDirectory(params, false).hasNext())
+        {
+            throw new IllegalStateException(String
+                .format("The destination S3 folder is not empty. S3 Bucket Name: \"%s\". S3 key prefix: \"%s\".", params.getS3BucketName(),
+                    params.getS3KeyPrefix()));
+        }
+    }
+
+    /**
+     * Uploads the files in batches, recording each batch in the checkpoint once it is uploaded. If the checkpoint was recorded for the same S3 location, the
+     * upload is resumed: the files recorded in the checkpoint that exist in S3 with the same size as the local file are not uploaded again, and their MD5
+     * digests are taken from the checkpoint. Since an S3
+     * object only becomes visible once its upload is complete, a partially uploaded file is always uploaded again from its first part. The multipart uploads
+     * left incomplete under the S3 key prefix by the failed run are aborted first, so their parts do not keep accruing storage.
+     *
+     * @param params the S3 file transfer request parameters with the files to upload
+     * @param checkpoint the checkpoint
+     * @param planner the transfer planner
+     * @param fileMd5s the map to add the MD5 digests of all the files to, keyed by S3 key
+     *
+     * @throws InterruptedException if the upload thread was interrupted
+     * @throws IOException if the checkpoint could not be written
+     */
+    private void performResumableUpload(S3FileTransferRequestParamsDto params, UploaderCheckpoint checkpoint, DataBridgeTransferPlanner planner,
+        Map<String, String> fileMd5s) throws InterruptedException, IOException
+    {
+        String s3Location = String.format("s3://%s/%s", params.getS3BucketName(), params.getS3KeyPrefix());
+
+        // Get the sizes of the files that are recorded in the checkpoint and verified to exist in S3.
+        Map<String, Long> verifiedFileSizes = new HashMap<>();
+        if (s3Location.equals(checkpoint.getS3Location()))
+        {
+            LOGGER.info(String.format("Resuming the upload to %s. %d file(s) are recorded as uploaded in the checkpoint.", s3Location,
+                checkpoint.getUploadedFileSizes().size()));
+
+            // The parts of the files that were being uploaded when the previous run failed are not reused, so abort their multipart uploads.
+            int abortedMultipartUploadsCount = s3Service.abortMultipartUploads(params, new Date());
+            LOGGER.info(String.format("Aborted %d incomplete multipart upload(s) with prefix \"%s\" in bucket \"%s\".", abortedMultipartUploadsCount,
+                params.getS3KeyPrefix(), params.getS3BucketName()));
+
+            Iterator<StorageFile> storageFiles = s3Service.iterateDirectory(params, false);
+            while (storageFiles.hasNext())
+            {
+                StorageFile storageFile = storageFiles.next();
+                Long uploadedFileSize = checkpoint.getUploadedFileSizes().get(storageFile.getFilePath());
+                if (uploadedFileSize != null && uploadedFileSize.equals(storageFile.getFileSizeBytes()))
+                {
+                    verifiedFileSizes.put(storageFile.getFilePath(), uploadedFileSize);
+                }
+            }
+        }
+        else
+        {
+            validateS3KeyPrefixIsEmpty(params);
+            checkpoint.start(s3Location);
+        }
+
+        List<File> sourceFiles = params.getFiles();
+        List<File> remainingFiles = new ArrayList<>();
+        for (File file : sourceFiles)
+        {
+            String s3Key = getS3Key(params, file);
+            if (Long.valueOf(file.length()).equals(verifiedFileSizes.get(s3Key)))
+            {
+                fileMd5s.put(s3Key, checkpoint.getUploadedFileMd5s().get(s3Key));
+            }
+            else
+            {
+                remainingFiles.add(file);
+            }
+        }
+        uploadInBatches(params, remainingFiles, checkpoint, planner, fileMd5s);
+
+        // Restore the complete list of files for the registration.
+        params.setFiles(sourceFiles);
+
+        LOGGER.info(String.format("Skipped %d out of %d file(s) that were already uploaded.", sourceFiles.size() - remainingFiles.size(), sourceFiles.size()));
+    }
+
+    /**
+     * Uploads the files in batches. The transfer is planned from the sizes of the files to upload. After each batch, the uploaded files are recorded in the
+     * checkpoint, if any, and the number of threads used for the next batch is adapted to the throughput of the batch. The files of the S3 file transfer
+     * request parameters are replaced by the files of the last batch.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param files the files to upload
+     * @param checkpoint the checkpoint or null if the upload is not resumable
+     * @param planner the transfer planner
+     * @param fileMd5s the map to add the MD5 digests of the uploaded files to, keyed by S3 key
+     *
+     * @throws InterruptedException if the upload thread was interrupted
+     * @throws IOException if the checkpoint could not be written
+     */
+    private void uploadInBatches(S3FileTransferRequestParamsDto params, List<File> files, UploaderCheckpoint checkpoint, DataBridgeTransferPlanner planner,
+        Map<String, String> fileMd5s) throws InterruptedException, IOException
+    {
+        // Split the files in batches.
+        List<List<File>> batches = new ArrayList<>();
+        List<Long> fileSizes = new ArrayList<>();
+        List<File> batchFiles = new ArrayList<>();
+        long batchBytes = 0;
+        for (File file : files)
+        {
+            batchFiles.add(file);
+            fileSizes.add(file.length());
+            batchBytes += file.length();
+
+            if (batchFiles.size() >= MAX_FILES_PER_BATCH || batchBytes >= MAX_BYTES_PER_BATCH)
+            {
+                batches.add(batchFiles);
+                batchFiles = new ArrayList<>();
+                batchBytes = 0;
+            }
+        }
+        if (!batchFiles.isEmpty())
+        {
+            batches.add(batchFiles);
+        }
+
+        // The number of threads is only adjusted between batches, so a single batch upload starts with the maximum number of threads.
+        planner.plan(params, fileSizes, batches.size() > 1);
+
+        for (List<File> batch : batches)
+        {
+            Map<String, Long> batchFileSizes = new LinkedHashMap<>();
+            for (File file : batch)
+            {
+                batchFileSizes.put(getS3Key(params, file), file.length());
+            }
+            uploadBatch(params, batch, batchFileSizes, checkpoint, planner, fileMd5s);
+        }
+    }
+
+    /**
+     * Uploads a batch of files, records them along with their MD5 digests in the checkpoint, if any, and adapts the number of threads to the results of the
+     * batch.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param batchFiles the files to upload
+     * @param batchFileSizes the sizes of the files to upload keyed by S3 key
+     * @param checkpoint the checkpoint or null if the upload is not resumable
+     * @param planner the transfer planner
+     * @param fileMd5s the map to add the MD5 digests of the uploaded files to, keyed by S3 key
+     *
+     * @throws InterruptedException if the upload thread was interrupted
+     * @throws IOException if the checkpoint could not be written
+     */
+    private void uploadBatch(S3FileTransferRequestParamsDto params, List<File> batchFiles, Map<String, Long> batchFileSizes, UploaderCheckpoint checkpoint,
+        DataBridgeTransferPlanner planner, Map<String, String> fileMd5s) throws InterruptedException, IOException
+    {
+        params.setFiles(batchFiles);
+        S3FileTransferResultsDto results = s3Service.uploadFileList(params);
+        fileMd5s.putAll(results.getMd5s());
+        if (checkpoint != null)
+        {
+            checkpoint.addUploadedFiles(batchFileSizes, results.getMd5s());
+        }
+        planner.adjust(params, results);
+    }
+
+    /**
+     * Sets the MD5 digests of the uploaded files on the manifest files. A digest specified in the manifest must match the digest of the uploaded file.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param manifestFiles the manifest files
+     * @param sourceFiles the uploaded files, in the order of the manifest files
+     * @param fileMd5s the MD5 digests of the uploaded files keyed by S3 key
+     *
+     * @throws IllegalArgumentException if a digest specified in the manifest does not match the digest of the uploaded file
+     */
+    private void setManifestFileMd5s(S3FileTransferRequestParamsDto params, List<ManifestFile> manifestFiles, List<File> sourceFiles,
+        Map<String, String> fileMd5s)
+    {
+        for (int i = 0; i < manifestFiles.size(); i++)
+        {
+            ManifestFile manifestFile = manifestFiles.get(i);
+            String md5 = fileMd5s.get(getS3Key(params, sourceFiles.get(i)));
+            if (manifestFile.getMd5() != null && !manifestFile.getMd5().equalsIgnoreCase(md5))
+            {
+                throw new IllegalArgumentException(String
+                    .format("MD5 digest of the uploaded \"%s\" file does not match the manifest (expected %s, actual %s).", sourceFiles.get(i).getPath(),
+                        manifestFile.getMd5(), md5));
+            }
+            manifestFile.setMd5(md5);
+        }
+    }
+
+    /**
+     * Gets the S3 key a local file is uploaded to, which is the S3 key prefix followed by the path of the file relative to the local path.
+     *
+     * @param params the S3 file transfer request parameters
+     * @param file the local file
+     *
+     * @return the S3 key
+     */
+    private String getS3Key(S3FileTransferRequestParamsDto params, File file)
+    {
+        String relativeFilePath = Paths.get(params.getLocalPath()).toAbsolutePath().relativize(file.toPath().toAbsolutePath()).toString();
+        return (params.getS3KeyPrefix() + relativeFilePath).replaceAll("\\\\", "/");
+    }
+
     /**
      * Returns the list of File objects created from the specified list of local files after they are validated for existence and read access.
      *
@@ -285,13 +532,17 @@ public class UploaderController extends DataBridgeController
      */
     protected void logS3KeyPrefixContents(S3FileTransferRequestParamsDto params)
     {
-        List<StorageFile> storageFiles = s3Service.listDirectory(params);
-        LOGGER
-            .info(String.format("Found %d keys with prefix \"%s\" in bucket \"%s\":", storageFiles.size(), params.getS3KeyPrefix(), params.getS3BucketName()));
+        LOGGER.info(String.format("Listing keys with prefix \"%s\" in bucket \"%s\":", params.getS3KeyPrefix(), params.getS3BucketName()));
 
-        for (StorageFile storageFile : storageFiles)
+        // Log the keys as the listing pages are retrieved, so we never hold more than a single page of storage files in memory.
+        int storageFileCount = 0;
+        Iterator<StorageFile> storageFiles = s3Service.iterateDirectory(params, false);
+        while (storageFiles.hasNext())
         {
-            LOGGER.info(String.format("    s3://%s/%s", params.getS3BucketName(), storageFile.getFilePath()));
+            LOGGER.info(String.format("    s3://%s/%s", params.getS3BucketName(), storageFiles.next().getFilePath()));
+            storageFileCount++;
         }
+
+        LOGGER.info(String.format("Found %d keys with prefix \"%s\" in bucket \"%s\".", storageFileCount, params.getS3KeyPrefix(), params.getS3BucketName()));
     }
 }
@@ -0,0 +1,138 @@
+/*
+* Copyright 2015 herd contributors
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package org.finra.dm.tools.uploader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for UploaderCheckpoint class.
+ */
+public class UploaderCheckpointTest
+{
+    private static final String S3_LOCATION = "s3://testBucket/testKeyPrefix/";
+
+    private static final String MD5_1 = "0f343b0931126a20f133d67c2b018a3b";
+
+    private static final String MD5_2 = "d41d8cd98f00b204e9800998ecf8427e";
+
+    private File checkpointFile;
+
+    @Before
+    public void createCheckpointFile() throws Exception
+    {
+        checkpointFile = File.createTempFile("dm-uploader-checkpoint", ".txt");
+        Files.delete(checkpointFile.toPath());
+    }
+
+    @After
+    public void deleteCheckpointFile() throws Exception
+    {
+        Files.deleteIfExists(checkpointFile.toPath());
+    }
+
+    @Test
+    public void testCheckpoint() throws Exception
+    {
+        // A checkpoint without a checkpoint file is empty.
+        UploaderCheckpoint checkpoint = new UploaderCheckpoint(checkpointFile);
+        assertNull(checkpoint.getS3Location());
+        assertTrue(checkpoint.getUploadedFileSizes().isEmpty());
+        assertTrue(checkpoint.getUploadedFileMd5s().isEmpty());
+
+        // Record two batches of uploaded files.
+        checkpoint.start(S3_LOCATION);
+        checkpoint.addUploadedFiles(Collections.singletonMap("testKeyPrefix/file1.dat", 1024L), Collections.singletonMap("testKeyPrefix/file1.dat", MD5_1));
+        checkpoint.addUploadedFiles(Collections.singletonMap("testKeyPrefix/folder/file 2.dat", 0L),
+            Collections.singletonMap("testKeyPrefix/folder/file 2.dat", MD5_2));
+
+        // Load the checkpoint from the checkpoint file.
+        UploaderCheckpoint loadedCheckpoint = new UploaderCheckpoint(checkpointFile);
+        assertEquals(S3_LOCATION, loadedCheckpoint.getS3Location());
+        assertEquals(2, loadedCheckpoint.getUploadedFileSizes().size());
+        assertEquals(Long.valueOf(1024L), loadedCheckpoint.getUploadedFileSizes().get("testKeyPrefix/file1.dat"));
+        assertEquals(Long.valueOf(0L), loadedCheckpoint.getUploadedFileSizes().get("testKeyPrefix/folder/file 2.dat"));
+        assertEquals(2, loadedCheckpoint.getUploadedFileMd5s().size());
+        assertEquals(MD5_1, loadedCheckpoint.getUploadedFileMd5s().get("testKeyPrefix/file1.dat"));
+        assertEquals(MD5_2, loadedCheckpoint.getUploadedFileMd5s().get("testKeyPrefix/folder/file 2.dat"));
+
+        // Starting the checkpoint again discards the uploaded files.
+        loadedCheckpoint.start(S3_LOCATION);
+        assertTrue(new UploaderCheckpoint(checkpointFile).getUploadedFileSizes().isEmpty());
+        assertTrue(new UploaderCheckpoint(checkpointFile).getUploadedFileMd5s().isEmpty());
+
+        loadedCheckpoint.delete();
+        assertFalse(checkpointFile.exists());
+    }
+
+    @Test
+    public void testCheckpointTornLastLine() throws Exception
+    {
+        // Simulate a failure in the middle of writing the second line of a batch.
+        Files.write(checkpointFile.toPath(), (S3_LOCATION + "\n1024\t" + MD5_1 + "\ttestKeyPrefix/file1.dat\n2048\t" + MD5_2.substring(0, 10))
+            .getBytes(StandardCharsets.UTF_8));
+
+        // The torn line is dropped.
+        UploaderCheckpoint checkpoint = new UploaderCheckpoint(checkpointFile);
+        assertEquals(S3_LOCATION, checkpoint.getS3Location());
+        assertEquals(1, checkpoint.getUploadedFileSizes().size());
+        assertEquals(Long.valueOf(1024L), checkpoint.getUploadedFileSizes().get("testKeyPrefix/file1.dat"));
+        assertEquals(MD5_1, checkpoint.getUploadedFileMd5s().get("testKeyPrefix/file1.dat"));
+
+        // The next batch is not appended to the torn line.
+        checkpoint.addUploadedFiles(Collections.singletonMap("testKeyPrefix/file2.dat", 2048L), Collections.singletonMap("testKeyPrefix/file2.dat", MD5_2));
+        assertEquals(2, new UploaderCheckpoint(checkpointFile).getUploadedFileSizes().size());
+
+        // A checkpoint file with a torn S3 location line is empty.
+        Files.write(checkpointFile.toPath(), S3_LOCATION.getBytes(StandardCharsets.UTF_8));
+        checkpoint = new UploaderCheckpoint(checkpointFile);
+        assertNull(checkpoint.getS3Location());
+        assertTrue(checkpoint.getUploadedFileSizes().isEmpty());
+    }
+
+    @Test
+    public void testCheckpointInvalidLine() throws Exception
+    {
+        for (String line : Arrays.asList("INVALID_SIZE\t" + MD5_1 + "\ttestKeyPrefix/file1.dat", "1024\tINVALID_MD5\ttestKeyPrefix/file1.dat",
+            "1024\ttestKeyPrefix/file1.dat"))
+        {
+            Files.write(checkpointFile.toPath(), Arrays.asList(S3_LOCATION, line), StandardCharsets.UTF_8);
+
+            try
+            {
+                new UploaderCheckpoint(checkpointFile);
+                fail("Should throw an IllegalArgumentException when the checkpoint file contains an invalid line.");
+            }
+            catch (IllegalArgumentException e)
+            {
+                assertTrue(e.getMessage().startsWith("Invalid line \"" + line + "\""));
+            }
+        }
+    }
+}
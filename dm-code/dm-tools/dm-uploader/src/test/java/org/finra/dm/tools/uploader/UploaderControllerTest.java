@@ -15,17 +15,21 @@
 */
 package org.finra.dm.tools.uploader;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
@@ -159,7 +163,8 @@ public class UploaderControllerTest extends AbstractUploaderTest
         try
         {
             uploaderController
-                .performUpload(dmRegServerAccessParamsDto, manifestFile, s3FileTransferRequestParamsDto, false, TEST_RETRY_ATTEMPTS, TEST_RETRY_DELAY_SECS);
+                .performUpload(dmRegServerAccessParamsDto, manifestFile, s3FileTransferRequestParamsDto, false, TEST_RETRY_ATTEMPTS, TEST_RETRY_DELAY_SECS,
+                    null);
             fail("Should throw an IllegalArgumentException when local directory does not exist.");
         }
         catch (IllegalArgumentException e)
@@ -191,7 +196,7 @@ public class UploaderControllerTest extends AbstractUploaderTest
             DmRegServerAccessParamsDto.builder().dmRegServerHost(WEB_SERVICE_HOSTNAME).dmRegServerPort(WEB_SERVICE_HTTPS_PORT).useSsl(true)
                 .username(WEB_SERVICE_HTTPS_USERNAME).password(WEB_SERVICE_HTTPS_PASSWORD).build();
         uploaderController.performUpload(dmRegServerAccessParamsDto, manifestFile, getTestS3FileTransferRequestParamsDto(), Boolean.FALSE, TEST_RETRY_ATTEMPTS,
-            TEST_RETRY_DELAY_SECS);
+            TEST_RETRY_DELAY_SECS, null);
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -218,7 +223,7 @@ public class UploaderControllerTest extends AbstractUploaderTest
             DmRegServerAccessParamsDto.builder().dmRegServerHost(WEB_SERVICE_HOSTNAME).dmRegServerPort(WEB_SERVICE_HTTPS_PORT).useSsl(true)
                 .username(WEB_SERVICE_HTTPS_USERNAME).password(WEB_SERVICE_HTTPS_PASSWORD).build();
         uploaderController.performUpload(dmRegServerAccessParamsDto, manifestFile, getTestS3FileTransferRequestParamsDto(), Boolean.FALSE, TEST_RETRY_ATTEMPTS,
-            TEST_RETRY_DELAY_SECS);
+            TEST_RETRY_DELAY_SECS, null);
     }
 
     @Test
@@ -238,6 +243,60 @@ public class UploaderControllerTest extends AbstractUploaderTest
         }
     }
 
+    @Test
+    public void testPerformUploadResumable() throws Exception
+    {
+        // Upload and register business object data parents.
+        uploadAndRegisterTestDataParents(uploaderWebClient);
+
+        File checkpointFile = Paths.get(LOCAL_TEMP_PATH_INPUT.toString(), "checkpoint.txt").toFile();
+        runUpload(UploaderController.MIN_THREADS, null, Boolean.FALSE, null, checkpointFile);
+
+        // The checkpoint file is deleted once the upload is registered.
+        assertFalse(checkpointFile.exists());
+    }
+
+    @Test
+    public void testPerformUploadResumeFromCheckpoint() throws Exception
+    {
+        // Upload and register business object data parents.
+        uploadAndRegisterTestDataParents(uploaderWebClient);
+
+        // Upload the test data files to S3 as if a previous upload failed after uploading them.
+        uploadTestDataFilesToS3(S3_TEST_PATH_V0);
+
+        // Create a checkpoint that records the first file as uploaded along with its MD5 digest.
+        String s3KeyPrefix = S3_TEST_PATH_V0 + "/";
+        String md5 = DigestUtils.md5Hex(Files.readAllBytes(Paths.get(LOCAL_TEMP_PATH_INPUT.toString(), testManifestFiles.get(0).getFileName())));
+        File checkpointFile = Paths.get(LOCAL_TEMP_PATH_INPUT.toString(), "checkpoint.txt").toFile();
+        Files.write(checkpointFile.toPath(), Arrays.asList("s3://" + S3_BUCKET_NAME + "/" + s3KeyPrefix,
+            FILE_SIZE_1_KB + "\t" + md5 + "\t" + s3KeyPrefix + testManifestFiles.get(0).getFileName().replaceAll("\\\\", "/")), StandardCharsets.UTF_8);
+
+        // The destination S3 folder is not empty, but the upload resumes since the checkpoint is for the same S3 location.
+        runUpload(UploaderController.MIN_THREADS, null, Boolean.FALSE, null, checkpointFile);
+
+        assertFalse(checkpointFile.exists());
+    }
+
+    @Test
+    public void testPerformUploadResumableTargetS3FolderIsNotEmpty() throws Exception
+    {
+        // Upload test data files to S3 test path.
+        uploadTestDataFilesToS3(S3_TEST_PATH_V0);
+
+        // Try to run a resumable upload without a checkpoint.
+        File checkpointFile = Paths.get(LOCAL_TEMP_PATH_INPUT.toString(), "checkpoint.txt").toFile();
+        try
+        {
+            runUpload(UploaderController.MIN_THREADS, null, Boolean.FALSE, null, checkpointFile);
+            fail("Should throw an IllegalStateException when the destination S3 folder is not empty.");
+        }
+        catch (IllegalStateException e)
+        {
+            assertTrue(e.getMessage().startsWith("The destination S3 folder is not empty."));
+        }
+    }
+
     /**
      * TODO: We need the DM web service mocking done and this test case rewritten, so it would fail right at the end of performUpload() method (on the business
      * object data registration step) and triggered the rollbackUpload() to occur.
@@ -270,8 +329,10 @@ public class UploaderControllerTest extends AbstractUploaderTest
      * @param attributes the attributes to be associated with the test data being uploaded
      * @param createNewVersion if not set, only initial version of the business object data is allowed to be created
      * @param hostname optional override of the default web service hostname.
+     * @param checkpointFile the optional checkpoint file of a resumable upload
      */
-    protected void runUpload(Integer numOfThreads, HashMap<String, String> attributes, Boolean createNewVersion, String hostname) throws Exception
+    protected void runUpload(Integer numOfThreads, HashMap<String, String> attributes, Boolean createNewVersion, String hostname, File checkpointFile)
+        throws Exception
     {
         String hostnameToUse = hostname == null ? WEB_SERVICE_HOSTNAME : hostname;
 
@@ -295,7 +356,20 @@ public class UploaderControllerTest extends AbstractUploaderTest
             DmRegServerAccessParamsDto.builder().dmRegServerHost(hostnameToUse).dmRegServerPort(WEB_SERVICE_HTTPS_PORT).useSsl(true)
                 .username(WEB_SERVICE_HTTPS_USERNAME).password(WEB_SERVICE_HTTPS_PASSWORD).build();
         uploaderController.performUpload(dmRegServerAccessParamsDto, manifestFile, s3FileTransferRequestParamsDto, createNewVersion, TEST_RETRY_ATTEMPTS,
-            TEST_RETRY_DELAY_SECS);
+            TEST_RETRY_DELAY_SECS, checkpointFile);
+    }
+
+    /**
+     * Runs a normal upload scenario.
+     *
+     * @param numOfThreads the maximum number of threads to use for file transfer to S3
+     * @param attributes the attributes to be associated with the test data being uploaded
+     * @param createNewVersion if not set, only initial version of the business object data is allowed to be created
+     * @param hostname optional override of the default web service hostname.
+     */
+    protected void runUpload(Integer numOfThreads, HashMap<String, String> attributes, Boolean createNewVersion, String hostname) throws Exception
+    {
+        runUpload(numOfThreads, attributes, createNewVersion, hostname, null);
     }
 
     /**